@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.novaordis.events.cli;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.novaordis.events.api.event.Event;
+import io.novaordis.events.cli.benchmarks.NullOutputStream;
+import io.novaordis.events.cli.benchmarks.SyntheticInput;
+import io.novaordis.events.cli.benchmarks.SyntheticParser;
+import io.novaordis.events.processing.EventProcessingException;
+import io.novaordis.events.processing.Procedure;
+import io.novaordis.events.query.Query;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * EventParserRuntime.processBatch() throughput, in events per second: query filtering and procedure invocation, with
+ * a procedure that consumes the events into a Blackhole. Lives in the runtime package because processBatch() is
+ * package protected.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProcessBatchBenchmark {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    public static final int EVENTS = 10_000;
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    @Param({ "1", "256" })
+    public int batchSize;
+
+    @Param({ "1.0", "0.1" })
+    public double selectivity;
+
+    private List<List<Event>> batches;
+    private Query query;
+    private BlackholeProcedure procedure;
+    private EventParserRuntime runtime;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    @Setup
+    public void setUp(Blackhole blackhole) throws Exception {
+
+        String[] lines = new String(
+                SyntheticInput.text(EVENTS, 80, 1, selectivity, 0d, SyntheticInput.DEFAULT_SEED),
+                StandardCharsets.UTF_8).split("\n");
+
+        SyntheticParser parser = new SyntheticParser();
+
+        batches = new ArrayList<>();
+        List<Event> batch = new ArrayList<>(batchSize);
+
+        for(String line: lines) {
+
+            batch.addAll(parser.parse(line, null));
+
+            if (batch.size() >= batchSize) {
+
+                batches.add(Collections.unmodifiableList(batch));
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+
+        if (!batch.isEmpty()) {
+
+            batches.add(Collections.unmodifiableList(batch));
+        }
+
+        query = selectivity < 1d ? Query.fromArguments(Arrays.asList(SyntheticInput.SELECTING_QUERY), 0) : null;
+
+        procedure = new BlackholeProcedure(blackhole);
+
+        ConfigurationImpl configuration = new ConfigurationImpl(
+                new String[] { RuntimeOptions.OUTPUT_BUFFER_SIZE, "256k" }, null,
+                new ByteArrayInputStream(new byte[0]), new NullOutputStream());
+
+        runtime = new EventParserRuntime(configuration, "benchmark");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public void processBatch() {
+
+        for(List<Event> batch: batches) {
+
+            runtime.processBatch(batch, query, procedure);
+        }
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+    private static class BlackholeProcedure implements Procedure {
+
+        private final Blackhole blackhole;
+        private long invocationCount;
+
+        BlackholeProcedure(Blackhole blackhole) {
+
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public List<String> getCommandLineLabels() {
+
+            return Collections.singletonList("blackhole");
+        }
+
+        @Override
+        public void process(Event e) throws EventProcessingException {
+
+            invocationCount ++;
+            blackhole.consume(e);
+        }
+
+        @Override
+        public void process(List<Event> events) throws EventProcessingException {
+
+            for(Event e: events) {
+
+                process(e);
+            }
+        }
+
+        @Override
+        public long getInvocationCount() {
+
+            return invocationCount;
+        }
+
+        @Override
+        public boolean isExitLoop() {
+
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.novaordis.events.cli.DaemonClient;
+import io.novaordis.events.cli.EventParserDaemon;
+import io.novaordis.utilities.appspec.ApplicationSpecificBehavior;
+
+/**
+ * Measures the round trip of a short request served by an EventParserDaemon: the time from launching the client to
+ * its exit, with a one-line input file. The daemon runs in this VM, with the SyntheticParser, and is warmed up before
+ * the measurements. The scenarios:
+ *
+ * "in-process" - DaemonClient.run() called from this VM: the cost of the protocol and of the request itself, a floor
+ * no client can go below.
+ *
+ * "jvm-client" - DaemonClient started in a fresh VM: what a client written in Java pays.
+ *
+ * "native-client" - the DaemonClient native executable built by the "native" profile, if --native-client is given.
+ *
+ * "standalone" - StartupMain in a fresh VM, without the daemon: the cost the daemon is meant to remove.
+ *
+ * The median and minimum round trip of each scenario are reported and written as JSON results.
+ *
+ * java -cp target/benchmarks.jar io.novaordis.events.cli.benchmarks.DaemonRoundTrip \
+ *     [--native-client target/events-cli-client] [--work-dir target/daemon] [--repeat 20] [--results file.json]
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class DaemonRoundTrip {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    public static final String DEFAULT_WORK_DIR = "target/daemon";
+    public static final int DEFAULT_REPEAT = 20;
+    public static final int WARMUP_REQUESTS = 200;
+
+    public static final String IN_PROCESS = "in-process";
+    public static final String JVM_CLIENT = "jvm-client";
+    public static final String NATIVE_CLIENT = "native-client";
+    public static final String STANDALONE = "standalone";
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    public static void main(String[] args) throws Exception {
+
+        DaemonRoundTrip benchmark = new DaemonRoundTrip();
+
+        File results = null;
+
+        for(int i = 0; i < args.length; i ++) {
+
+            String option = args[i];
+
+            if (i == args.length - 1) {
+
+                throw new IllegalArgumentException("missing value for " + option);
+            }
+
+            String value = args[++ i];
+
+            switch (option) {
+
+                case "--native-client":
+                    benchmark.nativeClient = new File(value);
+                    break;
+                case "--work-dir":
+                    benchmark.workDir = new File(value);
+                    break;
+                case "--repeat":
+                    benchmark.repeat = Integer.parseInt(value);
+                    break;
+                case "--results":
+                    results = new File(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option " + option);
+            }
+        }
+
+        if (benchmark.nativeClient != null && !benchmark.nativeClient.canExecute()) {
+
+            throw new IllegalArgumentException(
+                    benchmark.nativeClient + " is not executable, build it with: mvn -Pnative package");
+        }
+
+        if (results == null) {
+
+            results = new File(benchmark.workDir, "daemon-results.json");
+        }
+
+        Results r = benchmark.run();
+        r.write(results);
+
+        for(String line: benchmark.report(r)) {
+
+            System.out.println(line);
+        }
+
+        System.out.println("results written to " + results);
+    }
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private File nativeClient;
+    private File workDir;
+    private int repeat;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    public DaemonRoundTrip() {
+
+        this.workDir = new File(DEFAULT_WORK_DIR);
+        this.repeat = DEFAULT_REPEAT;
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * @return the round trip metrics, one scenario per client.
+     */
+    public Results run() throws Exception {
+
+        if (!workDir.isDirectory() && !workDir.mkdirs()) {
+
+            throw new IOException("failed to create " + workDir);
+        }
+
+        File input = new File(workDir, "round-trip-input.log");
+
+        try(OutputStream os = new FileOutputStream(input)) {
+
+            os.write(SyntheticInput.text(1, 80, 1, 1d, 0d, SyntheticInput.DEFAULT_SEED));
+        }
+
+        File daemonFile = new File(workDir, "round-trip.daemon");
+
+        Results results = new Results();
+
+        results.putMetadata("timestamp", new Date().toString());
+        results.putMetadata("javaVersion", System.getProperty("java.version"));
+        results.putMetadata("javaVm", System.getProperty("java.vm.name"));
+        results.putMetadata("os", System.getProperty("os.name") + " " + System.getProperty("os.arch"));
+        results.putMetadata("repeat", Integer.toString(repeat));
+
+        if (nativeClient != null) {
+
+            results.putMetadata("nativeClient", nativeClient.getAbsolutePath());
+        }
+
+        EventParserDaemon daemon = new EventParserDaemon(
+                "round-trip", () -> new ApplicationSpecificBehavior(new SyntheticParser()), daemonFile, 2);
+
+        daemon.start();
+
+        try {
+
+            String[] arguments = new String[] { input.getAbsolutePath() };
+
+            byte[] expected = inProcess(daemonFile, arguments);
+
+            for(int i = 0; i < WARMUP_REQUESTS; i ++) {
+
+                inProcess(daemonFile, arguments);
+            }
+
+            Map<String, List<Double>> samples = new LinkedHashMap<>();
+
+            for(int i = 0; i < repeat; i ++) {
+
+                long start = System.nanoTime();
+                inProcess(daemonFile, arguments);
+                sample(samples, IN_PROCESS, (System.nanoTime() - start) / 1000000d);
+
+                List<String> command = new ArrayList<>();
+                command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+                command.add("-cp");
+                command.add(System.getProperty("java.class.path"));
+                command.add(DaemonClient.class.getName());
+                command.add(daemonFile.getAbsolutePath());
+                command.addAll(Arrays.asList(arguments));
+
+                sample(samples, JVM_CLIENT, execute(command, expected));
+
+                if (nativeClient != null) {
+
+                    command = new ArrayList<>();
+                    command.add(nativeClient.getAbsolutePath());
+                    command.add(daemonFile.getAbsolutePath());
+                    command.addAll(Arrays.asList(arguments));
+
+                    sample(samples, NATIVE_CLIENT, execute(command, expected));
+                }
+
+                command = new ArrayList<>();
+                command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+                command.add("-cp");
+                command.add(System.getProperty("java.class.path"));
+                command.add(StartupMain.class.getName());
+                command.addAll(Arrays.asList(arguments));
+
+                sample(samples, STANDALONE, execute(command, expected));
+            }
+
+            for(Map.Entry<String, List<Double>> s: samples.entrySet()) {
+
+                results.put(s.getKey(), "roundTripMs", EndToEndSuite.median(s.getValue()));
+                results.put(s.getKey(), "minRoundTripMs", Collections.min(s.getValue()));
+            }
+        }
+        finally {
+
+            daemon.close();
+        }
+
+        return results;
+    }
+
+    /**
+     * @return the report, one line per scenario.
+     */
+    public List<String> report(Results results) {
+
+        List<String> report = new ArrayList<>();
+
+        report.add(String.format("%-16s %16s %16s", "scenario", "median (ms)", "min (ms)"));
+
+        for(String scenario: Arrays.asList(IN_PROCESS, NATIVE_CLIENT, JVM_CLIENT, STANDALONE)) {
+
+            Map<String, Double> m = results.getMetrics(scenario);
+
+            if (m == null) {
+
+                continue;
+            }
+
+            report.add(String.format(
+                    "%-16s %16.2f %16.2f", scenario, m.get("roundTripMs"), m.get("minRoundTripMs")));
+        }
+
+        return report;
+    }
+
+    @Override
+    public String toString() {
+
+        return "DaemonRoundTrip[" + (nativeClient == null ? "no native client" : nativeClient) + "]";
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    private static byte[] inProcess(File daemonFile, String[] arguments) throws IOException {
+
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+
+        int exitCode = DaemonClient.run(
+                daemonFile, arguments, new ByteArrayInputStream(new byte[0]), stdout, new ByteArrayOutputStream());
+
+        if (exitCode != 0) {
+
+            throw new IllegalStateException("in-process request failed with exit code " + exitCode);
+        }
+
+        return stdout.toByteArray();
+    }
+
+    /**
+     * @return the wall time, in milliseconds.
+     *
+     * @exception IllegalStateException if the process fails, or its output is not the expected one.
+     */
+    private static double execute(List<String> command, byte[] expectedOutput) throws Exception {
+
+        NativeImageComparison.Execution e = NativeImageComparison.execute(command, null);
+
+        if (e.exitCode != 0) {
+
+            throw new IllegalStateException("failed with exit code " + e.exitCode + ": " + command);
+        }
+
+        if (!Arrays.equals(expectedOutput, e.stdout)) {
+
+            throw new IllegalStateException("unexpected output: " + command);
+        }
+
+        return e.wallMillis;
+    }
+
+    private static void sample(Map<String, List<Double>> samples, String scenario, double millis) {
+
+        samples.computeIfAbsent(scenario, k -> new ArrayList<>()).add(millis);
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
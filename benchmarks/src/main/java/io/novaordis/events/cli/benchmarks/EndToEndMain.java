@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.novaordis.events.cli.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import io.novaordis.events.cli.ConfigurationImpl;
+import io.novaordis.events.cli.EventParserRuntime;
+
+/**
+ * The process launched by EndToEndSuite for each run: an events-cli application that parses its input with the
+ * SyntheticParser, followed by a measurement of its own resource usage. The metrics are written as a JSON results
+ * file, under the "run" scenario, to the file named by the METRICS_FILE system property.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class EndToEndMain {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    public static final String METRICS_FILE = "events.cli.e2e.metrics";
+    public static final String FORMAT = "events.cli.e2e.format";
+
+    public static final String SCENARIO = "run";
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    private static final AtomicLong maxGcPauseMillis = new AtomicLong(0L);
+
+    public static void main(String[] args) throws Exception {
+
+        installGcPauseListener();
+
+        LogGenerator.Format format = LogGenerator.Format.valueOf(System.getProperty(FORMAT, "SPACE"));
+
+        ConfigurationImpl configuration = new ConfigurationImpl(args, null);
+        configuration.setParser(new SyntheticParser(format));
+
+        EventParserRuntime runtime = new EventParserRuntime(configuration, "e2e");
+        runtime.run();
+
+        Results results = new Results();
+
+        results.put(SCENARIO, "cpuMs", getProcessCpuMillis());
+        results.put(SCENARIO, "peakRssKb", getPeakRssKb());
+
+        long gcCount = 0L;
+        long gcMillis = 0L;
+
+        for(GarbageCollectorMXBean gc: ManagementFactory.getGarbageCollectorMXBeans()) {
+
+            gcCount += Math.max(0L, gc.getCollectionCount());
+            gcMillis += Math.max(0L, gc.getCollectionTime());
+        }
+
+        results.put(SCENARIO, "gcCount", gcCount);
+        results.put(SCENARIO, "gcTimeMs", gcMillis);
+        results.put(SCENARIO, "maxGcPauseMs", maxGcPauseMillis.get());
+        results.put(SCENARIO, "lines", runtime.getLinesRead());
+        results.put(SCENARIO, "events", runtime.getProcessedEventsCount());
+        results.put(SCENARIO, "parsingFailures", runtime.getParsingFailureCount());
+
+        results.write(new File(System.getProperty(METRICS_FILE)));
+    }
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    private EndToEndMain() {
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    /**
+     * Tracks the longest stop-the-world collection. The collections performed concurrently with the application are
+     * not pauses, and they are ignored.
+     */
+    private static void installGcPauseListener() {
+
+        for(GarbageCollectorMXBean gc: ManagementFactory.getGarbageCollectorMXBeans()) {
+
+            if (!(gc instanceof NotificationEmitter)) {
+
+                continue;
+            }
+
+            ((NotificationEmitter)gc).addNotificationListener((notification, handback) -> {
+
+                if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+
+                    return;
+                }
+
+                GarbageCollectionNotificationInfo info =
+                        GarbageCollectionNotificationInfo.from((CompositeData)notification.getUserData());
+
+                if (info.getGcName().contains("Concurrent") || "end of GC cycle".equals(info.getGcAction())) {
+
+                    return;
+                }
+
+                long duration = info.getGcInfo().getDuration();
+                maxGcPauseMillis.accumulateAndGet(duration, Math::max);
+
+            }, null, null);
+        }
+    }
+
+    /**
+     * @return the CPU time used by all the process threads, or -1 if not available.
+     */
+    private static double getProcessCpuMillis() {
+
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+
+            return ((com.sun.management.OperatingSystemMXBean)os).getProcessCpuTime() / 1000000d;
+        }
+
+        return -1d;
+    }
+
+    /**
+     * @return the peak resident set size, from /proc/self/status, or -1 if not available (not on Linux).
+     */
+    static double getPeakRssKb() {
+
+        File status = new File("/proc/self/status");
+
+        if (!status.isFile()) {
+
+            return -1d;
+        }
+
+        try(BufferedReader br = new BufferedReader(new FileReader(status))) {
+
+            String line;
+
+            while((line = br.readLine()) != null) {
+
+                if (line.startsWith("VmHWM:")) {
+
+                    return Double.parseDouble(line.substring("VmHWM:".length()).replace("kB", "").trim());
+                }
+            }
+        }
+        catch(IOException | NumberFormatException e) {
+
+            //
+            // not available
+            //
+        }
+
+        return -1d;
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
@@ -0,0 +1,468 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.novaordis.events.cli.benchmarks;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import io.novaordis.events.cli.RuntimeOptions;
+
+/**
+ * End-to-end throughput regression suite. Generates large synthetic logs with LogGenerator, runs the full runtime on
+ * them, from command line arguments, in a fresh VM (EndToEndMain), and records for each scenario the wall time, the
+ * CPU time, the peak RSS and the GC activity, as the median over a number of runs. The results are written as JSON
+ * and, if a baseline is given, compared against it. Metrics worse than the baseline by more than the threshold are
+ * reported as regressions, and the suite exits with 1.
+ *
+ * Runs offline, on one Linux box (the peak RSS is read from /proc). The generated logs are kept in the work directory
+ * and reused by subsequent runs with the same size and seed.
+ *
+ * java -cp target/benchmarks.jar io.novaordis.events.cli.benchmarks.EndToEndSuite \
+ *     [--work-dir target/e2e] [--size 2g] [--seed n] [--repeat 3] [--scenarios plain,query,...] \
+ *     [--jvm-args "-Xms1g -Xmx1g"] [--results file.json] [--baseline baseline.json] [--threshold 0.1]
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class EndToEndSuite {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    public static final String DEFAULT_WORK_DIR = "target/e2e";
+    public static final long DEFAULT_SIZE = 2L * 1024 * 1024 * 1024;
+    public static final int DEFAULT_REPEAT = 3;
+    public static final String DEFAULT_JVM_ARGS = "-Xms1g -Xmx1g";
+    public static final double DEFAULT_THRESHOLD = 0.1d;
+
+    //
+    // the metrics for which a higher value is a regression
+    //
+    public static final List<String> COMPARED_METRICS = Collections.unmodifiableList(
+            Arrays.asList("wallMs", "cpuMs", "peakRssKb", "gcTimeMs", "maxGcPauseMs"));
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    public static void main(String[] args) throws Exception {
+
+        EndToEndSuite suite = new EndToEndSuite();
+
+        File results = null;
+        File baseline = null;
+        double threshold = DEFAULT_THRESHOLD;
+        List<String> selected = null;
+
+        for(int i = 0; i < args.length; i ++) {
+
+            String option = args[i];
+
+            if (i == args.length - 1) {
+
+                throw new IllegalArgumentException("missing value for " + option);
+            }
+
+            String value = args[++ i];
+
+            switch (option) {
+
+                case "--work-dir":
+                    suite.workDir = new File(value);
+                    break;
+                case "--size":
+                    suite.size = parseSize(value);
+                    break;
+                case "--seed":
+                    suite.seed = Long.parseLong(value);
+                    break;
+                case "--repeat":
+                    suite.repeat = Integer.parseInt(value);
+                    break;
+                case "--jvm-args":
+                    suite.jvmArgs = value.trim().isEmpty() ?
+                            Collections.emptyList() : Arrays.asList(value.trim().split("\\s+"));
+                    break;
+                case "--scenarios":
+                    selected = Arrays.asList(value.split(","));
+                    break;
+                case "--results":
+                    results = new File(value);
+                    break;
+                case "--baseline":
+                    baseline = new File(value);
+                    break;
+                case "--threshold":
+                    threshold = Double.parseDouble(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option " + option);
+            }
+        }
+
+        if (results == null) {
+
+            results = new File(suite.workDir, "results.json");
+        }
+
+        Results current = suite.run(selected);
+        current.write(results);
+        System.out.println("results written to " + results);
+
+        if (baseline != null) {
+
+            List<String> report = new ArrayList<>();
+            int regressions = compare(Results.read(baseline), current, threshold, report);
+
+            for(String line: report) {
+
+                System.out.println(line);
+            }
+
+            if (regressions > 0) {
+
+                System.out.println(regressions + " regression(s) above " + (threshold * 100) + "%");
+                System.exit(1);
+            }
+
+            System.out.println("no regressions above " + (threshold * 100) + "%");
+        }
+    }
+
+    /**
+     * Compares the metrics in COMPARED_METRICS, for the scenarios present in both results.
+     *
+     * @param report receives the comparison report, one line per compared metric.
+     *
+     * @return the number of metrics that are worse than the baseline by more than the threshold, relative to the
+     * baseline.
+     */
+    public static int compare(Results baseline, Results current, double threshold, List<String> report) {
+
+        int regressions = 0;
+
+        report.add(String.format("%-20s %-14s %14s %14s %9s", "scenario", "metric", "baseline", "current", "change"));
+
+        for(Map.Entry<String, Map<String, Double>> s: current.getScenarios().entrySet()) {
+
+            Map<String, Double> base = baseline.getMetrics(s.getKey());
+
+            if (base == null) {
+
+                report.add(String.format("%-20s not in baseline", s.getKey()));
+                continue;
+            }
+
+            for(String metric: COMPARED_METRICS) {
+
+                Double b = base.get(metric);
+                Double c = s.getValue().get(metric);
+
+                if (b == null || c == null || b <= 0d || c < 0d) {
+
+                    continue;
+                }
+
+                double change = (c - b) / b;
+                boolean regression = change > threshold;
+
+                if (regression) {
+
+                    regressions ++;
+                }
+
+                report.add(String.format("%-20s %-14s %14.1f %14.1f %+8.1f%%%s",
+                        s.getKey(), metric, b, c, change * 100, regression ? "  REGRESSION" : ""));
+            }
+        }
+
+        return regressions;
+    }
+
+    /**
+     * @param s a number of bytes, optionally followed by k, m or g.
+     */
+    static long parseSize(String s) {
+
+        String n = s.trim().toLowerCase();
+        long multiplier = 1L;
+
+        if (n.endsWith("k")) {
+
+            multiplier = 1024L;
+        }
+        else if (n.endsWith("m")) {
+
+            multiplier = 1024L * 1024;
+        }
+        else if (n.endsWith("g")) {
+
+            multiplier = 1024L * 1024 * 1024;
+        }
+
+        if (multiplier != 1L) {
+
+            n = n.substring(0, n.length() - 1);
+        }
+
+        return Long.parseLong(n) * multiplier;
+    }
+
+    /**
+     * @return the middle value, or the mean of the two middle values.
+     */
+    static double median(List<Double> values) {
+
+        List<Double> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+
+        int n = sorted.size();
+
+        return n % 2 == 1 ? sorted.get(n / 2) : (sorted.get(n / 2 - 1) + sorted.get(n / 2)) / 2d;
+    }
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private final Map<String, Scenario> scenarios;
+
+    private File workDir;
+    private long size;
+    private long seed;
+    private int repeat;
+    private List<String> jvmArgs;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    public EndToEndSuite() {
+
+        this.workDir = new File(DEFAULT_WORK_DIR);
+        this.size = DEFAULT_SIZE;
+        this.seed = SyntheticInput.DEFAULT_SEED;
+        this.repeat = DEFAULT_REPEAT;
+        this.jvmArgs = Arrays.asList(DEFAULT_JVM_ARGS.split(" "));
+        this.scenarios = new LinkedHashMap<>();
+
+        Consumer<LogGenerator> mixed = g -> {
+
+            g.setSelectivity(0.1d);
+            g.setEventsPerLine(1);
+        };
+
+        Consumer<LogGenerator> multiLine = g -> {
+
+            g.setFormat(LogGenerator.Format.CSV);
+            g.setMultiLineRate(0.2d);
+        };
+
+        Consumer<LogGenerator> garbage = g -> {
+
+            g.setFailureRate(0.001d);
+            g.setGarbageRate(0.0005d);
+            g.setGarbageSectionLines(200);
+        };
+
+        addScenario("plain", mixed);
+        addScenario("query", mixed, SyntheticInput.SELECTING_QUERY);
+        addScenario("parallel-output", mixed, RuntimeOptions.FORMAT_THREADS, "4", RuntimeOptions.ASYNC_OUTPUT);
+        addScenario("csv-multiline", multiLine);
+        addScenario("garbage", garbage, RuntimeOptions.REJECTS, "${workDir}/rejects.txt");
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * @param selected the names of the scenarios to run, or null for all.
+     */
+    public Results run(List<String> selected) throws Exception {
+
+        if (!workDir.isDirectory() && !workDir.mkdirs()) {
+
+            throw new IOException("failed to create " + workDir);
+        }
+
+        Results results = new Results();
+
+        results.putMetadata("timestamp", new Date().toString());
+        results.putMetadata("javaVersion", System.getProperty("java.version"));
+        results.putMetadata("javaVm", System.getProperty("java.vm.name"));
+        results.putMetadata("os", System.getProperty("os.name") + " " + System.getProperty("os.arch"));
+        results.putMetadata("processors", Integer.toString(Runtime.getRuntime().availableProcessors()));
+        results.putMetadata("inputSize", Long.toString(size));
+        results.putMetadata("seed", Long.toString(seed));
+        results.putMetadata("repeat", Integer.toString(repeat));
+        results.putMetadata("jvmArgs", String.join(" ", jvmArgs));
+
+        for(Scenario s: scenarios.values()) {
+
+            if (selected != null && !selected.contains(s.name)) {
+
+                continue;
+            }
+
+            File input = generate(s);
+
+            Map<String, List<Double>> samples = new LinkedHashMap<>();
+
+            for(int i = 0; i < repeat; i ++) {
+
+                System.out.println("running " + s.name + " (" + (i + 1) + "/" + repeat + ") ...");
+
+                for(Map.Entry<String, Double> m: runOnce(s, input).entrySet()) {
+
+                    samples.computeIfAbsent(m.getKey(), k -> new ArrayList<>()).add(m.getValue());
+                }
+            }
+
+            for(Map.Entry<String, List<Double>> m: samples.entrySet()) {
+
+                results.put(s.name, m.getKey(), median(m.getValue()));
+            }
+        }
+
+        return results;
+    }
+
+    @Override
+    public String toString() {
+
+        return "EndToEndSuite[" + workDir + "]";
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    private void addScenario(String name, Consumer<LogGenerator> generatorConfiguration, String... arguments) {
+
+        scenarios.put(name, new Scenario(name, generatorConfiguration, Arrays.asList(arguments)));
+    }
+
+    private LogGenerator newGenerator(Scenario s) {
+
+        LogGenerator g = new LogGenerator(seed);
+        s.generatorConfiguration.accept(g);
+        return g;
+    }
+
+    /**
+     * Generates the scenario input, unless a previous run already did.
+     */
+    private File generate(Scenario s) throws IOException {
+
+        LogGenerator g = newGenerator(s);
+
+        File file = new File(workDir, "input-" + g.getSignature() + "-" + size + ".log");
+
+        if (file.isFile()) {
+
+            return file;
+        }
+
+        System.out.println("generating " + file + " ...");
+
+        File tmp = new File(file.getPath() + ".tmp");
+
+        try(OutputStream os = new BufferedOutputStream(new FileOutputStream(tmp), 1024 * 1024)) {
+
+            g.generate(os, size, Long.MAX_VALUE);
+        }
+
+        if (!tmp.renameTo(file)) {
+
+            throw new IOException("failed to rename " + tmp + " to " + file);
+        }
+
+        return file;
+    }
+
+    private Map<String, Double> runOnce(Scenario s, File input) throws Exception {
+
+        File metrics = new File(workDir, "metrics.json");
+        File rejects = new File(workDir, "rejects.txt");
+
+        if ((metrics.exists() && !metrics.delete()) || (rejects.exists() && !rejects.delete())) {
+
+            throw new IOException("failed to clean up " + workDir);
+        }
+
+        List<String> command = new ArrayList<>();
+
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.addAll(jvmArgs);
+        command.add("-D" + EndToEndMain.METRICS_FILE + "=" + metrics.getAbsolutePath());
+        command.add("-D" + EndToEndMain.FORMAT + "=" + newGenerator(s).getFormat().name());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(EndToEndMain.class.getName());
+
+        for(String a: s.arguments) {
+
+            command.add(a.replace("${workDir}", workDir.getAbsolutePath()));
+        }
+
+        command.add(input.getAbsolutePath());
+
+        long start = System.nanoTime();
+
+        Process p = new ProcessBuilder(command)
+                .redirectOutput(new File("/dev/null"))
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+
+        int exitCode = p.waitFor();
+
+        double wallMillis = (System.nanoTime() - start) / 1000000d;
+
+        if (exitCode != 0) {
+
+            throw new IllegalStateException(s.name + " failed with exit code " + exitCode + ": " + command);
+        }
+
+        Map<String, Double> m = new LinkedHashMap<>(Results.read(metrics).getMetrics(EndToEndMain.SCENARIO));
+
+        m.put("wallMs", wallMillis);
+        m.put("mbPerSecond", input.length() / (1024d * 1024) / (wallMillis / 1000d));
+
+        return m;
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+    private static class Scenario {
+
+        private final String name;
+        private final Consumer<LogGenerator> generatorConfiguration;
+        private final List<String> arguments;
+
+        Scenario(String name, Consumer<LogGenerator> generatorConfiguration, List<String> arguments) {
+
+            this.name = name;
+            this.generatorConfiguration = generatorConfiguration;
+            this.arguments = arguments;
+        }
+    }
+
+}
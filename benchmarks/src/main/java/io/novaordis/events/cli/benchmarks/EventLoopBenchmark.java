@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.novaordis.events.cli.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.novaordis.events.cli.ConfigurationImpl;
+import io.novaordis.events.cli.EventParserRuntime;
+import io.novaordis.events.cli.RuntimeOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end EventParserRuntime.run() throughput, in input lines per second, for each input path (stdin, file,
+ * binary event stream), over synthetic inputs of varying line length, event yield, query selectivity and parsing
+ * failure rate. The output goes to a null stream. Run with the GC profiler (BenchmarkMain always adds it) to get the
+ * allocation rate normalized per line ("gc.alloc.rate.norm").
+ *
+ * For the binary input path, the "line" is the input line the events were originally parsed from, so the numbers are
+ * comparable across input paths.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms1g", "-Xmx1g" })
+public class EventLoopBenchmark {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    public static final int LINES = 100_000;
+
+    public enum InputPath {
+
+        STDIN, FILE, BINARY
+    }
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    @Param({ "STDIN", "FILE", "BINARY" })
+    public InputPath input;
+
+    @Param({ "80", "1024" })
+    public int lineLength;
+
+    @Param({ "0", "1", "4" })
+    public int eventsPerLine;
+
+    @Param({ "1.0", "0.1" })
+    public double selectivity;
+
+    @Param({ "0.0", "0.01" })
+    public double failureRate;
+
+    private byte[] content;
+    private File file;
+    private String[] args;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+
+        if (input == InputPath.BINARY) {
+
+            content = SyntheticInput.binary(
+                    LINES, lineLength, eventsPerLine, selectivity, failureRate, SyntheticInput.DEFAULT_SEED);
+        }
+        else {
+
+            content = SyntheticInput.text(
+                    LINES, lineLength, eventsPerLine, selectivity, failureRate, SyntheticInput.DEFAULT_SEED);
+        }
+
+        //
+        // at least one argument is always present, an empty command line means "help"
+        //
+
+        List<String> a = new ArrayList<>();
+        a.add(RuntimeOptions.OUTPUT_BUFFER_SIZE);
+        a.add("256k");
+
+        if (selectivity < 1d) {
+
+            a.add(SyntheticInput.SELECTING_QUERY);
+        }
+
+        if (input == InputPath.FILE) {
+
+            file = File.createTempFile("events-cli-benchmark-", ".log");
+            file.deleteOnExit();
+            Files.write(file.toPath(), content);
+            a.add(file.getAbsolutePath());
+        }
+
+        args = a.toArray(new String[a.size()]);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+
+        if (file != null && !file.delete()) {
+
+            file.deleteOnExit();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public long run() throws Exception {
+
+        InputStream stdin = input == InputPath.FILE ? new ByteArrayInputStream(new byte[0]) :
+                new ByteArrayInputStream(content);
+
+        ConfigurationImpl configuration = new ConfigurationImpl(args, null, stdin, new NullOutputStream());
+        configuration.setParser(new SyntheticParser());
+
+        EventParserRuntime runtime = new EventParserRuntime(configuration, "benchmark");
+        runtime.run();
+
+        return runtime.getProcessedEventsCount();
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.novaordis.events.cli.benchmarks;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic log generator: the same configuration and seed always produce the same content. Generates
+ * records in the format understood by SyntheticParser, optionally followed by continuation lines (multi-line records),
+ * and interleaved with garbage sections that do not parse.
+ *
+ * Record line:
+ *
+ * &lt;sequence&gt;&lt;sep&gt;&lt;F|E&lt;event count&gt;&gt;&lt;sep&gt;&lt;yes|no&gt;&lt;sep&gt;&lt;padding&gt;
+ *
+ * Continuation lines start with a tab. Garbage lines start with '~'.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class LogGenerator {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    public static final char CONTINUATION = '\t';
+    public static final char GARBAGE = '~';
+
+    public enum Format {
+
+        SPACE(' '),
+        CSV(',');
+
+        private final char separator;
+
+        Format(char separator) {
+
+            this.separator = separator;
+        }
+
+        public char getSeparator() {
+
+            return separator;
+        }
+    }
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * Writes a synthetic log file of the given size, with the default configuration:
+     *
+     * LogGenerator &lt;size in bytes&gt; &lt;file&gt;
+     */
+    public static void main(String[] args) throws Exception {
+
+        if (args.length != 2) {
+
+            System.err.println("usage: LogGenerator <size in bytes> <file>");
+            System.exit(1);
+        }
+
+        long size = Long.parseLong(args[0]);
+
+        try(OutputStream os = new BufferedOutputStream(new FileOutputStream(new File(args[1])), 1024 * 1024)) {
+
+            new LogGenerator(SyntheticInput.DEFAULT_SEED).generate(os, size, Long.MAX_VALUE);
+        }
+    }
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private final long seed;
+
+    private Format format;
+    private int lineLength;
+    private int eventsPerLine;
+    private double selectivity;
+    private double failureRate;
+    private double multiLineRate;
+    private int maxContinuationLines;
+    private double garbageRate;
+    private int garbageSectionLines;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    public LogGenerator(long seed) {
+
+        this.seed = seed;
+        this.format = Format.SPACE;
+        this.lineLength = 120;
+        this.eventsPerLine = 1;
+        this.selectivity = 1d;
+        this.maxContinuationLines = 5;
+        this.garbageSectionLines = 100;
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * Generates records until the size or the record count limit is reached. The size limit is only checked between
+     * records, so the content may exceed it by the length of a record.
+     *
+     * @return the number of bytes written.
+     */
+    public long generate(OutputStream os, long maxBytes, long maxRecords) throws IOException {
+
+        Random random = new Random(seed);
+        char separator = format.getSeparator();
+
+        StringBuilder sb = new StringBuilder(2 * lineLength);
+        long bytes = 0L;
+
+        for(long record = 0; record < maxRecords && bytes < maxBytes; record ++) {
+
+            sb.setLength(0);
+
+            if (garbageRate > 0d && random.nextDouble() < garbageRate) {
+
+                for(int i = 0; i < garbageSectionLines; i ++) {
+
+                    sb.append(GARBAGE);
+                    pad(sb, sb.length() + random.nextInt(lineLength + 1), random, true);
+                    sb.append('\n');
+                }
+            }
+
+            int start = sb.length();
+
+            sb.append(record).append(separator);
+
+            if (random.nextDouble() < failureRate) {
+
+                sb.append(SyntheticInput.FAILURE);
+            }
+            else {
+
+                sb.append(SyntheticInput.EVENTS).append(eventsPerLine);
+            }
+
+            sb.append(separator).append(random.nextDouble() < selectivity ? "yes" : "no").append(separator);
+
+            pad(sb, start + lineLength, random, false);
+            sb.append('\n');
+
+            if (multiLineRate > 0d && random.nextDouble() < multiLineRate) {
+
+                int continuationLines = 1 + random.nextInt(maxContinuationLines);
+
+                for(int i = 0; i < continuationLines; i ++) {
+
+                    int lineStart = sb.length();
+                    sb.append(CONTINUATION);
+                    pad(sb, lineStart + lineLength, random, false);
+                    sb.append('\n');
+                }
+            }
+
+            byte[] b = sb.toString().getBytes(StandardCharsets.UTF_8);
+            os.write(b);
+            bytes += b.length;
+        }
+
+        return bytes;
+    }
+
+    public long getSeed() {
+
+        return seed;
+    }
+
+    public Format getFormat() {
+
+        return format;
+    }
+
+    public void setFormat(Format format) {
+
+        this.format = format;
+    }
+
+    /**
+     * @return the length of record and continuation lines, without the line terminator.
+     */
+    public int getLineLength() {
+
+        return lineLength;
+    }
+
+    public void setLineLength(int lineLength) {
+
+        this.lineLength = lineLength;
+    }
+
+    /**
+     * @return the number of events each record that does not fail parses into.
+     */
+    public int getEventsPerLine() {
+
+        return eventsPerLine;
+    }
+
+    public void setEventsPerLine(int eventsPerLine) {
+
+        this.eventsPerLine = eventsPerLine;
+    }
+
+    /**
+     * @return the fraction of records whose events are selected by SyntheticInput.SELECTING_QUERY.
+     */
+    public double getSelectivity() {
+
+        return selectivity;
+    }
+
+    public void setSelectivity(double selectivity) {
+
+        this.selectivity = selectivity;
+    }
+
+    /**
+     * @return the fraction of records that fail parsing.
+     */
+    public double getFailureRate() {
+
+        return failureRate;
+    }
+
+    public void setFailureRate(double failureRate) {
+
+        this.failureRate = failureRate;
+    }
+
+    /**
+     * @return the fraction of records followed by 1 to maxContinuationLines continuation lines.
+     */
+    public double getMultiLineRate() {
+
+        return multiLineRate;
+    }
+
+    public void setMultiLineRate(double multiLineRate) {
+
+        this.multiLineRate = multiLineRate;
+    }
+
+    public int getMaxContinuationLines() {
+
+        return maxContinuationLines;
+    }
+
+    public void setMaxContinuationLines(int maxContinuationLines) {
+
+        this.maxContinuationLines = maxContinuationLines;
+    }
+
+    /**
+     * @return the probability that a garbage section is inserted before a record.
+     */
+    public double getGarbageRate() {
+
+        return garbageRate;
+    }
+
+    public void setGarbageRate(double garbageRate) {
+
+        this.garbageRate = garbageRate;
+    }
+
+    public int getGarbageSectionLines() {
+
+        return garbageSectionLines;
+    }
+
+    public void setGarbageSectionLines(int garbageSectionLines) {
+
+        this.garbageSectionLines = garbageSectionLines;
+    }
+
+    /**
+     * @return a string that identifies the generated content, usable in a file name.
+     */
+    public String getSignature() {
+
+        return format.name().toLowerCase() + "-" + lineLength + "-" + eventsPerLine + "-" + selectivity + "-" +
+                failureRate + "-" + multiLineRate + "x" + maxContinuationLines + "-" + garbageRate + "x" +
+                garbageSectionLines + "-" + seed;
+    }
+
+    @Override
+    public String toString() {
+
+        return "LogGenerator[" + getSignature() + "]";
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    /**
+     * Appends random characters until the builder reaches the given length. Garbage may contain anything printable,
+     * padding is lower case letters.
+     */
+    private static void pad(StringBuilder sb, int length, Random random, boolean garbage) {
+
+        while(sb.length() < length) {
+
+            sb.append(garbage ? (char)(' ' + random.nextInt(95)) : (char)('a' + random.nextInt(26)));
+        }
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
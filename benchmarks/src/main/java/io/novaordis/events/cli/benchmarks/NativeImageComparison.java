@@ -0,0 +1,482 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.novaordis.events.cli.benchmarks;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import io.novaordis.events.cli.RuntimeOptions;
+
+/**
+ * Compares the native executable built by the "native" profile with the same application (StartupMain) running on the
+ * JVM:
+ *
+ * 1. Output equivalence: both are run on the files found in the inputs directory (by default the events-cli test
+ * resources) and on generated synthetic logs, with and without a query, from a file and from stdin. The stdout content
+ * and the exit codes must be identical.
+ *
+ * 2. Startup: both are run repeatedly on a one-line input, and the median time to the first output byte, wall time and
+ * peak RSS are reported, and written as JSON results under the "jvm" and "native" scenarios.
+ *
+ * Exits with 1 if the outputs differ.
+ *
+ * java -cp target/benchmarks.jar io.novaordis.events.cli.benchmarks.NativeImageComparison \
+ *     --native target/events-cli-native [--inputs ../src/test/resources/data] [--work-dir target/native] \
+ *     [--repeat 10] [--results file.json]
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class NativeImageComparison {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    public static final String DEFAULT_INPUTS = "../src/test/resources/data";
+    public static final String DEFAULT_WORK_DIR = "target/native";
+    public static final int DEFAULT_REPEAT = 10;
+
+    public static final long GENERATED_INPUT_SIZE = 256 * 1024L;
+
+    public static final String JVM = "jvm";
+    public static final String NATIVE = "native";
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    public static void main(String[] args) throws Exception {
+
+        NativeImageComparison comparison = new NativeImageComparison();
+
+        File results = null;
+
+        for(int i = 0; i < args.length; i ++) {
+
+            String option = args[i];
+
+            if (i == args.length - 1) {
+
+                throw new IllegalArgumentException("missing value for " + option);
+            }
+
+            String value = args[++ i];
+
+            switch (option) {
+
+                case "--native":
+                    comparison.nativeExecutable = new File(value);
+                    break;
+                case "--inputs":
+                    comparison.inputs = new File(value);
+                    break;
+                case "--work-dir":
+                    comparison.workDir = new File(value);
+                    break;
+                case "--repeat":
+                    comparison.repeat = Integer.parseInt(value);
+                    break;
+                case "--results":
+                    results = new File(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option " + option);
+            }
+        }
+
+        if (comparison.nativeExecutable == null) {
+
+            throw new IllegalArgumentException("--native is required");
+        }
+
+        if (!comparison.nativeExecutable.canExecute()) {
+
+            throw new IllegalArgumentException(
+                    comparison.nativeExecutable + " is not executable, build it with: mvn -Pnative package");
+        }
+
+        if (results == null) {
+
+            results = new File(comparison.workDir, "native-results.json");
+        }
+
+        List<String> mismatches = comparison.compareOutputs();
+
+        Results startup = comparison.compareStartup();
+        startup.write(results);
+
+        for(String line: comparison.report(startup)) {
+
+            System.out.println(line);
+        }
+
+        System.out.println("results written to " + results);
+
+        if (!mismatches.isEmpty()) {
+
+            for(String m: mismatches) {
+
+                System.out.println("MISMATCH " + m);
+            }
+
+            System.out.println(mismatches.size() + " native output(s) differ from the JVM output");
+            System.exit(1);
+        }
+
+        System.out.println("native output identical to the JVM output");
+    }
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private File nativeExecutable;
+    private File inputs;
+    private File workDir;
+    private int repeat;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    public NativeImageComparison() {
+
+        this.inputs = new File(DEFAULT_INPUTS);
+        this.workDir = new File(DEFAULT_WORK_DIR);
+        this.repeat = DEFAULT_REPEAT;
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * @return a description of each run whose native output differs from the JVM output. Empty if they are all
+     * identical.
+     */
+    public List<String> compareOutputs() throws Exception {
+
+        createWorkDir();
+
+        List<File> files = new ArrayList<>();
+
+        File[] resources = inputs.listFiles(File::isFile);
+
+        if (resources == null || resources.length == 0) {
+
+            System.out.println("no inputs found in " + inputs + ", using only the generated ones");
+        }
+        else {
+
+            Arrays.sort(resources);
+            files.addAll(Arrays.asList(resources));
+        }
+
+        files.add(generate("plain", g -> g.setSelectivity(0.1d)));
+        files.add(generate("faulty", g -> {
+
+            g.setFailureRate(0.01d);
+            g.setGarbageRate(0.001d);
+            g.setGarbageSectionLines(20);
+        }));
+
+        List<String> mismatches = new ArrayList<>();
+
+        for(File f: files) {
+
+            List<List<String>> argumentSets = Arrays.asList(
+                    Arrays.asList(RuntimeOptions.OUTPUT_BUFFER_SIZE, "256k", f.getAbsolutePath()),
+                    Arrays.asList(SyntheticInput.SELECTING_QUERY, f.getAbsolutePath()),
+                    Arrays.asList(RuntimeOptions.OUTPUT_BUFFER_SIZE, "256k"));
+
+            for(List<String> arguments: argumentSets) {
+
+                //
+                // the last argument set reads the file from stdin
+                //
+
+                File stdin = arguments.contains(f.getAbsolutePath()) ? null : f;
+
+                Execution jvm = execute(jvmCommand(null, arguments), stdin);
+                Execution nat = execute(nativeCommand(null, arguments), stdin);
+
+                String description = arguments + (stdin == null ? "" : " < " + f);
+
+                if (jvm.exitCode != nat.exitCode) {
+
+                    mismatches.add(description + ": exit code " + nat.exitCode + ", expected " + jvm.exitCode);
+                }
+                else if (!Arrays.equals(jvm.stdout, nat.stdout)) {
+
+                    mismatches.add(description + ": " + nat.stdout.length + " bytes of output, expected " +
+                            jvm.stdout.length + ", first difference at offset " +
+                            firstDifference(jvm.stdout, nat.stdout));
+                }
+                else {
+
+                    System.out.println("identical output (" + jvm.stdout.length + " bytes): " + description);
+                }
+            }
+        }
+
+        return mismatches;
+    }
+
+    /**
+     * @return the median startup metrics, under the "jvm" and "native" scenarios.
+     */
+    public Results compareStartup() throws Exception {
+
+        createWorkDir();
+
+        File input = new File(workDir, "startup-input.log");
+
+        try(OutputStream os = new FileOutputStream(input)) {
+
+            os.write(SyntheticInput.text(1, 80, 1, 1d, 0d, SyntheticInput.DEFAULT_SEED));
+        }
+
+        List<String> arguments = Arrays.asList(RuntimeOptions.OUTPUT_BUFFER_SIZE, "256k");
+        File metrics = new File(workDir, "startup-metrics.json");
+
+        Results results = new Results();
+
+        results.putMetadata("timestamp", new Date().toString());
+        results.putMetadata("javaVersion", System.getProperty("java.version"));
+        results.putMetadata("javaVm", System.getProperty("java.vm.name"));
+        results.putMetadata("os", System.getProperty("os.name") + " " + System.getProperty("os.arch"));
+        results.putMetadata("nativeExecutable", nativeExecutable.getAbsolutePath());
+        results.putMetadata("repeat", Integer.toString(repeat));
+
+        for(String scenario: Arrays.asList(JVM, NATIVE)) {
+
+            Map<String, List<Double>> samples = new LinkedHashMap<>();
+
+            for(int i = 0; i < repeat; i ++) {
+
+                if (metrics.exists() && !metrics.delete()) {
+
+                    throw new IOException("failed to delete " + metrics);
+                }
+
+                List<String> command = JVM.equals(scenario) ?
+                        jvmCommand(metrics, arguments) : nativeCommand(metrics, arguments);
+
+                Execution e = execute(command, input);
+
+                if (e.exitCode != 0) {
+
+                    throw new IllegalStateException(scenario + " failed with exit code " + e.exitCode + ": " + command);
+                }
+
+                samples.computeIfAbsent("timeToFirstByteMs", k -> new ArrayList<>()).add(e.firstByteMillis);
+                samples.computeIfAbsent("wallMs", k -> new ArrayList<>()).add(e.wallMillis);
+
+                for(Map.Entry<String, Double> m: Results.read(metrics).getMetrics(StartupMain.SCENARIO).entrySet()) {
+
+                    samples.computeIfAbsent(m.getKey(), k -> new ArrayList<>()).add(m.getValue());
+                }
+            }
+
+            for(Map.Entry<String, List<Double>> m: samples.entrySet()) {
+
+                results.put(scenario, m.getKey(), EndToEndSuite.median(m.getValue()));
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * @return the side-by-side startup report, one line per metric.
+     */
+    public List<String> report(Results startup) {
+
+        List<String> report = new ArrayList<>();
+
+        Map<String, Double> jvm = startup.getMetrics(JVM);
+        Map<String, Double> nat = startup.getMetrics(NATIVE);
+
+        report.add(String.format("%-20s %14s %14s %9s", "metric", JVM, NATIVE, "ratio"));
+
+        for(String metric: jvm.keySet()) {
+
+            Double j = jvm.get(metric);
+            Double n = nat == null ? null : nat.get(metric);
+
+            if (n == null) {
+
+                continue;
+            }
+
+            report.add(String.format("%-20s %14.1f %14.1f %8.1fx", metric, j, n, n > 0d ? j / n : 0d));
+        }
+
+        return report;
+    }
+
+    @Override
+    public String toString() {
+
+        return "NativeImageComparison[" + nativeExecutable + "]";
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    static long firstDifference(byte[] a, byte[] b) {
+
+        int n = Math.min(a.length, b.length);
+
+        for(int i = 0; i < n; i ++) {
+
+            if (a[i] != b[i]) {
+
+                return i;
+            }
+        }
+
+        return n;
+    }
+
+    /**
+     * @param stdin the file to be sent to the process' stdin, or null for an empty stdin.
+     */
+    static Execution execute(List<String> command, File stdin) throws Exception {
+
+        ProcessBuilder pb = new ProcessBuilder(command).redirectError(new File("/dev/null"));
+        pb.redirectInput(stdin == null ? new File("/dev/null") : stdin);
+
+        long start = System.nanoTime();
+
+        Process p = pb.start();
+
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        long firstByte = -1L;
+
+        try(InputStream is = p.getInputStream()) {
+
+            byte[] buffer = new byte[64 * 1024];
+            int n;
+
+            while((n = is.read(buffer)) != -1) {
+
+                if (firstByte == -1L) {
+
+                    firstByte = System.nanoTime();
+                }
+
+                stdout.write(buffer, 0, n);
+            }
+        }
+
+        int exitCode = p.waitFor();
+        long end = System.nanoTime();
+
+        return new Execution(
+                stdout.toByteArray(), exitCode, ((firstByte == -1L ? end : firstByte) - start) / 1000000d,
+                (end - start) / 1000000d);
+    }
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    private void createWorkDir() throws IOException {
+
+        if (!workDir.isDirectory() && !workDir.mkdirs()) {
+
+            throw new IOException("failed to create " + workDir);
+        }
+    }
+
+    private File generate(String name, Consumer<LogGenerator> configuration) throws IOException {
+
+        LogGenerator g = new LogGenerator(SyntheticInput.DEFAULT_SEED);
+        configuration.accept(g);
+
+        File file = new File(workDir, name + "-" + g.getSignature() + ".log");
+
+        try(OutputStream os = new BufferedOutputStream(new FileOutputStream(file))) {
+
+            g.generate(os, GENERATED_INPUT_SIZE, Long.MAX_VALUE);
+        }
+
+        return file;
+    }
+
+    /**
+     * @param metrics the file the process writes its metrics to, or null if metrics are not needed.
+     */
+    private List<String> jvmCommand(File metrics, List<String> arguments) {
+
+        List<String> command = new ArrayList<>();
+
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+
+        if (metrics != null) {
+
+            command.add("-D" + StartupMain.METRICS_FILE + "=" + metrics.getAbsolutePath());
+        }
+
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(StartupMain.class.getName());
+        command.addAll(arguments);
+
+        return command;
+    }
+
+    /**
+     * Native executables accept -D system property definitions in front of the application arguments.
+     */
+    private List<String> nativeCommand(File metrics, List<String> arguments) {
+
+        List<String> command = new ArrayList<>();
+
+        command.add(nativeExecutable.getAbsolutePath());
+
+        if (metrics != null) {
+
+            command.add("-D" + StartupMain.METRICS_FILE + "=" + metrics.getAbsolutePath());
+        }
+
+        command.addAll(arguments);
+
+        return command;
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+    static class Execution {
+
+        final byte[] stdout;
+        final int exitCode;
+        final double firstByteMillis;
+        final double wallMillis;
+
+        Execution(byte[] stdout, int exitCode, double firstByteMillis, double wallMillis) {
+
+            this.stdout = stdout;
+            this.exitCode = exitCode;
+            this.firstByteMillis = firstByteMillis;
+            this.wallMillis = wallMillis;
+        }
+    }
+
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.novaordis.events.cli.benchmarks;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import io.novaordis.events.cli.BufferedOutputSink;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * BufferedOutputSink throughput, in lines per second, synchronous and asynchronous, writing into a null stream, a
+ * file and a pipe (a "cat" process discarding its output), which is what stdout usually is.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OutputSinkBenchmark {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    public static final int LINES = 10_000;
+
+    public enum Target {
+
+        NULL, FILE, PIPE
+    }
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    @Param({ "NULL", "FILE", "PIPE" })
+    public Target target;
+
+    @Param({ "false", "true" })
+    public boolean async;
+
+    @Param({ "80", "1024" })
+    public int lineLength;
+
+    private byte[][] lines;
+    private File file;
+    private FileChannel fileChannel;
+    private Process pipe;
+    private OutputStream targetStream;
+    private BufferedOutputSink sink;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+
+        String[] text = new String(
+                SyntheticInput.text(LINES, lineLength, 1, 1d, 0d, SyntheticInput.DEFAULT_SEED),
+                StandardCharsets.UTF_8).split("\n");
+
+        lines = new byte[text.length][];
+
+        for(int i = 0; i < text.length; i ++) {
+
+            lines[i] = (text[i] + "\n").getBytes(StandardCharsets.UTF_8);
+        }
+
+        switch (target) {
+
+            case FILE:
+                file = File.createTempFile("events-cli-benchmark-", ".out");
+                file.deleteOnExit();
+                FileOutputStream fos = new FileOutputStream(file);
+                fileChannel = fos.getChannel();
+                targetStream = fos;
+                break;
+            case PIPE:
+                pipe = new ProcessBuilder("cat").redirectOutput(new File("/dev/null")).start();
+                targetStream = pipe.getOutputStream();
+                break;
+            default:
+                targetStream = new NullOutputStream();
+        }
+
+        sink = new BufferedOutputSink(targetStream, BufferedOutputSink.DEFAULT_BUFFER_SIZE, async, false);
+    }
+
+    /**
+     * Keeps the file from growing for the duration of the trial. Each invocation writes enough lines for the setup
+     * overhead to be negligible.
+     */
+    @Setup(Level.Invocation)
+    public void truncate() throws Exception {
+
+        if (fileChannel != null) {
+
+            fileChannel.truncate(0L);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+
+        sink.close();
+        targetStream.close();
+
+        if (pipe != null) {
+
+            pipe.waitFor();
+        }
+
+        if (file != null && !file.delete()) {
+
+            file.deleteOnExit();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public long write() throws Exception {
+
+        for(byte[] line: lines) {
+
+            sink.write(line, 0, line.length);
+        }
+
+        sink.drain();
+
+        return sink.getBytesWritten();
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
@@ -0,0 +1,377 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.novaordis.events.cli.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * End-to-end suite results: metrics by scenario, plus free-form metadata about the run. Stored as JSON:
+ *
+ * {
+ *   "metadata": { "javaVersion": "1.8.0_412", ... },
+ *   "scenarios": {
+ *     "plain": { "wallMs": 10543.0, "cpuMs": 21022.0, ... },
+ *     ...
+ *   }
+ * }
+ *
+ * The JSON support is limited to what this structure needs: nested objects, strings and numbers.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class Results {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    public static Results read(File file) throws IOException {
+
+        String json = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+
+        Map<String, Object> root;
+
+        try {
+
+            root = new JsonReader(json).readObject();
+        }
+        catch(IllegalArgumentException e) {
+
+            throw new IOException("invalid results file " + file + ": " + e.getMessage());
+        }
+
+        Results results = new Results();
+
+        Object metadata = root.get("metadata");
+
+        if (metadata instanceof Map) {
+
+            for(Map.Entry<?, ?> e: ((Map<?, ?>)metadata).entrySet()) {
+
+                results.metadata.put((String)e.getKey(), String.valueOf(e.getValue()));
+            }
+        }
+
+        Object scenarios = root.get("scenarios");
+
+        if (scenarios instanceof Map) {
+
+            for(Map.Entry<?, ?> e: ((Map<?, ?>)scenarios).entrySet()) {
+
+                if (!(e.getValue() instanceof Map)) {
+
+                    continue;
+                }
+
+                for(Map.Entry<?, ?> m: ((Map<?, ?>)e.getValue()).entrySet()) {
+
+                    if (m.getValue() instanceof Double) {
+
+                        results.put((String)e.getKey(), (String)m.getKey(), (Double)m.getValue());
+                    }
+                }
+            }
+        }
+
+        return results;
+    }
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private final Map<String, String> metadata;
+    private final Map<String, Map<String, Double>> scenarios;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    public Results() {
+
+        this.metadata = new LinkedHashMap<>();
+        this.scenarios = new LinkedHashMap<>();
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    public void putMetadata(String name, String value) {
+
+        metadata.put(name, value);
+    }
+
+    public Map<String, String> getMetadata() {
+
+        return metadata;
+    }
+
+    public void put(String scenario, String metric, double value) {
+
+        scenarios.computeIfAbsent(scenario, k -> new LinkedHashMap<>()).put(metric, value);
+    }
+
+    /**
+     * @return the metrics of the given scenario, or null if the scenario was not run.
+     */
+    public Map<String, Double> getMetrics(String scenario) {
+
+        return scenarios.get(scenario);
+    }
+
+    public Map<String, Map<String, Double>> getScenarios() {
+
+        return scenarios;
+    }
+
+    public void write(File file) throws IOException {
+
+        Files.write(file.toPath(), toJson().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String toJson() {
+
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("{\n  \"metadata\": {");
+
+        String separator = "\n";
+
+        for(Map.Entry<String, String> e: metadata.entrySet()) {
+
+            sb.append(separator).append("    ").append(quote(e.getKey())).append(": ").append(quote(e.getValue()));
+            separator = ",\n";
+        }
+
+        sb.append("\n  },\n  \"scenarios\": {");
+
+        separator = "\n";
+
+        for(Map.Entry<String, Map<String, Double>> s: scenarios.entrySet()) {
+
+            sb.append(separator).append("    ").append(quote(s.getKey())).append(": {");
+
+            String metricSeparator = "\n";
+
+            for(Map.Entry<String, Double> m: s.getValue().entrySet()) {
+
+                sb.append(metricSeparator).append("      ").append(quote(m.getKey())).append(": ").append(m.getValue());
+                metricSeparator = ",\n";
+            }
+
+            sb.append("\n    }");
+            separator = ",\n";
+        }
+
+        sb.append("\n  }\n}\n");
+
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+
+        return "Results[" + scenarios.keySet() + "]";
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    private static String quote(String s) {
+
+        StringBuilder sb = new StringBuilder("\"");
+
+        for(int i = 0; i < s.length(); i ++) {
+
+            char c = s.charAt(i);
+
+            if (c == '"' || c == '\\') {
+
+                sb.append('\\').append(c);
+            }
+            else if (c < ' ') {
+
+                sb.append(String.format("\\u%04x", (int)c));
+            }
+            else {
+
+                sb.append(c);
+            }
+        }
+
+        return sb.append('"').toString();
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+    /**
+     * Reads objects, strings and numbers. Numbers are read as Double.
+     */
+    private static class JsonReader {
+
+        private final String s;
+        private int i;
+
+        JsonReader(String s) {
+
+            this.s = s;
+        }
+
+        Map<String, Object> readObject() {
+
+            Map<String, Object> map = new LinkedHashMap<>();
+
+            expect('{');
+
+            if (peek() == '}') {
+
+                i ++;
+                return map;
+            }
+
+            while(true) {
+
+                String key = readString();
+                expect(':');
+                map.put(key, readValue());
+
+                char c = next();
+
+                if (c == '}') {
+
+                    return map;
+                }
+
+                if (c != ',') {
+
+                    throw new IllegalArgumentException("expected ',' or '}' at " + (i - 1));
+                }
+            }
+        }
+
+        private Object readValue() {
+
+            char c = peek();
+
+            if (c == '{') {
+
+                return readObject();
+            }
+
+            if (c == '"') {
+
+                return readString();
+            }
+
+            int start = i;
+
+            while(i < s.length() && "+-0123456789.eE".indexOf(s.charAt(i)) != -1) {
+
+                i ++;
+            }
+
+            try {
+
+                return Double.valueOf(s.substring(start, i));
+            }
+            catch(NumberFormatException e) {
+
+                throw new IllegalArgumentException("unsupported value at " + start);
+            }
+        }
+
+        private String readString() {
+
+            expect('"');
+
+            StringBuilder sb = new StringBuilder();
+
+            while(i < s.length()) {
+
+                char c = s.charAt(i ++);
+
+                if (c == '"') {
+
+                    return sb.toString();
+                }
+
+                if (c == '\\') {
+
+                    char escaped = s.charAt(i ++);
+
+                    if (escaped == 'u') {
+
+                        sb.append((char)Integer.parseInt(s.substring(i, i + 4), 16));
+                        i += 4;
+                    }
+                    else if (escaped == 'n') {
+
+                        sb.append('\n');
+                    }
+                    else if (escaped == 't') {
+
+                        sb.append('\t');
+                    }
+                    else {
+
+                        sb.append(escaped);
+                    }
+                }
+                else {
+
+                    sb.append(c);
+                }
+            }
+
+            throw new IllegalArgumentException("unterminated string");
+        }
+
+        private void expect(char expected) {
+
+            if (next() != expected) {
+
+                throw new IllegalArgumentException("expected '" + expected + "' at " + (i - 1));
+            }
+        }
+
+        private char next() {
+
+            char c = peek();
+            i ++;
+            return c;
+        }
+
+        private char peek() {
+
+            while(i < s.length() && Character.isWhitespace(s.charAt(i))) {
+
+                i ++;
+            }
+
+            if (i >= s.length()) {
+
+                throw new IllegalArgumentException("unexpected end of content");
+            }
+
+            return s.charAt(i);
+        }
+    }
+
+}
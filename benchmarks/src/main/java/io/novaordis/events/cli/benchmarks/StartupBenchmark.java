@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.novaordis.events.cli.benchmarks;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.novaordis.events.cli.RuntimeOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time-to-first-event of a fresh events-cli process: from launching the VM until the first event is written to its
+ * stdout. The time includes the VM startup, the class loading and the ConfigurationImpl construction, which dominate
+ * the short invocations. Each invocation launches a new VM (StartupMain) with the benchmark's class path, so the
+ * measurement is not affected by the state of the benchmark VM.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class StartupBenchmark {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    public enum Path {
+
+        DEFAULT_OUTPUT, QUERY, STATS
+    }
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    @Param({ "DEFAULT_OUTPUT", "QUERY", "STATS" })
+    public Path path;
+
+    private List<String> command;
+    private byte[] input;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    @Setup
+    public void setUp() {
+
+        command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(StartupMain.class.getName());
+
+        //
+        // at least one argument is always present, an empty command line means "help"
+        //
+
+        command.add(RuntimeOptions.OUTPUT_BUFFER_SIZE);
+        command.add("256k");
+
+        if (path == Path.QUERY) {
+
+            command.add(SyntheticInput.SELECTING_QUERY);
+        }
+        else if (path == Path.STATS) {
+
+            command.add(RuntimeOptions.STATS);
+        }
+
+        input = SyntheticInput.text(1, 80, 1, 1d, 0d, SyntheticInput.DEFAULT_SEED);
+    }
+
+    @Benchmark
+    public int timeToFirstEvent() throws Exception {
+
+        Process process = new ProcessBuilder(command).redirectError(new File("/dev/null")).start();
+
+        try {
+
+            try (OutputStream stdin = process.getOutputStream()) {
+
+                stdin.write(input);
+            }
+
+            InputStream stdout = process.getInputStream();
+
+            int b = stdout.read();
+
+            if (b == -1) {
+
+                throw new IllegalStateException("the process exited without producing any output");
+            }
+
+            return b;
+        }
+        finally {
+
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
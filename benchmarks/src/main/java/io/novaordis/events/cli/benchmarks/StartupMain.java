@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.novaordis.events.cli.benchmarks;
+
+import java.io.File;
+
+import io.novaordis.events.cli.ConfigurationImpl;
+import io.novaordis.events.cli.EventParserRuntime;
+import io.novaordis.utilities.appspec.ApplicationSpecificBehavior;
+
+/**
+ * A minimal events-cli application, launched in a fresh VM by StartupBenchmark, and built as a native executable by
+ * the "native" profile. Parses stdin, or the file given on the command line, with the SyntheticParser, and writes the
+ * events to stdout with the default procedure. The parser is looked up through ApplicationSpecificBehavior, like real
+ * applications do.
+ *
+ * If the METRICS_FILE system property is set, the peak RSS of the process is written to that file, as JSON results,
+ * under the "run" scenario.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class StartupMain {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    public static final String METRICS_FILE = "events.cli.startup.metrics";
+
+    public static final String SCENARIO = "run";
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    public static void main(String[] args) throws Exception {
+
+        ConfigurationImpl configuration = new ConfigurationImpl(
+                args, new ApplicationSpecificBehavior(new SyntheticParser()), System.in, System.out);
+
+        new EventParserRuntime(configuration, "startup").run();
+
+        String metrics = System.getProperty(METRICS_FILE);
+
+        if (metrics != null) {
+
+            Results results = new Results();
+            results.put(SCENARIO, "peakRssKb", EndToEndMain.getPeakRssKb());
+            results.write(new File(metrics));
+        }
+    }
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    private StartupMain() {
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import io.novaordis.events.api.event.Event;
+import io.novaordis.events.cli.BinaryEventWriter;
+import io.novaordis.utilities.parsing.ParsingException;
+
+/**
+ * Deterministic synthetic input: the same parameters and seed always produce the same content.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class SyntheticInput {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    public static final String SEQUENCE_PROPERTY = "sequence";
+    public static final String SELECTED_PROPERTY = "selected";
+    public static final String PAYLOAD_PROPERTY = "payload";
+
+    /**
+     * The query that selects events according to the selectivity the input was generated with.
+     */
+    public static final String SELECTING_QUERY = SELECTED_PROPERTY + ":yes";
+
+    public static final char FAILURE = 'F';
+    public static final char EVENTS = 'E';
+
+    public static final long DEFAULT_SEED = 20261019L;
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * @param lineLength the approximate length of each line, without the line terminator.
+     * @param eventsPerLine the number of events each line that does not fail parses into.
+     * @param selectivity the fraction of lines whose events are selected by SELECTING_QUERY.
+     * @param failureRate the fraction of lines that fail parsing.
+     */
+    public static byte[] text(int lines, int lineLength, int eventsPerLine, double selectivity, double failureRate,
+                              long seed) {
+
+        LogGenerator generator = new LogGenerator(seed);
+        generator.setLineLength(lineLength);
+        generator.setEventsPerLine(eventsPerLine);
+        generator.setSelectivity(selectivity);
+        generator.setFailureRate(failureRate);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(lines * (lineLength + 1));
+
+        try {
+
+            generator.generate(baos, Long.MAX_VALUE, lines);
+        }
+        catch(IOException e) {
+
+            throw new IllegalStateException(e);
+        }
+
+        return baos.toByteArray();
+    }
+
+    /**
+     * @return the events parsed from the equivalent text input, in the binary event stream format. Failing lines
+     * produce no events.
+     */
+    public static byte[] binary(int lines, int lineLength, int eventsPerLine, double selectivity, double failureRate,
+                                long seed) throws IOException {
+
+        String text = new String(
+                text(lines, lineLength, eventsPerLine, selectivity, failureRate, seed), StandardCharsets.UTF_8);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        BinaryEventWriter writer = new BinaryEventWriter(baos);
+        SyntheticParser parser = new SyntheticParser();
+
+        for(String line: text.split("\n")) {
+
+            try {
+
+                for(Event e: parser.parse(line, null)) {
+
+                    writer.write(e);
+                }
+            }
+            catch(ParsingException e) {
+
+                //
+                // failing lines do not make it into the binary stream
+                //
+            }
+        }
+
+        return baos.toByteArray();
+    }
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    private SyntheticInput() {
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
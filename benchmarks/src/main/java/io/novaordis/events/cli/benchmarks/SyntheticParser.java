@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.novaordis.events.api.event.Event;
+import io.novaordis.events.api.event.GenericEvent;
+import io.novaordis.events.api.event.LongProperty;
+import io.novaordis.events.api.event.StringProperty;
+import io.novaordis.events.api.parser.Parser;
+import io.novaordis.events.cli.RecordStartDetector;
+import io.novaordis.events.query.Query;
+import io.novaordis.utilities.parsing.ParsingException;
+
+/**
+ * Parses the content produced by LogGenerator. A record line says how the parser should react: fail, or produce a
+ * given number of events, selected or not by the benchmark query. Continuation lines produce no events, garbage lines
+ * fail.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class SyntheticParser implements Parser, RecordStartDetector {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private final char separator;
+
+    private long lineNumber;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    public SyntheticParser() {
+
+        this(LogGenerator.Format.SPACE);
+    }
+
+    public SyntheticParser(LogGenerator.Format format) {
+
+        this.separator = format.getSeparator();
+    }
+
+    // Parser implementation -------------------------------------------------------------------------------------------
+
+    @Override
+    public List<Event> parse(String line, Query query) throws ParsingException {
+
+        lineNumber ++;
+
+        if (!line.isEmpty() && line.charAt(0) == LogGenerator.CONTINUATION) {
+
+            return Collections.emptyList();
+        }
+
+        int first = line.indexOf(separator);
+        int second = line.indexOf(separator, first + 1);
+        int third = line.indexOf(separator, second + 1);
+
+        if (first <= 0 || second <= 0 || third <= 0) {
+
+            throw new ParsingException("invalid synthetic line " + lineNumber);
+        }
+
+        char kind = line.charAt(first + 1);
+
+        if (kind == SyntheticInput.FAILURE) {
+
+            throw new ParsingException("synthetic parsing failure at line " + lineNumber);
+        }
+
+        if (kind != SyntheticInput.EVENTS) {
+
+            throw new ParsingException("invalid synthetic record kind '" + kind + "' at line " + lineNumber);
+        }
+
+        int count;
+        long sequence;
+
+        try {
+
+            count = Integer.parseInt(line.substring(first + 2, second));
+            sequence = Long.parseLong(line.substring(0, first));
+        }
+        catch(NumberFormatException e) {
+
+            throw new ParsingException("invalid synthetic line " + lineNumber);
+        }
+
+        if (count == 0) {
+
+            return Collections.emptyList();
+        }
+
+        String selected = line.substring(second + 1, third);
+
+        List<Event> events = new ArrayList<>(count);
+
+        for(int i = 0; i < count; i ++) {
+
+            events.add(new GenericEvent(Arrays.asList(
+                    new LongProperty(SyntheticInput.SEQUENCE_PROPERTY, sequence),
+                    new StringProperty(SyntheticInput.SELECTED_PROPERTY, selected),
+                    new StringProperty(SyntheticInput.PAYLOAD_PROPERTY, line))));
+        }
+
+        return events;
+    }
+
+    @Override
+    public List<Event> close() throws ParsingException {
+
+        return Collections.emptyList();
+    }
+
+    @Override
+    public long getLineNumber() {
+
+        return lineNumber;
+    }
+
+    // RecordStartDetector implementation ------------------------------------------------------------------------------
+
+    @Override
+    public boolean isRecordStart(String line) {
+
+        return !line.isEmpty() && Character.isDigit(line.charAt(0));
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
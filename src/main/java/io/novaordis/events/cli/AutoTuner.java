@@ -0,0 +1,467 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.novaordis.events.cli;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Adjusts the thread counts and batch sizes of the pipeline stages while the run is in progress (--auto-tune). The
+ * stages are sampled often during the first seconds of the run, and then once a second, so the settings follow the
+ * changes in the input mix.
+ *
+ * On each sample, the stage with the most work waiting for its threads, if any, is the bottleneck: it gets a thread,
+ * as long as the stages together stay within the CPU cap, or one taken from an idle stage. A bottleneck that cannot get
+ * a thread doubles its batch size, to spend less time on hand-offs. If a thread did not improve the bottleneck's
+ * throughput, it is given back and the stage is not grown again for a while: the stage is limited by something other
+ * than CPU. If no stage is saturated, the event loop (or the output) is the bottleneck, and the stages that stayed
+ * idle give up threads, then halve their batch size.
+ *
+ * The settings reached are reported at the end of the run, as command line options that pin them.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+final class AutoTuner {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    private static final Logger log = LoggerFactory.getLogger(AutoTuner.class);
+
+    static final long WARMUP_INTERVAL_MS = 200L;
+    static final int WARMUP_SAMPLES = 10;
+    static final long INTERVAL_MS = 1000L;
+
+    //
+    // occupancy thresholds, see TunableStage.getOccupancy()
+    //
+
+    static final double SATURATED = 1.0;
+    static final double IDLE = 0.5;
+
+    //
+    // the number of consecutive idle samples after which a stage gives up a thread
+    //
+
+    static final int IDLE_SAMPLES = 3;
+
+    //
+    // the minimum throughput improvement that justifies a thread, and the number of samples a stage is not grown for
+    // after a thread did not help
+    //
+
+    static final double MIN_GAIN = 1.05;
+    static final int HOLD_SAMPLES = 10;
+
+    static final int MIN_BATCH_SIZE = 64;
+    static final int MAX_BATCH_SIZE = 16 * 1024;
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private final int cpuCap;
+    private final List<Tracked> stages;
+    private final long startNanos;
+
+    private volatile Thread sampler;
+
+    // guarded by this
+    private long samples;
+    private long adjustments;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    /**
+     * @param cpuCap the maximum number of threads the stages may use together.
+     */
+    AutoTuner(int cpuCap) {
+
+        if (cpuCap <= 0) {
+
+            throw new IllegalArgumentException("invalid CPU cap " + cpuCap);
+        }
+
+        this.cpuCap = cpuCap;
+        this.stages = new CopyOnWriteArrayList<>();
+        this.startNanos = System.nanoTime();
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+
+        return "AutoTuner[cpu-cap=" + cpuCap + ", " + stages.size() + " stages]";
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    /**
+     * Starts tuning the stage. If the threads the stage starts with do not fit within the CPU cap, along with the
+     * threads of the stages already registered, the stage is reduced to what is left, but not below one thread.
+     */
+    synchronized void register(TunableStage stage) {
+
+        int allowed = Math.max(1, cpuCap - getThreads());
+
+        if (stage.getThreads() > allowed && stage.setThreads(allowed)) {
+
+            log.debug(stage.getStageName() + " reduced to " + allowed + " thread(s) to fit within the CPU cap");
+        }
+
+        stages.add(new Tracked(stage, System.nanoTime()));
+
+        log.debug(this + " tuning " + stage.getStageName() + " starting with " + stage.getThreads() + " thread(s)");
+    }
+
+    /**
+     * Starts sampling on a daemon thread.
+     */
+    synchronized void start() {
+
+        if (sampler != null) {
+
+            return;
+        }
+
+        Thread t = new Thread(() -> {
+
+            try {
+
+                for(long i = 0; !Thread.currentThread().isInterrupted(); i ++) {
+
+                    Thread.sleep(i < WARMUP_SAMPLES ? WARMUP_INTERVAL_MS : INTERVAL_MS);
+                    tune(System.nanoTime());
+                }
+            }
+            catch(InterruptedException e) {
+
+                //
+                // stopped
+                //
+            }
+
+        }, "events-cli auto-tune");
+
+        t.setDaemon(true);
+        sampler = t;
+        t.start();
+    }
+
+    /**
+     * Stops sampling. The stages keep the settings they reached. Idempotent.
+     */
+    void close() {
+
+        Thread t;
+
+        synchronized (this) {
+
+            t = sampler;
+            sampler = null;
+        }
+
+        if (t == null) {
+
+            return;
+        }
+
+        t.interrupt();
+
+        try {
+
+            t.join();
+        }
+        catch(InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Samples the stages and makes at most one adjustment.
+     */
+    synchronized void tune(long nowNanos) {
+
+        samples ++;
+
+        Tracked bottleneck = null;
+
+        for(Tracked t: stages) {
+
+            t.sample(nowNanos);
+
+            if (t.occupancy > SATURATED && (bottleneck == null || t.occupancy > bottleneck.occupancy)) {
+
+                bottleneck = t;
+            }
+        }
+
+        for(Tracked t: stages) {
+
+            if (t.grownAt == samples - 1 && t.occupancy > SATURATED && t.rate < t.rateBeforeGrowth * MIN_GAIN) {
+
+                //
+                // the last thread did not help: the stage is still saturated, and not faster
+                //
+
+                if (t.stage.setThreads(t.stage.getThreads() - 1)) {
+
+                    adjusted(t, "thread count reduced to " + t.stage.getThreads() + ", the previous increase did " +
+                            "not improve throughput");
+                }
+
+                t.holdUntil = samples + HOLD_SAMPLES;
+                return;
+            }
+        }
+
+        if (bottleneck != null) {
+
+            relieve(bottleneck);
+            return;
+        }
+
+        for(Tracked t: stages) {
+
+            if (t.idleSamples < IDLE_SAMPLES) {
+
+                continue;
+            }
+
+            t.idleSamples = 0;
+
+            int threads = t.stage.getThreads();
+
+            if (threads > 1 && t.stage.setThreads(threads - 1)) {
+
+                adjusted(t, "idle, thread count reduced to " + (threads - 1));
+                return;
+            }
+
+            int batchSize = t.stage.getBatchSize();
+
+            if (batchSize > MIN_BATCH_SIZE) {
+
+                t.stage.setBatchSize(Math.max(MIN_BATCH_SIZE, batchSize / 2));
+                adjusted(t, "idle, batch size reduced to " + t.stage.getBatchSize());
+                return;
+            }
+        }
+    }
+
+    int getCpuCap() {
+
+        return cpuCap;
+    }
+
+    /**
+     * @return the threads used by the stages together.
+     */
+    synchronized int getThreads() {
+
+        int threads = 0;
+
+        for(Tracked t: stages) {
+
+            threads += t.stage.getThreads();
+        }
+
+        return threads;
+    }
+
+    synchronized long getAdjustments() {
+
+        return adjustments;
+    }
+
+    /**
+     * Reports the settings reached by each stage, its average throughput, and the command line options that pin the
+     * settings.
+     */
+    synchronized void report(PrintStream ps) {
+
+        if (stages.isEmpty()) {
+
+            return;
+        }
+
+        StringBuilder pin = new StringBuilder();
+
+        for(Tracked t: stages) {
+
+            TunableStage s = t.stage;
+
+            double seconds = (System.nanoTime() - t.registeredNanos) / (double)TimeUnit.SECONDS.toNanos(1);
+            long rate = seconds <= 0 ? 0L : (long)(s.getCompletedUnits() / seconds);
+
+            ps.println("auto-tune: " + s.getStageName() + ": " + s.getThreads() + " thread(s)" +
+                    (s.getBatchSize() > 0 ? ", batch size " + s.getBatchSize() : "") + ", " + rate + " " +
+                    s.getUnits() + "/s");
+
+            pin.append(pin.length() == 0 ? "" : " ").append(s.getPinningOptions());
+        }
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+        ps.println("auto-tune: " + adjustments + " adjustment(s) in " + elapsedMs + " ms, pin with: " + pin);
+        ps.flush();
+    }
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    /**
+     * Gives the bottleneck a thread or, if that is not possible, a larger batch size.
+     */
+    private void relieve(Tracked bottleneck) {
+
+        TunableStage s = bottleneck.stage;
+
+        if (samples >= bottleneck.holdUntil && grow(bottleneck)) {
+
+            return;
+        }
+
+        int batchSize = s.getBatchSize();
+
+        if (batchSize > 0 && batchSize < MAX_BATCH_SIZE) {
+
+            s.setBatchSize(Math.min(MAX_BATCH_SIZE, batchSize * 2));
+            adjusted(bottleneck, "saturated, batch size increased to " + s.getBatchSize());
+        }
+    }
+
+    /**
+     * @return true if the stage was given a thread, from the CPU cap or from the least busy idle stage.
+     */
+    private boolean grow(Tracked bottleneck) {
+
+        TunableStage s = bottleneck.stage;
+        int threads = s.getThreads();
+        boolean capped = getThreads() >= cpuCap;
+
+        Tracked donor = null;
+
+        if (capped) {
+
+            for(Tracked t: stages) {
+
+                if (t != bottleneck && t.occupancy < IDLE && t.stage.getThreads() > 1 &&
+                        (donor == null || t.occupancy < donor.occupancy)) {
+
+                    donor = t;
+                }
+            }
+
+            if (donor == null) {
+
+                return false;
+            }
+        }
+
+        if (!s.setThreads(threads + 1)) {
+
+            return false;
+        }
+
+        if (donor != null) {
+
+            int donorThreads = donor.stage.getThreads();
+
+            if (!donor.stage.setThreads(donorThreads - 1)) {
+
+                s.setThreads(threads);
+                return false;
+            }
+
+            adjusted(donor, "thread given to " + s.getStageName() + ", thread count reduced to " + (donorThreads - 1));
+        }
+
+        bottleneck.grownAt = samples;
+        bottleneck.rateBeforeGrowth = bottleneck.rate;
+
+        adjusted(bottleneck, "saturated (" + String.format("%.2f", bottleneck.occupancy) +
+                "), thread count increased to " + (threads + 1));
+
+        return true;
+    }
+
+    private void adjusted(Tracked t, String what) {
+
+        adjustments ++;
+        log.debug(t.stage.getStageName() + " " + what + " (" + t.rate + " " + t.stage.getUnits() + "/s)");
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+    /**
+     * A stage, and what the tuner remembers about it.
+     */
+    private static final class Tracked {
+
+        private final TunableStage stage;
+        private final long registeredNanos;
+
+        private long lastNanos;
+        private long lastUnits;
+
+        // from the last sample
+        private double occupancy;
+        private long rate;
+
+        private int idleSamples;
+
+        // the sample the stage was last given a thread on, and its throughput before that
+        private long grownAt;
+        private long rateBeforeGrowth;
+
+        // the stage is not given threads before this sample
+        private long holdUntil;
+
+        private Tracked(TunableStage stage, long nowNanos) {
+
+            this.stage = stage;
+            this.registeredNanos = nowNanos;
+            this.lastNanos = nowNanos;
+            this.lastUnits = stage.getCompletedUnits();
+            this.grownAt = -1L;
+        }
+
+        private void sample(long nowNanos) {
+
+            long units = stage.getCompletedUnits();
+            long elapsed = nowNanos - lastNanos;
+
+            rate = elapsed <= 0 ? 0L : (long)((units - lastUnits) * (double)TimeUnit.SECONDS.toNanos(1) / elapsed);
+            occupancy = stage.getOccupancy();
+            idleSamples = occupancy < IDLE ? idleSamples + 1 : 0;
+
+            lastNanos = nowNanos;
+            lastUnits = units;
+        }
+    }
+
+}
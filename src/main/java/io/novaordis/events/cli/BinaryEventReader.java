@@ -0,0 +1,604 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.novaordis.events.api.event.BooleanProperty;
+import io.novaordis.events.api.event.DoubleProperty;
+import io.novaordis.events.api.event.Event;
+import io.novaordis.events.api.event.FloatProperty;
+import io.novaordis.events.api.event.GenericEvent;
+import io.novaordis.events.api.event.GenericTimedEvent;
+import io.novaordis.events.api.event.IntegerProperty;
+import io.novaordis.events.api.event.LongProperty;
+import io.novaordis.events.api.event.Property;
+import io.novaordis.events.api.event.StringProperty;
+import io.novaordis.events.api.event.TimedEvent;
+
+/**
+ * Decodes a binary event stream, produced by a BinaryEventWriter, directly into events. See BinaryEventWriter for
+ * the format description.
+ *
+ * An event is decoded into its original class if the class can be loaded and has a public no-argument constructor or,
+ * for timed events, a public constructor that takes the Long timestamp. Otherwise, the event is decoded into a
+ * GenericTimedEvent if it carries a timestamp, and into a GenericEvent if it does not.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class BinaryEventReader {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    //
+    // the number of bytes ready() looks ahead for the next event
+    //
+    static final int LOOKAHEAD = 8 * 1024;
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * Checks whether the stream starts with the binary event stream magic, without consuming anything from it.
+     *
+     * @param is a stream that supports mark/reset.
+     */
+    public static boolean isBinaryEventStream(InputStream is) throws IOException {
+
+        if (!is.markSupported()) {
+
+            throw new IllegalArgumentException(is + " does not support mark/reset");
+        }
+
+        byte[] magic = BinaryEventWriter.MAGIC;
+
+        is.mark(magic.length);
+
+        boolean matches = true;
+
+        for(byte b: magic) {
+
+            if (is.read() != (b & 0xFF)) {
+
+                matches = false;
+                break;
+            }
+        }
+
+        is.reset();
+
+        return matches;
+    }
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private final InputStream is;
+
+    private final List<String> names;
+    private final List<Byte> types;
+    private final List<Kind> kinds;
+
+    private byte[] record;
+    private int position;
+    private int length;
+
+    private long eventsRead;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    /**
+     * Reads and validates the header.
+     *
+     * @exception IOException on I/O failure, or if the stream is not a binary event stream of a supported version.
+     */
+    public BinaryEventReader(InputStream is) throws IOException {
+
+        this.is = is;
+        this.names = new ArrayList<>();
+        this.types = new ArrayList<>();
+        this.kinds = new ArrayList<>();
+        this.record = new byte[1024];
+
+        for(byte b: BinaryEventWriter.MAGIC) {
+
+            if (is.read() != (b & 0xFF)) {
+
+                throw new IOException("not a binary event stream");
+            }
+        }
+
+        int version = is.read();
+
+        if (version != BinaryEventWriter.VERSION) {
+
+            throw new IOException("unsupported binary event stream version " + version);
+        }
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * @return the next event, or null if the end of the stream was reached.
+     *
+     * @exception IOException on I/O failure or corrupted stream.
+     */
+    public Event read() throws IOException {
+
+        while(readRecord()) {
+
+            byte recordType = record[position ++];
+
+            if (recordType == BinaryEventWriter.DEFINE) {
+
+                int id = (int)readVarint();
+                checkAvailable(1);
+                byte type = record[position ++];
+                String name = readString();
+
+                if (id != names.size()) {
+
+                    throw new IOException("corrupted binary event stream: unexpected property id " + id);
+                }
+
+                names.add(name);
+                types.add(type);
+            }
+            else if (recordType == BinaryEventWriter.KIND) {
+
+                int id = (int)readVarint();
+                String className = readString();
+
+                if (id != kinds.size()) {
+
+                    throw new IOException("corrupted binary event stream: unexpected kind id " + id);
+                }
+
+                kinds.add(new Kind(className));
+            }
+            else if (recordType == BinaryEventWriter.EVENT) {
+
+                eventsRead ++;
+                return readEvent();
+            }
+
+            //
+            // unknown record types are skipped
+            //
+        }
+
+        return null;
+    }
+
+    /**
+     * Used to detect an idle input. If the stream supports mark/reset, the records that precede the next event are
+     * looked ahead, without being consumed: a stream that ends with a partial record would block read() until the rest
+     * of the record arrives. Records beyond LOOKAHEAD bytes are reported as not ready.
+     *
+     * @return true if the next event can be read without blocking, or, if the stream does not support mark/reset, if
+     * it can be read at least in part.
+     */
+    public boolean ready() throws IOException {
+
+        if (!is.markSupported()) {
+
+            return is.available() > 0;
+        }
+
+        //
+        // the length and the type of the record that crosses the limit are read past it
+        //
+
+        is.mark(LOOKAHEAD + 6);
+
+        try {
+
+            long scanned = 0;
+
+            while(scanned < LOOKAHEAD) {
+
+                long len = 0;
+                int shift = 0;
+                int b;
+
+                do {
+
+                    if (is.available() <= 0) {
+
+                        return false;
+                    }
+
+                    b = is.read();
+
+                    if (b == -1) {
+
+                        return false;
+                    }
+
+                    len |= (long)(b & 0x7F) << shift;
+                    shift += 7;
+                    scanned ++;
+                }
+                while((b & 0x80) != 0 && shift <= 28);
+
+                if (len <= 0 || is.available() < len) {
+
+                    //
+                    // a corrupted length is reported by read()
+                    //
+
+                    return len <= 0;
+                }
+
+                if (is.read() == BinaryEventWriter.EVENT) {
+
+                    return true;
+                }
+
+                scanned += len;
+
+                if (scanned < LOOKAHEAD) {
+
+                    long remaining = len - 1;
+
+                    while(remaining > 0) {
+
+                        remaining -= is.skip(remaining);
+                    }
+                }
+            }
+
+            return false;
+        }
+        finally {
+
+            is.reset();
+        }
+    }
+
+    public long getEventsRead() {
+
+        return eventsRead;
+    }
+
+    @Override
+    public String toString() {
+
+        return "BinaryEventReader[" + kinds.size() + " kinds, " + names.size() + " properties, " +
+                eventsRead + " events]";
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    /**
+     * @return false on clean end of stream (at a record boundary).
+     */
+    private boolean readRecord() throws IOException {
+
+        long len = 0;
+        int shift = 0;
+
+        while(true) {
+
+            int b = is.read();
+
+            if (b == -1) {
+
+                if (shift == 0) {
+
+                    return false;
+                }
+
+                throw new EOFException("truncated binary event stream");
+            }
+
+            len |= (long)(b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0) {
+
+                break;
+            }
+
+            shift += 7;
+
+            if (shift > 28) {
+
+                throw new IOException("corrupted binary event stream: invalid record length");
+            }
+        }
+
+        if (len <= 0 || len > Integer.MAX_VALUE) {
+
+            throw new IOException("corrupted binary event stream: invalid record length " + len);
+        }
+
+        length = (int)len;
+
+        if (record.length < length) {
+
+            record = new byte[Math.max(length, record.length * 2)];
+        }
+
+        int read = 0;
+
+        while(read < length) {
+
+            int n = is.read(record, read, length - read);
+
+            if (n == -1) {
+
+                throw new EOFException("truncated binary event stream");
+            }
+
+            read += n;
+        }
+
+        position = 0;
+
+        return true;
+    }
+
+    private Event readEvent() throws IOException {
+
+        int kindId = (int)readVarint();
+
+        if (kindId < 0 || kindId >= kinds.size()) {
+
+            throw new IOException("corrupted binary event stream: undefined kind id " + kindId);
+        }
+
+        Kind kind = kinds.get(kindId);
+        Long time = null;
+
+        checkAvailable(1);
+
+        if ((record[position ++] & BinaryEventWriter.TIMED) != 0) {
+
+            time = unZigZag(readVarint());
+        }
+
+        int count = (int)readVarint();
+
+        List<Property> properties = new ArrayList<>(Math.min(count, 64));
+
+        for(int i = 0; i < count; i ++) {
+
+            int id = (int)readVarint();
+
+            if (id < 0 || id >= names.size()) {
+
+                throw new IOException("corrupted binary event stream: undefined property id " + id);
+            }
+
+            String name = names.get(id);
+
+            switch (types.get(id)) {
+
+                case BinaryEventWriter.INTEGER:
+                    properties.add(new IntegerProperty(name, (int)unZigZag(readVarint())));
+                    break;
+                case BinaryEventWriter.LONG:
+                    properties.add(new LongProperty(name, unZigZag(readVarint())));
+                    break;
+                case BinaryEventWriter.DOUBLE:
+                    properties.add(new DoubleProperty(name, Double.longBitsToDouble(readLong())));
+                    break;
+                case BinaryEventWriter.BOOLEAN:
+                    checkAvailable(1);
+                    properties.add(new BooleanProperty(name, record[position ++] != 0));
+                    break;
+                case BinaryEventWriter.FLOAT:
+                    properties.add(new FloatProperty(name, Float.intBitsToFloat((int)readLong(4))));
+                    break;
+                default:
+                    properties.add(new StringProperty(name, readString()));
+            }
+        }
+
+        Event event = kind.newEvent(time);
+
+        if (event == null) {
+
+            return time == null ? new GenericEvent(properties) : genericTimedEvent(time, properties);
+        }
+
+        for(Property p: properties) {
+
+            event.setProperty(p);
+        }
+
+        return event;
+    }
+
+    private static Event genericTimedEvent(Long time, List<Property> properties) {
+
+        GenericTimedEvent event = new GenericTimedEvent(time);
+
+        for(Property p: properties) {
+
+            event.setProperty(p);
+        }
+
+        return event;
+    }
+
+    private static long unZigZag(long n) {
+
+        return (n >>> 1) ^ -(n & 1);
+    }
+
+    private void checkAvailable(int n) throws IOException {
+
+        if (position + n > length) {
+
+            throw new IOException("corrupted binary event stream: record overrun");
+        }
+    }
+
+    private long readVarint() throws IOException {
+
+        long result = 0;
+
+        for(int shift = 0; shift < 64; shift += 7) {
+
+            checkAvailable(1);
+
+            byte b = record[position ++];
+
+            result |= (long)(b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0) {
+
+                return result;
+            }
+        }
+
+        throw new IOException("corrupted binary event stream: invalid varint");
+    }
+
+    private long readLong() throws IOException {
+
+        return readLong(8);
+    }
+
+    /**
+     * Reads an n-byte big-endian value.
+     */
+    private long readLong(int n) throws IOException {
+
+        checkAvailable(n);
+
+        long result = 0;
+
+        for(int i = 0; i < n; i ++) {
+
+            result = (result << 8) | (record[position ++] & 0xFF);
+        }
+
+        return result;
+    }
+
+    private String readString() throws IOException {
+
+        int n = (int)readVarint();
+
+        checkAvailable(n);
+
+        String s = new String(record, position, n, StandardCharsets.UTF_8);
+
+        position += n;
+
+        return s;
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+    /**
+     * An event class, as defined by a KIND record, and the constructors the events of that class are decoded with.
+     */
+    private static class Kind {
+
+        private Constructor<?> untimed;
+        private Constructor<?> timed;
+
+        Kind(String className) {
+
+            try {
+
+                ClassLoader cl = Thread.currentThread().getContextClassLoader();
+                Class<?> c = Class.forName(className, false, cl == null ? Kind.class.getClassLoader() : cl);
+
+                if (!Event.class.isAssignableFrom(c) ||
+                        !Modifier.isPublic(c.getModifiers()) || Modifier.isAbstract(c.getModifiers())) {
+
+                    return;
+                }
+
+                this.untimed = publicConstructor(c);
+
+                if (TimedEvent.class.isAssignableFrom(c)) {
+
+                    this.timed = publicConstructor(c, Long.class);
+                }
+            }
+            catch(ClassNotFoundException | LinkageError e) {
+
+                //
+                // the event class is not available in this process, the events are decoded into generic events
+                //
+            }
+        }
+
+        /**
+         * @return null if the events of this kind cannot be instantiated, the caller decodes into a generic event.
+         */
+        Event newEvent(Long time) {
+
+            Constructor<?> c = time == null ? untimed : timed;
+
+            if (c == null) {
+
+                return null;
+            }
+
+            try {
+
+                return (Event)(time == null ? c.newInstance() : c.newInstance(time));
+            }
+            catch(ReflectiveOperationException | RuntimeException e) {
+
+                //
+                // do not try again
+                //
+
+                if (time == null) {
+
+                    untimed = null;
+                }
+                else {
+
+                    timed = null;
+                }
+
+                return null;
+            }
+        }
+
+        private static Constructor<?> publicConstructor(Class<?> c, Class<?>... parameterTypes) {
+
+            try {
+
+                return c.getConstructor(parameterTypes);
+            }
+            catch(NoSuchMethodException e) {
+
+                return null;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,376 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.novaordis.events.api.event.Event;
+import io.novaordis.events.api.event.Property;
+import io.novaordis.events.api.event.TimedEvent;
+
+/**
+ * Encodes events into the binary event stream format, which allows events-cli processes to be chained without
+ * re-parsing text.
+ *
+ * The stream starts with a header (BinaryEventWriter.MAGIC followed by a version byte), followed by length-prefixed
+ * records. The length is an unsigned varint, and the first byte of each record is the record type:
+ *
+ * DEFINE: varint property id, type byte, varint name length, UTF-8 name. Each (name, type) pair is defined once,
+ * before its first use.
+ *
+ * KIND: varint kind id, varint name length, UTF-8 event class name. Each event class is defined once, before its
+ * first use.
+ *
+ * EVENT: varint kind id, flags byte (TIMED: the event carries a timestamp, encoded next as a zig-zag varint), varint
+ * property count, followed by (varint property id, value) pairs. Strings are encoded as varint length followed by UTF-8
+ * bytes, integers and longs as zig-zag varints, doubles as 8 big-endian bytes, floats as 4 big-endian bytes, booleans
+ * as one byte.
+ *
+ * Properties with null values are skipped. Property values of other types cannot be encoded, and fail the write. The
+ * reader decodes the events into their original class if possible (see BinaryEventReader), so timed events remain
+ * timed events.
+ *
+ * The writer is not thread safe.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class BinaryEventWriter {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    //
+    // starts with a zero byte, which never occurs at the beginning of a text log
+    //
+    public static final byte[] MAGIC = { 0, 'E', 'V', 'B' };
+
+    public static final int VERSION = 1;
+
+    static final byte DEFINE = 1;
+    static final byte EVENT = 2;
+    static final byte KIND = 3;
+
+    static final byte TIMED = 1;
+
+    static final byte STRING = 1;
+    static final byte INTEGER = 2;
+    static final byte LONG = 3;
+    static final byte DOUBLE = 4;
+    static final byte BOOLEAN = 5;
+    static final byte FLOAT = 6;
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    static byte typeOf(Object value) {
+
+        if (value instanceof String) {
+
+            return STRING;
+        }
+        else if (value instanceof Integer) {
+
+            return INTEGER;
+        }
+        else if (value instanceof Long) {
+
+            return LONG;
+        }
+        else if (value instanceof Double) {
+
+            return DOUBLE;
+        }
+        else if (value instanceof Boolean) {
+
+            return BOOLEAN;
+        }
+        else if (value instanceof Float) {
+
+            return FLOAT;
+        }
+
+        return 0;
+    }
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private final OutputStream os;
+
+    // "<type><name>" - property id
+    private final Map<String, Integer> dictionary;
+
+    // event class - kind id
+    private final Map<Class<?>, Integer> kinds;
+
+    private byte[] record;
+    private int length;
+
+    // the record length prefix is assembled here
+    private final byte[] prefix;
+
+    private long eventsWritten;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    /**
+     * Writes the header into the output stream.
+     */
+    public BinaryEventWriter(OutputStream os) throws IOException {
+
+        this.os = os;
+        this.dictionary = new HashMap<>();
+        this.kinds = new HashMap<>();
+        this.record = new byte[1024];
+        this.prefix = new byte[5];
+
+        os.write(MAGIC);
+        os.write(VERSION);
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * @exception IOException on I/O failure, or if the event has a property whose value type cannot be encoded. In the
+     * latter case, nothing is written.
+     */
+    public void write(Event e) throws IOException {
+
+        List<Property> properties = e.getProperties();
+
+        for(Property p: properties) {
+
+            Object value = p.getValue();
+
+            if (value != null && typeOf(value) == 0) {
+
+                throw new IOException(
+                        "property \"" + p.getName() + "\" of type " + value.getClass().getName() +
+                                " cannot be written in the binary event stream format");
+            }
+        }
+
+        //
+        // define the event class and the properties we did not see yet, before they are referred to
+        //
+
+        Integer kind = kinds.get(e.getClass());
+
+        if (kind == null) {
+
+            kind = kinds.size();
+            kinds.put(e.getClass(), kind);
+
+            length = 0;
+            writeByte(KIND);
+            writeVarint(kind);
+            writeString(e.getClass().getName());
+            flushRecord();
+        }
+
+        int count = 0;
+
+        for(Property p: properties) {
+
+            Object value = p.getValue();
+
+            if (value == null) {
+
+                continue;
+            }
+
+            count ++;
+
+            byte type = typeOf(value);
+            String key = (char)type + p.getName();
+
+            if (!dictionary.containsKey(key)) {
+
+                int id = dictionary.size();
+                dictionary.put(key, id);
+
+                length = 0;
+                writeByte(DEFINE);
+                writeVarint(id);
+                writeByte(type);
+                writeString(p.getName());
+                flushRecord();
+            }
+        }
+
+        Long time = e instanceof TimedEvent ? ((TimedEvent)e).getTime() : null;
+
+        length = 0;
+        writeByte(EVENT);
+        writeVarint(kind);
+
+        if (time == null) {
+
+            writeByte(0);
+        }
+        else {
+
+            writeByte(TIMED);
+            writeVarint(zigZag(time));
+        }
+
+        writeVarint(count);
+
+        for(Property p: properties) {
+
+            Object value = p.getValue();
+
+            if (value == null) {
+
+                continue;
+            }
+
+            byte type = typeOf(value);
+
+            writeVarint(dictionary.get((char)type + p.getName()));
+
+            switch (type) {
+
+                case INTEGER:
+                    writeVarint(zigZag((Integer)value));
+                    break;
+                case LONG:
+                    writeVarint(zigZag((Long)value));
+                    break;
+                case DOUBLE:
+                    writeLong(Double.doubleToRawLongBits((Double)value));
+                    break;
+                case BOOLEAN:
+                    writeByte((Boolean)value ? 1 : 0);
+                    break;
+                case FLOAT:
+                    writeInt(Float.floatToRawIntBits((Float)value));
+                    break;
+                default:
+                    writeString(value.toString());
+            }
+        }
+
+        flushRecord();
+
+        eventsWritten ++;
+    }
+
+    public long getEventsWritten() {
+
+        return eventsWritten;
+    }
+
+    @Override
+    public String toString() {
+
+        return "BinaryEventWriter[" + kinds.size() + " kinds, " + dictionary.size() + " properties, " +
+                eventsWritten + " events]";
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    private static long zigZag(long n) {
+
+        return (n << 1) ^ (n >> 63);
+    }
+
+    private void flushRecord() throws IOException {
+
+        int i = 0;
+        long v = length;
+
+        while((v & ~0x7FL) != 0) {
+
+            prefix[i ++] = (byte)((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+
+        prefix[i ++] = (byte)v;
+
+        os.write(prefix, 0, i);
+        os.write(record, 0, length);
+    }
+
+    private void ensureCapacity(int extra) {
+
+        if (length + extra > record.length) {
+
+            byte[] tmp = new byte[Math.max(record.length * 2, length + extra)];
+            System.arraycopy(record, 0, tmp, 0, length);
+            record = tmp;
+        }
+    }
+
+    private void writeByte(int b) {
+
+        ensureCapacity(1);
+        record[length ++] = (byte)b;
+    }
+
+    private void writeVarint(long v) {
+
+        ensureCapacity(10);
+
+        while((v & ~0x7FL) != 0) {
+
+            record[length ++] = (byte)((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+
+        record[length ++] = (byte)v;
+    }
+
+    private void writeLong(long v) {
+
+        ensureCapacity(8);
+
+        for(int shift = 56; shift >= 0; shift -= 8) {
+
+            record[length ++] = (byte)(v >>> shift);
+        }
+    }
+
+    private void writeInt(int v) {
+
+        ensureCapacity(4);
+
+        for(int shift = 24; shift >= 0; shift -= 8) {
+
+            record[length ++] = (byte)(v >>> shift);
+        }
+    }
+
+    private void writeString(String s) {
+
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, record, length, bytes.length);
+        length += bytes.length;
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
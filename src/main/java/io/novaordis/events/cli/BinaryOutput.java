@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
+
+import io.novaordis.events.api.event.Event;
+import io.novaordis.events.processing.EventProcessingException;
+import io.novaordis.events.processing.Procedure;
+
+/**
+ * An output procedure that writes the events in the binary event stream format. A downstream events-cli process
+ * detects the format automatically and decodes the events directly, without using the application parser.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class BinaryOutput implements Procedure {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private final OutputStream target;
+    private final BinaryEventWriter writer;
+
+    private long invocationCount;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    /**
+     * Writes the binary event stream header into the target stream.
+     */
+    public BinaryOutput(OutputStream target) throws IOException {
+
+        this.target = target;
+        this.writer = new BinaryEventWriter(target);
+    }
+
+    // Procedure implementation ----------------------------------------------------------------------------------------
+
+    @Override
+    public List<String> getCommandLineLabels() {
+
+        //
+        // not directly addressable from command line, installed by the runtime
+        //
+
+        return Collections.emptyList();
+    }
+
+    @Override
+    public void process(Event in) throws EventProcessingException {
+
+        try {
+
+            writer.write(in);
+        }
+        catch(IOException e) {
+
+            throw new EventProcessingException("failed to write binary event: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void process(List<Event> in) throws EventProcessingException {
+
+        invocationCount ++;
+
+        for(Event e: in) {
+
+            process(e);
+        }
+    }
+
+    @Override
+    public long getInvocationCount() {
+
+        return invocationCount;
+    }
+
+    @Override
+    public boolean isExitLoop() {
+
+        return false;
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    public OutputStream getTarget() {
+
+        return target;
+    }
+
+    public long getEventsWritten() {
+
+        return writer.getEventsWritten();
+    }
+
+    @Override
+    public String toString() {
+
+        return "BinaryOutput[" + writer.getEventsWritten() + " events]";
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
@@ -0,0 +1,527 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A large, unsynchronized output buffer placed between the procedure and the real output stream (usually System.out).
+ * Content is written to the target stream in large chunks, either by the writing thread (synchronous mode) or by a
+ * dedicated writer thread (asynchronous mode).
+ *
+ * The sink is not thread safe, it must be written by a single thread - the event loop thread.
+ *
+ * flush() invocations coming from the procedure are absorbed, to prevent a per-event flush from defeating the
+ * buffering. The runtime explicitly drains the sink with drain() when the input goes idle, on exit-loop and at the end
+ * of the run.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class BufferedOutputSink extends OutputStream {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    private static final Logger log = LoggerFactory.getLogger(BufferedOutputSink.class);
+
+    public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+    //
+    // the maximum number of buffers in flight between the event loop thread and the writer thread, in asynchronous
+    // mode
+    //
+    public static final int DEFAULT_QUEUE_DEPTH = 4;
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private final OutputStream target;
+    private final boolean closeTarget;
+    private final int bufferSize;
+
+    private byte[] buffer;
+    private int position;
+
+    private long bytesWritten;
+
+    private boolean closed;
+
+    //
+    // asynchronous mode only
+    //
+
+    private final boolean async;
+    private BlockingQueue<Chunk> filled;
+    private BlockingQueue<byte[]> free;
+    private int allocatedBuffers;
+    private Thread writer;
+    private volatile IOException writerFailure;
+
+    // null if the memory is not bounded
+    private volatile InflightBudget budget;
+
+    // null if the run is not throttled
+    private volatile Throttle throttle;
+
+    private volatile WaitStrategy waitStrategy;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    /**
+     * Synchronous sink with default buffer size, that does not close the target stream.
+     */
+    public BufferedOutputSink(OutputStream target) {
+
+        this(target, DEFAULT_BUFFER_SIZE, false, false);
+    }
+
+    /**
+     * @param target the stream the content is eventually written to.
+     * @param bufferSize the size of the buffer(s), in bytes.
+     * @param async if true, the content is written into the target stream by a dedicated writer thread.
+     * @param closeTarget if true, the target stream is closed when the sink is closed. Should be false for System.out.
+     */
+    public BufferedOutputSink(OutputStream target, int bufferSize, boolean async, boolean closeTarget) {
+
+        if (target == null) {
+
+            throw new IllegalArgumentException("null target");
+        }
+
+        if (bufferSize <= 0) {
+
+            throw new IllegalArgumentException("invalid buffer size " + bufferSize);
+        }
+
+        this.target = target;
+        this.bufferSize = bufferSize;
+        this.async = async;
+        this.closeTarget = closeTarget;
+        this.buffer = new byte[bufferSize];
+        this.position = 0;
+        this.waitStrategy = WaitStrategy.BLOCK;
+
+        if (async) {
+
+            this.filled = new ArrayBlockingQueue<>(DEFAULT_QUEUE_DEPTH + 1);
+            this.free = new ArrayBlockingQueue<>(DEFAULT_QUEUE_DEPTH);
+            this.allocatedBuffers = 1;
+            this.writer = new Thread(this::writerLoop, "events-cli output writer");
+            this.writer.setDaemon(true);
+            this.writer.start();
+        }
+
+        log.debug(this + " constructed");
+    }
+
+    // OutputStream overrides ------------------------------------------------------------------------------------------
+
+    @Override
+    public void write(int b) throws IOException {
+
+        checkOpen();
+
+        buffer[position ++] = (byte)b;
+
+        bytesWritten ++;
+
+        if (position == buffer.length) {
+
+            handOff();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+
+        checkOpen();
+
+        bytesWritten += len;
+
+        if (!async && position == 0 && len >= buffer.length) {
+
+            //
+            // nothing to preserve ordering against, large writes bypass the buffer
+            //
+
+            target.write(b, off, len);
+            return;
+        }
+
+        while(len > 0) {
+
+            int n = Math.min(len, buffer.length - position);
+
+            System.arraycopy(b, off, buffer, position, n);
+
+            position += n;
+            off += n;
+            len -= n;
+
+            if (position == buffer.length) {
+
+                handOff();
+            }
+        }
+    }
+
+    /**
+     * Absorbed, see the class documentation. Use drain() to push the content to the target stream.
+     */
+    @Override
+    public void flush() throws IOException {
+
+        checkOpen();
+    }
+
+    /**
+     * Drains the sink and releases the writer thread, if any. Closes the target stream only if configured to do so.
+     * Idempotent.
+     */
+    @Override
+    public void close() throws IOException {
+
+        if (closed) {
+
+            return;
+        }
+
+        try {
+
+            drain();
+        }
+        finally {
+
+            closed = true;
+
+            try {
+
+                if (async) {
+
+                    stopWriter();
+                }
+            }
+            finally {
+
+                if (closeTarget) {
+
+                    target.close();
+                }
+            }
+        }
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * Writes all buffered content into the target stream and flushes the target stream. In asynchronous mode, the
+     * method blocks until the writer thread has written and flushed everything submitted so far.
+     */
+    public void drain() throws IOException {
+
+        checkOpen();
+
+        handOff();
+
+        if (!async) {
+
+            target.flush();
+            return;
+        }
+
+        Chunk barrier = new Chunk(null, 0, new CountDownLatch(1));
+
+        try {
+
+            filled.put(barrier);
+            barrier.barrier.await();
+        }
+        catch(InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while draining the output");
+        }
+
+        rethrowWriterFailure();
+    }
+
+    public OutputStream getTarget() {
+
+        return target;
+    }
+
+    public int getBufferSize() {
+
+        return bufferSize;
+    }
+
+    public boolean isAsync() {
+
+        return async;
+    }
+
+    /**
+     * @return the number of bytes written into the sink so far. Not all of them may have reached the target stream.
+     */
+    public long getBytesWritten() {
+
+        return bytesWritten;
+    }
+
+    /**
+     * @return the number of filled buffers waiting to be written by the writer thread. Always 0 in synchronous mode.
+     * May be called from any thread.
+     */
+    public int getQueueDepth() {
+
+        BlockingQueue<Chunk> q = filled;
+        return q == null ? 0 : q.size();
+    }
+
+    /**
+     * In asynchronous mode, the filled buffers waiting for the writer thread are accounted for in the budget. Must be
+     * invoked before the first write.
+     *
+     * @param budget may be null.
+     */
+    public void setInflightBudget(InflightBudget budget) {
+
+        this.budget = budget;
+    }
+
+    /**
+     * In asynchronous mode, the writer thread paces itself to the throttle's CPU share. In synchronous mode, the
+     * writes are made, and paced, by the event loop thread.
+     *
+     * @param throttle may be null.
+     */
+    public void setThrottle(Throttle throttle) {
+
+        this.throttle = throttle;
+    }
+
+    /**
+     * @param waitStrategy how the writer thread waits for filled buffers, in asynchronous mode. WaitStrategy.BLOCK by
+     *                     default.
+     */
+    public void setWaitStrategy(WaitStrategy waitStrategy) {
+
+        this.waitStrategy = waitStrategy;
+    }
+
+    @Override
+    public String toString() {
+
+        return "BufferedOutputSink[" + bufferSize + (async ? ", async" : "") + "]";
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    boolean isWriterAlive() {
+
+        return writer != null && writer.isAlive();
+    }
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    private void checkOpen() throws IOException {
+
+        if (closed) {
+
+            throw new IOException(this + " closed");
+        }
+    }
+
+    /**
+     * Transfers the buffered content to the target (synchronous mode) or to the writer thread (asynchronous mode).
+     */
+    private void handOff() throws IOException {
+
+        if (position == 0) {
+
+            return;
+        }
+
+        if (!async) {
+
+            target.write(buffer, 0, position);
+            position = 0;
+            return;
+        }
+
+        rethrowWriterFailure();
+
+        InflightBudget b = budget;
+
+        if (b != null) {
+
+            b.reserve(0L, position);
+        }
+
+        try {
+
+            filled.put(new Chunk(buffer, position, null));
+
+            buffer = free.poll();
+
+            if (buffer == null) {
+
+                if (allocatedBuffers < DEFAULT_QUEUE_DEPTH) {
+
+                    allocatedBuffers ++;
+                    buffer = new byte[bufferSize];
+                }
+                else {
+
+                    buffer = free.take();
+                }
+            }
+        }
+        catch(InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while handing off output");
+        }
+
+        position = 0;
+    }
+
+    private void rethrowWriterFailure() throws IOException {
+
+        IOException e = writerFailure;
+
+        if (e != null) {
+
+            throw new IOException("output writer failed: " + e.getMessage(), e);
+        }
+    }
+
+    private void stopWriter() {
+
+        try {
+
+            filled.put(Chunk.END);
+            writer.join();
+        }
+        catch(InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            log.warn("interrupted while stopping " + writer.getName());
+        }
+    }
+
+    private void writerLoop() {
+
+        try {
+
+            while(true) {
+
+                Chunk c = waitStrategy.take(filled);
+
+                if (c == Chunk.END) {
+
+                    return;
+                }
+
+                try {
+
+                    if (writerFailure == null) {
+
+                        if (c.data != null) {
+
+                            target.write(c.data, 0, c.length);
+                        }
+                        else {
+
+                            target.flush();
+                        }
+                    }
+                }
+                catch(IOException e) {
+
+                    //
+                    // keep consuming so the event loop thread never blocks on a dead writer; the failure is reported
+                    // on the next write or drain
+                    //
+
+                    writerFailure = e;
+                    log.debug("output writer failure", e);
+                }
+                finally {
+
+                    if (c.data != null) {
+
+                        free.offer(c.data);
+
+                        InflightBudget b = budget;
+
+                        if (b != null) {
+
+                            b.release(0L, c.length);
+                        }
+                    }
+
+                    if (c.barrier != null) {
+
+                        c.barrier.countDown();
+                    }
+                }
+
+                Throttle t = throttle;
+
+                if (t != null) {
+
+                    t.pace();
+                }
+            }
+        }
+        catch(InterruptedException e) {
+
+            log.debug(Thread.currentThread().getName() + " interrupted");
+        }
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+    private static class Chunk {
+
+        static final Chunk END = new Chunk(null, 0, null);
+
+        final byte[] data;
+        final int length;
+        final CountDownLatch barrier;
+
+        Chunk(byte[] data, int length, CountDownLatch barrier) {
+
+            this.data = data;
+            this.length = length;
+            this.barrier = barrier;
+        }
+    }
+
+}
@@ -16,11 +16,14 @@
 
 package io.novaordis.events.cli;
 
+import java.io.File;
 import java.io.InputStream;
+import java.util.List;
 
 import io.novaordis.events.api.parser.Parser;
 import io.novaordis.events.processing.Procedure;
 import io.novaordis.events.query.Query;
+import io.novaordis.utilities.appspec.ApplicationSpecificBehavior;
 
 /**
  * The command line configuration.
@@ -46,7 +49,8 @@ public interface Configuration {
 
     /**
      * @return the input stream events will come from. It may be file-based or pipe-based, as it is the case when
-     * the content is piped into the process. Unless isHelp() returns true, this method should never return null.
+     * the content is piped into the process. Unless isHelp() returns true, or the input files are read on per-file
+     * threads, this method should never return null.
      *
      * Important! It is the caller's responsibility to close the InputStream when it is not needed anymore.
      */
@@ -55,6 +59,12 @@ public interface Configuration {
 
     Parser getParser();
 
+    /**
+     * @return the factory of the parsers used when several inputs are parsed concurrently, or null if the application
+     * did not make one available.
+     */
+    ParserFactory getParserFactory();
+
     /**
      * @return the procedure that was requested at command line. If no procedure is explicitly requested, the behavior
      * defaults to "display", which means a May return null, which has a "default procedure"
@@ -82,4 +92,58 @@ public interface Configuration {
      */
     void setApplicationSpecificConfiguration(ApplicationSpecificConfiguration c);
 
+    /**
+     * @return the runtime-level options (options that configure the event loop, and not the procedure or the query).
+     * Never null.
+     */
+    RuntimeOptions getRuntimeOptions();
+
+    /**
+     * @return the buffered sink the procedure writes into, if the procedure output is managed by the runtime. The
+     * runtime is responsible for draining and closing it. May return null, if the procedure manages its own output.
+     */
+    BufferedOutputSink getOutputSink();
+
+    /**
+     * @return the memory budget shared by the stages of the run, which have already been configured with it, or null
+     * if the memory is not bounded (neither --max-inflight-bytes nor --max-inflight-events was specified).
+     */
+    InflightBudget getInflightBudget();
+
+    /**
+     * @return the resource caps of the run, which the stages have already been configured with, or null if the run is
+     * not throttled (neither --max-read-rate nor --cpu-share was specified).
+     */
+    Throttle getThrottle();
+
+    /**
+     * @return the application-specific behavior the configuration was built with, in which the runtime looks up the
+     * executors of the pools it creates while running. May be null.
+     */
+    ApplicationSpecificBehavior getApplicationSpecificBehavior();
+
+    /**
+     * @return the size in bytes of the input, if known, as it is the case for file inputs. -1 if the size is not known,
+     * as it is the case for stdin.
+     */
+    long getInputSize();
+
+    /**
+     * @return the input file, or null if the input is not read from a file, as it is the case for stdin.
+     */
+    File getInputFile();
+
+    /**
+     * @return the input files, in command line order. Empty if the input is stdin. More than one file can only be
+     * specified in --per-file-threads mode.
+     */
+    List<File> getInputFiles();
+
+    /**
+     * Releases what the configuration created for the run - the output sink and its writer thread, the procedure's
+     * threads and files, the input file it opened - if the configuration is not handed over to a runtime, which
+     * releases them at the end of the run. Idempotent.
+     */
+    void close();
+
 }
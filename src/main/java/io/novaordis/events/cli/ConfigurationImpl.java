@@ -16,13 +16,18 @@
 
 package io.novaordis.events.cli;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,6 +39,7 @@ import io.novaordis.events.processing.ProcedureFactory;
 import io.novaordis.events.processing.exclude.Exclude;
 import io.novaordis.events.processing.help.Help;
 import io.novaordis.events.processing.output.Output;
+import io.novaordis.events.processing.output.OutputFormat;
 import io.novaordis.events.query.NullQuery;
 import io.novaordis.events.query.Query;
 import io.novaordis.utilities.UserErrorException;
@@ -68,6 +74,22 @@ public class ConfigurationImpl implements Configuration {
     private Procedure procedure;
     private InputStream inputStream;
     private ApplicationSpecificConfiguration applicationSpecificConfiguration;
+    private RuntimeOptions runtimeOptions;
+    private BufferedOutputSink outputSink;
+    private long inputSize;
+    private File inputFile;
+    private List<File> inputFiles;
+    private ParserFactory parserFactory;
+    private InflightBudget inflightBudget;
+    private Throttle throttle;
+    private List<String> applicationSpecificArguments;
+    private ApplicationSpecificBehavior applicationSpecificBehavior;
+
+    // the output format arguments of the default procedure, null if an explicit procedure was identified
+    private List<String> outputArguments;
+
+    // true if the input stream was opened by the configuration, and not passed to it
+    private boolean inputStreamOpened;
 
     // Constructors ----------------------------------------------------------------------------------------------------
 
@@ -81,7 +103,29 @@ public class ConfigurationImpl implements Configuration {
     public ConfigurationImpl(String[] argsa, ApplicationSpecificBehavior applicationSpecificBehavior)
             throws UserErrorException {
 
-        log.debug("parsing argument: " + Arrays.asList(argsa));
+        this(argsa, applicationSpecificBehavior, STDIN, System.out);
+    }
+
+    /**
+     * @param argsa "log4jp [command] [command options] [query] <file1> [file2 ...]
+     * @param applicationSpecificBehavior everything application-specific, which application built and it may be
+     *                                    needed to plug-in into the generic runtime. In general, application-specific
+     *                                    behavior, if present, takes precedence over corresponding, but more generic
+     *                                    behavior present in the generic runtime.
+     * @param stdin the stream to read from if no file is specified.
+     * @param stdout the stream the default procedure writes to.
+     */
+    public ConfigurationImpl(String[] argsa, ApplicationSpecificBehavior applicationSpecificBehavior,
+                             InputStream stdin, OutputStream stdout) throws UserErrorException {
+
+        if (log.isDebugEnabled()) {
+
+            log.debug("parsing argument: " + Arrays.asList(argsa));
+        }
+
+        this.runtimeOptions = new RuntimeOptions();
+        this.inputSize = -1L;
+        this.applicationSpecificBehavior = applicationSpecificBehavior;
 
         if (argsa.length == 0) {
 
@@ -97,11 +141,29 @@ public class ConfigurationImpl implements Configuration {
 
         List<String> args = new ArrayList<>(Arrays.asList(argsa));
 
+        //
+        // identify and remove runtime options first, so their values are not mistaken for files, procedure arguments
+        // or query arguments
+        //
+
+        runtimeOptions.process(args);
+
+        if (runtimeOptions.isBoundedMemory()) {
+
+            this.inflightBudget =
+                    new InflightBudget(runtimeOptions.getMaxInflightEvents(), runtimeOptions.getMaxInflightBytes());
+        }
+
+        if (runtimeOptions.isThrottled()) {
+
+            this.throttle = new Throttle(runtimeOptions.getMaxReadRate(), runtimeOptions.getCpuShare());
+        }
+
         //
         // start from the back and identify the files
         //
 
-        File file = null;
+        List<File> files = new ArrayList<>();
 
         int i;
 
@@ -113,12 +175,12 @@ public class ConfigurationImpl implements Configuration {
 
             if (candidate.isFile()) {
 
-                if (file != null) {
+                if (!files.isEmpty() && !runtimeOptions.isPerFileThreads()) {
 
                     throw new UserErrorException("multiple files cannot be processed at the same time");
                 }
 
-                file = candidate;
+                files.add(0, candidate);
             }
 
             else {
@@ -127,6 +189,8 @@ public class ConfigurationImpl implements Configuration {
             }
         }
 
+        this.inputFiles = Collections.unmodifiableList(files);
+
         args = args.subList(0, i + 1);
 
         //
@@ -148,7 +212,11 @@ public class ConfigurationImpl implements Configuration {
                 // process the arguments and remove the recognized ones
                 //
 
+                List<String> before = new ArrayList<>(args);
+
                 argumentProcessor.process(args, this);
+
+                this.applicationSpecificArguments = Collections.unmodifiableList(removed(before, args));
             }
         }
 
@@ -181,6 +249,8 @@ public class ConfigurationImpl implements Configuration {
 
                     log.debug("found local procedure " + procedure);
 
+                    this.help = procedure instanceof Help;
+
                     //
                     // we identified the procedure, which also consumed all its arguments from the list
                     //
@@ -219,11 +289,11 @@ public class ConfigurationImpl implements Configuration {
             }
         }
 
-        if (this.procedure == null) {
+        if (this.procedure == null && !args.isEmpty()) {
 
             //
             // try the default procedure factory, which will build procedures shipped as part of the "events-processing"
-            // project.
+            // project. It is not built if there are no arguments left that could name a procedure.
             //
 
             ProcedureFactory defaultProcedureFactory = new DefaultProcedureFactory(applicationSpecificBehavior);
@@ -238,6 +308,8 @@ public class ConfigurationImpl implements Configuration {
 
                     log.debug("found default procedure " + procedure);
 
+                    this.help = procedure instanceof Help;
+
                     //
                     // we identified the procedure, which also consumed all its arguments from the list, remove the
                     // argument and exit
@@ -250,15 +322,18 @@ public class ConfigurationImpl implements Configuration {
             }
         }
 
-        log.debug("procedure factories were not able to identify any procedure (application-specific or default), building default procedure ...");
-
         if (this.procedure == null) {
 
+            log.debug("procedure factories were not able to identify any procedure (application-specific or default), building default procedure ...");
+
             //
-            // no explicit procedure, default to Output
+            // no explicit procedure, default to Output, which writes into a runtime-managed buffered sink instead of
+            // writing directly into the synchronized stdout stream. Only the output format arguments are interpreted
+            // now: the sinks, their threads and the output files are created after the query and the input are
+            // validated, so an invalid command line does not leave them behind
             //
 
-            this.procedure = new Output(System.out, applicationSpecificBehavior, 0, args);
+            this.outputArguments = removeOutputArguments(applicationSpecificBehavior, args, stdout);
         }
 
         //
@@ -278,12 +353,35 @@ public class ConfigurationImpl implements Configuration {
 
         }
 
-        if (file != null) {
+        if (runtimeOptions.isPerFileThreads() && !files.isEmpty()) {
+
+            //
+            // the files are opened by the threads that read them
+            //
+
+            this.inputSize = 0L;
+
+            for(File f: files) {
+
+                inputSize += f.length();
+            }
+
+            if (files.size() == 1) {
+
+                this.inputFile = files.get(0);
+            }
+        }
+        else if (!files.isEmpty()) {
+
+            File file = files.get(0);
 
             try {
 
                 InputStream is  = new FileInputStream(file);
                 setInputStream(is);
+                this.inputStreamOpened = true;
+                this.inputSize = file.length();
+                this.inputFile = file;
             }
             catch(IOException e) {
 
@@ -296,9 +394,22 @@ public class ConfigurationImpl implements Configuration {
             // use the stdin
             //
 
-            log.debug("no input file specified, using System.in (" + STDIN + ")");
+            log.debug("no input file specified, using stdin (" + stdin + ")");
+
+            setInputStream(stdin);
+        }
+
+        if (outputArguments != null) {
 
-            setInputStream(STDIN);
+            try {
+
+                buildDefaultProcedure(applicationSpecificBehavior, new ArrayList<>(outputArguments), stdout);
+            }
+            catch(UserErrorException | RuntimeException e) {
+
+                close();
+                throw e;
+            }
         }
 
         //
@@ -323,7 +434,8 @@ public class ConfigurationImpl implements Configuration {
                     "      help:        " + help + "\n" +
                     "      query:       " + query + "\n" +
                     "      procedure:   " + procedure + "\n" +
-                    "      inputStream: " + inputStream;
+                    "      inputStream: " + inputStream + "\n" +
+                    "      options:     " + runtimeOptions;
 
             log.debug(s);
         }
@@ -331,10 +443,13 @@ public class ConfigurationImpl implements Configuration {
 
     // Configuration implementation ------------------------------------------------------------------------------------
 
+    /**
+     * Help is identified when the procedure is, so the help machinery is not loaded unless help was requested.
+     */
     @Override
     public boolean isHelp() {
 
-        return help || procedure instanceof Help;
+        return help;
     }
 
     @Override
@@ -343,12 +458,42 @@ public class ConfigurationImpl implements Configuration {
         return inputStream;
     }
 
+    @Override
+    public ApplicationSpecificBehavior getApplicationSpecificBehavior() {
+
+        return applicationSpecificBehavior;
+    }
+
+    @Override
+    public long getInputSize() {
+
+        return inputSize;
+    }
+
+    @Override
+    public File getInputFile() {
+
+        return inputFile;
+    }
+
+    @Override
+    public List<File> getInputFiles() {
+
+        return inputFiles == null ? Collections.<File>emptyList() : inputFiles;
+    }
+
     @Override
     public Parser getParser() {
 
         return parser;
     }
 
+    @Override
+    public ParserFactory getParserFactory() {
+
+        return parserFactory;
+    }
+
     @Override
     public Procedure getProcedure() {
 
@@ -373,6 +518,70 @@ public class ConfigurationImpl implements Configuration {
         this.applicationSpecificConfiguration = c;
     }
 
+    @Override
+    public RuntimeOptions getRuntimeOptions() {
+
+        return runtimeOptions;
+    }
+
+    @Override
+    public BufferedOutputSink getOutputSink() {
+
+        return outputSink;
+    }
+
+    @Override
+    public InflightBudget getInflightBudget() {
+
+        return inflightBudget;
+    }
+
+    @Override
+    public Throttle getThrottle() {
+
+        return throttle;
+    }
+
+    @Override
+    public void close() {
+
+        if (procedure instanceof OutputStage) {
+
+            try {
+
+                ((OutputStage)procedure).close();
+            }
+            catch(Exception e) {
+
+                log.debug("failed to close " + procedure, e);
+            }
+        }
+
+        if (outputSink != null) {
+
+            try {
+
+                outputSink.close();
+            }
+            catch(Exception e) {
+
+                log.debug("failed to close the output", e);
+            }
+        }
+
+        if (inputStreamOpened) {
+
+            try {
+
+                inputStream.close();
+            }
+            catch(Exception e) {
+
+                log.debug("failed to close the input stream", e);
+            }
+        }
+    }
+
     // Public ----------------------------------------------------------------------------------------------------------
 
     /**
@@ -383,8 +592,49 @@ public class ConfigurationImpl implements Configuration {
         this.parser = p;
     }
 
+    /**
+     * This method is public because ConfigurationImpl instances are used for testing outside the package.
+     */
+    public void setParserFactory(ParserFactory f) {
+
+        this.parserFactory = f;
+    }
+
     // Package protected -----------------------------------------------------------------------------------------------
 
+    /**
+     * Builds a parser the way the parser of a configuration with the given application-specific arguments was built:
+     * the application's TopLevelArgumentProcessor, if any, processes the arguments, against a throwaway configuration,
+     * then the parser is looked up. Shared scans use it to get a new parser instance for each pass over the file.
+     *
+     * @param applicationSpecificArguments as returned by getApplicationSpecificArguments().
+     *
+     * @return the parser, or null if the application does not provide one.
+     */
+    static Parser newParser(ApplicationSpecificBehavior asb, List<String> applicationSpecificArguments)
+            throws UserErrorException {
+
+        TopLevelArgumentProcessor argumentProcessor = asb.lookup(TopLevelArgumentProcessor.class);
+
+        if (argumentProcessor != null) {
+
+            argumentProcessor.process(new ArrayList<>(applicationSpecificArguments), new ConfigurationImpl(
+                    new String[0], null, new ByteArrayInputStream(new byte[0]), new ByteArrayOutputStream()));
+        }
+
+        return asb.lookup(Parser.class);
+    }
+
+    /**
+     * @return the arguments recognized and removed by the application's TopLevelArgumentProcessor, in command line
+     * order. They may configure the parser, so requests are only equivalent from the parser's point of view if they
+     * have the same application-specific arguments. Empty if there is no processor.
+     */
+    List<String> getApplicationSpecificArguments() {
+
+        return applicationSpecificArguments == null ? Collections.<String>emptyList() : applicationSpecificArguments;
+    }
+
     void setInputStream(InputStream is) {
 
         this.inputStream = is;
@@ -395,10 +645,250 @@ public class ConfigurationImpl implements Configuration {
     void setProcedure(Procedure procedure) {
 
         this.procedure = procedure;
+        this.help = help || procedure instanceof Help;
     }
 
     // Private ---------------------------------------------------------------------------------------------------------
 
+    /**
+     * Removes the output format arguments of the default procedure from the list, without creating anything that
+     * would have to be closed.
+     *
+     * @return the removed arguments, in order.
+     */
+    private List<String> removeOutputArguments(ApplicationSpecificBehavior asb, List<String> args, OutputStream stdout)
+            throws UserErrorException {
+
+        if (runtimeOptions.isBinaryOutput()) {
+
+            if (runtimeOptions.getPartitions() > 1) {
+
+                throw new UserErrorException(
+                        RuntimeOptions.BINARY_OUTPUT + " cannot be combined with " + RuntimeOptions.PARTITIONS);
+            }
+
+            //
+            // the binary stream has no format
+            //
+
+            return Collections.emptyList();
+        }
+
+        List<String> before = new ArrayList<>(args);
+
+        //
+        // the Output instance is only used to interpret the output format arguments, it does not write anything
+        //
+
+        new Output(stdout, asb, 0, args);
+
+        return removed(before, args);
+    }
+
+    /**
+     * @param args the output format arguments, as returned by removeOutputArguments().
+     */
+    private void buildDefaultProcedure(ApplicationSpecificBehavior asb, List<String> args, OutputStream stdout)
+            throws UserErrorException {
+
+        if (runtimeOptions.isBinaryOutput()) {
+
+            this.outputSink = newOutputSink(stdout, asb);
+
+            try {
+
+                this.procedure = new BinaryOutput(outputSink);
+            }
+            catch(IOException e) {
+
+                throw new UserErrorException("failed to write the binary event stream header", e);
+            }
+
+            return;
+        }
+
+        if (runtimeOptions.getPartitions() > 1) {
+
+            //
+            // the Output instance is only used to interpret the output format arguments, it does not write anything
+            //
+
+            Output output = new Output(stdout, asb, 0, args);
+
+            try {
+
+                PartitionedOutput po = new PartitionedOutput(
+                        output.getFormat(), runtimeOptions.getPartitionPrefix(), runtimeOptions.getPartitions(),
+                        runtimeOptions.getPartitionBy(), RuntimeOptions.GZIP.equals(runtimeOptions.getCompression()),
+                        runtimeOptions.getOutputBufferSize());
+
+                po.setInflightBudget(inflightBudget);
+                po.setThrottle(throttle);
+
+                this.procedure = po;
+            }
+            catch(IOException e) {
+
+                throw new UserErrorException("failed to create partition files", e);
+            }
+
+            return;
+        }
+
+        this.outputSink = newOutputSink(stdout, asb);
+
+        List<String> formatArguments = new ArrayList<>(args);
+
+        Output output = new Output(outputSink, asb, 0, args);
+
+        if (runtimeOptions.getFormatThreads() > 1 || runtimeOptions.isAutoTune()) {
+
+            //
+            // render the events on a pool of formatter threads, with the same format. The format implementations are
+            // not required to be thread safe, so each formatter thread interprets the format arguments into its own
+            // instance
+            //
+
+            BufferedOutputSink sink = outputSink;
+
+            ParallelFormattingOutput pfo = new ParallelFormattingOutput(
+                    () -> newOutputFormat(sink, asb, formatArguments), outputSink, runtimeOptions.getFormatThreads(),
+                    runtimeOptions.getFormatBatchSize(), asb);
+
+            pfo.setInflightBudget(inflightBudget);
+            pfo.setThrottle(throttle);
+
+            //
+            // only the thread that writes to stdout busy-waits, and with an asynchronous sink that is the sink's writer
+            //
+
+            if (!outputSink.isAsync()) {
+
+                pfo.setWaitStrategy(runtimeOptions.getWaitStrategy());
+            }
+
+            this.procedure = pfo;
+        }
+        else {
+
+            this.procedure = output;
+        }
+    }
+
+    private BufferedOutputSink newOutputSink(OutputStream stdout, ApplicationSpecificBehavior asb)
+            throws UserErrorException {
+
+        String compression = runtimeOptions.getCompression();
+
+        if (compression == null) {
+
+            BufferedOutputSink sink = new BufferedOutputSink(
+                    stdout, runtimeOptions.getOutputBufferSize(), runtimeOptions.isAsyncOutput(), false);
+
+            sink.setInflightBudget(inflightBudget);
+            sink.setThrottle(throttle);
+            sink.setWaitStrategy(runtimeOptions.getWaitStrategy());
+
+            return sink;
+        }
+
+        //
+        // the compressing stream must be closed to be finished, but stdout must stay open
+        //
+
+        OutputStream target = new NonClosingOutputStream(stdout);
+
+        int compressThreads = runtimeOptions.getCompressThreads();
+
+        //
+        // the parallel compressor ends a gzip member on each flush, so the latency profile, which flushes often,
+        // always compresses on the writer thread
+        //
+
+        if (!runtimeOptions.isLowLatency() && (compressThreads > 1 || runtimeOptions.isAutoTune())) {
+
+            ParallelGzipOutputStream pgos = new ParallelGzipOutputStream(
+                    target, compressThreads, ParallelGzipOutputStream.DEFAULT_BLOCK_SIZE, asb);
+
+            pgos.setInflightBudget(inflightBudget);
+            pgos.setThrottle(throttle);
+
+            target = pgos;
+        }
+        else {
+
+            try {
+
+                //
+                // in the latency profile, a flush must push out the content the compressor holds on to
+                //
+
+                target = new GZIPOutputStream(target, 64 * 1024, runtimeOptions.isLowLatency());
+            }
+            catch(IOException e) {
+
+                throw new UserErrorException("failed to initialize the compressed output", e);
+            }
+        }
+
+        //
+        // compression always happens on the sink's writer thread, and not on the event loop thread
+        //
+
+        BufferedOutputSink sink = new BufferedOutputSink(target, runtimeOptions.getOutputBufferSize(), true, true);
+
+        sink.setInflightBudget(inflightBudget);
+        sink.setThrottle(throttle);
+        sink.setWaitStrategy(runtimeOptions.getWaitStrategy());
+
+        return sink;
+    }
+
+    /**
+     * Interprets the output format arguments into a new format instance. The arguments were already interpreted once,
+     * successfully.
+     *
+     * @param target the Output instance is only used to interpret the arguments, it does not write anything.
+     */
+    private static OutputFormat newOutputFormat(
+            OutputStream target, ApplicationSpecificBehavior asb, List<String> formatArguments) {
+
+        try {
+
+            return new Output(target, asb, 0, new ArrayList<>(formatArguments)).getFormat();
+        }
+        catch(UserErrorException e) {
+
+            throw new IllegalStateException("failed to interpret the output format arguments " + formatArguments, e);
+        }
+    }
+
+    /**
+     * @param after a copy of "before" from which some elements were removed.
+     *
+     * @return the removed elements, in order.
+     */
+    private static List<String> removed(List<String> before, List<String> after) {
+
+        List<String> result = new ArrayList<>();
+
+        int j = 0;
+
+        for(String s: before) {
+
+            if (j < after.size() && s.equals(after.get(j))) {
+
+                j ++;
+            }
+            else {
+
+                result.add(s);
+            }
+        }
+
+        return result;
+    }
+
     private void setParser(ApplicationSpecificBehavior asb) {
 
         if (asb == null) {
@@ -414,6 +904,13 @@ public class ConfigurationImpl implements Configuration {
 
             setParser(p);
         }
+
+        ParserFactory f = asb.lookup(ParserFactory.class);
+
+        if (f != null) {
+
+            setParserFactory(f);
+        }
     }
 
 
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Counts the bytes read from the underlying stream. It is meant to sit under the runtime's input buffer, so the
+ * counter is updated once per buffer fill and not once per line. The count may be read from any thread.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+class CountingInputStream extends FilterInputStream {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    // written by the reading thread only
+    private volatile long count;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    CountingInputStream(InputStream in) {
+
+        super(in);
+    }
+
+    // FilterInputStream overrides -------------------------------------------------------------------------------------
+
+    @Override
+    public int read() throws IOException {
+
+        int b = in.read();
+
+        if (b != -1) {
+
+            count ++;
+        }
+
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+
+        int n = in.read(b, off, len);
+
+        if (n > 0) {
+
+            count += n;
+        }
+
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+
+        long skipped = in.skip(n);
+
+        if (skipped > 0) {
+
+            count += skipped;
+        }
+
+        return skipped;
+    }
+
+    /**
+     * Mark/reset would make the count ambiguous, and the runtime buffers above this stream anyway.
+     */
+    @Override
+    public boolean markSupported() {
+
+        return false;
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    long getCount() {
+
+        return count;
+    }
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.novaordis.events.cli;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * A thin client that forwards its command line, stdin and stdout to an EventParserDaemon and exits with the daemon's
+ * exit code:
+ *
+ * java -cp ... io.novaordis.events.cli.DaemonClient &lt;application name | daemon file&gt; [arguments]
+ *
+ * Started on a JVM, the client still pays the VM startup the daemon saves on the request itself. The client has no
+ * reflective or resource access, and builds as a native executable that starts in milliseconds: the benchmarks native
+ * profile builds it (events-cli-client) and measures its round trip against the JVM client.
+ *
+ * The daemon does not share the client's working directory, so the arguments that name existing files, and the
+ * values of the options that name files to be created, are converted to absolute paths before they are sent.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class DaemonClient {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    public static void main(String[] args) {
+
+        if (args.length == 0) {
+
+            System.err.println("usage: DaemonClient <application name | daemon file> [arguments]");
+            System.exit(DaemonProtocol.EXIT_PROTOCOL_ERROR);
+        }
+
+        File daemonFile = new File(args[0]);
+
+        if (!daemonFile.isFile()) {
+
+            daemonFile = DaemonProtocol.getDefaultDaemonFile(args[0]);
+        }
+
+        String[] arguments = new String[args.length - 1];
+        System.arraycopy(args, 1, arguments, 0, arguments.length);
+
+        int exitCode;
+
+        try {
+
+            exitCode = run(daemonFile, toAbsolutePaths(arguments), System.in, System.out, System.err);
+        }
+        catch(IOException e) {
+
+            System.err.println(
+                    "[error]: failed to reach the daemon published in " + daemonFile + ": " + e.getMessage());
+            exitCode = DaemonProtocol.EXIT_PROTOCOL_ERROR;
+        }
+
+        System.exit(exitCode);
+    }
+
+    /**
+     * Sends the request, streams stdin to the daemon on a separate thread and the daemon's output to stdout and stderr
+     * on the calling thread, until the daemon sends the exit code.
+     *
+     * @return the exit code.
+     *
+     * @exception IOException if the daemon cannot be reached, or the connection fails before the exit code is
+     * received.
+     */
+    public static int run(File daemonFile, String[] args, InputStream stdin, OutputStream stdout, OutputStream stderr)
+            throws IOException {
+
+        String[] address =
+                new String(Files.readAllBytes(daemonFile.toPath()), StandardCharsets.UTF_8).trim().split(" ");
+
+        if (address.length != 2) {
+
+            throw new IOException("invalid daemon file " + daemonFile);
+        }
+
+        int port;
+
+        try {
+
+            port = Integer.parseInt(address[0]);
+        }
+        catch(NumberFormatException e) {
+
+            throw new IOException("invalid daemon file " + daemonFile);
+        }
+
+        try(Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+
+            socket.setTcpNoDelay(true);
+
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 64 * 1024));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 64 * 1024));
+
+            DaemonProtocol.writeHello(out, address[1], new File("").getAbsolutePath(), args);
+
+            Thread pump = new Thread(() -> {
+
+                byte[] buffer = new byte[64 * 1024];
+
+                try {
+
+                    int n;
+
+                    while((n = stdin.read(buffer)) != -1) {
+
+                        DaemonProtocol.writeFrame(out, DaemonProtocol.STDIN, buffer, 0, n);
+                    }
+
+                    DaemonProtocol.writeFrame(out, DaemonProtocol.EOF, buffer, 0, 0);
+                }
+                catch(IOException e) {
+
+                    //
+                    // the daemon does not need the rest of the input and closed the connection
+                    //
+                }
+
+            }, "events-cli daemon client stdin");
+
+            pump.setDaemon(true);
+            pump.start();
+
+            while(true) {
+
+                byte[] frame = DaemonProtocol.readFrame(in, (byte)0);
+
+                if (frame[0] == DaemonProtocol.STDOUT) {
+
+                    stdout.write(frame, 1, frame.length - 1);
+                }
+                else if (frame[0] == DaemonProtocol.STDERR) {
+
+                    stderr.write(frame, 1, frame.length - 1);
+                    stderr.flush();
+                }
+                else if (frame[0] == DaemonProtocol.EXIT && frame.length == 5) {
+
+                    stdout.flush();
+                    stderr.flush();
+
+                    return ((frame[1] & 0xff) << 24) | ((frame[2] & 0xff) << 16) | ((frame[3] & 0xff) << 8) |
+                            (frame[4] & 0xff);
+                }
+                else {
+
+                    throw new IOException("unexpected frame type '" + (char)frame[0] + "'");
+                }
+            }
+        }
+    }
+
+    /**
+     * @return a copy of the arguments where the existing files, and the values of the options that name files to be
+     * created, are replaced by their absolute paths.
+     */
+    static String[] toAbsolutePaths(String[] args) {
+
+        String[] result = args.clone();
+
+        for(int i = 0; i < result.length; i ++) {
+
+            String a = result[i];
+
+            if ((RuntimeOptions.REJECTS.equals(a) || RuntimeOptions.PARTITION_PREFIX.equals(a)) &&
+                    i + 1 < result.length) {
+
+                i ++;
+                result[i] = new File(result[i]).getAbsolutePath();
+            }
+            else if (new File(a).isFile()) {
+
+                result[i] = new File(a).getAbsolutePath();
+            }
+        }
+
+        return result;
+    }
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    private DaemonClient() {
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
@@ -0,0 +1,355 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.novaordis.events.cli;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * The protocol spoken between DaemonClient and EventParserDaemon, over a loopback TCP connection. Everything is sent
+ * as frames:
+ *
+ * &lt;type: 1 byte&gt;&lt;payload length: 4 bytes, big endian&gt;&lt;payload&gt;
+ *
+ * The client sends a HELLO frame (protocol version, access token, working directory and argument vector,
+ * DataOutput-encoded), followed by
+ * its stdin as STDIN frames and an EOF frame. The daemon sends the request's stdout and stderr as STDOUT and STDERR
+ * frames, followed by an EXIT frame carrying the exit code as a 4 byte integer.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+final class DaemonProtocol {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    static final int VERSION = 2;
+
+    static final byte HELLO = 'H';
+    static final byte STDIN = 'I';
+    static final byte EOF = 'E';
+    static final byte STDOUT = 'O';
+    static final byte STDERR = 'R';
+    static final byte EXIT = 'X';
+
+    static final int MAX_FRAME_LENGTH = 1024 * 1024;
+
+    static final int EXIT_OK = 0;
+    static final int EXIT_ERROR = 1;
+    static final int EXIT_PROTOCOL_ERROR = 2;
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * Lives here rather than in EventParserDaemon, so the client does not initialize the daemon class, and the logging
+     * it brings along, on its startup path.
+     */
+    static File getDefaultDaemonFile(String applicationName) {
+
+        return new File(new File(System.getProperty("user.home"), EventParserDaemon.DEFAULT_DAEMON_DIRECTORY),
+                applicationName + ".daemon");
+    }
+
+    /**
+     * Writes and flushes a frame. Thread safe: frames written concurrently by several threads are not interleaved.
+     */
+    static void writeFrame(DataOutputStream out, byte type, byte[] b, int off, int len) throws IOException {
+
+        synchronized (out) {
+
+            out.writeByte(type);
+            out.writeInt(len);
+            out.write(b, off, len);
+            out.flush();
+        }
+    }
+
+    static void writeExit(DataOutputStream out, int exitCode) throws IOException {
+
+        byte[] b = new byte[] {
+                (byte)(exitCode >>> 24), (byte)(exitCode >>> 16), (byte)(exitCode >>> 8), (byte)exitCode };
+
+        writeFrame(out, EXIT, b, 0, b.length);
+    }
+
+    /**
+     * @param workingDirectory the client's working directory, the relative paths the daemon creates files at are
+     *                         resolved against it.
+     */
+    static void writeHello(DataOutputStream out, String token, String workingDirectory, String[] args)
+            throws IOException {
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(baos);
+
+        dos.writeInt(VERSION);
+        dos.writeUTF(token);
+        dos.writeUTF(workingDirectory);
+        dos.writeInt(args.length);
+
+        for(String a: args) {
+
+            dos.writeUTF(a);
+        }
+
+        dos.flush();
+
+        byte[] b = baos.toByteArray();
+        writeFrame(out, HELLO, b, 0, b.length);
+    }
+
+    /**
+     * @return the working directory and the argument vector.
+     *
+     * @exception IOException if the frame is not a valid HELLO frame, the protocol version is not supported or the
+     * token does not match.
+     */
+    static Hello readHello(DataInputStream in, String expectedToken) throws IOException {
+
+        byte[] payload = readFrame(in, HELLO);
+
+        DataInputStream dis = new DataInputStream(new ByteArrayInputStream(payload));
+
+        int version = dis.readInt();
+
+        if (version != VERSION) {
+
+            throw new IOException("unsupported protocol version " + version);
+        }
+
+        String token = dis.readUTF();
+
+        if (!MessageDigest.isEqual(
+                expectedToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8))) {
+
+            throw new IOException("invalid access token");
+        }
+
+        String workingDirectory = dis.readUTF();
+
+        int argc = dis.readInt();
+
+        if (argc < 0 || argc > payload.length) {
+
+            throw new IOException("invalid argument count " + argc);
+        }
+
+        String[] args = new String[argc];
+
+        for(int i = 0; i < argc; i ++) {
+
+            args[i] = dis.readUTF();
+        }
+
+        return new Hello(workingDirectory, args);
+    }
+
+    /**
+     * @param expectedType the type of the frame, or 0 if any type is accepted. The type of the frame that was read
+     *                     is available as the first byte of the returned array if 0 is passed.
+     */
+    static byte[] readFrame(DataInputStream in, byte expectedType) throws IOException {
+
+        byte type = in.readByte();
+        int length = in.readInt();
+
+        if (length < 0 || length > MAX_FRAME_LENGTH) {
+
+            throw new IOException("invalid frame length " + length);
+        }
+
+        if (expectedType != 0 && type != expectedType) {
+
+            throw new IOException("unexpected frame type '" + (char)type + "'");
+        }
+
+        int offset = expectedType == 0 ? 1 : 0;
+
+        byte[] b = new byte[length + offset];
+
+        if (offset == 1) {
+
+            b[0] = type;
+        }
+
+        in.readFully(b, offset, length);
+
+        return b;
+    }
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    private DaemonProtocol() {
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+    static class Hello {
+
+        private final String workingDirectory;
+        private final String[] arguments;
+
+        Hello(String workingDirectory, String[] arguments) {
+
+            this.workingDirectory = workingDirectory;
+            this.arguments = arguments;
+        }
+
+        String getWorkingDirectory() {
+
+            return workingDirectory;
+        }
+
+        String[] getArguments() {
+
+            return arguments;
+        }
+    }
+
+    /**
+     * The request's stdin, as seen by the daemon: the content of the STDIN frames, up to the EOF frame. close() does
+     * not close the connection.
+     */
+    static class FrameInputStream extends InputStream {
+
+        private final DataInputStream in;
+
+        private byte[] frame;
+        private int position;
+        private boolean eof;
+
+        FrameInputStream(DataInputStream in) {
+
+            this.in = in;
+        }
+
+        @Override
+        public int read() throws IOException {
+
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+
+            if (len == 0) {
+
+                return 0;
+            }
+
+            while(!eof && (frame == null || position == frame.length)) {
+
+                byte[] f = readFrame(in, (byte)0);
+
+                if (f[0] == EOF) {
+
+                    eof = true;
+                }
+                else if (f[0] == STDIN) {
+
+                    frame = f;
+                    position = 1;
+                }
+                else {
+
+                    throw new IOException("unexpected frame type '" + (char)f[0] + "'");
+                }
+            }
+
+            if (eof) {
+
+                return -1;
+            }
+
+            int n = Math.min(len, frame.length - position);
+            System.arraycopy(frame, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public void close() {
+
+            //
+            // the connection is owned by the daemon
+            //
+        }
+    }
+
+    /**
+     * Sends everything written to it as frames of the given type. close() only flushes.
+     */
+    static class FrameOutputStream extends OutputStream {
+
+        private final DataOutputStream out;
+        private final byte type;
+
+        FrameOutputStream(DataOutputStream out, byte type) {
+
+            this.out = out;
+            this.type = type;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+
+            write(new byte[] { (byte)b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+
+            while(len > 0) {
+
+                int n = Math.min(len, MAX_FRAME_LENGTH);
+                writeFrame(out, type, b, off, n);
+                off += n;
+                len -= n;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+
+            synchronized (out) {
+
+                out.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+
+            flush();
+        }
+    }
+
+}
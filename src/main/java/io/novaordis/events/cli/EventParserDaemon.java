@@ -0,0 +1,774 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.novaordis.events.cli;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.AclEntry;
+import java.nio.file.attribute.AclEntryPermission;
+import java.nio.file.attribute.AclEntryType;
+import java.nio.file.attribute.AclFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.novaordis.events.api.parser.Parser;
+import io.novaordis.utilities.UserErrorException;
+import io.novaordis.utilities.appspec.ApplicationSpecificBehavior;
+
+/**
+ * A resident events-cli process that serves requests from DaemonClient instances, so short invocations do not pay for
+ * the VM startup and run on warm, compiled code. Each request carries an argument vector and the client's stdin and
+ * stdout; the daemon builds a ConfigurationImpl and an EventParserRuntime for it, and runs it on a pool of worker
+ * threads. The application may supply the worker executor, with an ExecutorFactory or a shared Executor available
+ * from its ApplicationSpecificBehavior.
+ *
+ * The daemon listens on an ephemeral loopback port and publishes the port and a random access token in a file readable
+ * only by its owner (by default ~/.events-cli/&lt;application name&gt;.daemon). Clients must present the token, so
+ * the daemon only serves the users that can read the file.
+ *
+ * Parsers keep per-stream state, so each request gets its own ApplicationSpecificBehavior instance, and its own parser,
+ * from the factory the application provides. Applications opt in from their main():
+ *
+ * if (EventParserDaemon.isRequested(args)) {
+ *
+ *     new EventParserDaemon(args, "myapp", () -&gt; new ApplicationSpecificBehavior(new MyParser())).run();
+ *     return;
+ * }
+ *
+ * With --shared-scan, concurrent requests for the same text file join a single scan of the file, instead of reading
+ * and parsing it on their own, provided their parsers are configured by the same application-specific arguments. See
+ * SharedScan.
+ *
+ * Procedures that write to System.out and System.err directly are served as well: while the daemon runs, the two
+ * streams route the output of request threads, and of the threads they start, to the request's client.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class EventParserDaemon implements Closeable {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    private static final Logger log = LoggerFactory.getLogger(EventParserDaemon.class);
+
+    public static final String DEFAULT_DAEMON_DIRECTORY = ".events-cli";
+
+    private static final int TOKEN_LENGTH = 16;
+
+    // how long the daemon waits for the client to close the connection after the exit code was sent
+    private static final int LINGER_MS = 5000;
+
+    // the pause after a failed accept, doubled on each consecutive failure up to the maximum
+    private static final long ACCEPT_BACKOFF_MS = 10L;
+    private static final long MAX_ACCEPT_BACKOFF_MS = 1000L;
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    private static final InheritableThreadLocal<OutputStream> requestStdout = new InheritableThreadLocal<>();
+    private static final InheritableThreadLocal<OutputStream> requestStderr = new InheritableThreadLocal<>();
+
+    private static boolean routingInstalled;
+
+    /**
+     * @return the file the daemon of the given application publishes its address in, unless configured otherwise.
+     */
+    public static File getDefaultDaemonFile(String applicationName) {
+
+        return DaemonProtocol.getDefaultDaemonFile(applicationName);
+    }
+
+    /**
+     * @return true if the command line requests daemon mode.
+     */
+    public static boolean isRequested(String[] commandLineArguments) {
+
+        return Arrays.asList(commandLineArguments).contains(RuntimeOptions.DAEMON);
+    }
+
+    /**
+     * Replaces System.out and System.err, once, with streams that write to the output of the current request, if the
+     * current thread serves one, and to the original streams otherwise.
+     */
+    /**
+     * The client turns the paths on its command line into absolute paths, but not the files the runtime creates by
+     * default, which must end up in the client's working directory rather than in the daemon's.
+     *
+     * @return the arguments, with the defaults that name files resolved against the client's working directory.
+     */
+    static String[] resolveDefaults(String[] args, String workingDirectory) {
+
+        if (args.length == 0 || Arrays.asList(args).contains(RuntimeOptions.PARTITION_PREFIX)) {
+
+            return args;
+        }
+
+        String[] result = new String[args.length + 2];
+
+        result[0] = RuntimeOptions.PARTITION_PREFIX;
+        result[1] = new File(workingDirectory, RuntimeOptions.DEFAULT_PARTITION_PREFIX).getPath();
+        System.arraycopy(args, 0, result, 2, args.length);
+
+        return result;
+    }
+
+    private static synchronized void installRouting() {
+
+        if (routingInstalled) {
+
+            return;
+        }
+
+        System.setOut(new PrintStream(new RoutingOutputStream(System.out, requestStdout), true));
+        System.setErr(new PrintStream(new RoutingOutputStream(System.err, requestStderr), true));
+        routingInstalled = true;
+    }
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private final String applicationName;
+    private final Supplier<ApplicationSpecificBehavior> behaviorFactory;
+    private final File daemonFile;
+    private final int threads;
+
+    private final AtomicLong requestCount;
+    private final SharedScanRegistry sharedScans;
+
+    private ServerSocket serverSocket;
+    private String token;
+    private ExecutorService workers;
+    private Thread acceptor;
+
+    private volatile boolean closed;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    /**
+     * @param commandLineArguments the daemon command line: --daemon, and optionally --daemon-file and --daemon-threads.
+     * @param behaviorFactory invoked for each request.
+     *
+     * @exception UserErrorException on invalid options, or arguments that are not daemon options.
+     */
+    public EventParserDaemon(String[] commandLineArguments, String applicationName,
+                             Supplier<ApplicationSpecificBehavior> behaviorFactory) throws UserErrorException {
+
+        List<String> args = new ArrayList<>(Arrays.asList(commandLineArguments));
+
+        RuntimeOptions options = new RuntimeOptions();
+        options.process(args);
+
+        if (!args.isEmpty()) {
+
+            throw new UserErrorException("arguments not supported in daemon mode: " + args);
+        }
+
+        this.applicationName = applicationName;
+        this.behaviorFactory = behaviorFactory;
+        this.daemonFile = options.getDaemonFile() == null ?
+                getDefaultDaemonFile(applicationName) : new File(options.getDaemonFile());
+        this.threads = options.getDaemonThreads();
+        this.requestCount = new AtomicLong(0L);
+        this.sharedScans = new SharedScanRegistry();
+    }
+
+    /**
+     * @param behaviorFactory invoked for each request.
+     * @param threads the maximum number of requests served concurrently.
+     */
+    public EventParserDaemon(String applicationName, Supplier<ApplicationSpecificBehavior> behaviorFactory,
+                             File daemonFile, int threads) {
+
+        this.applicationName = applicationName;
+        this.behaviorFactory = behaviorFactory;
+        this.daemonFile = daemonFile;
+        this.threads = threads;
+        this.requestCount = new AtomicLong(0L);
+        this.sharedScans = new SharedScanRegistry();
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * Starts listening and publishes the daemon file. Returns immediately.
+     */
+    public synchronized void start() throws IOException {
+
+        if (serverSocket != null) {
+
+            throw new IllegalStateException(this + " already started");
+        }
+
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        token = newToken();
+
+        try {
+
+            publish();
+        }
+        catch(IOException e) {
+
+            //
+            // do not listen without a way to hand out the token safely
+            //
+
+            serverSocket.close();
+            serverSocket = null;
+            throw e;
+        }
+
+        installRouting();
+
+        //
+        // the executor is looked up once, when the daemon starts, in a behavior instance obtained from the factory
+        //
+
+        workers = RuntimeExecutors.newExecutor(behaviorFactory.get(), "daemon worker", threads);
+
+        acceptor = new Thread(this::acceptLoop, "events-cli daemon acceptor");
+        acceptor.start();
+
+        log.info(applicationName + " daemon listening on " + serverSocket.getLocalSocketAddress() + ", address in " +
+                daemonFile);
+    }
+
+    /**
+     * Starts the daemon and blocks until it is closed. The daemon is closed when the VM shuts down.
+     */
+    public void run() throws IOException, InterruptedException {
+
+        start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "events-cli daemon shutdown"));
+
+        acceptor.join();
+    }
+
+    /**
+     * Stops accepting requests, lets the requests in progress complete and removes the daemon file. Idempotent.
+     */
+    @Override
+    public void close() {
+
+        synchronized (this) {
+
+            if (closed || serverSocket == null) {
+
+                return;
+            }
+
+            closed = true;
+        }
+
+        try {
+
+            serverSocket.close();
+        }
+        catch(IOException e) {
+
+            log.debug("failed to close " + serverSocket, e);
+        }
+
+        workers.shutdown();
+
+        try {
+
+            workers.awaitTermination(LINGER_MS, TimeUnit.MILLISECONDS);
+        }
+        catch(InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+        }
+
+        sharedScans.close();
+
+        if (daemonFile.exists() && !daemonFile.delete()) {
+
+            log.warn("failed to delete " + daemonFile);
+        }
+    }
+
+    /**
+     * @return the port the daemon listens on, or -1 if not started.
+     */
+    public synchronized int getPort() {
+
+        return serverSocket == null ? -1 : serverSocket.getLocalPort();
+    }
+
+    public File getDaemonFile() {
+
+        return daemonFile;
+    }
+
+    public int getThreads() {
+
+        return threads;
+    }
+
+    /**
+     * @return the number of requests accepted so far.
+     */
+    public long getRequestCount() {
+
+        return requestCount.get();
+    }
+
+    @Override
+    public String toString() {
+
+        return "EventParserDaemon[" + applicationName + "]";
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    private static String newToken() {
+
+        byte[] b = new byte[TOKEN_LENGTH];
+        new SecureRandom().nextBytes(b);
+
+        StringBuilder sb = new StringBuilder();
+
+        for(byte x: b) {
+
+            sb.append(String.format("%02x", x & 0xff));
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Writes "&lt;port&gt; &lt;token&gt;" into the daemon file, atomically, readable only by the owner. On file
+     * systems that support neither POSIX permissions nor access lists the token is not written, and the daemon does
+     * not start.
+     */
+    private void publish() throws IOException {
+
+        File directory = daemonFile.getAbsoluteFile().getParentFile();
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+
+            throw new IOException("failed to create " + directory);
+        }
+
+        Path tmp = new File(directory, daemonFile.getName() + ".tmp").toPath();
+
+        Files.deleteIfExists(tmp);
+
+        try {
+
+            Files.createFile(tmp, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        }
+        catch(UnsupportedOperationException e) {
+
+            //
+            // not a POSIX file system, restrict the access list before the token is written
+            //
+
+            Files.createFile(tmp);
+
+            try {
+
+                restrictToOwner(tmp);
+            }
+            catch(IOException e2) {
+
+                Files.deleteIfExists(tmp);
+                throw e2;
+            }
+        }
+
+        Files.write(tmp, (serverSocket.getLocalPort() + " " + token + "\n").getBytes(StandardCharsets.UTF_8));
+        Files.move(tmp, daemonFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Replaces the access list of the file with a single entry that grants access to its owner.
+     *
+     * @exception IOException if the file system supports neither POSIX permissions nor access lists, so the token
+     * cannot be protected.
+     */
+    static void restrictToOwner(Path file) throws IOException {
+
+        AclFileAttributeView view = Files.getFileAttributeView(file, AclFileAttributeView.class);
+
+        if (view == null) {
+
+            throw new IOException(
+                    "the file system of " + file + " supports neither POSIX permissions nor access lists, " +
+                            "the daemon access token cannot be protected");
+        }
+
+        AclEntry.Builder owner = AclEntry.newBuilder();
+
+        owner.setType(AclEntryType.ALLOW);
+        owner.setPrincipal(view.getOwner());
+        owner.setPermissions(
+                AclEntryPermission.READ_DATA, AclEntryPermission.WRITE_DATA, AclEntryPermission.APPEND_DATA,
+                AclEntryPermission.READ_ATTRIBUTES, AclEntryPermission.WRITE_ATTRIBUTES,
+                AclEntryPermission.READ_NAMED_ATTRS, AclEntryPermission.WRITE_NAMED_ATTRS,
+                AclEntryPermission.READ_ACL, AclEntryPermission.WRITE_ACL, AclEntryPermission.DELETE,
+                AclEntryPermission.SYNCHRONIZE);
+
+        view.setAcl(Collections.singletonList(owner.build()));
+    }
+
+    private void acceptLoop() {
+
+        long backoffMs = 0L;
+
+        while(!closed) {
+
+            Socket socket;
+
+            try {
+
+                socket = serverSocket.accept();
+                backoffMs = 0L;
+            }
+            catch(IOException e) {
+
+                if (closed || serverSocket.isClosed()) {
+
+                    break;
+                }
+
+                //
+                // a persistent failure, such as running out of file descriptors, must not spin the acceptor
+                //
+
+                backoffMs = backoffMs == 0L ? ACCEPT_BACKOFF_MS : Math.min(2 * backoffMs, MAX_ACCEPT_BACKOFF_MS);
+
+                String msg = "failed to accept a request";
+                log.warn(msg + ", retrying in " + backoffMs + " ms: " + e.getMessage());
+                log.debug(msg, e);
+
+                try {
+
+                    Thread.sleep(backoffMs);
+                }
+                catch(InterruptedException e2) {
+
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+
+                continue;
+            }
+
+            requestCount.incrementAndGet();
+
+            try {
+
+                workers.execute(() -> serve(socket));
+            }
+            catch(RejectedExecutionException e) {
+
+                closeQuietly(socket);
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+
+        try {
+
+            socket.setTcpNoDelay(true);
+
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 64 * 1024));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 64 * 1024));
+
+            int exitCode;
+
+            DaemonProtocol.Hello hello = null;
+
+            try {
+
+                hello = DaemonProtocol.readHello(in, token);
+            }
+            catch(IOException e) {
+
+                log.debug("rejected request: " + e.getMessage());
+
+                PrintStream stderr = new PrintStream(
+                        new DaemonProtocol.FrameOutputStream(out, DaemonProtocol.STDERR), true);
+                stderr.println("[error]: request rejected by the " + applicationName + " daemon: " + e.getMessage());
+            }
+
+            exitCode = hello == null ? DaemonProtocol.EXIT_PROTOCOL_ERROR :
+                    execute(resolveDefaults(hello.getArguments(), hello.getWorkingDirectory()), in, out);
+
+            DaemonProtocol.writeExit(out, exitCode);
+
+            //
+            // wait for the client to close the connection, discarding the stdin that was not read, otherwise closing
+            // a connection with unread data may reset it before the client reads the exit code
+            //
+
+            socket.shutdownOutput();
+            socket.setSoTimeout(LINGER_MS);
+
+            InputStream raw = socket.getInputStream();
+            byte[] discard = new byte[8192];
+
+            //noinspection StatementWithEmptyBody
+            while(raw.read(discard) != -1) {
+            }
+        }
+        catch(SocketException e) {
+
+            log.debug("client connection closed: " + e.getMessage());
+        }
+        catch(IOException e) {
+
+            String msg = "failed to serve a request";
+            log.debug(msg, e);
+        }
+        finally {
+
+            closeQuietly(socket);
+        }
+    }
+
+    /**
+     * @return the exit code.
+     */
+    private int execute(String[] args, DataInputStream in, DataOutputStream out) throws IOException {
+
+        InputStream stdin = new DaemonProtocol.FrameInputStream(in);
+        OutputStream stdout = new DaemonProtocol.FrameOutputStream(out, DaemonProtocol.STDOUT);
+        PrintStream stderr = new PrintStream(new DaemonProtocol.FrameOutputStream(out, DaemonProtocol.STDERR), true);
+
+        requestStdout.set(stdout);
+        requestStderr.set(stderr);
+
+        ConfigurationImpl configuration = null;
+        boolean running = false;
+
+        try {
+
+            configuration = new ConfigurationImpl(args, behaviorFactory.get(), stdin, stdout);
+
+            EventParserRuntime runtime = new EventParserRuntime(configuration, applicationName);
+            runtime.setStderr(stderr);
+            runtime.getFailureLog().setStream(stderr);
+
+            RuntimeOptions options = configuration.getRuntimeOptions();
+
+            if (options.isSharedScan() && configuration.getInputFile() != null && configuration.getParser() != null &&
+                    options.getRejectsFile() == null && !configuration.isHelp()) {
+
+                //
+                // rejects are written by the request's own event loop, from the lines it reads, so a request that
+                // keeps rejects reads the file on its own
+                //
+
+                File file = configuration.getInputFile();
+
+                try {
+
+                    runtime.setSubscription(subscribe(configuration, stdout, stderr));
+                }
+                catch(IOException e) {
+
+                    throw new UserErrorException("failed to read " + file, e);
+                }
+            }
+
+            if (configuration.isHelp()) {
+
+                runtime.displayHelp(applicationName, stdout);
+            }
+            else {
+
+                running = true;
+                runtime.run();
+            }
+
+            return DaemonProtocol.EXIT_OK;
+        }
+        catch(UserErrorException e) {
+
+            stderr.println("[error]: " + e.getMessage());
+            return DaemonProtocol.EXIT_ERROR;
+        }
+        catch(RuntimeException e) {
+
+            String msg = "request " + Arrays.asList(args) + " failed";
+            log.warn(msg + ": " + e);
+            log.debug(msg, e);
+
+            stderr.println("[error]: " + e);
+            return DaemonProtocol.EXIT_ERROR;
+        }
+        finally {
+
+            if (configuration != null && !running) {
+
+                //
+                // the runtime releases the output and the input at the end of the run, a request that does not get
+                // that far must not leave them behind in the daemon
+                //
+
+                configuration.close();
+            }
+
+            stdout.flush();
+            stderr.flush();
+
+            requestStdout.remove();
+            requestStderr.remove();
+        }
+    }
+
+    /**
+     * The scan parses with parsers built from the request's configuration: a scan started by the request uses the
+     * request's own parser for the first pass, and parsers built with the request's application-specific arguments for
+     * the following passes. The request only joins scans whose parsers are of the same class and were built with the
+     * same application-specific arguments.
+     *
+     * @return the subscription, or null if the file cannot be scanned in shared mode.
+     */
+    private SharedScan.Subscription subscribe(ConfigurationImpl configuration, OutputStream stdout, PrintStream stderr)
+            throws IOException {
+
+        List<String> parserArguments = configuration.getApplicationSpecificArguments();
+        String parserIdentity = configuration.getParser().getClass().getName() + parserArguments;
+        AtomicReference<Parser> requestParser = new AtomicReference<>(configuration.getParser());
+
+        Supplier<Parser> parserFactory = () -> {
+
+            Parser p = requestParser.getAndSet(null);
+
+            if (p != null) {
+
+                return p;
+            }
+
+            try {
+
+                return ConfigurationImpl.newParser(behaviorFactory.get(), parserArguments);
+            }
+            catch(UserErrorException e) {
+
+                throw new IllegalStateException(
+                        "arguments accepted by the request were rejected: " + parserArguments, e);
+            }
+        };
+
+        //
+        // a scan started by this request outlives it, its thread must not inherit the request's output routes
+        //
+
+        requestStdout.remove();
+        requestStderr.remove();
+
+        try {
+
+            return sharedScans.subscribe(configuration.getInputFile(), parserIdentity, parserFactory);
+        }
+        finally {
+
+            requestStdout.set(stdout);
+            requestStderr.set(stderr);
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+
+        try {
+
+            socket.close();
+        }
+        catch(IOException e) {
+
+            log.debug("failed to close " + socket, e);
+        }
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+    /**
+     * Writes to the current thread's request stream, if any, and to the default stream otherwise.
+     */
+    private static class RoutingOutputStream extends OutputStream {
+
+        private final OutputStream defaultTarget;
+        private final ThreadLocal<OutputStream> route;
+
+        RoutingOutputStream(OutputStream defaultTarget, ThreadLocal<OutputStream> route) {
+
+            this.defaultTarget = defaultTarget;
+            this.route = route;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+
+            target().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+
+            target().write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+
+            target().flush();
+        }
+
+        private OutputStream target() {
+
+            OutputStream os = route.get();
+            return os == null ? defaultTarget : os;
+        }
+    }
+
+}
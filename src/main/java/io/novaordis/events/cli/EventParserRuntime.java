@@ -16,12 +16,24 @@
 
 package io.novaordis.events.cli;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
@@ -52,6 +64,16 @@ public class EventParserRuntime {
 
     private static String HELP_FILE_NAME = "help.txt";
 
+    //
+    // the number of decoded events handed over to the procedure at once, when reading a binary event stream
+    //
+    private static final int BINARY_BATCH_SIZE = 256;
+
+    //
+    // the number of characters looked ahead for the end of the next line, in the latency profile
+    //
+    static final int LINE_LOOKAHEAD = 8 * 1024;
+
     // Static ----------------------------------------------------------------------------------------------------------
 
     // Attributes ------------------------------------------------------------------------------------------------------
@@ -65,6 +87,51 @@ public class EventParserRuntime {
     private AtomicLong processingFailureCount;
     private AtomicLong processedEventsCount;
 
+    // written by the event loop thread only, with lazySet(), so other threads may read it without slowing the loop
+    private final AtomicLong linesRead;
+    private volatile CountingInputStream countingInputStream;
+
+    // the bytes of the files read so far, in --per-file-threads mode
+    private final AtomicLong filesBytesRead;
+
+    // null if statistics were not requested
+    private final RuntimeStatistics statistics;
+    private final boolean progress;
+    private PrintStream stderr;
+
+    // false if the runtime shares the process with other runtimes, which must not compete for the signal handlers
+    private boolean signalHandling;
+
+    private final EventParserRuntimeManagement management;
+
+    private final FailureLog failureLog;
+
+    // null if rejects are not kept
+    private RejectsWriter rejectsWriter;
+
+    // null if no record start detector is available
+    private Resynchronizer resynchronizer;
+
+    // null unless the events come from a scan shared with other requests
+    private SharedScan.Subscription subscription;
+
+    // null unless --auto-tune
+    private AutoTuner autoTuner;
+
+    // -1 unless --low-latency
+    private final long lingerNanos;
+
+    // the time the oldest line whose output was not flushed yet was read, -1 if all output was flushed (or nothing
+    // was read since)
+    private long unflushedSince;
+
+    // the input line (or binary record) range of the batch being processed, reported in flight recorder events
+    private long batchFirstLine;
+    private long batchLastLine;
+
+    // the input file the batch line range is relative to, null unless the files are read separately
+    private String batchFile;
+
     // Constructors ----------------------------------------------------------------------------------------------------
 
     /**
@@ -79,12 +146,35 @@ public class EventParserRuntime {
             String[] commandLineArguments, String applicationName,
             ApplicationSpecificBehavior applicationSpecificBehavior) throws UserErrorException {
 
-        this.configuration = new ConfigurationImpl(commandLineArguments, applicationSpecificBehavior);
+        this(new ConfigurationImpl(commandLineArguments, applicationSpecificBehavior), applicationName);
+    }
+
+    /**
+     * @param configuration an already built configuration. Useful to layers that need to build the configuration
+     *                      themselves, for example with non-standard stdin/stdout streams.
+     * @param applicationName the application name to be used in help content. May be null.
+     */
+    public EventParserRuntime(Configuration configuration, String applicationName) {
+
+        this.configuration = configuration;
 
         this.applicationName = applicationName;
         this.parsingFailureCount = new AtomicLong(0L);
         this.processingFailureCount = new AtomicLong(0L);
         this.processedEventsCount = new AtomicLong(0L);
+        this.linesRead = new AtomicLong(0L);
+        this.filesBytesRead = new AtomicLong(0L);
+
+        RuntimeOptions options = configuration.getRuntimeOptions();
+        this.statistics = options != null && options.isStats() ? new RuntimeStatistics() : null;
+        this.progress = options != null && options.isProgress();
+        this.stderr = System.err;
+        this.signalHandling = false;
+        this.lingerNanos = options != null && options.isLowLatency() ?
+                TimeUnit.MILLISECONDS.toNanos(options.getLingerMs()) : -1L;
+        this.unflushedSince = -1L;
+        this.management = new EventParserRuntimeManagement(this, applicationName);
+        this.failureLog = new FailureLog(log);
 
         log.debug(this + " constructed");
     }
@@ -103,61 +193,128 @@ public class EventParserRuntime {
             return;
         }
 
+        if (configuration.getRuntimeOptions() != null && configuration.getRuntimeOptions().isDaemon()) {
+
+            throw new UserErrorException(
+                    (applicationName == null ? "the application" : applicationName) + " does not support " +
+                            RuntimeOptions.DAEMON + " mode");
+        }
+
         Query query = configuration.getQuery();
         Parser parser = configuration.getParser();
         InputStream is = configuration.getInputStream();
         Procedure procedure = configuration.getProcedure();
+        BufferedOutputSink outputSink = configuration.getOutputSink();
 
-        BufferedReader br;
+        if (statistics != null) {
 
-        try {
+            statistics.start();
+        }
 
-            br = new BufferedReader(new InputStreamReader(is));
+        //
+        // the JMX and flight recorder infrastructure is expensive to initialize and not needed to produce the first
+        // event, keep it off the startup path
+        //
 
-            String line;
+        management.registerLater(EventParserRuntimeManagement.DEFAULT_REGISTRATION_DELAY_MS);
+        FlightRecorderEvents.initializeInBackground();
 
-            while((line = br.readLine()) != null) {
+        ProgressReporter progressReporter = new ProgressReporter(
+                this, configuration.getInputSize(), stderr, ProgressReporter.DEFAULT_REFRESH_INTERVAL_MS);
 
-                try {
+        if (signalHandling) {
 
-                    List<Event> batch = parser.parse(line, query);
-                    processBatch(batch, query, procedure);
+            progressReporter.installSignalHandler();
+        }
 
-                    if (procedure.isExitLoop()) {
+        if (progress) {
 
-                        log.debug(procedure + " indicated it wants to exit the event loop");
-                        break;
-                    }
-                }
-                catch(ParsingException e) {
+            progressReporter.start();
+        }
 
-                    //
-                    // do not interrupt stream processing, log as error instead
-                    //
+        if (configuration.getRuntimeOptions() != null && configuration.getRuntimeOptions().isAutoTune()) {
 
-                    parsingFailureCount.incrementAndGet();
+            autoTuner = new AutoTuner(configuration.getRuntimeOptions().getCpuCap());
 
-                    log.error("" + e.getMessage());
-                    log.debug("parsing failure", e);
-                }
+            if (procedure instanceof TunableStage) {
+
+                autoTuner.register((TunableStage)procedure);
             }
 
-            try {
+            if (outputSink != null && outputSink.getTarget() instanceof TunableStage) {
+
+                autoTuner.register((TunableStage)outputSink.getTarget());
+            }
+
+            autoTuner.start();
+        }
+
+        try {
+
+            String rejectsFile = configuration.getRuntimeOptions() == null ?
+                    null : configuration.getRuntimeOptions().getRejectsFile();
 
-                processBatch(parser.close(), query, procedure);
+            if (rejectsFile != null) {
+
+                try {
+
+                    rejectsWriter = new RejectsWriter(new File(rejectsFile), RejectsWriter.DEFAULT_QUEUE_CAPACITY);
+                    rejectsWriter.setInflightBudget(configuration.getInflightBudget());
+                }
+                catch(IOException e) {
 
+                    throw new UserErrorException("failed to open the rejects file " + rejectsFile, e);
+                }
             }
-            catch(ParsingException e) {
+
+            if (subscription != null) {
 
                 //
-                // do not interrupt stream processing, log as error instead
+                // the input is read and parsed by a scan shared with other requests
                 //
 
-                failedOnClose = true;
+                log.debug("processing the events of " + subscription);
+
+                sharedScanEventLoop(subscription, query, procedure, outputSink);
+            }
+            else if (configuration.getRuntimeOptions() != null &&
+                    configuration.getRuntimeOptions().isPerFileThreads() && !configuration.getInputFiles().isEmpty()) {
+
+                perFileEventLoop(configuration.getInputFiles(), query, procedure, outputSink);
+            }
+            else {
+
+                Throttle throttle = configuration.getThrottle();
+
+                countingInputStream = new CountingInputStream(
+                        throttle == null || throttle.getMaxReadRate() == Throttle.UNLIMITED ?
+                                is : new ThrottledInputStream(is, throttle));
+                BufferedInputStream bis = new BufferedInputStream(countingInputStream);
+
+                if (BinaryEventReader.isBinaryEventStream(bis)) {
+
+                    //
+                    // the input was produced by an upstream events-cli process, the events are decoded directly,
+                    // without using the parser
+                    //
+
+                    log.debug("binary event stream detected, bypassing the parser");
+
+                    binaryEventLoop(new BinaryEventReader(bis), query, procedure, outputSink);
+                }
+                else {
+
+                    if (parser == null) {
+
+                        throw new UserErrorException("no parser available to process the input");
+                    }
 
-                log.error("" + e.getMessage());
-                log.debug("parser close() failure", e);
+                    textEventLoop(
+                            new BufferedReader(new InputStreamReader(bis)), parser, query, procedure, outputSink);
+                }
             }
+
+            drain(procedure, outputSink);
         }
         catch (IOException e) {
 
@@ -170,6 +327,57 @@ public class EventParserRuntime {
         }
         finally {
 
+            if (autoTuner != null) {
+
+                //
+                // the stages must not be resized while they are closed
+                //
+
+                autoTuner.close();
+            }
+
+            if (procedure instanceof OutputStage) {
+
+                try {
+
+                    ((OutputStage)procedure).close();
+                }
+                catch(Exception e) {
+
+                    String msg = "failed to close " + procedure;
+                    log.warn(msg + ": " + e.getMessage());
+                    log.debug(msg, e);
+                }
+            }
+
+            if (rejectsWriter != null) {
+
+                try {
+
+                    rejectsWriter.close();
+                }
+                catch(Exception e) {
+
+                    String msg = "failed to write the rejects file";
+                    log.warn(msg + ": " + e.getMessage());
+                    log.debug(msg, e);
+                }
+            }
+
+            if (outputSink != null) {
+
+                try {
+
+                    outputSink.close();
+                }
+                catch(Exception e) {
+
+                    String msg = "failed to close the output";
+                    log.warn(msg + ": " + e.getMessage());
+                    log.debug(msg, e);
+                }
+            }
+
             if (is != null) {
 
                 try {
@@ -187,6 +395,22 @@ public class EventParserRuntime {
                     log.debug(msg, e);
                 }
             }
+
+            progressReporter.close();
+            management.unregister();
+            failureLog.close();
+
+            if (statistics != null) {
+
+                statistics.stop();
+                statistics.report(stderr, getLinesRead(), getBytesRead(), getProcessedEventsCount(),
+                        getParsingFailureCount(), getProcessingFailureCount());
+            }
+
+            if (autoTuner != null) {
+
+                autoTuner.report(stderr);
+            }
         }
     }
 
@@ -195,6 +419,78 @@ public class EventParserRuntime {
         return configuration;
     }
 
+    /**
+     * @return the per-stage timing and latency histograms, or null if statistics were not requested with --stats.
+     */
+    public RuntimeStatistics getStatistics() {
+
+        return statistics;
+    }
+
+    /**
+     * @return the JMX management interface of this runtime. It is registered with the platform MBean server only while
+     * run() executes, and only if the run lasts longer than DEFAULT_REGISTRATION_DELAY_MS.
+     */
+    public EventParserRuntimeManagement getManagement() {
+
+        return management;
+    }
+
+    /**
+     * @return the aggregated parsing and processing failures.
+     */
+    public FailureLog getFailureLog() {
+
+        return failureLog;
+    }
+
+    /**
+     * @return the dead-letter writer for unparseable lines, or null if --rejects was not specified.
+     */
+    public RejectsWriter getRejectsWriter() {
+
+        return rejectsWriter;
+    }
+
+    /**
+     * @return the resynchronizer used by the last text event loop, or null if no record start detector was available.
+     */
+    public Resynchronizer getResynchronizer() {
+
+        return resynchronizer;
+    }
+
+    public long getLinesRead() {
+
+        return linesRead.get();
+    }
+
+    public long getBytesRead() {
+
+        CountingInputStream cis = countingInputStream;
+        return cis == null ? filesBytesRead.get() : cis.getCount();
+    }
+
+    public long getParsingFailureCount() {
+
+        return parsingFailureCount.get();
+    }
+
+    public boolean isFailedOnClose() {
+
+        return failedOnClose;
+    }
+
+    public long getProcessingFailureCount() {
+
+        return processingFailureCount.get();
+    }
+
+    public long getProcessedEventsCount() {
+
+        return processedEventsCount.get();
+    }
+
     /**
      * Displays the content found in the files whose names are mentioned in HELP_FILE_NAMES, if the files are
      * present in the classpath, to the output stream provided as argument. Noop (except warning) if no file is found.
@@ -223,6 +519,20 @@ public class EventParserRuntime {
         }
     }
 
+    /**
+     * SIGUSR2 dumps the progress line (see ProgressReporter) only if signal handling is enabled before run(). The
+     * handler is process-wide and replaces, for the duration of the run, the one already installed, so it is off by
+     * default, and only command line entry points, which own the process, should enable it, from their main():
+     *
+     * EventParserRuntime runtime = new EventParserRuntime(configuration, "myapp");
+     * runtime.setSignalHandling(true);
+     * runtime.run();
+     */
+    public void setSignalHandling(boolean signalHandling) {
+
+        this.signalHandling = signalHandling;
+    }
+
     @Override
     public String toString() {
 
@@ -231,32 +541,28 @@ public class EventParserRuntime {
 
     // Package protected -----------------------------------------------------------------------------------------------
 
-    long getParsingFailureCount() {
-
-        return parsingFailureCount.get();
-    }
+    void processBatch(List<Event> events, Query query, Procedure procedure) {
 
-    boolean isFailedOnClose() {
+        RuntimeStatistics stats = statistics;
 
-        return failedOnClose;
-    }
+        long t0 = stats == null ? 0L : System.nanoTime();
 
-    long getProcessingFailureCount() {
+        if (query != null) {
 
-        return processingFailureCount.get();
-    }
+            FlightRecorderEvents.StageEvent fe = FlightRecorderEvents.begin(FlightRecorderEvents.Stage.FILTER);
 
-    long getProcessedEventsCount() {
+            int count = events.size();
+            events = query.filter(events);
 
-        return processedEventsCount.get();
-    }
+            if (fe != null) {
 
-    void processBatch(List<Event> events, Query query, Procedure procedure) {
+                fe.complete(batchFirstLine, batchLastLine, count);
+            }
+        }
 
-        if (query != null) {
+        long t1 = stats == null ? 0L : System.nanoTime();
 
-            events = query.filter(events);
-        }
+        FlightRecorderEvents.StageEvent pe = FlightRecorderEvents.begin(FlightRecorderEvents.Stage.PROCEDURE);
 
         try {
 
@@ -270,11 +576,34 @@ public class EventParserRuntime {
             //
 
             processingFailureCount.incrementAndGet();
-            log.error("" + e.getMessage());
-            log.debug("event processing failure", e);
+            failureLog.failure(FailureLog.Kind.PROCESSING, e.getMessage(), batchFile, batchFirstLine, e);
+        }
+
+        if (pe != null) {
+
+            pe.complete(batchFirstLine, batchLastLine, events.size());
+        }
+
+        if (stats != null) {
+
+            stats.recordBatch(t1 - t0, System.nanoTime() - t1);
         }
     }
 
+    void setStderr(PrintStream stderr) {
+
+        this.stderr = stderr;
+    }
+
+    /**
+     * Instead of reading the configuration's input stream, run() processes the events delivered by the subscription.
+     * The configuration's parser is not used.
+     */
+    void setSubscription(SharedScan.Subscription subscription) {
+
+        this.subscription = subscription;
+    }
+
     // Static package protected ----------------------------------------------------------------------------------------
 
     // Protected -------------------------------------------------------------------------------------------------------
@@ -291,6 +620,660 @@ public class EventParserRuntime {
 
     // Private ---------------------------------------------------------------------------------------------------------
 
+    private void textEventLoop(BufferedReader br, Parser parser, Query query, Procedure procedure,
+                               BufferedOutputSink outputSink) throws IOException, UserErrorException {
+
+        RuntimeStatistics stats = statistics;
+        InflightBudget budget = configuration.getInflightBudget();
+        Throttle throttle = configuration.getThrottle();
+
+        Resynchronizer resync = resynchronizer = newResynchronizer(parser);
+
+        String line;
+
+        long t0 = stats == null ? 0L : System.nanoTime();
+
+        while((line = readLine(br)) != null) {
+
+            long lineNumber = linesRead.get() + 1;
+            linesRead.lazySet(lineNumber);
+
+            if (unflushedSince == -1L) {
+
+                unflushedSince = System.nanoTime();
+            }
+
+            if (resync != null && resync.skip(line, lineNumber)) {
+
+                if (rejectsWriter != null) {
+
+                    rejectsWriter.reject(lineNumber, Resynchronizer.SKIPPED_REASON, line);
+                }
+
+                flushIfIdleOrLingered(!isInputReady(br), procedure, outputSink);
+
+                if (stats != null) {
+
+                    t0 = System.nanoTime();
+                }
+
+                continue;
+            }
+
+            long t1 = stats == null ? 0L : System.nanoTime();
+
+            if (stats != null) {
+
+                stats.lineRead(t1);
+            }
+
+            try {
+
+                FlightRecorderEvents.StageEvent pe = FlightRecorderEvents.begin(FlightRecorderEvents.Stage.PARSE);
+
+                List<Event> batch = parser.parse(line, query);
+
+                if (pe != null) {
+
+                    pe.complete(lineNumber, lineNumber, batch.size());
+                }
+
+                if (stats != null) {
+
+                    stats.recordLine(t1 - t0, System.nanoTime() - t1);
+                }
+
+                if (resync != null) {
+
+                    resync.parsed();
+                }
+
+                batchFirstLine = lineNumber;
+                batchLastLine = lineNumber;
+
+                processBatch(batch, query, procedure);
+
+                if (procedure.isExitLoop()) {
+
+                    log.debug(procedure + " indicated it wants to exit the event loop");
+                    drain(procedure, outputSink);
+                    break;
+                }
+            }
+            catch(ParsingException e) {
+
+                //
+                // do not interrupt stream processing, log as error instead
+                //
+
+                parsingFailureCount.incrementAndGet();
+
+                failureLog.failure(FailureLog.Kind.PARSING, e.getMessage(), lineNumber, e);
+
+                if (rejectsWriter != null) {
+
+                    rejectsWriter.reject(lineNumber, e.getMessage(), line);
+                }
+
+                if (resync != null) {
+
+                    resync.failed(lineNumber);
+                }
+            }
+
+            if (budget != null) {
+
+                awaitCapacity(budget);
+            }
+
+            if (throttle != null) {
+
+                throttle.pace();
+            }
+
+            flushIfIdleOrLingered(!isInputReady(br), procedure, outputSink);
+
+            if (stats != null) {
+
+                t0 = System.nanoTime();
+            }
+        }
+
+        if (resync != null) {
+
+            resync.close();
+        }
+
+        try {
+
+            FlightRecorderEvents.StageEvent ce = FlightRecorderEvents.begin(FlightRecorderEvents.Stage.PARSER_CLOSE);
+
+            List<Event> batch = parser.close();
+
+            long lineNumber = linesRead.get();
+
+            if (ce != null) {
+
+                ce.complete(lineNumber, lineNumber, batch.size());
+            }
+
+            batchFirstLine = lineNumber;
+            batchLastLine = lineNumber;
+
+            processBatch(batch, query, procedure);
+        }
+        catch(ParsingException e) {
+
+            //
+            // do not interrupt stream processing, log as error instead
+            //
+
+            failedOnClose = true;
+
+            failureLog.failure(FailureLog.Kind.PARSER_CLOSE, e.getMessage(), linesRead.get(), e);
+        }
+    }
+
+    private void sharedScanEventLoop(SharedScan.Subscription subscription, Query query, Procedure procedure,
+                                     BufferedOutputSink outputSink) throws IOException, UserErrorException {
+
+        InflightBudget budget = configuration.getInflightBudget();
+        Throttle throttle = configuration.getThrottle();
+
+        try {
+
+            SharedScan.Batch batch;
+
+            while((batch = subscription.next()) != null) {
+
+                linesRead.lazySet(linesRead.get() + batch.getLines());
+                parsingFailureCount.addAndGet(batch.getParsingFailures());
+
+                batchFirstLine = batch.getFirstLine();
+                batchLastLine = batch.getLastLine();
+
+                processBatch(batch.getEvents(), query, procedure);
+
+                if (procedure.isExitLoop()) {
+
+                    log.debug(procedure + " indicated it wants to exit the event loop");
+                    drain(procedure, outputSink);
+                    return;
+                }
+
+                if (budget != null) {
+
+                    awaitCapacity(budget);
+                }
+
+                if (throttle != null) {
+
+                    throttle.pace();
+                }
+            }
+        }
+        finally {
+
+            subscription.cancel();
+        }
+    }
+
+    /**
+     * Each file is read and parsed on its own thread, with a parser of its own, and the events of the files are
+     * processed by this thread, in command line order. Resynchronization is not used, the files are expected to be
+     * small. The line numbers in failure reports and rejects are relative to the file the line belongs to.
+     */
+    private void perFileEventLoop(List<File> files, Query query, Procedure procedure, BufferedOutputSink outputSink)
+            throws IOException, UserErrorException {
+
+        ParserFactory parserFactory = configuration.getParserFactory();
+
+        if (parserFactory == null) {
+
+            throw new UserErrorException(
+                    RuntimeOptions.PER_FILE_THREADS + " requires a parser factory, which " +
+                            (applicationName == null ? "the application" : applicationName) + " does not provide");
+        }
+
+        int parseConcurrency = configuration.getRuntimeOptions().getParseConcurrency();
+
+        PerFileReader reader = new PerFileReader(
+                parserFactory, query, parseConcurrency, rejectsWriter != null, configuration.getInflightBudget());
+
+        Throttle throttle = configuration.getThrottle();
+
+        reader.setThrottle(throttle);
+
+        //
+        // when tuned, the options size the readers for the parse concurrency the tuner may reach
+        //
+
+        ApplicationSpecificBehavior asb = configuration.getApplicationSpecificBehavior();
+        RuntimeOptions options = configuration.getRuntimeOptions();
+
+        ExecutorService executor = FileThreads.newExecutor(asb, options);
+
+        if (autoTuner != null) {
+
+            autoTuner.register(reader);
+        }
+
+        log.debug("reading " + files.size() + " files on " +
+                (FileThreads.isVirtual(asb, options) ? "virtual" : "pooled") + " threads, parsing at most " +
+                parseConcurrency + " at the same time");
+
+        Deque<Future<PerFileReader.FileResult>> inFlight = new ArrayDeque<>();
+        Iterator<File> next = files.iterator();
+        long submitted = 0L;
+        long head = 0L;
+
+        try {
+
+            while(true) {
+
+                while(inFlight.size() < PerFileReader.MAX_FILES_IN_FLIGHT && next.hasNext()) {
+
+                    File f = next.next();
+                    long sequence = submitted ++;
+                    inFlight.add(executor.submit(() -> reader.read(f, sequence)));
+                }
+
+                Future<PerFileReader.FileResult> future = inFlight.poll();
+
+                if (future == null) {
+
+                    return;
+                }
+
+                reader.setHead(head ++);
+
+                PerFileReader.FileResult result = getFileResult(future);
+
+                //
+                // the events are handed over to the procedure, which accounts for them in the budget if it holds on
+                // to them
+                //
+
+                reader.release(result);
+
+                accountFor(result);
+
+                batchFile = result.getFile().getPath();
+                batchFirstLine = 1L;
+                batchLastLine = result.getLines();
+
+                processBatch(result.getEvents(), query, procedure);
+
+                if (procedure.isExitLoop()) {
+
+                    log.debug(procedure + " indicated it wants to exit the event loop");
+                    drain(procedure, outputSink);
+                    return;
+                }
+
+                if (throttle != null) {
+
+                    throttle.pace();
+                }
+            }
+        }
+        finally {
+
+            //
+            // the reads still in flight are not needed anymore. The executor is owned by this loop, but it may run
+            // on the application's threads, which shutdownNow() does not interrupt, so the readers are told to stop
+            //
+
+            reader.cancel();
+            executor.shutdownNow();
+        }
+    }
+
+    private static PerFileReader.FileResult getFileResult(Future<PerFileReader.FileResult> future)
+            throws IOException {
+
+        try {
+
+            return future.get();
+        }
+        catch(InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for a file to be read");
+        }
+        catch(ExecutionException e) {
+
+            Throwable cause = e.getCause();
+
+            if (cause instanceof IOException) {
+
+                throw (IOException)cause;
+            }
+
+            if (cause instanceof RuntimeException) {
+
+                throw (RuntimeException)cause;
+            }
+
+            if (cause instanceof Error) {
+
+                throw (Error)cause;
+            }
+
+            //
+            // InterruptedException on the reading thread
+            //
+
+            throw new InterruptedIOException(cause.getMessage());
+        }
+    }
+
+    /**
+     * Adds the lines, bytes and failures of a file read on a per-file thread to the runtime's counters. The line
+     * numbers of the failures are relative to the file, so they are reported with the file.
+     */
+    private void accountFor(PerFileReader.FileResult result) {
+
+        linesRead.lazySet(linesRead.get() + result.getLines());
+        filesBytesRead.addAndGet(result.getBytes());
+
+        String file = result.getFile().getPath();
+
+        for(PerFileReader.Rejected r: result.getFailures()) {
+
+            parsingFailureCount.incrementAndGet();
+
+            ParsingException e = r.getCause();
+
+            failureLog.failure(FailureLog.Kind.PARSING, e.getMessage(), file, r.getLineNumber(), e);
+
+            if (rejectsWriter != null) {
+
+                rejectsWriter.reject(file, r.getLineNumber(), e.getMessage(), r.getLine());
+            }
+        }
+
+        ParsingException closeFailure = result.getCloseFailure();
+
+        if (closeFailure != null) {
+
+            failedOnClose = true;
+
+            failureLog.failure(
+                    FailureLog.Kind.PARSER_CLOSE, closeFailure.getMessage(), file, result.getLines(), closeFailure);
+        }
+    }
+
+    private void binaryEventLoop(BinaryEventReader reader, Query query, Procedure procedure,
+                                 BufferedOutputSink outputSink) throws IOException, UserErrorException {
+
+        RuntimeStatistics stats = statistics;
+        InflightBudget budget = configuration.getInflightBudget();
+        Throttle throttle = configuration.getThrottle();
+
+        List<Event> batch = new ArrayList<>(BINARY_BATCH_SIZE);
+
+        Event e;
+
+        long t0 = stats == null ? 0L : System.nanoTime();
+
+        //
+        // for binary streams, a parse flight recorder event covers the decoding of a whole batch
+        //
+
+        FlightRecorderEvents.StageEvent pe = FlightRecorderEvents.begin(FlightRecorderEvents.Stage.PARSE);
+
+        while((e = reader.read()) != null) {
+
+            if (stats != null) {
+
+                //
+                // reading and decoding cannot be separated, the time is accounted as read time
+                //
+
+                long t1 = System.nanoTime();
+                stats.recordLine(t1 - t0, 0L);
+                stats.lineRead(t1);
+                t0 = t1;
+            }
+
+            batch.add(e);
+
+            //
+            // the batch does not wait for more input
+            //
+
+            if (unflushedSince == -1L) {
+
+                unflushedSince = System.nanoTime();
+            }
+
+            boolean idle = !reader.ready();
+
+            if (batch.size() < BINARY_BATCH_SIZE && !idle && !isLingerExpired()) {
+
+                continue;
+            }
+
+            completeBinaryBatch(pe, reader, batch.size());
+            processBatch(batch, query, procedure);
+
+            if (budget != null) {
+
+                awaitCapacity(budget);
+            }
+
+            if (throttle != null) {
+
+                throttle.pace();
+            }
+
+            flushIfIdleOrLingered(idle, procedure, outputSink);
+
+            batch = new ArrayList<>(BINARY_BATCH_SIZE);
+            pe = FlightRecorderEvents.begin(FlightRecorderEvents.Stage.PARSE);
+
+            if (stats != null) {
+
+                t0 = System.nanoTime();
+            }
+
+            if (procedure.isExitLoop()) {
+
+                log.debug(procedure + " indicated it wants to exit the event loop");
+                drain(procedure, outputSink);
+                return;
+            }
+        }
+
+        if (!batch.isEmpty()) {
+
+            completeBinaryBatch(pe, reader, batch.size());
+            processBatch(batch, query, procedure);
+        }
+    }
+
+    /**
+     * @return the resynchronizer, or null if no record start detector is available: a --resync-regex takes precedence
+     * over the parser's own detector, if the parser implements RecordStartDetector.
+     */
+    private Resynchronizer newResynchronizer(Parser parser) {
+
+        RuntimeOptions options = configuration.getRuntimeOptions();
+
+        RecordStartDetector detector = null;
+
+        if (options != null && options.getResyncRegex() != null) {
+
+            detector = Resynchronizer.regexDetector(options.getResyncRegex());
+        }
+        else if (parser instanceof RecordStartDetector) {
+
+            detector = (RecordStartDetector)parser;
+        }
+
+        if (detector == null) {
+
+            return null;
+        }
+
+        int threshold = options == null ? RuntimeOptions.DEFAULT_RESYNC_AFTER : options.getResyncAfter();
+
+        return new Resynchronizer(detector, threshold);
+    }
+
+    /**
+     * Records the range of binary records the batch was decoded from.
+     */
+    private void completeBinaryBatch(FlightRecorderEvents.StageEvent pe, BinaryEventReader reader, int size) {
+
+        batchLastLine = reader.getEventsRead();
+        batchFirstLine = batchLastLine - size + 1;
+
+        if (pe != null) {
+
+            pe.complete(batchFirstLine, batchLastLine, size);
+        }
+    }
+
+    /**
+     * Flushes the output, if not all of it was flushed, when the input is idle - the next read may block - so the
+     * output of a followed log does not wait for the buffers to fill up. In the latency profile, the output is also
+     * flushed when the output of the oldest line waited for the linger time. The linger time is only checked between
+     * reads, so a read that may block must be reported as idle, otherwise the output waits for the input.
+     */
+    private void flushIfIdleOrLingered(boolean idle, Procedure procedure, BufferedOutputSink outputSink)
+            throws UserErrorException {
+
+        if (unflushedSince != -1L && (idle || isLingerExpired())) {
+
+            drain(procedure, outputSink);
+        }
+    }
+
+    /**
+     * @return whether the next line can be read without blocking. The latency profile reports a partially received
+     * line as not ready, see isLineReady(). The default profile only checks whether any input is buffered, which does
+     * not cost a look-ahead per line, at the price of holding the output of the preceding lines while the rest of a
+     * partially received line arrives.
+     */
+    private boolean isInputReady(BufferedReader br) throws IOException {
+
+        return lingerNanos >= 0L ? isLineReady(br) : br.ready();
+    }
+
+    /**
+     * BufferedReader.ready() only means that one character can be read without blocking: if the buffered content ends
+     * with a partial line, readLine() blocks until the rest of the line arrives, past the linger time.
+     *
+     * @return true if a whole line, or the end of the input, can be read without blocking. A line longer than
+     * LINE_LOOKAHEAD is reported as not ready, which only costs an early flush.
+     */
+    static boolean isLineReady(BufferedReader br) throws IOException {
+
+        br.mark(LINE_LOOKAHEAD);
+
+        try {
+
+            for(int i = 0; i < LINE_LOOKAHEAD && br.ready(); i ++) {
+
+                int c = br.read();
+
+                if (c == '\n' || c == '\r' || c == -1) {
+
+                    return true;
+                }
+            }
+
+            return false;
+        }
+        finally {
+
+            br.reset();
+        }
+    }
+
+    private boolean isLingerExpired() {
+
+        return unflushedSince != -1L && lingerNanos >= 0L && System.nanoTime() - unflushedSince >= lingerNanos;
+    }
+
+    /**
+     * Blocks the event loop while the memory budget is exhausted, until the downstream stages catch up.
+     */
+    private static void awaitCapacity(InflightBudget budget) throws InterruptedIOException {
+
+        try {
+
+            budget.awaitCapacity();
+        }
+        catch(InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for the output to catch up");
+        }
+    }
+
+    /**
+     * Reads the next line, and reports the wait as an input stall flight recorder event if a recording is running.
+     */
+    private String readLine(BufferedReader br) throws IOException {
+
+        FlightRecorderEvents.StageEvent e = FlightRecorderEvents.begin(FlightRecorderEvents.Stage.INPUT_STALL);
+
+        if (e == null) {
+
+            return br.readLine();
+        }
+
+        String line = br.readLine();
+
+        long lineNumber = linesRead.get() + 1;
+        e.complete(lineNumber, lineNumber, 0);
+
+        return line;
+    }
+
+    /**
+     * Pushes the content accumulated in the runtime-managed output stage and output sink, if any, to its destination.
+     * The stage must be flushed first, as it writes into the sink.
+     */
+    private void drain(Procedure procedure, BufferedOutputSink outputSink) throws UserErrorException {
+
+        long t0 = statistics == null ? 0L : System.nanoTime();
+
+        try {
+
+            if (procedure instanceof OutputStage) {
+
+                ((OutputStage)procedure).flush();
+            }
+
+            if (outputSink != null) {
+
+                outputSink.drain();
+            }
+
+            unflushedSince = -1L;
+
+            if (statistics != null) {
+
+                statistics.outputFlushed(System.nanoTime());
+            }
+        }
+        catch(IOException e) {
+
+            throw new UserErrorException("failed to write the output", e);
+        }
+        finally {
+
+            if (statistics != null) {
+
+                statistics.add(RuntimeStatistics.Stage.OUTPUT, System.nanoTime() - t0);
+            }
+        }
+    }
+
     // Inner classes ---------------------------------------------------------------------------------------------------
 
 }
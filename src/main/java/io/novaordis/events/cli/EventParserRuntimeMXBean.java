@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+/**
+ * The management interface of an EventParserRuntime, registered with the platform MBean server for the duration of
+ * each run, under "io.novaordis.events.cli:type=EventParserRuntime,name=...,id=...".
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public interface EventParserRuntimeMXBean {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    String getApplicationName();
+
+    long getParsingFailureCount();
+
+    long getProcessingFailureCount();
+
+    long getProcessedEventsCount();
+
+    long getLinesRead();
+
+    long getBytesRead();
+
+    /**
+     * @return the input size in bytes, or -1 if not known.
+     */
+    long getInputSize();
+
+    /**
+     * @return the offset in the input the runtime has read up to. Because the input is buffered, the line being
+     * processed may lag behind this offset by at most the input buffer size.
+     */
+    long getInputOffset();
+
+    /**
+     * @return true if per-stage timing is collected (--stats). If false, all stage times are reported as -1.
+     */
+    boolean isStatisticsEnabled();
+
+    long getReadTimeNanos();
+
+    long getParseTimeNanos();
+
+    long getFilterTimeNanos();
+
+    long getProcedureTimeNanos();
+
+    long getOutputTimeNanos();
+
+    /**
+     * @return the number of batches waiting to be formatted or written when the output is formatted in parallel,
+     * -1 otherwise.
+     */
+    int getFormattingQueueDepth();
+
+    /**
+     * @return the number of buffers waiting to be written by the asynchronous output writer, -1 if the runtime-managed
+     * output is not asynchronous.
+     */
+    int getOutputQueueDepth();
+
+    /**
+     * @return the number of events parsed and not yet written out, -1 if the memory is not bounded
+     * (--max-inflight-events, --max-inflight-bytes).
+     */
+    long getInflightEvents();
+
+    /**
+     * @return the estimated number of bytes read or produced and not yet written out, -1 if the memory is not bounded.
+     */
+    long getInflightBytes();
+
+    /**
+     * @return the total time reading was blocked because the memory budget was exhausted, -1 if the memory is not
+     * bounded.
+     */
+    long getInflightBlockedTimeNanos();
+
+    /**
+     * @return the total time reading threads slept to stay within the read bandwidth, -1 if the run is not throttled
+     * (--max-read-rate, --cpu-share).
+     */
+    long getReadThrottledTimeNanos();
+
+    /**
+     * @return the total time worker threads slept to stay within the CPU share, -1 if the run is not throttled.
+     */
+    long getCpuThrottledTimeNanos();
+
+}
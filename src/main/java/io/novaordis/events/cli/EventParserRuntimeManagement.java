@@ -0,0 +1,370 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.novaordis.events.processing.Procedure;
+
+/**
+ * Exposes an EventParserRuntime's counters and stage metrics over JMX. All values are sampled from the JMX thread; the
+ * event loop is not involved.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class EventParserRuntimeManagement implements EventParserRuntimeMXBean {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    private static final Logger log = LoggerFactory.getLogger(EventParserRuntimeManagement.class);
+
+    public static final String DOMAIN = "io.novaordis.events.cli";
+
+    //
+    // creating the platform MBean server takes hundreds of milliseconds, which would dominate the short runs nobody
+    // attaches to, so the runtime registers its MBean only if the run lasts longer than this
+    //
+    public static final long DEFAULT_REGISTRATION_DELAY_MS = 1000L;
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    private static final AtomicInteger instanceCounter = new AtomicInteger(0);
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private final EventParserRuntime runtime;
+    private final String applicationName;
+
+    private ObjectName objectName;
+    private Thread registrationThread;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    public EventParserRuntimeManagement(EventParserRuntime runtime, String applicationName) {
+
+        this.runtime = runtime;
+        this.applicationName = applicationName;
+    }
+
+    // EventParserRuntimeMXBean implementation -------------------------------------------------------------------------
+
+    @Override
+    public String getApplicationName() {
+
+        return applicationName;
+    }
+
+    @Override
+    public long getParsingFailureCount() {
+
+        return runtime.getParsingFailureCount();
+    }
+
+    @Override
+    public long getProcessingFailureCount() {
+
+        return runtime.getProcessingFailureCount();
+    }
+
+    @Override
+    public long getProcessedEventsCount() {
+
+        return runtime.getProcessedEventsCount();
+    }
+
+    @Override
+    public long getLinesRead() {
+
+        return runtime.getLinesRead();
+    }
+
+    @Override
+    public long getBytesRead() {
+
+        return runtime.getBytesRead();
+    }
+
+    @Override
+    public long getInputSize() {
+
+        return runtime.getConfiguration().getInputSize();
+    }
+
+    @Override
+    public long getInputOffset() {
+
+        return runtime.getBytesRead();
+    }
+
+    @Override
+    public boolean isStatisticsEnabled() {
+
+        return runtime.getStatistics() != null;
+    }
+
+    @Override
+    public long getReadTimeNanos() {
+
+        return getNanos(RuntimeStatistics.Stage.READ);
+    }
+
+    @Override
+    public long getParseTimeNanos() {
+
+        return getNanos(RuntimeStatistics.Stage.PARSE);
+    }
+
+    @Override
+    public long getFilterTimeNanos() {
+
+        return getNanos(RuntimeStatistics.Stage.FILTER);
+    }
+
+    @Override
+    public long getProcedureTimeNanos() {
+
+        return getNanos(RuntimeStatistics.Stage.PROCEDURE);
+    }
+
+    @Override
+    public long getOutputTimeNanos() {
+
+        return getNanos(RuntimeStatistics.Stage.OUTPUT);
+    }
+
+    @Override
+    public int getFormattingQueueDepth() {
+
+        Procedure p = runtime.getConfiguration().getProcedure();
+
+        if (p instanceof ParallelFormattingOutput) {
+
+            return ((ParallelFormattingOutput)p).getQueueDepth();
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int getOutputQueueDepth() {
+
+        BufferedOutputSink sink = runtime.getConfiguration().getOutputSink();
+
+        if (sink == null || !sink.isAsync()) {
+
+            return -1;
+        }
+
+        return sink.getQueueDepth();
+    }
+
+    @Override
+    public long getInflightEvents() {
+
+        InflightBudget b = runtime.getConfiguration().getInflightBudget();
+
+        return b == null ? -1L : b.getEvents();
+    }
+
+    @Override
+    public long getInflightBytes() {
+
+        InflightBudget b = runtime.getConfiguration().getInflightBudget();
+
+        return b == null ? -1L : b.getBytes();
+    }
+
+    @Override
+    public long getInflightBlockedTimeNanos() {
+
+        InflightBudget b = runtime.getConfiguration().getInflightBudget();
+
+        return b == null ? -1L : b.getBlockedTimeNanos();
+    }
+
+    @Override
+    public long getReadThrottledTimeNanos() {
+
+        Throttle t = runtime.getConfiguration().getThrottle();
+
+        return t == null ? -1L : t.getReadThrottledTimeNanos();
+    }
+
+    @Override
+    public long getCpuThrottledTimeNanos() {
+
+        Throttle t = runtime.getConfiguration().getThrottle();
+
+        return t == null ? -1L : t.getCpuThrottledTimeNanos();
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * Registers the MBean with the platform MBean server. Failures are logged and do not prevent the runtime from
+     * running.
+     */
+    public synchronized void register() {
+
+        if (objectName != null) {
+
+            return;
+        }
+
+        try {
+
+            ObjectName on = new ObjectName(
+                    DOMAIN + ":type=EventParserRuntime,name=" + ObjectName.quote(String.valueOf(applicationName)) +
+                            ",id=" + instanceCounter.getAndIncrement());
+
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, on);
+            objectName = on;
+
+            log.debug(this + " registered as " + on);
+        }
+        catch(JMException | RuntimeException e) {
+
+            String msg = "failed to register the runtime MBean";
+            log.warn(msg + ": " + e.getMessage());
+            log.debug(msg, e);
+        }
+    }
+
+    /**
+     * Registers the MBean after the given delay, on a daemon thread, unless unregister() is called first. The platform
+     * MBean server is created outside the lock, so unregister() never waits for it.
+     */
+    public synchronized void registerLater(long delayMs) {
+
+        if (objectName != null || registrationThread != null) {
+
+            return;
+        }
+
+        Thread t = new Thread(() -> {
+
+            try {
+
+                Thread.sleep(delayMs);
+                ManagementFactory.getPlatformMBeanServer();
+            }
+            catch(InterruptedException e) {
+
+                return;
+            }
+            catch(RuntimeException e) {
+
+                //
+                // register() will fail the same way, and report it
+                //
+            }
+
+            synchronized (this) {
+
+                if (registrationThread != Thread.currentThread()) {
+
+                    //
+                    // cancelled
+                    //
+
+                    return;
+                }
+
+                registrationThread = null;
+                register();
+            }
+
+        }, "events-cli jmx registration");
+
+        t.setDaemon(true);
+        registrationThread = t;
+        t.start();
+    }
+
+    /**
+     * Also cancels a pending registerLater(). Idempotent.
+     */
+    public synchronized void unregister() {
+
+        if (registrationThread != null) {
+
+            registrationThread.interrupt();
+            registrationThread = null;
+        }
+
+        if (objectName == null) {
+
+            return;
+        }
+
+        try {
+
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+            if (server.isRegistered(objectName)) {
+
+                server.unregisterMBean(objectName);
+            }
+        }
+        catch(JMException | RuntimeException e) {
+
+            String msg = "failed to unregister " + objectName;
+            log.warn(msg + ": " + e.getMessage());
+            log.debug(msg, e);
+        }
+
+        objectName = null;
+    }
+
+    /**
+     * @return the name the MBean is registered under, or null if it is not registered.
+     */
+    public synchronized ObjectName getObjectName() {
+
+        return objectName;
+    }
+
+    @Override
+    public String toString() {
+
+        return "EventParserRuntimeManagement[" + applicationName + "]";
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    private long getNanos(RuntimeStatistics.Stage stage) {
+
+        RuntimeStatistics s = runtime.getStatistics();
+        return s == null ? -1L : s.getNanos(stage);
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+
+import io.novaordis.events.api.event.Event;
+import io.novaordis.events.api.parser.Parser;
+import io.novaordis.events.query.Query;
+
+/**
+ * The events parsed from a source, for applications that embed the parser instead of running it from command line.
+ * The events are parsed lazily, as they are consumed, either from a Stream or from a Reactive Streams Publisher, which
+ * only parses as many as its subscriber requested. The publisher plugs into any Reactive Streams library, and on
+ * Java 9+ into java.util.concurrent.Flow, with org.reactivestreams.FlowAdapters.toFlowPublisher().
+ *
+ * As with the command line runtime, parsing failures do not end the stream: they are logged and counted, and the
+ * events returned by the parser's close() are the last ones. If a query is specified, it is passed to the parser and
+ * then it filters the events.
+ *
+ * Usage:
+ *
+ *      try(Stream<Event> events = EventSource.builder().parserFactory(MyParser::new).input(path).build().stream()) {
+ *
+ *          events.parallel().filter(...).forEach(...);
+ *      }
+ *
+ * A source built with a single parser instance can be consumed once. A source built with a parser factory, over a
+ * Path or an Iterable, can be consumed repeatedly, and a Path source can be split for parallel streams.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public final class EventSource {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    public static Builder builder() {
+
+        return new Builder();
+    }
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private final Supplier<Parser> parserFactory;
+    private final Query query;
+
+    private final InputStream inputStream;
+    private final Path path;
+    private final Iterable<String> lines;
+
+    private final AtomicLong parsingFailureCount;
+
+    //
+    // the single parser instance, or the input stream, once consumed
+    //
+
+    private Parser parser;
+    private boolean inputStreamConsumed;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    private EventSource(Builder b) {
+
+        this.parser = b.parser;
+        this.parserFactory = b.parserFactory;
+        this.query = b.query;
+        this.inputStream = b.inputStream;
+        this.path = b.path;
+        this.lines = b.lines;
+        this.parsingFailureCount = new AtomicLong(0L);
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * A sequential stream, which can be made parallel with parallel(). The stream should be closed, it releases the
+     * source (the input stream, for an InputStream source) and logs the parsing failure report.
+     *
+     * @exception IOException if the Path source cannot be accessed. Failures while the stream is consumed are thrown
+     * as UncheckedIOException.
+     * @exception IllegalStateException if the source cannot be consumed again.
+     */
+    public Stream<Event> stream() throws IOException {
+
+        EventSpliterator s = newSpliterator();
+
+        return StreamSupport.stream(s, false).onClose(s.getTraversal()::close);
+    }
+
+    /**
+     * @return a publisher that delivers events in the thread that invokes Subscription.request().
+     */
+    public Publisher<Event> publisher() {
+
+        return publisher(null);
+    }
+
+    /**
+     * @param executor delivers the events. If null, the events are delivered in the thread that invokes
+     *                 Subscription.request().
+     *
+     * @return a publisher that starts a new traversal of the source for each subscriber, and releases the source when
+     * the subscription completes, fails, or is cancelled.
+     */
+    public Publisher<Event> publisher(Executor executor) {
+
+        return subscriber -> {
+
+            Objects.requireNonNull(subscriber, "null subscriber");
+
+            EventSpliterator s;
+
+            try {
+
+                s = newSpliterator();
+            }
+            catch(IOException | RuntimeException e) {
+
+                subscriber.onSubscribe(new Subscription() {
+
+                    @Override
+                    public void request(long n) {
+                    }
+
+                    @Override
+                    public void cancel() {
+                    }
+                });
+
+                subscriber.onError(e);
+                return;
+            }
+
+            subscriber.onSubscribe(new EventSubscription(subscriber, s, executor));
+        };
+    }
+
+    /**
+     * @return the number of lines that failed to parse, over all traversals.
+     */
+    public long getParsingFailureCount() {
+
+        return parsingFailureCount.get();
+    }
+
+    @Override
+    public String toString() {
+
+        Object source = inputStream != null ? inputStream : path != null ? path : lines;
+
+        return "EventSource[" + source + (query == null ? "" : ", " + query) + "]";
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    EventSpliterator newSpliterator() throws IOException {
+
+        EventSpliterator.Traversal traversal = new EventSpliterator.Traversal(parsingFailureCount);
+
+        if (path != null) {
+
+            long end = Files.size(path);
+            Parser p = newParser();
+
+            //
+            // the parsers of a file are expected to be of the same type, so probing the first one is sufficient
+            //
+
+            RecordStartDetector detector = p instanceof RecordStartDetector ? (RecordStartDetector)p : null;
+
+            return new EventSpliterator(traversal, p, query, path, parserFactory, detector, 0L, end);
+        }
+
+        if (lines != null) {
+
+            return new EventSpliterator(traversal, newParser(), query, EventSpliterator.lineReader(lines.iterator()));
+        }
+
+        synchronized (this) {
+
+            if (inputStreamConsumed) {
+
+                throw new IllegalStateException(this + " was already consumed");
+            }
+
+            inputStreamConsumed = true;
+        }
+
+        BufferedReader br = new BufferedReader(new InputStreamReader(inputStream));
+
+        return new EventSpliterator(traversal, newParser(), query, traversal.register(EventSpliterator.lineReader(br)));
+    }
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    private synchronized Parser newParser() {
+
+        if (parserFactory != null) {
+
+            return parserFactory.get();
+        }
+
+        if (parser == null) {
+
+            throw new IllegalStateException(
+                    this + " was built with a single parser instance, which was already used; use a parser factory " +
+                            "to consume the source more than once");
+        }
+
+        Parser p = parser;
+        parser = null;
+        return p;
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+    public static final class Builder {
+
+        private Parser parser;
+        private Supplier<Parser> parserFactory;
+        private Query query;
+
+        private InputStream inputStream;
+        private Path path;
+        private Iterable<String> lines;
+
+        private Builder() {
+        }
+
+        /**
+         * A single parser instance: the source can be consumed only once, and is not split. Mutually exclusive with
+         * parserFactory().
+         */
+        public Builder parser(Parser parser) {
+
+            this.parser = parser;
+            return this;
+        }
+
+        /**
+         * Must return a new parser instance on each invocation. Mutually exclusive with parser().
+         */
+        public Builder parserFactory(Supplier<Parser> parserFactory) {
+
+            this.parserFactory = parserFactory;
+            return this;
+        }
+
+        /**
+         * Optional.
+         */
+        public Builder query(Query query) {
+
+            this.query = query;
+            return this;
+        }
+
+        /**
+         * The lines are decoded with the default charset. The input stream is closed when it is exhausted, or when the
+         * event stream is closed.
+         */
+        public Builder input(InputStream inputStream) {
+
+            this.inputStream = inputStream;
+            return this;
+        }
+
+        /**
+         * A file that is read with random access, so its streams can be split. The lines are decoded with the default
+         * charset. Only the content that exists when the stream is created is read.
+         */
+        public Builder input(Path path) {
+
+            this.path = path;
+            return this;
+        }
+
+        public Builder lines(Iterable<String> lines) {
+
+            this.lines = lines;
+            return this;
+        }
+
+        /**
+         * @exception IllegalStateException if not exactly one parser (or parser factory) and exactly one source were
+         * specified.
+         */
+        public EventSource build() {
+
+            if ((parser == null) == (parserFactory == null)) {
+
+                throw new IllegalStateException("exactly one of a parser or a parser factory must be specified");
+            }
+
+            int sources = (inputStream == null ? 0 : 1) + (path == null ? 0 : 1) + (lines == null ? 0 : 1);
+
+            if (sources != 1) {
+
+                throw new IllegalStateException("exactly one source must be specified, but there are " + sources);
+            }
+
+            return new EventSource(this);
+        }
+    }
+
+}
@@ -0,0 +1,580 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.novaordis.events.api.event.Event;
+import io.novaordis.events.api.parser.Parser;
+import io.novaordis.events.query.Query;
+import io.novaordis.utilities.parsing.ParsingException;
+
+/**
+ * Lazily parses lines into events, the way the runtime's text event loop does: a parsing failure is logged and
+ * counted, and does not end the traversal; the events returned by the parser's close() are delivered last.
+ *
+ * A spliterator over a file byte range can be split, before its traversal starts, if it has a parser factory. The
+ * split point is the first line start past the middle of the range or, if the parser is a RecordStartDetector, the
+ * first record start, so multi-line records are not broken across splits. Each split parses its range with its own
+ * parser instance. Line numbers used in failure reports are only known for the range that starts at the beginning of
+ * the file.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+final class EventSpliterator implements Spliterator<Event> {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    private static final Logger log = LoggerFactory.getLogger(EventSpliterator.class);
+
+    /**
+     * Ranges smaller than twice this size are not split.
+     */
+    static final long MIN_SPLIT_SIZE = 1024L * 1024L;
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    static LineReader lineReader(BufferedReader br) {
+
+        return new LineReader() {
+
+            @Override
+            public String readLine() throws IOException {
+
+                return br.readLine();
+            }
+
+            @Override
+            public void close() throws IOException {
+
+                br.close();
+            }
+        };
+    }
+
+    static LineReader lineReader(Iterator<String> lines) {
+
+        return new LineReader() {
+
+            @Override
+            public String readLine() {
+
+                return lines.hasNext() ? lines.next() : null;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private final Traversal traversal;
+    private final Parser parser;
+    private final Query query;
+
+    //
+    // null for sequential sources, which cannot be split
+    //
+
+    private final Path path;
+    private final Supplier<Parser> parserFactory;
+    private final RecordStartDetector detector;
+
+    private long start;
+    private final long end;
+
+    private LineReader reader;
+    private long lineNumber;
+    private boolean exhausted;
+
+    private final Deque<Event> pending;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    /**
+     * A sequential spliterator, over the lines of an InputStream or of an Iterable.
+     */
+    EventSpliterator(Traversal traversal, Parser parser, Query query, LineReader reader) {
+
+        this(traversal, parser, query, null, null, null, 0L, 0L);
+
+        this.reader = reader;
+    }
+
+    /**
+     * A spliterator over the lines that start within [start, end) in a file. start must be a line start.
+     *
+     * @param parserFactory creates the parsers of the splits. If null, the spliterator cannot be split.
+     * @param detector may be null.
+     */
+    EventSpliterator(Traversal traversal, Parser parser, Query query, Path path, Supplier<Parser> parserFactory,
+                     RecordStartDetector detector, long start, long end) {
+
+        this.traversal = traversal;
+        this.parser = parser;
+        this.query = query;
+        this.path = path;
+        this.parserFactory = parserFactory;
+        this.detector = detector;
+        this.start = start;
+        this.end = end;
+        this.pending = new ArrayDeque<>();
+    }
+
+    // Spliterator implementation --------------------------------------------------------------------------------------
+
+    /**
+     * @exception UncheckedIOException if the input cannot be read.
+     */
+    @Override
+    public boolean tryAdvance(Consumer<? super Event> action) {
+
+        while(pending.isEmpty()) {
+
+            if (exhausted) {
+
+                return false;
+            }
+
+            fill();
+        }
+
+        action.accept(pending.poll());
+        return true;
+    }
+
+    @Override
+    public Spliterator<Event> trySplit() {
+
+        if (path == null || parserFactory == null || reader != null || end - start < 2 * MIN_SPLIT_SIZE) {
+
+            return null;
+        }
+
+        long split;
+
+        try {
+
+            split = recordStart(start + (end - start) / 2);
+        }
+        catch(IOException e) {
+
+            throw new UncheckedIOException(e);
+        }
+
+        if (split == -1) {
+
+            return null;
+        }
+
+        EventSpliterator prefix =
+                new EventSpliterator(traversal, parserFactory.get(), query, path, parserFactory, detector, start,
+                        split);
+
+        this.start = split;
+
+        log.debug(this + " split off " + prefix);
+
+        return prefix;
+    }
+
+    /**
+     * The number of bytes left in the range, for file ranges.
+     */
+    @Override
+    public long estimateSize() {
+
+        return path == null ? Long.MAX_VALUE : end - start;
+    }
+
+    @Override
+    public int characteristics() {
+
+        return ORDERED | NONNULL;
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+
+        return "EventSpliterator[" + (path == null ? "sequential" : path + ", " + start + "-" + end) + "]";
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    Traversal getTraversal() {
+
+        return traversal;
+    }
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    /**
+     * Reads and parses one line, or closes the parser at the end of the input.
+     */
+    private void fill() {
+
+        try {
+
+            if (reader == null) {
+
+                reader = traversal.register(new RangeReader(path, start, end));
+            }
+
+            String line = reader.readLine();
+
+            if (line == null) {
+
+                exhausted = true;
+
+                traversal.close(reader);
+
+                try {
+
+                    add(parser.close());
+                }
+                catch(ParsingException e) {
+
+                    traversal.failure(FailureLog.Kind.PARSER_CLOSE, e, getLineNumber());
+                }
+
+                return;
+            }
+
+            lineNumber ++;
+
+            try {
+
+                add(parser.parse(line, query));
+            }
+            catch(ParsingException e) {
+
+                traversal.failure(FailureLog.Kind.PARSING, e, getLineNumber());
+            }
+        }
+        catch(IOException e) {
+
+            exhausted = true;
+
+            if (reader != null) {
+
+                traversal.close(reader);
+            }
+
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void add(List<Event> events) {
+
+        if (query != null) {
+
+            events = query.filter(events);
+        }
+
+        pending.addAll(events);
+    }
+
+    /**
+     * @return the line number, or -1 if the line number is not known because the range does not start at the
+     * beginning of the file.
+     */
+    private long getLineNumber() {
+
+        return start == 0L ? lineNumber : -1L;
+    }
+
+    /**
+     * @return the offset of the first line (record) start at or after 'from', within the range, or -1 if there is none.
+     */
+    private long recordStart(long from) throws IOException {
+
+        try(RangeReader r = new RangeReader(path, from - 1, end)) {
+
+            //
+            // 'from' is a line start if the previous byte is a new line; skip to the first line start at or after it
+            //
+
+            r.readLine();
+
+            long offset = r.position();
+            String line;
+
+            while((line = r.readLine()) != null) {
+
+                if (detector == null || detector.isRecordStart(line)) {
+
+                    return offset;
+                }
+
+                offset = r.position();
+            }
+
+            return -1L;
+        }
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+    interface LineReader extends Closeable {
+
+        /**
+         * @return the next line, without the line terminator, or null at the end of the input.
+         */
+        String readLine() throws IOException;
+    }
+
+    /**
+     * The state shared by a spliterator and its splits: the resources they keep open, which are closed when the
+     * traversal ends, and the failure log.
+     */
+    static final class Traversal implements Closeable {
+
+        private final Set<Closeable> resources;
+        private final FailureLog failureLog;
+        private final AtomicLong parsingFailureCount;
+
+        private volatile boolean closed;
+
+        Traversal(AtomicLong parsingFailureCount) {
+
+            this.resources = ConcurrentHashMap.newKeySet();
+            this.failureLog = new FailureLog(log);
+            this.parsingFailureCount = parsingFailureCount;
+        }
+
+        <T extends Closeable> T register(T resource) throws IOException {
+
+            resources.add(resource);
+
+            if (closed) {
+
+                close(resource);
+                throw new IOException("traversal closed");
+            }
+
+            return resource;
+        }
+
+        void close(Closeable resource) {
+
+            if (!resources.remove(resource)) {
+
+                return;
+            }
+
+            try {
+
+                resource.close();
+            }
+            catch(IOException e) {
+
+                String msg = "failed to close " + resource;
+                log.warn(msg + ": " + e.getMessage());
+                log.debug(msg, e);
+            }
+        }
+
+        void failure(FailureLog.Kind kind, ParsingException e, long lineNumber) {
+
+            if (kind == FailureLog.Kind.PARSING) {
+
+                parsingFailureCount.incrementAndGet();
+            }
+
+            //
+            // the splits of a parallel traversal report concurrently
+            //
+
+            synchronized (failureLog) {
+
+                failureLog.failure(kind, e.getMessage(), lineNumber, e);
+            }
+        }
+
+        /**
+         * Closes the resources still open and reports the failures. Idempotent.
+         */
+        @Override
+        public void close() {
+
+            if (closed) {
+
+                return;
+            }
+
+            closed = true;
+
+            for(Closeable c: resources.toArray(new Closeable[0])) {
+
+                close(c);
+            }
+
+            synchronized (failureLog) {
+
+                failureLog.close();
+            }
+        }
+    }
+
+    /**
+     * Reads the lines that start within [start, end) in a file. The last line may extend past 'end'. The bytes of a
+     * line are decoded with the default charset, as the runtime's InputStreamReader does, and the \n and \r\n line
+     * terminators are recognized.
+     */
+    static final class RangeReader implements LineReader {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final long end;
+
+        private long position;
+        private byte[] line;
+
+        RangeReader(Path path, long start, long end) throws IOException {
+
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.end = end;
+            this.position = start;
+            this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            this.buffer.flip();
+            this.line = new byte[256];
+
+            channel.position(start);
+        }
+
+        @Override
+        public String readLine() throws IOException {
+
+            if (position >= end) {
+
+                return null;
+            }
+
+            int length = 0;
+            boolean read = false;
+
+            while(true) {
+
+                if (!buffer.hasRemaining()) {
+
+                    buffer.clear();
+                    int n = channel.read(buffer);
+                    buffer.flip();
+
+                    if (n <= 0) {
+
+                        break;
+                    }
+                }
+
+                read = true;
+
+                byte[] array = buffer.array();
+                int from = buffer.position();
+                int limit = buffer.limit();
+                int i = from;
+
+                while(i < limit && array[i] != '\n') {
+
+                    i ++;
+                }
+
+                int chunk = i - from;
+
+                if (length + chunk > line.length) {
+
+                    line = Arrays.copyOf(line, Math.max(2 * line.length, length + chunk));
+                }
+
+                System.arraycopy(array, from, line, length, chunk);
+                length += chunk;
+
+                if (i < limit) {
+
+                    //
+                    // consume the new line
+                    //
+
+                    buffer.position(i + 1);
+                    position += chunk + 1;
+                    break;
+                }
+
+                buffer.position(limit);
+                position += chunk;
+            }
+
+            if (!read) {
+
+                return null;
+            }
+
+            if (length > 0 && line[length - 1] == '\r') {
+
+                length --;
+            }
+
+            return new String(line, 0, length, Charset.defaultCharset());
+        }
+
+        /**
+         * @return the offset of the next byte to be read.
+         */
+        long position() {
+
+            return position;
+        }
+
+        @Override
+        public void close() throws IOException {
+
+            channel.close();
+        }
+    }
+
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.UncheckedIOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import io.novaordis.events.api.event.Event;
+
+/**
+ * Delivers the events of a spliterator to a subscriber, only as many as requested: a line is not read until there is
+ * demand for the events it produces.
+ *
+ * Delivery runs in the thread that requests, or on the executor, if one is specified. In both cases, only one thread
+ * delivers at a time: a request() that arrives while delivery is in progress, including one made from onNext(), adds
+ * to the demand and returns, and the delivering thread picks it up.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+final class EventSubscription implements Subscription, Runnable {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private final Subscriber<? super Event> subscriber;
+    private final EventSpliterator spliterator;
+    private final Executor executor;
+
+    private final AtomicLong demand;
+
+    //
+    // the number of request()/cancel() invocations not yet seen by the delivering thread, non-zero while delivering
+    //
+
+    private final AtomicInteger pending;
+
+    private volatile boolean cancelled;
+    private volatile Throwable error;
+
+    //
+    // only accessed by the delivering thread
+    //
+
+    private boolean terminated;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    /**
+     * @param executor may be null, in which case the events are delivered in the thread that invokes request().
+     */
+    EventSubscription(Subscriber<? super Event> subscriber, EventSpliterator spliterator,
+                      Executor executor) {
+
+        this.subscriber = subscriber;
+        this.spliterator = spliterator;
+        this.executor = executor;
+        this.demand = new AtomicLong(0L);
+        this.pending = new AtomicInteger(0);
+    }
+
+    // Subscription implementation -------------------------------------------------------------------------------------
+
+    @Override
+    public void request(long n) {
+
+        if (n <= 0) {
+
+            error = new IllegalArgumentException("non-positive request: " + n);
+        }
+        else {
+
+            //
+            // the demand saturates at Long.MAX_VALUE, which means unbounded
+            //
+
+            demand.getAndUpdate(d -> d + n < 0 ? Long.MAX_VALUE : d + n);
+        }
+
+        schedule();
+    }
+
+    @Override
+    public void cancel() {
+
+        cancelled = true;
+        schedule();
+    }
+
+    // Runnable implementation -----------------------------------------------------------------------------------------
+
+    @Override
+    public void run() {
+
+        int missed = 1;
+
+        while(true) {
+
+            if (!terminated) {
+
+                deliver();
+            }
+
+            missed = pending.addAndGet(-missed);
+
+            if (missed == 0) {
+
+                return;
+            }
+        }
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+
+        return "EventSubscription[" + spliterator + ", demand=" + demand.get() + "]";
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    private void schedule() {
+
+        if (pending.getAndIncrement() != 0) {
+
+            //
+            // delivery in progress, it will see this invocation
+            //
+
+            return;
+        }
+
+        if (executor == null) {
+
+            run();
+        }
+        else {
+
+            try {
+
+                executor.execute(this);
+            }
+            catch(RejectedExecutionException e) {
+
+                //
+                // no delivery will run, this thread still owns the subscription: end it, and let the following
+                // invocations schedule again, so they do not wait for a delivery that never comes
+                //
+
+                if (!terminated) {
+
+                    terminate();
+
+                    if (!cancelled) {
+
+                        subscriber.onError(e);
+                    }
+                }
+
+                pending.set(0);
+            }
+        }
+    }
+
+    private void deliver() {
+
+        while(true) {
+
+            if (cancelled) {
+
+                terminate();
+                return;
+            }
+
+            Throwable t = error;
+
+            if (t != null) {
+
+                terminate();
+                subscriber.onError(t);
+                return;
+            }
+
+            if (demand.get() == 0L) {
+
+                return;
+            }
+
+            boolean advanced;
+
+            try {
+
+                advanced = spliterator.tryAdvance(e -> {
+
+                    if (demand.get() != Long.MAX_VALUE) {
+
+                        demand.decrementAndGet();
+                    }
+
+                    subscriber.onNext(e);
+                });
+            }
+            catch(RuntimeException e) {
+
+                terminate();
+                subscriber.onError(e instanceof UncheckedIOException ? e.getCause() : e);
+                return;
+            }
+
+            if (!advanced) {
+
+                terminate();
+                subscriber.onComplete();
+                return;
+            }
+        }
+    }
+
+    private void terminate() {
+
+        terminated = true;
+        spliterator.getTraversal().close();
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
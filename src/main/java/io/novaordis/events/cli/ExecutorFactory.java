@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Supplies the executors the runtime runs its thread pools on: the formatter threads, the compressor threads, the
+ * file readers (--per-file-threads) and the daemon workers. An application that embeds the runtime makes a factory
+ * available with ApplicationSpecificBehavior, to cap concurrency or to use virtual threads:
+ *
+ *      new ApplicationSpecificBehavior(parser, (ExecutorFactory)(name, threads) ->
+ *              Executors.newVirtualThreadPerTaskExecutor());
+ *
+ * The executors returned by the factory are owned by the runtime, which shuts them down when it is done with them.
+ * To share a pool the application keeps control of, make the Executor itself available with
+ * ApplicationSpecificBehavior instead: the runtime submits to it, but never shuts it down. A bounded shared pool
+ * should not also run the thread that drives the runtime, which waits for the tasks it submits.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+@FunctionalInterface
+public interface ExecutorFactory {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * @param name the purpose of the executor ("formatter", "compressor", "file reader", "daemon worker"), that can be
+     *             used to name its threads.
+     * @param threads the size of the pool the runtime would create on its own, from the command line options. The
+     *                runtime does not depend on getting that many threads to make progress.
+     *
+     * @return a new executor, which will be shut down by the runtime. Must not return null.
+     */
+    ExecutorService newExecutor(String name, int threads);
+
+}
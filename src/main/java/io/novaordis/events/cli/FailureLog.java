@@ -0,0 +1,477 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+
+/**
+ * Rate-limited, aggregated logging of parsing and processing failures. On a corrupted or wrong-format input, logging
+ * every failure would make the logger the bottleneck and flood the terminal, so failures are grouped into categories
+ * by kind and message template (the message with numbers and quoted strings replaced by placeholders), and they are
+ * logged at a capped rate. Suppressed failures are periodically logged as "N more similar" summaries, and a table by
+ * category, with the first examples of each category and their line numbers, is logged at the end of the run. When
+ * the input files are read separately (--per-file-threads), the line numbers are relative to the file, which is
+ * reported with them.
+ *
+ * Failures are reported to a logger, or to a stream, such as the stderr of a daemon request, which the daemon's
+ * logger does not reach.
+ *
+ * Used by the event loop thread only. The cost is only incurred when failures occur.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class FailureLog {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    public static final int DEFAULT_MAX_MESSAGES_PER_SECOND = 10;
+    public static final int DEFAULT_EXAMPLES_PER_CATEGORY = 5;
+
+    //
+    // beyond this, new templates are accounted for in a catch-all category, so a pathological input cannot make the
+    // category map grow without bound
+    //
+    public static final int MAX_CATEGORIES = 1000;
+
+    private static final int MAX_TEMPLATE_LENGTH = 200;
+    private static final String OTHER_TEMPLATE = "(other)";
+
+    private static final long SUMMARY_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    public enum Kind {
+
+        PARSING("parsing failure"),
+        PROCESSING("event processing failure"),
+        PARSER_CLOSE("parser close() failure");
+
+        private final String label;
+
+        Kind(String label) {
+
+            this.label = label;
+        }
+
+        public String getLabel() {
+
+            return label;
+        }
+    }
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * Reduces a message to its template: quoted strings are replaced by '*' and runs of digits by '#'.
+     */
+    static String template(String message) {
+
+        if (message == null) {
+
+            return "null";
+        }
+
+        StringBuilder sb = new StringBuilder(Math.min(message.length(), MAX_TEMPLATE_LENGTH));
+
+        int i = 0;
+        int length = message.length();
+
+        while(i < length && sb.length() < MAX_TEMPLATE_LENGTH) {
+
+            char c = message.charAt(i);
+
+            //
+            // an apostrophe inside a word (can't) does not open a quoted string
+            //
+
+            if (c == '"' || (c == '\'' && (i == 0 || !Character.isLetter(message.charAt(i - 1))))) {
+
+                int closing = message.indexOf(c, i + 1);
+
+                if (closing != -1) {
+
+                    sb.append(c).append('*').append(c);
+                    i = closing + 1;
+                    continue;
+                }
+            }
+            else if (Character.isDigit(c)) {
+
+                sb.append('#');
+
+                while(i < length && Character.isDigit(message.charAt(i))) {
+
+                    i ++;
+                }
+
+                continue;
+            }
+
+            sb.append(c);
+            i ++;
+        }
+
+        return sb.toString();
+    }
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private final Logger log;
+    private final int maxMessagesPerSecond;
+
+    // null if the failures are reported to the logger
+    private PrintStream stream;
+    private final int examplesPerCategory;
+
+    private final Map<String, Category> categories;
+
+    private double tokens;
+    private long lastRefillNanos;
+    private long lastSummaryNanos;
+
+    private long total;
+    private long suppressed;
+    private long suppressedSinceLastSummary;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    public FailureLog(Logger log) {
+
+        this(log, DEFAULT_MAX_MESSAGES_PER_SECOND, DEFAULT_EXAMPLES_PER_CATEGORY);
+    }
+
+    /**
+     * @param log the logger failures are reported to.
+     * @param maxMessagesPerSecond the maximum number of individual failure messages logged per second, which is also
+     *                             the size of the burst allowed after a quiet period.
+     * @param examplesPerCategory the number of examples kept, with their line number, for each category.
+     */
+    public FailureLog(Logger log, int maxMessagesPerSecond, int examplesPerCategory) {
+
+        this.log = log;
+        this.maxMessagesPerSecond = maxMessagesPerSecond;
+        this.examplesPerCategory = examplesPerCategory;
+        this.categories = new LinkedHashMap<>();
+        this.tokens = maxMessagesPerSecond;
+        this.lastRefillNanos = System.nanoTime();
+        this.lastSummaryNanos = lastRefillNanos;
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * @param lineNumber the number of the input line the failure is associated with, or -1 if not known.
+     * @param t the failure cause, logged with its stack trace at debug level, if the message is logged. May be null.
+     */
+    public void failure(Kind kind, String message, long lineNumber, Throwable t) {
+
+        failure(kind, message, null, lineNumber, t);
+    }
+
+    /**
+     * @param file the input file the line number is relative to, or null if the line number is relative to the whole
+     *             input. Does not contribute to the category.
+     * @param lineNumber the number of the input line the failure is associated with, or -1 if not known.
+     * @param t the failure cause, logged with its stack trace at debug level, if the message is logged. May be null.
+     */
+    public void failure(Kind kind, String message, String file, long lineNumber, Throwable t) {
+
+        total ++;
+
+        Category c = getCategory(kind, template(message));
+
+        c.count ++;
+
+        if (c.examples.size() < examplesPerCategory) {
+
+            c.examples.add(new Example(file, lineNumber, message));
+        }
+
+        long now = System.nanoTime();
+
+        if (now - lastSummaryNanos >= SUMMARY_INTERVAL_NANOS) {
+
+            logSummaries();
+            lastSummaryNanos = now;
+        }
+
+        if (acquire(now)) {
+
+            error(file == null ? "" + message : file + ": " + message);
+
+            if (t != null) {
+
+                log.debug(kind.getLabel(), t);
+            }
+        }
+        else {
+
+            c.suppressed ++;
+            suppressed ++;
+            suppressedSinceLastSummary ++;
+        }
+    }
+
+    /**
+     * Logs the pending "N more similar" summaries and the table of failures by category. The table is only logged if
+     * it adds to what was already logged: if some failures were suppressed, or grouped with similar ones. A few
+     * distinct failures, each logged as it occurred, are not repeated. To be called at the end of the run.
+     */
+    public void close() {
+
+        logSummaries();
+
+        if (suppressed > 0 || total > categories.size()) {
+
+            error(getReport());
+        }
+    }
+
+    /**
+     * @return the total number of failures recorded.
+     */
+    public long getTotal() {
+
+        return total;
+    }
+
+    /**
+     * @return the number of failures with the given kind and template, 0 if there is no such category.
+     */
+    public long getCount(Kind kind, String template) {
+
+        Category c = categories.get(key(kind, template));
+        return c == null ? 0L : c.count;
+    }
+
+    /**
+     * @return the examples kept for the given kind and template, in the order they occurred. Never null.
+     */
+    public List<Example> getExamples(Kind kind, String template) {
+
+        Category c = categories.get(key(kind, template));
+        return c == null ? Collections.emptyList() : Collections.unmodifiableList(c.examples);
+    }
+
+    /**
+     * @return the failures by category, in descending count order, with their examples.
+     */
+    public String getReport() {
+
+        List<Category> sorted = new ArrayList<>(categories.values());
+        sorted.sort((a, b) -> Long.compare(b.count, a.count));
+
+        StringBuilder sb = new StringBuilder();
+
+        sb.append(total).append(" failure(s) in ").append(sorted.size()).append(" categories:\n");
+        sb.append(String.format("%12s  %-24s  %s\n", "count", "kind", "message template"));
+
+        for(Category c: sorted) {
+
+            sb.append(String.format("%12d  %-24s  %s\n", c.count, c.kind.getLabel(), c.template));
+
+            for(Example e: c.examples) {
+
+                sb.append(String.format("%12s  %-24s    ", "", ""));
+
+                if (e.getFile() != null) {
+
+                    sb.append(e.getFile()).append(e.getLineNumber() >= 0 ? ", " : ": ");
+                }
+
+                if (e.getLineNumber() >= 0) {
+
+                    sb.append("line ").append(e.getLineNumber()).append(": ");
+                }
+
+                sb.append(e.getMessage()).append('\n');
+            }
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * @param stream the stream failures are reported to, instead of the logger. The stack traces are still logged, at
+     *               debug level. May be null, to report to the logger.
+     */
+    public void setStream(PrintStream stream) {
+
+        this.stream = stream;
+    }
+
+    @Override
+    public String toString() {
+
+        return "FailureLog[" + total + " failures, " + categories.size() + " categories]";
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    private void error(String s) {
+
+        if (stream == null) {
+
+            log.error(s);
+        }
+        else {
+
+            stream.println("[error]: " + s);
+        }
+    }
+
+    private static String key(Kind kind, String template) {
+
+        return kind.ordinal() + template;
+    }
+
+    private Category getCategory(Kind kind, String template) {
+
+        String key = key(kind, template);
+
+        Category c = categories.get(key);
+
+        if (c != null) {
+
+            return c;
+        }
+
+        if (categories.size() >= MAX_CATEGORIES) {
+
+            template = OTHER_TEMPLATE;
+            key = key(kind, template);
+            c = categories.get(key);
+
+            if (c != null) {
+
+                return c;
+            }
+        }
+
+        c = new Category(kind, template);
+        categories.put(key, c);
+        return c;
+    }
+
+    private boolean acquire(long now) {
+
+        tokens = Math.min(
+                maxMessagesPerSecond,
+                tokens + (now - lastRefillNanos) * maxMessagesPerSecond / (double)SUMMARY_INTERVAL_NANOS);
+
+        lastRefillNanos = now;
+
+        if (tokens < 1d) {
+
+            return false;
+        }
+
+        tokens -= 1d;
+        return true;
+    }
+
+    private void logSummaries() {
+
+        if (suppressedSinceLastSummary == 0) {
+
+            return;
+        }
+
+        for(Category c: categories.values()) {
+
+            if (c.suppressed > 0) {
+
+                error(c.suppressed + " more similar " + c.kind.getLabel() + "(s): " + c.template);
+                c.suppressed = 0;
+            }
+        }
+
+        suppressedSinceLastSummary = 0;
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+    public static class Example {
+
+        private final String file;
+        private final long lineNumber;
+        private final String message;
+
+        Example(String file, long lineNumber, String message) {
+
+            this.file = file;
+            this.lineNumber = lineNumber;
+            this.message = message;
+        }
+
+        /**
+         * @return the input file the line number is relative to, or null if it is relative to the whole input.
+         */
+        public String getFile() {
+
+            return file;
+        }
+
+        /**
+         * @return the line number, or -1 if not known.
+         */
+        public long getLineNumber() {
+
+            return lineNumber;
+        }
+
+        public String getMessage() {
+
+            return message;
+        }
+
+        @Override
+        public String toString() {
+
+            return (file == null ? "" : file + ":") + lineNumber + ": " + message;
+        }
+    }
+
+    private static class Category {
+
+        private final Kind kind;
+        private final String template;
+        private final List<Example> examples;
+
+        private long count;
+        private long suppressed;
+
+        Category(Kind kind, String template) {
+
+            this.kind = kind;
+            this.template = template;
+            this.examples = new ArrayList<>();
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.util.concurrent.ExecutorService;
+
+import io.novaordis.utilities.appspec.ApplicationSpecificBehavior;
+
+/**
+ * The threads input files are read on, in --per-file-threads mode.
+ *
+ * This is the Java 8 version, which uses a pool of platform threads, looked up like the runtime's other pools, so the
+ * application may supply or cap it. The jar is multi-release: on JDK 21 and newer, the version in META-INF/versions/21,
+ * compiled from src/main/java21, starts a virtual thread per file instead, unless the application supplies the
+ * executors or --max-threads limits the worker threads.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+final class FileThreads {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    //
+    // reading is mostly waiting for I/O, allow more readers than parsers, but not a thread per file
+    //
+
+    static final int PLATFORM_THREADS_PER_PARSE_PERMIT = 4;
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    static final String NAME = "file reader";
+
+    /**
+     * @param asb may be null.
+     *
+     * @return true if each file gets its own virtual thread.
+     */
+    static boolean isVirtual(ApplicationSpecificBehavior asb, RuntimeOptions options) {
+
+        return false;
+    }
+
+    /**
+     * @param asb may be null.
+     */
+    static ExecutorService newExecutor(ApplicationSpecificBehavior asb, RuntimeOptions options) {
+
+        return RuntimeExecutors.newExecutor(asb, NAME, options.getFileReaderThreads());
+    }
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    private FileThreads() {
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
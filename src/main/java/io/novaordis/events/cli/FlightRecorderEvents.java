@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Java Flight Recorder events emitted by the runtime for its stages, so a slow region of the input can be tied to a
+ * specific stage in a recording.
+ *
+ * The events are disabled by default and must be enabled in the recording settings, for example:
+ *
+ * jcmd &lt;pid&gt; JFR.start settings=profile +io.novaordis.events.cli.Parse#enabled=true ...
+ *
+ * The runtime does not even instantiate them unless a recording is running: the recording state is tracked with a
+ * FlightRecorderListener and read by the event loop as a volatile flag.
+ *
+ * This class compiles against the Java 8 API. The event classes extend jdk.jfr.Event, so they are compiled from
+ * src/main/java11 into META-INF/versions/11 of the multi-release jar (FlightRecorderStageEvents), and looked up by name
+ * when the class is initialized: on Java 8, they are not found, and no event is emitted.
+ *
+ * Loading jdk.jfr and installing the listener takes tens of milliseconds, which matters for short invocations, so the
+ * runtime does it on a background thread with initializeInBackground(). Until the initialization completes,
+ * isRecording() returns false and the events of the first few milliseconds of the run are not emitted.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public final class FlightRecorderEvents {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecorderEvents.class);
+
+    public static final String CATEGORY = "events-cli";
+
+    static final String STAGE_EVENTS_CLASS_NAME = "io.novaordis.events.cli.FlightRecorderStageEvents";
+
+    /**
+     * The runtime stages events are emitted for. For text inputs, the line range of an event is the range of input line
+     * numbers; for binary event streams, it is the range of record numbers.
+     */
+    enum Stage {
+
+        // parsing of a line, or decoding of a batch of binary records, into events
+        PARSE,
+
+        // application of the query to a batch of events
+        FILTER,
+
+        // procedure invocation for a batch of events
+        PROCEDURE,
+
+        // parser close, which flushes the events accumulated by the parser
+        PARSER_CLOSE,
+
+        // the event loop waited for input
+        INPUT_STALL
+    }
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    private static boolean initialized;
+
+    private static volatile boolean available;
+
+    private static volatile boolean backgroundInitializationStarted;
+
+    private static volatile boolean recording;
+
+    // instantiates and begins the event of a stage, null if the flight recorder is not available
+    private static volatile Function<Stage, StageEvent> factory;
+
+    /**
+     * Loads jdk.jfr and the event classes, if present, and starts tracking the recording state. Idempotent.
+     */
+    public static synchronized void initialize() {
+
+        if (initialized) {
+
+            return;
+        }
+
+        initialized = true;
+
+        try {
+
+            Class<?> c = Class.forName(STAGE_EVENTS_CLASS_NAME);
+
+            @SuppressWarnings("unchecked")
+            Function<Stage, StageEvent> f = (Function<Stage, StageEvent>)c.getDeclaredMethod("install").invoke(null);
+
+            factory = f;
+            available = true;
+        }
+        catch(Throwable t) {
+
+            log.debug("Java Flight Recorder not available, runtime flight recorder events disabled: " + t);
+        }
+    }
+
+    /**
+     * Initializes on a daemon thread, without delaying the caller. Idempotent.
+     */
+    public static void initializeInBackground() {
+
+        if (backgroundInitializationStarted) {
+
+            return;
+        }
+
+        backgroundInitializationStarted = true;
+
+        Thread t = new Thread(FlightRecorderEvents::initialize, "events-cli flight recorder initialization");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /**
+     * @return true if the VM supports the Java Flight Recorder. Initializes synchronously, if needed.
+     */
+    public static boolean isAvailable() {
+
+        initialize();
+        return available;
+    }
+
+    /**
+     * @return true if at least one flight recording is running. Cheap enough to be called for each line. Always false
+     * before the initialization completes.
+     */
+    public static boolean isRecording() {
+
+        return recording;
+    }
+
+    /**
+     * Cheap enough to be called for each line.
+     *
+     * @return the begun event of the stage, to be completed when the stage completes, or null if no recording is
+     * running.
+     */
+    static StageEvent begin(Stage stage) {
+
+        if (!recording) {
+
+            return null;
+        }
+
+        Function<Stage, StageEvent> f = factory;
+
+        return f == null ? null : f.apply(stage);
+    }
+
+    /**
+     * Invoked by the recording state listener.
+     */
+    static void setRecording(boolean b) {
+
+        recording = b;
+    }
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    private FlightRecorderEvents() {
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+    /**
+     * A stage event that was begun.
+     */
+    interface StageEvent {
+
+        /**
+         * Ends the event and commits it if it is enabled and exceeds its threshold.
+         */
+        void complete(long firstLine, long lastLine, int eventCount);
+    }
+
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.novaordis.events.cli;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * The memory budget shared by the stages of a run (--max-inflight-events, --max-inflight-bytes): the number of events,
+ * and an estimate of the bytes, read or produced but not yet written out.
+ *
+ * There are two kinds of participants. Sources - the event loop thread and the per-file reader threads - block when
+ * the budget is exhausted, until the downstream stages catch up. Downstream stages - formatters, output writers,
+ * compressors, the rejects writer - only account for what they hold, without blocking: they are drained by threads that
+ * do not depend on the sources, so blocking the sources is sufficient to bound the memory, and it cannot deadlock. As
+ * a consequence, the occupancy may exceed a limit by the amount a downstream stage accepts at once: a formatting batch
+ * or an output buffer.
+ *
+ * Bytes are estimates: line and event sizes are counted in characters, output in bytes.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class InflightBudget {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    public static final long UNLIMITED = Long.MAX_VALUE;
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private final long maxEvents;
+    private final long maxBytes;
+
+    //
+    // modified while holding the monitor, read without it
+    //
+
+    private volatile long events;
+    private volatile long bytes;
+    private volatile long blockedTimeNanos;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    /**
+     * @param maxEvents the maximum number of events in flight, or UNLIMITED.
+     * @param maxBytes the maximum number of bytes in flight, or UNLIMITED.
+     */
+    public InflightBudget(long maxEvents, long maxBytes) {
+
+        if (maxEvents <= 0) {
+
+            throw new IllegalArgumentException("invalid maximum event count " + maxEvents);
+        }
+
+        if (maxBytes <= 0) {
+
+            throw new IllegalArgumentException("invalid maximum byte count " + maxBytes);
+        }
+
+        this.maxEvents = maxEvents;
+        this.maxBytes = maxBytes;
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * Used by sources that hold on to what they produce: blocks until the events and bytes fit in the budget, then
+     * accounts for them. An amount larger than the budget is admitted when nothing else is in flight, so it does not
+     * block forever.
+     *
+     * @param admit re-evaluated each time the occupancy changes, or wakeUp() is invoked: if it returns true, the amount
+     *              is admitted regardless of the occupancy. Used to let through the producer a consumer is waiting
+     *              for. May be null.
+     */
+    public void acquire(long events, long bytes, BooleanSupplier admit) throws InterruptedException {
+
+        synchronized (this) {
+
+            if (!fits(events, bytes) && (admit == null || !admit.getAsBoolean())) {
+
+                long t0 = System.nanoTime();
+
+                try {
+
+                    while(!fits(events, bytes) && (admit == null || !admit.getAsBoolean())) {
+
+                        wait();
+                    }
+                }
+                finally {
+
+                    blockedTimeNanos += System.nanoTime() - t0;
+                }
+            }
+
+            this.events += events;
+            this.bytes += bytes;
+        }
+    }
+
+    /**
+     * Used by sources that do not hold on to what they produce: blocks while the budget is exhausted. Cheap if it is
+     * not.
+     */
+    public void awaitCapacity() throws InterruptedException {
+
+        if (!isExhausted()) {
+
+            return;
+        }
+
+        synchronized (this) {
+
+            long t0 = System.nanoTime();
+
+            try {
+
+                while(isExhausted()) {
+
+                    wait();
+                }
+            }
+            finally {
+
+                blockedTimeNanos += System.nanoTime() - t0;
+            }
+        }
+    }
+
+    /**
+     * Used by downstream stages: accounts for the events and bytes without blocking.
+     */
+    public synchronized void reserve(long events, long bytes) {
+
+        this.events += events;
+        this.bytes += bytes;
+    }
+
+    public synchronized void release(long events, long bytes) {
+
+        this.events -= events;
+        this.bytes -= bytes;
+
+        notifyAll();
+    }
+
+    /**
+     * Wakes up the blocked producers, so they re-evaluate their admit conditions.
+     */
+    public synchronized void wakeUp() {
+
+        notifyAll();
+    }
+
+    /**
+     * @return true if either limit is reached.
+     */
+    public boolean isExhausted() {
+
+        return events >= maxEvents || bytes >= maxBytes;
+    }
+
+    /**
+     * @return the number of events in flight. May be called from any thread.
+     */
+    public long getEvents() {
+
+        return events;
+    }
+
+    /**
+     * @return the (estimated) number of bytes in flight. May be called from any thread.
+     */
+    public long getBytes() {
+
+        return bytes;
+    }
+
+    public long getMaxEvents() {
+
+        return maxEvents;
+    }
+
+    public long getMaxBytes() {
+
+        return maxBytes;
+    }
+
+    /**
+     * @return the total time the sources spent blocked on the budget.
+     */
+    public long getBlockedTimeNanos() {
+
+        return blockedTimeNanos;
+    }
+
+    @Override
+    public String toString() {
+
+        return "InflightBudget[events=" + events + "/" + (maxEvents == UNLIMITED ? "unlimited" : maxEvents) +
+                ", bytes=" + bytes + "/" + (maxBytes == UNLIMITED ? "unlimited" : maxBytes) + "]";
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    private boolean fits(long events, long bytes) {
+
+        long e = this.events;
+        long b = this.bytes;
+
+        return (e == 0L && b == 0L) || (e + events <= maxEvents && b + bytes <= maxBytes);
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
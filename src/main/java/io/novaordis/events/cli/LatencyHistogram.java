@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A low-overhead, fixed-memory, log-linear histogram of latencies expressed in nanoseconds, in the style of
+ * HdrHistogram. Values are recorded into buckets whose width doubles with each power of two, and each power of two is
+ * divided into 16 linear sub-buckets, so any recorded value is reported with a relative error of at most 1/16.
+ *
+ * Recording is a couple of shifts and an array increment, with no allocation. The histogram is not thread safe: it
+ * must be recorded into by a single thread. Other threads may read it, and they will see a slightly stale view.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class LatencyHistogram {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    static int indexOf(long value) {
+
+        if (value < SUB_BUCKETS) {
+
+            //
+            // small values are recorded exactly
+            //
+
+            return (int)Math.max(value, 0L);
+        }
+
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int subBucket = (int)(value >>> shift) & (SUB_BUCKETS - 1);
+
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long lowestValueAt(int index) {
+
+        if (index < SUB_BUCKETS) {
+
+            return index;
+        }
+
+        int shift = index / SUB_BUCKETS - 1;
+        int subBucket = index % SUB_BUCKETS;
+
+        return ((long)(SUB_BUCKETS + subBucket)) << shift;
+    }
+
+    static long highestValueAt(int index) {
+
+        if (index < SUB_BUCKETS) {
+
+            return index;
+        }
+
+        int shift = index / SUB_BUCKETS - 1;
+
+        return lowestValueAt(index) + (1L << shift) - 1;
+    }
+
+    /**
+     * Renders a nanosecond value in a human readable form (ns, us, ms or s).
+     */
+    static String format(long nanos) {
+
+        if (nanos < 1000L) {
+
+            return nanos + " ns";
+        }
+        else if (nanos < 1000L * 1000) {
+
+            return String.format("%.1f us", nanos / 1000d);
+        }
+        else if (nanos < 1000L * 1000 * 1000) {
+
+            return String.format("%.1f ms", nanos / (1000d * 1000));
+        }
+
+        return String.format("%.3f s", nanos / (double)TimeUnit.SECONDS.toNanos(1));
+    }
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private final long[] counts;
+
+    private long count;
+    private long sum;
+    private long min;
+    private long max;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    public LatencyHistogram() {
+
+        this.counts = new long[(64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS];
+        this.min = Long.MAX_VALUE;
+        this.max = 0L;
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * @param nanos the latency, in nanoseconds. Negative values are recorded as zero.
+     */
+    public void record(long nanos) {
+
+        record(nanos, 1L);
+    }
+
+    /**
+     * Records the same latency several times, for values that stand for a sample of several occurrences.
+     *
+     * @param nanos the latency, in nanoseconds. Negative values are recorded as zero.
+     */
+    public void record(long nanos, long times) {
+
+        if (nanos < 0) {
+
+            nanos = 0;
+        }
+
+        counts[indexOf(nanos)] += times;
+        count += times;
+        sum += nanos * times;
+
+        if (nanos < min) {
+
+            min = nanos;
+        }
+
+        if (nanos > max) {
+
+            max = nanos;
+        }
+    }
+
+    /**
+     * Adds all values recorded by the other histogram to this histogram.
+     */
+    public void add(LatencyHistogram other) {
+
+        for(int i = 0; i < counts.length; i ++) {
+
+            counts[i] += other.counts[i];
+        }
+
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public long getCount() {
+
+        return count;
+    }
+
+    /**
+     * @return the minimum recorded value, or 0 if nothing was recorded.
+     */
+    public long getMin() {
+
+        return count == 0 ? 0L : min;
+    }
+
+    public long getMax() {
+
+        return max;
+    }
+
+    public double getMean() {
+
+        return count == 0 ? 0d : (double)sum / count;
+    }
+
+    /**
+     * @param percentile a value between 0 and 100.
+     *
+     * @return the value below which the given percentage of the recorded values fall, within the histogram's
+     * precision. 0 if nothing was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+
+        if (count == 0) {
+
+            return 0L;
+        }
+
+        long target = Math.max(1L, (long)Math.ceil(Math.min(percentile, 100d) / 100d * count));
+
+        long cumulated = 0;
+
+        for(int i = 0; i < counts.length; i ++) {
+
+            cumulated += counts[i];
+
+            if (cumulated >= target) {
+
+                return Math.min(highestValueAt(i), max);
+            }
+        }
+
+        return max;
+    }
+
+    /**
+     * @return a one-line summary: count, mean and the most relevant percentiles.
+     */
+    public String getSummary() {
+
+        return "count " + count +
+                ", mean " + format((long)getMean()) +
+                ", p50 " + format(getValueAtPercentile(50)) +
+                ", p90 " + format(getValueAtPercentile(90)) +
+                ", p99 " + format(getValueAtPercentile(99)) +
+                ", p99.9 " + format(getValueAtPercentile(99.9)) +
+                ", max " + format(max);
+    }
+
+    @Override
+    public String toString() {
+
+        return "LatencyHistogram[" + getSummary() + "]";
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Shields a stream we do not own (System.out) from being closed by the streams layered on top of it, such as
+ * compressing streams, which must be closed to be finished. close() only flushes.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+class NonClosingOutputStream extends FilterOutputStream {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    NonClosingOutputStream(OutputStream out) {
+
+        super(out);
+    }
+
+    // FilterOutputStream overrides ------------------------------------------------------------------------------------
+
+    /**
+     * Overridden, as the FilterOutputStream implementation writes one byte at a time.
+     */
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+
+        out.write(b, off, len);
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        out.flush();
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
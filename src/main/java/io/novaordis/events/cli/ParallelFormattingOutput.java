@@ -0,0 +1,643 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.novaordis.events.api.event.Event;
+import io.novaordis.events.processing.EventProcessingException;
+import io.novaordis.events.processing.Procedure;
+import io.novaordis.events.processing.output.OutputFormat;
+import io.novaordis.utilities.appspec.ApplicationSpecificBehavior;
+
+/**
+ * An output procedure that renders events to text on a pool of formatter threads. Events are accumulated in batches,
+ * each batch is formatted into a byte buffer by a formatter thread, and a single writer thread writes the buffers into
+ * the target stream in the order the batches were submitted. The bytes produced are identical to those produced by
+ * the Output procedure with the same OutputFormat, which encodes the text with the platform's default charset.
+ *
+ * OutputFormat implementations are not required to be thread safe, so each formatter thread gets its own instance,
+ * from a supplier. If a single instance is given, it is shared by the formatter threads, so it must be safe for
+ * concurrent use.
+ *
+ * The procedure is fed by the event loop thread, it does not matter how the events were produced.
+ *
+ * The number of formatter threads and the batch size can be changed while the procedure is in use (--auto-tune).
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class ParallelFormattingOutput implements Procedure, OutputStage, TunableStage {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelFormattingOutput.class);
+
+    public static final int DEFAULT_BATCH_SIZE = 512;
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    // one instance per formatter thread
+    private final ThreadLocal<OutputFormat> formats;
+    private final Charset charset;
+    private final OutputStream target;
+    private volatile int threads;
+    private volatile int batchSize;
+
+    private final ExecutorService formatters;
+
+    // formatted batches, in submission order
+    private final BlockingQueue<Slot> inOrder;
+    private final Thread writer;
+
+    // batches submitted and not yet written, guarded by inFlightLock
+    private final Object inFlightLock;
+    private int inFlight;
+
+    private List<Event> pending;
+    private long invocationCount;
+    private boolean closed;
+
+    private volatile Throwable failure;
+
+    // batches submitted and not yet formatted
+    private final AtomicInteger unformatted;
+    private final AtomicLong eventsFormatted;
+
+    // null if the memory is not bounded
+    private volatile InflightBudget budget;
+
+    // null if the run is not throttled
+    private volatile Throttle throttle;
+
+    private volatile WaitStrategy waitStrategy;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    /**
+     * @param format the format used to render events. Must be safe for concurrent use.
+     * @param target the stream formatted content is written into. It is only written by the writer thread.
+     * @param threads the number of formatter threads.
+     * @param batchSize the number of events formatted together, as a unit, by a formatter thread.
+     */
+    public ParallelFormattingOutput(OutputFormat format, OutputStream target, int threads, int batchSize) {
+
+        this(format, target, threads, batchSize, null);
+    }
+
+    /**
+     * @param format the format used to render events. Must be safe for concurrent use.
+     * @param threads the number of formatter threads, if the runtime creates them, and the number of batches formatted
+     *                ahead of the writer.
+     * @param asb used to look up the executor the batches are formatted on. May be null.
+     */
+    public ParallelFormattingOutput(OutputFormat format, OutputStream target, int threads, int batchSize,
+                                    ApplicationSpecificBehavior asb) {
+
+        this(sharedFormat(format), target, threads, batchSize, asb);
+    }
+
+    /**
+     * @param formats supplies the format instance of each formatter thread. Invoked once per thread, on that thread.
+     * @param threads the number of formatter threads, if the runtime creates them, and the number of batches formatted
+     *                ahead of the writer.
+     * @param asb used to look up the executor the batches are formatted on. May be null.
+     */
+    public ParallelFormattingOutput(Supplier<? extends OutputFormat> formats, OutputStream target, int threads,
+                                    int batchSize, ApplicationSpecificBehavior asb) {
+
+        if (formats == null) {
+
+            throw new IllegalArgumentException("null format supplier");
+        }
+
+        if (target == null) {
+
+            throw new IllegalArgumentException("null target");
+        }
+
+        if (threads <= 0) {
+
+            throw new IllegalArgumentException("invalid formatter thread count " + threads);
+        }
+
+        if (batchSize <= 0) {
+
+            throw new IllegalArgumentException("invalid batch size " + batchSize);
+        }
+
+        this.formats = ThreadLocal.withInitial(formats);
+        this.charset = Charset.defaultCharset();
+        this.target = target;
+        this.threads = threads;
+        this.batchSize = batchSize;
+        this.pending = new ArrayList<>(batchSize);
+        this.unformatted = new AtomicInteger(0);
+        this.eventsFormatted = new AtomicLong(0L);
+        this.waitStrategy = WaitStrategy.BLOCK;
+
+        this.formatters = RuntimeExecutors.newExecutor(asb, "formatter", threads);
+
+        //
+        // the number of batches in flight is bounded by the current thread count, see submitPending()
+        //
+
+        this.inOrder = new LinkedBlockingQueue<>();
+        this.inFlightLock = new Object();
+        this.writer = new Thread(this::writerLoop, "events-cli formatted output writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+
+        log.debug(this + " constructed");
+    }
+
+    // Procedure implementation ----------------------------------------------------------------------------------------
+
+    @Override
+    public List<String> getCommandLineLabels() {
+
+        //
+        // not directly addressable from command line, installed by the runtime
+        //
+
+        return Collections.emptyList();
+    }
+
+    @Override
+    public void process(Event in) throws EventProcessingException {
+
+        process(Collections.singletonList(in));
+    }
+
+    @Override
+    public void process(List<Event> in) throws EventProcessingException {
+
+        Throwable t = failure;
+
+        if (t != null) {
+
+            throw new EventProcessingException("output failed: " + t.getMessage(), t);
+        }
+
+        invocationCount ++;
+
+        pending.addAll(in);
+
+        if (pending.size() >= batchSize) {
+
+            try {
+
+                submitPending();
+            }
+            catch(InterruptedIOException e) {
+
+                throw new EventProcessingException(e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public long getInvocationCount() {
+
+        return invocationCount;
+    }
+
+    @Override
+    public boolean isExitLoop() {
+
+        return false;
+    }
+
+    // OutputStage implementation --------------------------------------------------------------------------------------
+
+    @Override
+    public void flush() throws IOException {
+
+        if (closed) {
+
+            throw new IOException(this + " closed");
+        }
+
+        submitPending();
+
+        Slot barrier = new Slot(null, new CountDownLatch(1), 0);
+
+        try {
+
+            inOrder.put(barrier);
+            barrier.barrier.await();
+        }
+        catch(InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while flushing the output");
+        }
+
+        Throwable t = failure;
+
+        if (t != null) {
+
+            throw t instanceof IOException ? (IOException)t : new IOException("output failed: " + t.getMessage(), t);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        if (closed) {
+
+            return;
+        }
+
+        try {
+
+            flush();
+        }
+        finally {
+
+            closed = true;
+
+            formatters.shutdown();
+
+            try {
+
+                inOrder.put(Slot.END);
+                writer.join();
+            }
+            catch(InterruptedException e) {
+
+                Thread.currentThread().interrupt();
+                log.warn("interrupted while stopping " + writer.getName());
+            }
+        }
+    }
+
+    // TunableStage implementation -------------------------------------------------------------------------------------
+
+    @Override
+    public String getStageName() {
+
+        return "formatting";
+    }
+
+    @Override
+    public int getThreads() {
+
+        return threads;
+    }
+
+    /**
+     * The number of batches formatted ahead of the writer follows the thread count.
+     */
+    @Override
+    public boolean setThreads(int threads) {
+
+        if (!RuntimeExecutors.resize(formatters, threads)) {
+
+            return false;
+        }
+
+        this.threads = threads;
+        return true;
+    }
+
+    @Override
+    public int getBatchSize() {
+
+        return batchSize;
+    }
+
+    /**
+     * Applies starting with the next batch.
+     */
+    @Override
+    public void setBatchSize(int batchSize) {
+
+        if (batchSize <= 0) {
+
+            throw new IllegalArgumentException("invalid batch size " + batchSize);
+        }
+
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return the number of batches waiting for, or being formatted, per formatter thread.
+     */
+    @Override
+    public double getOccupancy() {
+
+        return unformatted.get() / (double)threads;
+    }
+
+    @Override
+    public long getCompletedUnits() {
+
+        return eventsFormatted.get();
+    }
+
+    @Override
+    public String getUnits() {
+
+        return "events";
+    }
+
+    @Override
+    public String getPinningOptions() {
+
+        return RuntimeOptions.FORMAT_THREADS + " " + threads + " " + RuntimeOptions.FORMAT_BATCH_SIZE + " " + batchSize;
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * @return the format instance of the calling thread.
+     */
+    public OutputFormat getFormat() {
+
+        return formats.get();
+    }
+
+    public OutputStream getTarget() {
+
+        return target;
+    }
+
+    /**
+     * @return the number of batches submitted for formatting and not yet written. May be called from any thread.
+     */
+    public int getQueueDepth() {
+
+        return inOrder.size();
+    }
+
+    /**
+     * The batches submitted and not yet written are accounted for in the budget: their events, and the bytes they
+     * were formatted into. Must be invoked before the first event is processed.
+     *
+     * @param budget may be null.
+     */
+    public void setInflightBudget(InflightBudget budget) {
+
+        this.budget = budget;
+    }
+
+    /**
+     * The formatter threads pace themselves to the throttle's CPU share.
+     *
+     * @param throttle may be null.
+     */
+    public void setThrottle(Throttle throttle) {
+
+        this.throttle = throttle;
+    }
+
+    /**
+     * @param waitStrategy how the writer thread waits for formatted batches. WaitStrategy.BLOCK by default.
+     */
+    public void setWaitStrategy(WaitStrategy waitStrategy) {
+
+        this.waitStrategy = waitStrategy;
+    }
+
+    @Override
+    public String toString() {
+
+        return "ParallelFormattingOutput[threads=" + threads + ", batch=" + batchSize + "]";
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    private static Supplier<OutputFormat> sharedFormat(OutputFormat format) {
+
+        if (format == null) {
+
+            throw new IllegalArgumentException("null format");
+        }
+
+        return () -> format;
+    }
+
+    private void submitPending() throws InterruptedIOException {
+
+        if (pending.isEmpty()) {
+
+            return;
+        }
+
+        final List<Event> batch = pending;
+
+        pending = new ArrayList<>(batchSize);
+
+        InflightBudget b = budget;
+
+        if (b != null) {
+
+            b.reserve(batch.size(), 0L);
+        }
+
+        //
+        // allow each formatter thread to work one batch ahead of the writer; the bound is evaluated on each batch, so
+        // it follows the thread count when the stage is tuned
+        //
+
+        synchronized(inFlightLock) {
+
+            try {
+
+                while(inFlight > 2 * threads) {
+
+                    inFlightLock.wait();
+                }
+            }
+            catch(InterruptedException e) {
+
+                Thread.currentThread().interrupt();
+
+                if (b != null) {
+
+                    b.release(batch.size(), 0L);
+                }
+
+                throw new InterruptedIOException("interrupted while submitting a batch for formatting");
+            }
+
+            inFlight ++;
+        }
+
+        unformatted.incrementAndGet();
+
+        inOrder.add(new Slot(formatters.submit(() -> format(batch)), null, batch.size()));
+    }
+
+    /**
+     * Executed on formatter threads.
+     */
+    private ByteArrayOutputStream format(List<Event> batch) {
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(batch.size() * 128);
+
+        try {
+
+            OutputFormat format = formats.get();
+
+            for(Event e: batch) {
+
+                String s = format.format(e);
+
+                if (s != null) {
+
+                    byte[] bytes = s.getBytes(charset);
+                    baos.write(bytes, 0, bytes.length);
+                }
+            }
+
+            eventsFormatted.addAndGet(batch.size());
+        }
+        finally {
+
+            unformatted.decrementAndGet();
+        }
+
+        InflightBudget b = budget;
+
+        if (b != null) {
+
+            b.reserve(0L, baos.size());
+        }
+
+        Throttle t = throttle;
+
+        if (t != null) {
+
+            t.pace();
+        }
+
+        return baos;
+    }
+
+    private void writerLoop() {
+
+        try {
+
+            while(true) {
+
+                Slot s = waitStrategy.take(inOrder);
+
+                if (s == Slot.END) {
+
+                    return;
+                }
+
+                if (s.formatted != null) {
+
+                    long formattedBytes = 0L;
+
+                    try {
+
+                        ByteArrayOutputStream baos = s.formatted.get();
+
+                        formattedBytes = baos.size();
+
+                        if (failure == null) {
+
+                            baos.writeTo(target);
+                        }
+                    }
+                    catch(ExecutionException e) {
+
+                        failure = e.getCause();
+                        log.debug("formatting failure", e.getCause());
+                    }
+                    catch(IOException e) {
+
+                        failure = e;
+                        log.debug("output writer failure", e);
+                    }
+                    finally {
+
+                        InflightBudget b = budget;
+
+                        if (b != null) {
+
+                            b.release(s.events, formattedBytes);
+                        }
+
+                        synchronized(inFlightLock) {
+
+                            inFlight --;
+                            inFlightLock.notifyAll();
+                        }
+                    }
+                }
+
+                if (s.barrier != null) {
+
+                    s.barrier.countDown();
+                }
+            }
+        }
+        catch(InterruptedException e) {
+
+            log.debug(Thread.currentThread().getName() + " interrupted");
+        }
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+    private static class Slot {
+
+        static final Slot END = new Slot(null, null, 0);
+
+        final Future<ByteArrayOutputStream> formatted;
+        final CountDownLatch barrier;
+        final int events;
+
+        Slot(Future<ByteArrayOutputStream> formatted, CountDownLatch barrier, int events) {
+
+            this.formatted = formatted;
+            this.barrier = barrier;
+            this.events = events;
+        }
+    }
+
+}
@@ -0,0 +1,441 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import io.novaordis.utilities.appspec.ApplicationSpecificBehavior;
+
+/**
+ * A gzip output stream that compresses fixed-size blocks in parallel, in the style of pigz. Each block is compressed
+ * independently into a complete gzip member, and the members are written into the target stream in order. The
+ * concatenation of gzip members is a valid gzip stream, readable with gunzip or GZIPInputStream.
+ *
+ * Not thread safe, it must be written by a single thread. The number of compressor threads can be changed from any
+ * thread while the stream is in use (--auto-tune).
+ *
+ * Because a flush ends the current gzip member, frequent flushes inflate the output. The stream is not meant for the
+ * latency profile, which compresses on a single thread and flushes within the member (SYNC_FLUSH) instead.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class ParallelGzipOutputStream extends OutputStream implements TunableStage {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    static ByteArrayOutputStream compress(byte[] block, int length) throws IOException {
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(length / 4 + 64);
+
+        try(GZIPOutputStream gzos = new GZIPOutputStream(baos, 64 * 1024)) {
+
+            gzos.write(block, 0, length);
+        }
+
+        return baos;
+    }
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private final OutputStream target;
+    private volatile int threads;
+    private final int blockSize;
+    private final ExecutorService compressors;
+
+    // compressed blocks, in order
+    private final Deque<Future<ByteArrayOutputStream>> pending;
+
+    private byte[] block;
+    private int position;
+
+    private long membersWritten;
+    private boolean closed;
+
+    // blocks submitted and not yet compressed
+    private final AtomicInteger uncompressed;
+    private final AtomicLong bytesCompressed;
+
+    // null if the memory is not bounded
+    private InflightBudget budget;
+
+    // null if the run is not throttled
+    private volatile Throttle throttle;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    /**
+     * @param target the stream compressed content is written into. Closed when this stream is closed.
+     * @param threads the number of compressor threads.
+     * @param blockSize the size of the uncompressed blocks.
+     */
+    public ParallelGzipOutputStream(OutputStream target, int threads, int blockSize) {
+
+        this(target, threads, blockSize, null);
+    }
+
+    /**
+     * @param threads the number of compressor threads, if the runtime creates them, and the number of blocks
+     *                compressed ahead of the writer.
+     * @param asb used to look up the executor the blocks are compressed on. May be null.
+     */
+    public ParallelGzipOutputStream(OutputStream target, int threads, int blockSize, ApplicationSpecificBehavior asb) {
+
+        if (threads <= 0) {
+
+            throw new IllegalArgumentException("invalid compressor thread count " + threads);
+        }
+
+        if (blockSize <= 0) {
+
+            throw new IllegalArgumentException("invalid block size " + blockSize);
+        }
+
+        this.target = target;
+        this.threads = threads;
+        this.blockSize = blockSize;
+        this.pending = new ArrayDeque<>();
+        this.block = new byte[blockSize];
+        this.uncompressed = new AtomicInteger(0);
+        this.bytesCompressed = new AtomicLong(0L);
+        this.compressors = RuntimeExecutors.newExecutor(asb, "compressor", threads);
+    }
+
+    // OutputStream overrides ------------------------------------------------------------------------------------------
+
+    @Override
+    public void write(int b) throws IOException {
+
+        checkOpen();
+
+        block[position ++] = (byte)b;
+
+        if (position == blockSize) {
+
+            submitBlock();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+
+        checkOpen();
+
+        while(len > 0) {
+
+            int n = Math.min(len, blockSize - position);
+
+            System.arraycopy(b, off, block, position, n);
+
+            position += n;
+            off += n;
+            len -= n;
+
+            if (position == blockSize) {
+
+                submitBlock();
+            }
+        }
+    }
+
+    /**
+     * Compresses the partial block, if any, and writes all pending compressed blocks. A flush ends the current gzip
+     * member.
+     */
+    @Override
+    public void flush() throws IOException {
+
+        checkOpen();
+
+        submitBlock();
+
+        while(!pending.isEmpty()) {
+
+            writeOldest();
+        }
+
+        target.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        if (closed) {
+
+            return;
+        }
+
+        try {
+
+            flush();
+
+            if (membersWritten == 0) {
+
+                //
+                // an empty file is not a valid gzip file, write an empty member
+                //
+
+                compress(block, 0).writeTo(target);
+            }
+        }
+        finally {
+
+            closed = true;
+
+            //
+            // the blocks that were not written, because the flush failed, still hold their share of the budget
+            //
+
+            discardPending();
+            compressors.shutdownNow();
+            target.close();
+        }
+    }
+
+    // TunableStage implementation -------------------------------------------------------------------------------------
+
+    @Override
+    public String getStageName() {
+
+        return "compression";
+    }
+
+    @Override
+    public int getThreads() {
+
+        return threads;
+    }
+
+    /**
+     * The number of blocks compressed ahead of the writer follows the thread count.
+     */
+    @Override
+    public boolean setThreads(int threads) {
+
+        if (!RuntimeExecutors.resize(compressors, threads)) {
+
+            return false;
+        }
+
+        this.threads = threads;
+        return true;
+    }
+
+    /**
+     * @return -1, the block size is fixed.
+     */
+    @Override
+    public int getBatchSize() {
+
+        return -1;
+    }
+
+    @Override
+    public void setBatchSize(int batchSize) {
+
+        //
+        // noop, the block size is fixed
+        //
+    }
+
+    /**
+     * @return the number of blocks waiting for, or being compressed, per compressor thread.
+     */
+    @Override
+    public double getOccupancy() {
+
+        return uncompressed.get() / (double)threads;
+    }
+
+    @Override
+    public long getCompletedUnits() {
+
+        return bytesCompressed.get();
+    }
+
+    @Override
+    public String getUnits() {
+
+        return "bytes";
+    }
+
+    @Override
+    public String getPinningOptions() {
+
+        return RuntimeOptions.COMPRESS_THREADS + " " + threads;
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    public int getBlockSize() {
+
+        return blockSize;
+    }
+
+    /**
+     * The blocks submitted for compression and not yet written are accounted for in the budget, at the block size.
+     * Must be invoked before the first write.
+     *
+     * @param budget may be null.
+     */
+    public void setInflightBudget(InflightBudget budget) {
+
+        this.budget = budget;
+    }
+
+    /**
+     * The compressor threads pace themselves to the throttle's CPU share.
+     *
+     * @param throttle may be null.
+     */
+    public void setThrottle(Throttle throttle) {
+
+        this.throttle = throttle;
+    }
+
+    @Override
+    public String toString() {
+
+        return "ParallelGzipOutputStream[threads=" + threads + ", block=" + blockSize + "]";
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    private void checkOpen() throws IOException {
+
+        if (closed) {
+
+            throw new IOException(this + " closed");
+        }
+    }
+
+    private void submitBlock() throws IOException {
+
+        if (position == 0) {
+
+            return;
+        }
+
+        final byte[] b = block;
+        final int length = position;
+
+        block = new byte[blockSize];
+        position = 0;
+
+        if (budget != null) {
+
+            budget.reserve(0L, blockSize);
+        }
+
+        uncompressed.incrementAndGet();
+
+        pending.add(compressors.submit(() -> {
+
+            try {
+
+                ByteArrayOutputStream compressed = compress(b, length);
+                bytesCompressed.addAndGet(length);
+                return compressed;
+            }
+            finally {
+
+                uncompressed.decrementAndGet();
+
+                Throttle t = throttle;
+
+                if (t != null) {
+
+                    t.pace();
+                }
+            }
+        }));
+
+        //
+        // keep the compressors busy, but do not accumulate an unbounded amount of compressed content
+        //
+
+        while(pending.size() > 2 * threads) {
+
+            writeOldest();
+        }
+    }
+
+    private void writeOldest() throws IOException {
+
+        Future<ByteArrayOutputStream> f = pending.poll();
+
+        try {
+
+            f.get().writeTo(target);
+            membersWritten ++;
+        }
+        catch(InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for a compressed block");
+        }
+        catch(ExecutionException e) {
+
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException)cause : new IOException("compression failed", cause);
+        }
+        finally {
+
+            if (budget != null) {
+
+                budget.release(0L, blockSize);
+            }
+        }
+    }
+
+    private void discardPending() {
+
+        Future<ByteArrayOutputStream> f;
+
+        while((f = pending.poll()) != null) {
+
+            f.cancel(false);
+
+            if (budget != null) {
+
+                budget.release(0L, blockSize);
+            }
+        }
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
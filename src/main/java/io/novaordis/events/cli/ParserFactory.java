@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import io.novaordis.events.api.parser.Parser;
+
+/**
+ * Creates parser instances, for the runtime modes that parse several inputs concurrently and need a parser per input,
+ * such as --per-file-threads. Parsers are stateful, so a single Parser instance cannot be shared. Applications make
+ * a factory available with ApplicationSpecificBehavior.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+@FunctionalInterface
+public interface ParserFactory {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * @return a new parser instance on each invocation. May be invoked concurrently.
+     */
+    Parser newParser();
+
+}
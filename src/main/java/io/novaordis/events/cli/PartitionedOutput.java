@@ -0,0 +1,371 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.novaordis.events.api.event.Event;
+import io.novaordis.events.api.event.Property;
+import io.novaordis.events.processing.EventProcessingException;
+import io.novaordis.events.processing.Procedure;
+import io.novaordis.events.processing.output.OutputFormat;
+
+/**
+ * An output procedure that splits the events across N files. An event is routed to a partition based on the hash of
+ * the value of a configurable property, or round-robin if no property is configured. Events that do not carry the
+ * property are routed to partition 0.
+ *
+ * Each partition has its own buffer, which is written into the partition file by the partition's own writer thread.
+ * Partition files can optionally be gzip-compressed, in which case the compression also happens on the partition's
+ * writer thread.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class PartitionedOutput implements Procedure, OutputStage {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionedOutput.class);
+
+    public static final String GZIP_EXTENSION = ".gz";
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * @return the name of the file partition i is written to.
+     */
+    public static File getPartitionFile(String prefix, int i, boolean compressed) {
+
+        return new File(prefix + "." + i + (compressed ? GZIP_EXTENSION : ""));
+    }
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private final OutputFormat format;
+    private final String propertyName;
+    private final BufferedOutputSink[] partitions;
+    private final File[] files;
+
+    private long roundRobinCounter;
+    private long invocationCount;
+    private boolean closed;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    /**
+     * @param format the format used to render events.
+     * @param prefix the partition file name prefix. Partition i is written into "<prefix>.<i>", or "<prefix>.<i>.gz"
+     *               if compressed.
+     * @param partitionCount the number of partitions.
+     * @param propertyName the name of the property whose value hash determines the partition. If null, events are
+     *                     distributed round-robin.
+     * @param compress if true, the partition files are gzip-compressed.
+     * @param bufferSize the size of each partition's buffers.
+     *
+     * @exception IOException if the partition files cannot be created.
+     */
+    public PartitionedOutput(OutputFormat format, String prefix, int partitionCount, String propertyName,
+                             boolean compress, int bufferSize) throws IOException {
+
+        if (format == null) {
+
+            throw new IllegalArgumentException("null format");
+        }
+
+        if (partitionCount <= 0) {
+
+            throw new IllegalArgumentException("invalid partition count " + partitionCount);
+        }
+
+        this.format = format;
+        this.propertyName = propertyName;
+        this.partitions = new BufferedOutputSink[partitionCount];
+        this.files = new File[partitionCount];
+
+        OutputStream os = null;
+
+        try {
+
+            for(int i = 0; i < partitionCount; i ++) {
+
+                files[i] = getPartitionFile(prefix, i, compress);
+
+                os = new FileOutputStream(files[i]);
+
+                if (compress) {
+
+                    os = new GZIPOutputStream(os, 64 * 1024);
+                }
+
+                partitions[i] = new BufferedOutputSink(os, bufferSize, true, true);
+                os = null;
+            }
+        }
+        catch(IOException | RuntimeException e) {
+
+            //
+            // the stream of the partition that failed is not yet owned by a sink
+            //
+
+            if (os != null) {
+
+                try {
+
+                    os.close();
+                }
+                catch(IOException e2) {
+
+                    log.debug("failed to close " + os, e2);
+                }
+            }
+
+            closeQuietly();
+            throw e;
+        }
+
+        log.debug(this + " constructed");
+    }
+
+    // Procedure implementation ----------------------------------------------------------------------------------------
+
+    @Override
+    public List<String> getCommandLineLabels() {
+
+        //
+        // not directly addressable from command line, installed by the runtime
+        //
+
+        return Collections.emptyList();
+    }
+
+    @Override
+    public void process(Event in) throws EventProcessingException {
+
+        String s = format.format(in);
+
+        if (s == null) {
+
+            return;
+        }
+
+        BufferedOutputSink partition = partitions[partitionOf(in)];
+
+        try {
+
+            partition.write(s.getBytes());
+        }
+        catch(IOException e) {
+
+            throw new EventProcessingException("failed to write partition: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void process(List<Event> in) throws EventProcessingException {
+
+        invocationCount ++;
+
+        for(Event e: in) {
+
+            process(e);
+        }
+    }
+
+    @Override
+    public long getInvocationCount() {
+
+        return invocationCount;
+    }
+
+    @Override
+    public boolean isExitLoop() {
+
+        return false;
+    }
+
+    // OutputStage implementation --------------------------------------------------------------------------------------
+
+    @Override
+    public void flush() throws IOException {
+
+        for(BufferedOutputSink p: partitions) {
+
+            p.drain();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        if (closed) {
+
+            return;
+        }
+
+        closed = true;
+
+        IOException first = null;
+
+        for(BufferedOutputSink p: partitions) {
+
+            try {
+
+                p.close();
+            }
+            catch(IOException e) {
+
+                if (first == null) {
+
+                    first = e;
+                }
+            }
+        }
+
+        if (first != null) {
+
+            throw first;
+        }
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    public int getPartitionCount() {
+
+        return partitions.length;
+    }
+
+    /**
+     * @return the name of the partitioning property, or null if events are distributed round-robin.
+     */
+    public String getPropertyName() {
+
+        return propertyName;
+    }
+
+    public File[] getFiles() {
+
+        return files;
+    }
+
+    /**
+     * The filled buffers waiting for the partition writer threads are accounted for in the budget. Must be invoked
+     * before the first event is processed.
+     *
+     * @param budget may be null.
+     */
+    public void setInflightBudget(InflightBudget budget) {
+
+        for(BufferedOutputSink p: partitions) {
+
+            p.setInflightBudget(budget);
+        }
+    }
+
+    /**
+     * The partition writer threads pace themselves to the throttle's CPU share. Must be invoked before the first event
+     * is processed.
+     *
+     * @param throttle may be null.
+     */
+    public void setThrottle(Throttle throttle) {
+
+        for(BufferedOutputSink p: partitions) {
+
+            p.setThrottle(throttle);
+        }
+    }
+
+    /**
+     * @param waitStrategy how the partition writer threads wait for filled buffers.
+     */
+    public void setWaitStrategy(WaitStrategy waitStrategy) {
+
+        for(BufferedOutputSink p: partitions) {
+
+            p.setWaitStrategy(waitStrategy);
+        }
+    }
+
+    @Override
+    public String toString() {
+
+        return "PartitionedOutput[" + partitions.length + ", " +
+                (propertyName == null ? "round-robin" : "by " + propertyName) + "]";
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    int partitionOf(Event e) {
+
+        if (propertyName == null) {
+
+            return (int)(roundRobinCounter ++ % partitions.length);
+        }
+
+        Property p = e.getProperty(propertyName);
+
+        Object value = p == null ? null : p.getValue();
+
+        if (value == null) {
+
+            return 0;
+        }
+
+        //
+        // use the string representation, so the partition does not depend on the property's numeric type
+        //
+
+        return (value.toString().hashCode() & Integer.MAX_VALUE) % partitions.length;
+    }
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    private void closeQuietly() {
+
+        for(BufferedOutputSink p: partitions) {
+
+            if (p == null) {
+
+                continue;
+            }
+
+            try {
+
+                p.close();
+            }
+            catch(IOException e) {
+
+                log.debug("failed to close " + p, e);
+            }
+        }
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
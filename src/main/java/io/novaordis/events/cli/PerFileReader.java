@@ -0,0 +1,620 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import io.novaordis.events.api.event.Event;
+import io.novaordis.events.api.parser.Parser;
+import io.novaordis.events.query.Query;
+import io.novaordis.utilities.parsing.ParsingException;
+
+/**
+ * Reads and parses a whole input file, in --per-file-threads mode. Invoked concurrently, on a thread per file; each
+ * file gets its own parser. Reading does not hold a permit, parsing does: the lines are read in chunks, and a chunk is
+ * parsed while holding one of the parse permits, so the number of files parsed at the same time is capped, while any
+ * number of files may be waiting for I/O.
+ *
+ * The events of a file are accumulated in memory and handed over to the event loop thread, which processes the files
+ * in command line order. The mode is intended for many small files.
+ *
+ * If the memory is bounded, a reader acquires the events and the bytes of each chunk from the budget, after parsing
+ * it, and blocks if they do not fit. The event loop releases them when it takes over the file's events. The file the
+ * event loop waits for (the "head") is always admitted, otherwise the budget could be filled by the files that follow
+ * it, and the event loop would wait forever.
+ *
+ * The parse concurrency can be changed while files are being read (--auto-tune).
+ *
+ * The reads are cancelled with cancel(), which does not rely on interrupting the reader threads: they may belong to an
+ * executor supplied by the application, which is not shut down at the end of the run.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+final class PerFileReader implements TunableStage {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    //
+    // the number of lines read before parsing them under a permit
+    //
+
+    static final int CHUNK_LINES = 256;
+
+    //
+    // the number of files read ahead of the event loop, which bounds the memory taken by results not yet processed
+    //
+
+    static final int MAX_FILES_IN_FLIGHT = 256;
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private final ParserFactory parserFactory;
+    private final Query query;
+    private final ParsePermits parsePermits;
+    private volatile int parseConcurrency;
+    private final AtomicLong linesParsed;
+    private final boolean keepRejectedLines;
+
+    // null if the memory is not bounded
+    private final InflightBudget budget;
+
+    // null if the run is not throttled
+    private volatile Throttle throttle;
+
+    // the sequence number of the file the event loop waits for
+    private volatile long head;
+
+    private volatile boolean cancelled;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    /**
+     * @param query passed to the parsers, may be null. The events are not filtered here.
+     * @param keepRejectedLines true if the content of the lines that fail parsing should be kept in the result.
+     */
+    PerFileReader(ParserFactory parserFactory, Query query, int parseConcurrency, boolean keepRejectedLines) {
+
+        this(parserFactory, query, parseConcurrency, keepRejectedLines, null);
+    }
+
+    /**
+     * @param budget may be null.
+     */
+    PerFileReader(ParserFactory parserFactory, Query query, int parseConcurrency, boolean keepRejectedLines,
+                  InflightBudget budget) {
+
+        this.parserFactory = parserFactory;
+        this.query = query;
+        this.parsePermits = new ParsePermits(parseConcurrency);
+        this.parseConcurrency = parseConcurrency;
+        this.linesParsed = new AtomicLong(0L);
+        this.keepRejectedLines = keepRejectedLines;
+        this.budget = budget;
+    }
+
+    // TunableStage implementation -------------------------------------------------------------------------------------
+
+    @Override
+    public String getStageName() {
+
+        return "parsing";
+    }
+
+    @Override
+    public int getThreads() {
+
+        return parseConcurrency;
+    }
+
+    /**
+     * Changes the parse concurrency. Files being parsed when the concurrency is reduced finish their current chunk.
+     */
+    @Override
+    public synchronized boolean setThreads(int threads) {
+
+        if (threads <= 0) {
+
+            throw new IllegalArgumentException("invalid parse concurrency " + threads);
+        }
+
+        int delta = threads - parseConcurrency;
+
+        if (delta > 0) {
+
+            parsePermits.release(delta);
+        }
+        else if (delta < 0) {
+
+            parsePermits.reduce(-delta);
+        }
+
+        parseConcurrency = threads;
+        return true;
+    }
+
+    /**
+     * @return -1, the chunk size is fixed.
+     */
+    @Override
+    public int getBatchSize() {
+
+        return -1;
+    }
+
+    @Override
+    public void setBatchSize(int batchSize) {
+
+        //
+        // noop, the chunk size is fixed
+        //
+    }
+
+    /**
+     * @return the number of files being parsed or waiting for a permit, per permit.
+     */
+    @Override
+    public double getOccupancy() {
+
+        int permits = parseConcurrency;
+        int inUse = Math.max(0, permits - parsePermits.availablePermits());
+
+        return (inUse + parsePermits.getQueueLength()) / (double)permits;
+    }
+
+    @Override
+    public long getCompletedUnits() {
+
+        return linesParsed.get();
+    }
+
+    @Override
+    public String getUnits() {
+
+        return "lines";
+    }
+
+    @Override
+    public String getPinningOptions() {
+
+        return RuntimeOptions.PARSE_CONCURRENCY + " " + parseConcurrency;
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+
+        return "PerFileReader[" + parsePermits.availablePermits() + " parse permits available]";
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    /**
+     * Reads a file that is always admitted by the budget, if any.
+     *
+     * @exception IOException if the file cannot be read. Parsing failures are recorded in the result.
+     */
+    FileResult read(File file) throws IOException, InterruptedException {
+
+        return read(file, head);
+    }
+
+    /**
+     * @param sequence the position of the file in the order the event loop processes the files in, starting with 0.
+     *
+     * @exception IOException if the file cannot be read. Parsing failures are recorded in the result.
+     */
+    FileResult read(File file, long sequence) throws IOException, InterruptedException {
+
+        //
+        // a cancelled reader is admitted, so it does not wait for a budget that is not going to be released
+        //
+
+        FileResult result = new FileResult(file, () -> cancelled || sequence <= head);
+
+        if (cancelled) {
+
+            return result;
+        }
+
+        Throttle t = throttle;
+
+        InputStream is = new FileInputStream(file);
+
+        if (t != null && t.getMaxReadRate() != Throttle.UNLIMITED) {
+
+            is = new ThrottledInputStream(is, t);
+        }
+
+        CountingInputStream cis = new CountingInputStream(is);
+
+        try(BufferedInputStream bis = new BufferedInputStream(cis)) {
+
+            if (BinaryEventReader.isBinaryEventStream(bis)) {
+
+                decode(new BinaryEventReader(bis), cis, result);
+            }
+            else {
+
+                parse(new BufferedReader(new InputStreamReader(bis)), result);
+            }
+        }
+
+        result.bytes = cis.getCount();
+
+        if (cancelled) {
+
+            //
+            // the event loop is not going to take over the result
+            //
+
+            release(result);
+        }
+
+        return result;
+    }
+
+    /**
+     * The files are read within the throttle's read bandwidth, which is shared by all reader threads, and the readers
+     * pace themselves to its CPU share after each chunk. Must be invoked before the first file is read.
+     *
+     * @param throttle may be null.
+     */
+    void setThrottle(Throttle throttle) {
+
+        this.throttle = throttle;
+    }
+
+    /**
+     * Invoked by the event loop before it waits for a file: the file is admitted by the budget from now on.
+     */
+    void setHead(long sequence) {
+
+        head = sequence;
+
+        if (budget != null) {
+
+            budget.wakeUp();
+        }
+    }
+
+    /**
+     * Invoked by the event loop when it does not need the files still being read: the reads stop after the chunk in
+     * progress, return partial results and give back what they acquired from the budget. The reads not started yet
+     * return empty results.
+     */
+    void cancel() {
+
+        cancelled = true;
+
+        if (budget != null) {
+
+            budget.wakeUp();
+        }
+    }
+
+    /**
+     * Invoked by the event loop when it takes over the events of a file.
+     */
+    void release(FileResult result) {
+
+        if (budget != null) {
+
+            budget.release(result.inflightEvents, result.inflightBytes);
+        }
+
+        result.inflightEvents = 0L;
+        result.inflightBytes = 0L;
+    }
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    private void parse(BufferedReader br, FileResult result) throws IOException, InterruptedException {
+
+        Parser parser = parserFactory.newParser();
+
+        List<String> chunk = new ArrayList<>(CHUNK_LINES);
+
+        boolean eof = false;
+
+        while(!eof) {
+
+            if (cancelled) {
+
+                return;
+            }
+
+            chunk.clear();
+
+            String line;
+            long chars = 0L;
+
+            while(chunk.size() < CHUNK_LINES && (line = br.readLine()) != null) {
+
+                chunk.add(line);
+                chars += line.length();
+            }
+
+            eof = chunk.size() < CHUNK_LINES;
+
+            if (chunk.isEmpty()) {
+
+                break;
+            }
+
+            int before = result.events.size();
+
+            parsePermits.acquire();
+
+            try {
+
+                for(String l: chunk) {
+
+                    long lineNumber = ++ result.lines;
+
+                    try {
+
+                        result.events.addAll(parser.parse(l, query));
+                    }
+                    catch(ParsingException e) {
+
+                        result.failures.add(new Rejected(lineNumber, keepRejectedLines ? l : null, e));
+                    }
+                }
+            }
+            finally {
+
+                parsePermits.release();
+            }
+
+            linesParsed.addAndGet(chunk.size());
+
+            //
+            // outside the permit, so a reader blocked on the budget, or throttled, does not hold back the others
+            //
+
+            pace();
+            acquire(result, result.events.size() - before, chars);
+        }
+
+        if (cancelled) {
+
+            return;
+        }
+
+        int before = result.events.size();
+
+        parsePermits.acquire();
+
+        try {
+
+            result.events.addAll(parser.close());
+        }
+        catch(ParsingException e) {
+
+            result.closeFailure = e;
+        }
+        finally {
+
+            parsePermits.release();
+        }
+
+        acquire(result, result.events.size() - before, 0L);
+    }
+
+    private void decode(BinaryEventReader reader, CountingInputStream cis, FileResult result)
+            throws IOException, InterruptedException {
+
+        boolean eof = false;
+
+        while(!eof && !cancelled) {
+
+            int before = result.events.size();
+            long bytesBefore = cis.getCount();
+
+            parsePermits.acquire();
+
+            try {
+
+                Event e = null;
+
+                while(result.events.size() - before < CHUNK_LINES && (e = reader.read()) != null) {
+
+                    result.events.add(e);
+                }
+
+                eof = e == null;
+
+                result.lines = reader.getEventsRead();
+            }
+            finally {
+
+                parsePermits.release();
+            }
+
+            pace();
+            acquire(result, result.events.size() - before, cis.getCount() - bytesBefore);
+        }
+    }
+
+    private void pace() {
+
+        Throttle t = throttle;
+
+        if (t != null) {
+
+            t.pace();
+        }
+    }
+
+    private void acquire(FileResult result, long events, long bytes) throws InterruptedException {
+
+        if (budget == null || (events == 0L && bytes == 0L)) {
+
+            return;
+        }
+
+        budget.acquire(events, bytes, result.admit);
+
+        result.inflightEvents += events;
+        result.inflightBytes += bytes;
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+    /**
+     * A semaphore whose permits can be taken away, even while they are in use.
+     */
+    private static final class ParsePermits extends Semaphore {
+
+        private static final long serialVersionUID = 1L;
+
+        private ParsePermits(int permits) {
+
+            super(permits);
+        }
+
+        private void reduce(int n) {
+
+            reducePermits(n);
+        }
+    }
+
+    /**
+     * The outcome of reading a file. Line numbers are relative to the file.
+     */
+    static final class FileResult {
+
+        private final File file;
+        private final List<Event> events;
+        private final List<Rejected> failures;
+
+        private long lines;
+        private long bytes;
+        private ParsingException closeFailure;
+
+        //
+        // acquired from the budget, released when the event loop takes over the events
+        //
+
+        private final BooleanSupplier admit;
+        private long inflightEvents;
+        private long inflightBytes;
+
+        private FileResult(File file, BooleanSupplier admit) {
+
+            this.file = file;
+            this.admit = admit;
+            this.events = new ArrayList<>();
+            this.failures = new ArrayList<>();
+        }
+
+        File getFile() {
+
+            return file;
+        }
+
+        List<Event> getEvents() {
+
+            return events;
+        }
+
+        /**
+         * @return the lines that failed parsing, in order.
+         */
+        List<Rejected> getFailures() {
+
+            return failures;
+        }
+
+        /**
+         * @return the number of lines read, or of records decoded, for binary event streams.
+         */
+        long getLines() {
+
+            return lines;
+        }
+
+        long getBytes() {
+
+            return bytes;
+        }
+
+        /**
+         * @return the failure of the parser's close(), or null.
+         */
+        ParsingException getCloseFailure() {
+
+            return closeFailure;
+        }
+
+        @Override
+        public String toString() {
+
+            return "FileResult[" + file + ", " + events.size() + " events, " + failures.size() + " failures]";
+        }
+    }
+
+    static final class Rejected {
+
+        private final long lineNumber;
+        private final String line;
+        private final ParsingException cause;
+
+        private Rejected(long lineNumber, String line, ParsingException cause) {
+
+            this.lineNumber = lineNumber;
+            this.line = line;
+            this.cause = cause;
+        }
+
+        long getLineNumber() {
+
+            return lineNumber;
+        }
+
+        /**
+         * @return the content of the line, or null if it was not kept.
+         */
+        String getLine() {
+
+            return line;
+        }
+
+        ParsingException getCause() {
+
+            return cause;
+        }
+    }
+
+}
@@ -0,0 +1,394 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reports the runtime's progress to stderr: bytes processed, percent complete and ETA if the input size is known,
+ * lines/s, events/s and failure counts.
+ *
+ * The progress line can be refreshed periodically by a dedicated thread (--progress) and it can be dumped once, on
+ * request, by sending SIGUSR2 to the process, which is useful for non-interactive runs, if the entry point enabled it
+ * (EventParserRuntime.setSignalHandling()). The counters are sampled from the reporting thread; the event loop is not
+ * involved and does not pay anything for it.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class ProgressReporter {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    private static final Logger log = LoggerFactory.getLogger(ProgressReporter.class);
+
+    public static final long DEFAULT_REFRESH_INTERVAL_MS = 250L;
+
+    public static final String DUMP_SIGNAL = "USR2";
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    static String formatBytes(long bytes) {
+
+        if (bytes < 1024L) {
+
+            return bytes + " B";
+        }
+        else if (bytes < 1024L * 1024) {
+
+            return String.format("%.1f KB", bytes / 1024d);
+        }
+        else if (bytes < 1024L * 1024 * 1024) {
+
+            return String.format("%.1f MB", bytes / (1024d * 1024));
+        }
+
+        return String.format("%.1f GB", bytes / (1024d * 1024 * 1024));
+    }
+
+    static String formatDuration(long seconds) {
+
+        return String.format("%02d:%02d:%02d", seconds / 3600, (seconds % 3600) / 60, seconds % 60);
+    }
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private final EventParserRuntime runtime;
+    private final long inputSize;
+    private final PrintStream stderr;
+    private final long refreshIntervalMs;
+
+    private final long startNanos;
+
+    private volatile Thread refresher;
+
+    // the handler that was in place before ours, restored on close(); null if no handler was installed
+    private Object previousSignalHandler;
+
+    private int lastLineLength;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    /**
+     * @param inputSize the size in bytes of the input, or -1 if not known.
+     */
+    public ProgressReporter(EventParserRuntime runtime, long inputSize, PrintStream stderr, long refreshIntervalMs) {
+
+        this.runtime = runtime;
+        this.inputSize = inputSize;
+        this.stderr = stderr;
+        this.refreshIntervalMs = refreshIntervalMs;
+        this.startNanos = System.nanoTime();
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * Starts refreshing the progress line, in place, on a daemon thread.
+     */
+    public synchronized void start() {
+
+        if (refresher != null) {
+
+            return;
+        }
+
+        Thread t = new Thread(() -> {
+
+            try {
+
+                while(!Thread.currentThread().isInterrupted()) {
+
+                    Thread.sleep(refreshIntervalMs);
+                    refresh();
+                }
+            }
+            catch(InterruptedException e) {
+
+                //
+                // stopped
+                //
+            }
+
+        }, "events-cli progress");
+
+        t.setDaemon(true);
+        refresher = t;
+        t.start();
+    }
+
+    /**
+     * Installs a handler that dumps the progress line once when the process receives SIGUSR2. Not all VMs allow it:
+     * some use the signal internally, and sun.misc.Signal may not be available at all. In that case the method logs
+     * and returns false.
+     */
+    public synchronized boolean installSignalHandler() {
+
+        try {
+
+            previousSignalHandler = SignalSupport.install(DUMP_SIGNAL, this::dump);
+            return true;
+        }
+        catch(Throwable t) {
+
+            log.debug("cannot handle SIG" + DUMP_SIGNAL + ", progress will not be dumped on signal: " + t);
+            return false;
+        }
+    }
+
+    /**
+     * Writes the current progress as a standalone line.
+     */
+    public synchronized void dump() {
+
+        endRefreshedLine();
+        stderr.println(getProgressLine());
+        stderr.flush();
+    }
+
+    /**
+     * Stops the refresher, writes the final state of the progress line if it was being refreshed, and restores the
+     * previous signal handler. Idempotent.
+     */
+    public void close() {
+
+        Thread t;
+
+        synchronized (this) {
+
+            t = refresher;
+            refresher = null;
+        }
+
+        if (t != null) {
+
+            t.interrupt();
+
+            try {
+
+                t.join();
+            }
+            catch(InterruptedException e) {
+
+                Thread.currentThread().interrupt();
+            }
+
+            synchronized (this) {
+
+                refresh();
+                endRefreshedLine();
+            }
+        }
+
+        synchronized (this) {
+
+            if (previousSignalHandler != null) {
+
+                try {
+
+                    SignalSupport.restore(DUMP_SIGNAL, previousSignalHandler);
+                }
+                catch(Throwable e) {
+
+                    log.debug("failed to restore the SIG" + DUMP_SIGNAL + " handler: " + e);
+                }
+
+                previousSignalHandler = null;
+            }
+        }
+    }
+
+    /**
+     * @return the progress line, without line terminator.
+     */
+    public String getProgressLine() {
+
+        long bytes = runtime.getBytesRead();
+        long lines = runtime.getLinesRead();
+        long events = runtime.getProcessedEventsCount();
+        long elapsedNanos = Math.max(1L, System.nanoTime() - startNanos);
+        double seconds = elapsedNanos / (double)TimeUnit.SECONDS.toNanos(1);
+
+        StringBuilder sb = new StringBuilder();
+
+        sb.append(formatBytes(bytes));
+
+        if (inputSize > 0) {
+
+            sb.append(" / ").append(formatBytes(inputSize));
+            sb.append(String.format(" (%.1f%%)", Math.min(100d, 100d * bytes / inputSize)));
+        }
+
+        sb.append(String.format(", %.0f lines/s, %.0f events/s", lines / seconds, events / seconds));
+        sb.append(", ").append(runtime.getParsingFailureCount()).append(" parsing failures");
+        sb.append(", ").append(runtime.getProcessingFailureCount()).append(" processing failures");
+
+        if (inputSize > 0) {
+
+            sb.append(", ETA ");
+
+            if (bytes == 0) {
+
+                sb.append("n/a");
+            }
+            else {
+
+                long remaining = Math.max(0L, inputSize - bytes);
+                sb.append(formatDuration((long)(remaining * seconds / bytes)));
+            }
+        }
+
+        return sb.toString();
+    }
+
+    public long getInputSize() {
+
+        return inputSize;
+    }
+
+    @Override
+    public String toString() {
+
+        return "ProgressReporter[" + runtime + "]";
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    boolean isRefreshing() {
+
+        return refresher != null;
+    }
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    private synchronized void refresh() {
+
+        String line = getProgressLine();
+
+        StringBuilder sb = new StringBuilder("\r").append(line);
+
+        //
+        // erase the remains of a longer previous line
+        //
+
+        for(int i = line.length(); i < lastLineLength; i ++) {
+
+            sb.append(' ');
+        }
+
+        lastLineLength = line.length();
+        stderr.print(sb);
+        stderr.flush();
+    }
+
+    private void endRefreshedLine() {
+
+        if (lastLineLength > 0) {
+
+            stderr.println();
+            lastLineLength = 0;
+        }
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+    /**
+     * Isolates the sun.misc.Signal dependency, so its absence only surfaces when signal handling is attempted. The
+     * classes are loaded reflectively and the handler is a dynamic proxy: a direct reference to the internal API
+     * produces a compiler warning that cannot be suppressed, and does not compile at all with --release 8.
+     */
+    private static class SignalSupport {
+
+        private static final String SIGNAL_CLASS = "sun.misc.Signal";
+        private static final String SIGNAL_HANDLER_CLASS = "sun.misc.SignalHandler";
+
+        /**
+         * @return the previous handler.
+         */
+        static Object install(String name, Runnable action) throws Exception {
+
+            Class<?> handlerClass = Class.forName(SIGNAL_HANDLER_CLASS);
+
+            Object handler = Proxy.newProxyInstance(handlerClass.getClassLoader(), new Class<?>[] { handlerClass },
+                    (proxy, method, args) -> {
+
+                        if (method.getDeclaringClass() == Object.class) {
+
+                            //
+                            // equals(), hashCode(), toString()
+                            //
+
+                            switch (method.getName()) {
+
+                                case "equals":
+                                    return proxy == args[0];
+                                case "hashCode":
+                                    return System.identityHashCode(proxy);
+                                default:
+                                    return "progress dump handler";
+                            }
+                        }
+
+                        action.run();
+                        return null;
+                    });
+
+            return handle(name, handler);
+        }
+
+        static void restore(String name, Object previous) throws Exception {
+
+            handle(name, previous);
+        }
+
+        private static Object handle(String name, Object handler) throws Exception {
+
+            Class<?> signalClass = Class.forName(SIGNAL_CLASS);
+            Class<?> handlerClass = Class.forName(SIGNAL_HANDLER_CLASS);
+            Object signal = signalClass.getConstructor(String.class).newInstance(name);
+
+            try {
+
+                return signalClass.getMethod("handle", signalClass, handlerClass).invoke(null, signal, handler);
+            }
+            catch(InvocationTargetException e) {
+
+                //
+                // surface IllegalArgumentException "Signal already used by VM or OS" unwrapped
+                //
+
+                Throwable cause = e.getCause();
+
+                if (cause instanceof Exception) {
+
+                    throw (Exception)cause;
+                }
+
+                throw e;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+/**
+ * A cheap check that identifies lines that start a new record. Used by the runtime to resynchronize after a run of
+ * consecutive parsing failures, without sending every line of a garbage region through the parser.
+ *
+ * Parsers that can tell where records start may implement this interface; the runtime will use it, unless a
+ * --resync-regex is specified on command line.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public interface RecordStartDetector {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * Must be considerably cheaper than parsing the line.
+     */
+    boolean isRecordStart(String line);
+
+}
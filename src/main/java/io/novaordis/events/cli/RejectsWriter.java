@@ -0,0 +1,351 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A dead-letter file for the lines the parser could not parse. Each rejected line is written as:
+ *
+ * &lt;line number&gt;&lt;TAB&gt;&lt;reason&gt;&lt;TAB&gt;&lt;line&gt;
+ *
+ * so the original lines can be recovered with "cut -f3-" and re-processed. When the input files are read separately
+ * (--per-file-threads), the line numbers are relative to the file, and the first field is
+ * &lt;file&gt;:&lt;line number&gt;. The rejects are handed over to a background writer through a bounded queue and
+ * written in batches. The event loop never blocks: if the queue is full, the reject is dropped and counted.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class RejectsWriter implements Closeable {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    private static final Logger log = LoggerFactory.getLogger(RejectsWriter.class);
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 64 * 1024;
+
+    public static final int MAX_REASON_LENGTH = 200;
+
+    private static final int BATCH_SIZE = 1024;
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * Reasons are single line, tab-free and short.
+     */
+    static String sanitizeReason(String reason) {
+
+        if (reason == null) {
+
+            return "";
+        }
+
+        String s = reason.length() > MAX_REASON_LENGTH ? reason.substring(0, MAX_REASON_LENGTH) : reason;
+
+        return s.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private final File file;
+    private final BlockingQueue<Reject> queue;
+    private final Writer writer;
+    private final Thread writerThread;
+
+    private final AtomicLong written;
+    private final AtomicLong dropped;
+
+    private volatile boolean closing;
+    private volatile IOException failure;
+    private boolean closed;
+
+    // null if the memory is not bounded
+    private volatile InflightBudget budget;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    /**
+     * @param file the file the rejects are appended to. Created if it does not exist.
+     *
+     * @exception IOException if the file cannot be opened.
+     */
+    public RejectsWriter(File file, int queueCapacity) throws IOException {
+
+        this.file = file;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writer = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8), 64 * 1024);
+        this.written = new AtomicLong(0L);
+        this.dropped = new AtomicLong(0L);
+
+        this.writerThread = new Thread(this::writeLoop, "events-cli rejects writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * Never blocks.
+     *
+     * @return false if the reject was dropped because the queue was full, or the writer failed or was closed.
+     */
+    public boolean reject(long lineNumber, String reason, String line) {
+
+        return reject(null, lineNumber, reason, line);
+    }
+
+    /**
+     * Never blocks.
+     *
+     * @param file the input file the line number is relative to, or null if the line number is relative to the whole
+     *             input.
+     *
+     * @return false if the reject was dropped because the queue was full, or the writer failed or was closed.
+     */
+    public boolean reject(String file, long lineNumber, String reason, String line) {
+
+        InflightBudget b = budget;
+
+        if (b != null) {
+
+            b.reserve(0L, sizeOf(line));
+        }
+
+        if (closing || failure != null || !queue.offer(new Reject(file, lineNumber, reason, line))) {
+
+            if (b != null) {
+
+                b.release(0L, sizeOf(line));
+            }
+
+            dropped.incrementAndGet();
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Writes the queued rejects, stops the writer and closes the file. Idempotent.
+     *
+     * @exception IOException if writing failed at any point.
+     */
+    @Override
+    public void close() throws IOException {
+
+        if (closed) {
+
+            return;
+        }
+
+        closed = true;
+        closing = true;
+
+        try {
+
+            writerThread.join();
+        }
+        catch(InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+
+            writer.close();
+        }
+        catch(IOException e) {
+
+            if (failure == null) {
+
+                failure = e;
+            }
+        }
+
+        if (dropped.get() > 0) {
+
+            log.warn(dropped.get() + " rejected line(s) could not be written to " + file);
+        }
+
+        if (failure != null) {
+
+            throw failure;
+        }
+    }
+
+    public File getFile() {
+
+        return file;
+    }
+
+    public long getWritten() {
+
+        return written.get();
+    }
+
+    public long getDropped() {
+
+        return dropped.get();
+    }
+
+    /**
+     * The queued rejected lines are accounted for in the budget. Must be invoked before the first reject.
+     *
+     * @param budget may be null.
+     */
+    public void setInflightBudget(InflightBudget budget) {
+
+        this.budget = budget;
+    }
+
+    @Override
+    public String toString() {
+
+        return "RejectsWriter[" + file + "]";
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    private void writeLoop() {
+
+        List<Reject> batch = new ArrayList<>(BATCH_SIZE);
+
+        try {
+
+            while(true) {
+
+                Reject first = queue.poll(100, TimeUnit.MILLISECONDS);
+
+                if (first == null) {
+
+                    if (closing && queue.isEmpty()) {
+
+                        return;
+                    }
+
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+
+                for(Reject r: batch) {
+
+                    if (r.file != null) {
+
+                        writer.write(sanitizeReason(r.file));
+                        writer.write(':');
+                    }
+
+                    writer.write(Long.toString(r.lineNumber));
+                    writer.write('\t');
+                    writer.write(sanitizeReason(r.reason));
+                    writer.write('\t');
+                    writer.write(r.line == null ? "" : r.line);
+                    writer.write('\n');
+                }
+
+                writer.flush();
+                written.addAndGet(batch.size());
+                release(batch);
+                batch.clear();
+            }
+        }
+        catch(IOException e) {
+
+            failure = e;
+
+            String msg = "failed to write " + file;
+            log.warn(msg + ": " + e.getMessage());
+            log.debug(msg, e);
+
+            dropped.addAndGet(batch.size() + queue.size());
+            queue.drainTo(batch);
+            release(batch);
+            queue.clear();
+        }
+        catch(InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void release(List<Reject> rejects) {
+
+        InflightBudget b = budget;
+
+        if (b == null) {
+
+            return;
+        }
+
+        long bytes = 0L;
+
+        for(Reject r: rejects) {
+
+            bytes += sizeOf(r.line);
+        }
+
+        b.release(0L, bytes);
+    }
+
+    private static long sizeOf(String line) {
+
+        return line == null ? 0L : line.length();
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+    private static class Reject {
+
+        private final String file;
+        private final long lineNumber;
+        private final String reason;
+        private final String line;
+
+        Reject(String file, long lineNumber, String reason, String line) {
+
+            this.file = file;
+            this.lineNumber = lineNumber;
+            this.reason = reason;
+            this.line = line;
+        }
+    }
+
+}
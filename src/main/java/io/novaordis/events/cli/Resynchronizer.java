@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Implements the skip-ahead policy: after a configurable number of consecutive parsing failures, the runtime stops
+ * sending lines to the parser and scans for a line that starts a record, as identified by a RecordStartDetector. Full
+ * parsing resumes with that line. The skipped region is reported once, instead of once per line.
+ *
+ * Used by the event loop thread only.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class Resynchronizer {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    private static final Logger log = LoggerFactory.getLogger(Resynchronizer.class);
+
+    public static final String SKIPPED_REASON = "skipped while resynchronizing";
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * @return a detector that matches lines that contain the pattern.
+     */
+    public static RecordStartDetector regexDetector(Pattern pattern) {
+
+        return line -> pattern.matcher(line).find();
+    }
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private final RecordStartDetector detector;
+    private final int threshold;
+
+    private int consecutiveFailures;
+
+    private boolean scanning;
+    private long firstSkippedLine;
+    private long lastSkippedLine;
+    private long skippedBytes;
+
+    private long skippedLines;
+    private long regions;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    /**
+     * @param threshold the number of consecutive parsing failures that triggers the scan mode.
+     */
+    public Resynchronizer(RecordStartDetector detector, int threshold) {
+
+        if (threshold <= 0) {
+
+            throw new IllegalArgumentException("invalid threshold " + threshold);
+        }
+
+        this.detector = detector;
+        this.threshold = threshold;
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * Must be called for each line, before parsing.
+     *
+     * @return true if the line must be skipped, false if it must be parsed. The first record start line found in
+     * scan mode ends the scan mode and is parsed.
+     */
+    public boolean skip(String line, long lineNumber) {
+
+        if (!scanning) {
+
+            return false;
+        }
+
+        if (!detector.isRecordStart(line)) {
+
+            if (firstSkippedLine == 0L) {
+
+                firstSkippedLine = lineNumber;
+            }
+
+            lastSkippedLine = lineNumber;
+
+            //
+            // the line terminator is accounted as one byte, and characters as bytes, which is exact for ASCII
+            //
+
+            skippedBytes += line.length() + 1;
+            skippedLines ++;
+
+            return true;
+        }
+
+        scanning = false;
+        report("resumed parsing at line " + lineNumber);
+
+        return false;
+    }
+
+    /**
+     * Must be called after a line was parsed successfully.
+     */
+    public void parsed() {
+
+        consecutiveFailures = 0;
+    }
+
+    /**
+     * Must be called after a line failed parsing.
+     *
+     * @return true if the failure switched the runtime into scan mode.
+     */
+    public boolean failed(long lineNumber) {
+
+        if (++consecutiveFailures < threshold) {
+
+            return false;
+        }
+
+        log.warn(consecutiveFailures + " consecutive parsing failures at line " + lineNumber +
+                ", scanning ahead for the start of a record");
+
+        consecutiveFailures = 0;
+        scanning = true;
+        firstSkippedLine = 0L;
+        lastSkippedLine = 0L;
+        skippedBytes = 0L;
+        regions ++;
+
+        return true;
+    }
+
+    /**
+     * Must be called at the end of the input, to report a region that extends to the end of the input.
+     */
+    public void close() {
+
+        if (scanning) {
+
+            scanning = false;
+            report("reached the end of the input");
+        }
+    }
+
+    public boolean isScanning() {
+
+        return scanning;
+    }
+
+    /**
+     * @return the total number of lines skipped without being parsed.
+     */
+    public long getSkippedLines() {
+
+        return skippedLines;
+    }
+
+    /**
+     * @return the number of times the scan mode was entered.
+     */
+    public long getRegions() {
+
+        return regions;
+    }
+
+    public int getThreshold() {
+
+        return threshold;
+    }
+
+    @Override
+    public String toString() {
+
+        return "Resynchronizer[threshold=" + threshold + "]";
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    private void report(String outcome) {
+
+        if (firstSkippedLine == 0L) {
+
+            log.warn("no lines skipped, " + outcome);
+            return;
+        }
+
+        log.warn("skipped lines " + firstSkippedLine + "-" + lastSkippedLine + " (" +
+                ProgressReporter.formatBytes(skippedBytes) + "), " + outcome);
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.novaordis.utilities.appspec.ApplicationSpecificBehavior;
+
+/**
+ * Creates the executors of the runtime's thread pools. The executor is looked up with ApplicationSpecificBehavior:
+ * an ExecutorFactory is used first, then a shared Executor. If there is neither, the runtime creates its own fixed
+ * pool of daemon threads, of the size it was configured with.
+ *
+ * The caller always shuts down the executor it gets when it is done with it. For a shared Executor, it gets a view
+ * whose shutdown only concerns the tasks submitted through the view, so the runtime never stops threads it does not
+ * own.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+final class RuntimeExecutors {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    private static final Logger log = LoggerFactory.getLogger(RuntimeExecutors.class);
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * @param asb may be null.
+     * @param name the purpose of the pool, which is also used in the names of the threads the runtime creates.
+     * @param threads the size of the pool the runtime creates, if the application does not supply an executor.
+     */
+    static ExecutorService newExecutor(ApplicationSpecificBehavior asb, String name, int threads) {
+
+        if (asb != null) {
+
+            ExecutorFactory factory = asb.lookup(ExecutorFactory.class);
+
+            if (factory != null) {
+
+                ExecutorService executor = factory.newExecutor(name, threads);
+
+                if (executor == null) {
+
+                    throw new IllegalStateException(factory + " returned a null " + name + " executor");
+                }
+
+                log.debug("using " + executor + " created by " + factory + " for " + name + " tasks");
+
+                return executor;
+            }
+
+            Executor shared = asb.lookup(Executor.class);
+
+            if (shared != null) {
+
+                log.debug("using shared " + shared + " for " + name + " tasks");
+
+                return new SharedExecutor(shared);
+            }
+        }
+
+        return new RuntimePool(name, threads);
+    }
+
+    /**
+     * @param asb may be null.
+     *
+     * @return true if the application supplies the executors, with an ExecutorFactory or a shared Executor, so
+     * newExecutor() does not create a runtime pool.
+     */
+    static boolean isSupplied(ApplicationSpecificBehavior asb) {
+
+        return asb != null && (asb.lookup(ExecutorFactory.class) != null || asb.lookup(Executor.class) != null);
+    }
+
+    /**
+     * Changes the number of threads of a pool created by newExecutor(). Surplus threads exit once they are idle.
+     *
+     * @return false if the executor cannot be resized because the runtime does not own its threads: it was supplied
+     * by the application, with an ExecutorFactory or as a shared Executor, whatever its type.
+     */
+    static boolean resize(ExecutorService executor, int threads) {
+
+        if (threads <= 0) {
+
+            throw new IllegalArgumentException("invalid thread count " + threads);
+        }
+
+        if (!(executor instanceof RuntimePool)) {
+
+            return false;
+        }
+
+        ThreadPoolExecutor pool = (ThreadPoolExecutor)executor;
+
+        //
+        // the core size may never exceed the maximum size
+        //
+
+        if (threads > pool.getMaximumPoolSize()) {
+
+            pool.setMaximumPoolSize(threads);
+            pool.setCorePoolSize(threads);
+        }
+        else {
+
+            pool.setCorePoolSize(threads);
+            pool.setMaximumPoolSize(threads);
+        }
+
+        return true;
+    }
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    private RuntimeExecutors() {
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+    /**
+     * A fixed pool of daemon threads, created by the runtime when the application does not supply an executor. Only
+     * pools of this type are resized.
+     */
+    static final class RuntimePool extends ThreadPoolExecutor {
+
+        RuntimePool(String name, int threads) {
+
+            super(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), new ThreadFactory() {
+
+                private final AtomicInteger threadIndex = new AtomicInteger(0);
+
+                @Override
+                public Thread newThread(Runnable r) {
+
+                    Thread t = new Thread(r, "events-cli " + name + " " + threadIndex.getAndIncrement());
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        }
+    }
+
+    /**
+     * Submits to an executor owned by the application. Shutting down the view stops accepting tasks and, once the
+     * tasks submitted through the view complete, the view is terminated. The underlying executor is not affected.
+     */
+    static final class SharedExecutor extends AbstractExecutorService {
+
+        private final Executor delegate;
+
+        private final Object lock;
+        private int running;
+        private volatile boolean shutdown;
+
+        SharedExecutor(Executor delegate) {
+
+            this.delegate = delegate;
+            this.lock = new Object();
+        }
+
+        @Override
+        public void execute(Runnable command) {
+
+            synchronized (lock) {
+
+                if (shutdown) {
+
+                    throw new RejectedExecutionException(this + " is shut down");
+                }
+
+                running ++;
+            }
+
+            try {
+
+                delegate.execute(() -> {
+
+                    try {
+
+                        command.run();
+                    }
+                    finally {
+
+                        completed();
+                    }
+                });
+            }
+            catch(RuntimeException e) {
+
+                completed();
+                throw e;
+            }
+        }
+
+        @Override
+        public void shutdown() {
+
+            synchronized (lock) {
+
+                shutdown = true;
+                lock.notifyAll();
+            }
+        }
+
+        /**
+         * The tasks already handed over to the shared executor cannot be withdrawn, and the shared executor's threads
+         * are not interrupted. The Futures returned by submit() can be cancelled individually.
+         */
+        @Override
+        public List<Runnable> shutdownNow() {
+
+            shutdown();
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isShutdown() {
+
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+
+            synchronized (lock) {
+
+                return shutdown && running == 0;
+            }
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+            synchronized (lock) {
+
+                while(!shutdown || running > 0) {
+
+                    long remaining = deadline - System.nanoTime();
+
+                    if (remaining <= 0) {
+
+                        return false;
+                    }
+
+                    TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                }
+
+                return true;
+            }
+        }
+
+        @Override
+        public String toString() {
+
+            return "SharedExecutor[" + delegate + "]";
+        }
+
+        private void completed() {
+
+            synchronized (lock) {
+
+                running --;
+                lock.notifyAll();
+            }
+        }
+    }
+
+}
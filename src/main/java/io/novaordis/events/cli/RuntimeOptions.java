@@ -0,0 +1,961 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import io.novaordis.utilities.UserErrorException;
+
+/**
+ * Runtime-level command line options, which configure the event loop itself and not the procedure or the query.
+ * They are identified by their "--" prefix and they are removed from the argument list before the files, the
+ * procedure and the query are identified.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class RuntimeOptions {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    public static final String ASYNC_OUTPUT = "--async-output";
+    public static final String OUTPUT_BUFFER_SIZE = "--output-buffer-size";
+    public static final String FORMAT_THREADS = "--format-threads";
+    public static final String FORMAT_BATCH_SIZE = "--format-batch-size";
+    public static final String PARTITIONS = "--partitions";
+    public static final String PARTITION_BY = "--partition-by";
+    public static final String PARTITION_PREFIX = "--partition-prefix";
+    public static final String COMPRESS = "--compress";
+    public static final String COMPRESS_THREADS = "--compress-threads";
+    public static final String BINARY_OUTPUT = "--binary-output";
+    public static final String STATS = "--stats";
+    public static final String PROGRESS = "--progress";
+    public static final String REJECTS = "--rejects";
+    public static final String RESYNC_AFTER = "--resync-after";
+    public static final String RESYNC_REGEX = "--resync-regex";
+    public static final String DAEMON = "--daemon";
+    public static final String DAEMON_FILE = "--daemon-file";
+    public static final String DAEMON_THREADS = "--daemon-threads";
+    public static final String SHARED_SCAN = "--shared-scan";
+    public static final String PER_FILE_THREADS = "--per-file-threads";
+    public static final String PARSE_CONCURRENCY = "--parse-concurrency";
+    public static final String MAX_INFLIGHT_BYTES = "--max-inflight-bytes";
+    public static final String MAX_INFLIGHT_EVENTS = "--max-inflight-events";
+    public static final String AUTO_TUNE = "--auto-tune";
+    public static final String CPU_CAP = "--cpu-cap";
+    public static final String MAX_READ_RATE = "--max-read-rate";
+    public static final String MAX_THREADS = "--max-threads";
+    public static final String CPU_SHARE = "--cpu-share";
+    public static final String LOW_LATENCY = "--low-latency";
+    public static final String LINGER = "--linger";
+    public static final String WAIT_STRATEGY = "--wait-strategy";
+
+    public static final String GZIP = "gzip";
+
+    public static final String DEFAULT_PARTITION_PREFIX = "events";
+
+    public static final int DEFAULT_RESYNC_AFTER = 100;
+
+    public static final int DEFAULT_LINGER_MS = 5;
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * Parses sizes expressed in bytes, optionally followed by a "k", "m" or "g" (case insensitive) multiplier.
+     *
+     * @param option the option the value belongs to, used in error messages.
+     *
+     * @exception UserErrorException if the value cannot be parsed or it is not positive.
+     */
+    static long parseSize(String option, String value) throws UserErrorException {
+
+        return parseMultiplied(option, value, 1024L);
+    }
+
+    /**
+     * Parses counts, optionally followed by a decimal "k" (thousand), "m" (million) or "g" (billion) multiplier (case
+     * insensitive).
+     *
+     * @param option the option the value belongs to, used in error messages.
+     *
+     * @exception UserErrorException if the value cannot be parsed or it is not positive.
+     */
+    static long parseCount(String option, String value) throws UserErrorException {
+
+        return parseMultiplied(option, value, 1000L);
+    }
+
+    /**
+     * @param option the option the value belongs to, used in error messages.
+     *
+     * @exception UserErrorException if the value cannot be parsed or it is not positive.
+     */
+    static int parsePositiveInt(String option, String value) throws UserErrorException {
+
+        int result;
+
+        try {
+
+            result = Integer.parseInt(value.trim());
+        }
+        catch(NumberFormatException e) {
+
+            throw new UserErrorException("invalid " + option + " value: '" + value + "'");
+        }
+
+        if (result <= 0) {
+
+            throw new UserErrorException(option + " value must be positive: '" + value + "'");
+        }
+
+        return result;
+    }
+
+    private static long parseMultiplied(String option, String value, long base) throws UserErrorException {
+
+        String s = value.trim().toLowerCase();
+
+        long multiplier = 1L;
+
+        if (s.endsWith("k")) {
+
+            multiplier = base;
+        }
+        else if (s.endsWith("m")) {
+
+            multiplier = base * base;
+        }
+        else if (s.endsWith("g")) {
+
+            multiplier = base * base * base;
+        }
+
+        if (multiplier != 1L) {
+
+            s = s.substring(0, s.length() - 1);
+        }
+
+        long result;
+
+        try {
+
+            result = Long.parseLong(s) * multiplier;
+        }
+        catch(NumberFormatException e) {
+
+            throw new UserErrorException("invalid " + option + " value: '" + value + "'");
+        }
+
+        if (result <= 0) {
+
+            throw new UserErrorException(option + " value must be positive: '" + value + "'");
+        }
+
+        return result;
+    }
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private boolean asyncOutput;
+    private int outputBufferSize;
+    private int formatThreads;
+    private int formatBatchSize;
+    private int partitions;
+    private String partitionBy;
+    private String partitionPrefix;
+    private String compression;
+    private int compressThreads;
+    private boolean binaryOutput;
+    private boolean stats;
+    private boolean progress;
+    private String rejectsFile;
+    private int resyncAfter;
+    private Pattern resyncRegex;
+    private boolean daemon;
+    private String daemonFile;
+    private int daemonThreads;
+    private boolean sharedScan;
+    private boolean perFileThreads;
+    private int parseConcurrency;
+    private int fileReaderThreads;
+    private long maxInflightBytes;
+    private long maxInflightEvents;
+    private boolean autoTune;
+    private int cpuCap;
+    private long maxReadRate;
+    private int maxThreads;
+    private double cpuShare;
+    private boolean lowLatency;
+    private int lingerMs;
+    private WaitStrategy waitStrategy;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    public RuntimeOptions() {
+
+        this.asyncOutput = false;
+        this.outputBufferSize = BufferedOutputSink.DEFAULT_BUFFER_SIZE;
+        this.formatThreads = 1;
+        this.formatBatchSize = ParallelFormattingOutput.DEFAULT_BATCH_SIZE;
+        this.partitions = 1;
+        this.partitionBy = null;
+        this.partitionPrefix = DEFAULT_PARTITION_PREFIX;
+        this.compression = null;
+        this.compressThreads = 1;
+        this.binaryOutput = false;
+        this.stats = false;
+        this.progress = false;
+        this.rejectsFile = null;
+        this.resyncAfter = DEFAULT_RESYNC_AFTER;
+        this.resyncRegex = null;
+        this.daemon = false;
+        this.daemonFile = null;
+        this.daemonThreads = Runtime.getRuntime().availableProcessors();
+        this.sharedScan = false;
+        this.perFileThreads = false;
+        this.parseConcurrency = Runtime.getRuntime().availableProcessors();
+        this.fileReaderThreads = 0;
+        this.maxInflightBytes = InflightBudget.UNLIMITED;
+        this.maxInflightEvents = InflightBudget.UNLIMITED;
+        this.autoTune = false;
+        this.cpuCap = Runtime.getRuntime().availableProcessors();
+        this.maxReadRate = Throttle.UNLIMITED;
+        this.maxThreads = Integer.MAX_VALUE;
+        this.cpuShare = 0;
+        this.lowLatency = false;
+        this.lingerMs = DEFAULT_LINGER_MS;
+        this.waitStrategy = WaitStrategy.BLOCK;
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * @param mutableArgumentList a mutable list containing command line argument. Arguments recognized as runtime
+     *                            options, and their values, <b>will be removed</b> from the list.
+     *
+     * @exception UserErrorException on invalid or incomplete options.
+     */
+    public void process(List<String> mutableArgumentList) throws UserErrorException {
+
+        String latencyOption = null;
+
+        int i = 0;
+
+        while(i < mutableArgumentList.size()) {
+
+            String arg = mutableArgumentList.get(i);
+
+            if (ASYNC_OUTPUT.equals(arg)) {
+
+                asyncOutput = true;
+            }
+            else if (BINARY_OUTPUT.equals(arg)) {
+
+                binaryOutput = true;
+            }
+            else if (STATS.equals(arg)) {
+
+                stats = true;
+            }
+            else if (PROGRESS.equals(arg)) {
+
+                progress = true;
+            }
+            else if (OUTPUT_BUFFER_SIZE.equals(arg)) {
+
+                long size = parseSize(arg, removeValue(mutableArgumentList, i));
+
+                if (size > Integer.MAX_VALUE) {
+
+                    throw new UserErrorException(arg + " value too large: " + size);
+                }
+
+                outputBufferSize = (int)size;
+            }
+            else if (FORMAT_THREADS.equals(arg)) {
+
+                formatThreads = parsePositiveInt(arg, removeValue(mutableArgumentList, i));
+            }
+            else if (FORMAT_BATCH_SIZE.equals(arg)) {
+
+                formatBatchSize = parsePositiveInt(arg, removeValue(mutableArgumentList, i));
+            }
+            else if (PARTITIONS.equals(arg)) {
+
+                partitions = parsePositiveInt(arg, removeValue(mutableArgumentList, i));
+            }
+            else if (PARTITION_BY.equals(arg)) {
+
+                partitionBy = removeValue(mutableArgumentList, i);
+            }
+            else if (PARTITION_PREFIX.equals(arg)) {
+
+                partitionPrefix = removeValue(mutableArgumentList, i);
+            }
+            else if (COMPRESS.equals(arg)) {
+
+                String value = removeValue(mutableArgumentList, i);
+
+                if (!GZIP.equalsIgnoreCase(value)) {
+
+                    throw new UserErrorException("unsupported " + arg + " value: '" + value + "'");
+                }
+
+                compression = GZIP;
+            }
+            else if (REJECTS.equals(arg)) {
+
+                rejectsFile = removeValue(mutableArgumentList, i);
+            }
+            else if (RESYNC_AFTER.equals(arg)) {
+
+                resyncAfter = parsePositiveInt(arg, removeValue(mutableArgumentList, i));
+            }
+            else if (RESYNC_REGEX.equals(arg)) {
+
+                String value = removeValue(mutableArgumentList, i);
+
+                try {
+
+                    resyncRegex = Pattern.compile(value);
+                }
+                catch(PatternSyntaxException e) {
+
+                    throw new UserErrorException("invalid " + arg + " value: '" + value + "'", e);
+                }
+            }
+            else if (DAEMON.equals(arg)) {
+
+                daemon = true;
+            }
+            else if (DAEMON_FILE.equals(arg)) {
+
+                daemonFile = removeValue(mutableArgumentList, i);
+            }
+            else if (DAEMON_THREADS.equals(arg)) {
+
+                daemonThreads = parsePositiveInt(arg, removeValue(mutableArgumentList, i));
+            }
+            else if (SHARED_SCAN.equals(arg)) {
+
+                sharedScan = true;
+            }
+            else if (PER_FILE_THREADS.equals(arg)) {
+
+                perFileThreads = true;
+            }
+            else if (PARSE_CONCURRENCY.equals(arg)) {
+
+                parseConcurrency = parsePositiveInt(arg, removeValue(mutableArgumentList, i));
+            }
+            else if (MAX_INFLIGHT_BYTES.equals(arg)) {
+
+                maxInflightBytes = parseSize(arg, removeValue(mutableArgumentList, i));
+            }
+            else if (MAX_INFLIGHT_EVENTS.equals(arg)) {
+
+                maxInflightEvents = parseCount(arg, removeValue(mutableArgumentList, i));
+            }
+            else if (AUTO_TUNE.equals(arg)) {
+
+                autoTune = true;
+            }
+            else if (CPU_CAP.equals(arg)) {
+
+                cpuCap = parsePositiveInt(arg, removeValue(mutableArgumentList, i));
+            }
+            else if (MAX_READ_RATE.equals(arg)) {
+
+                maxReadRate = parseSize(arg, removeValue(mutableArgumentList, i));
+            }
+            else if (MAX_THREADS.equals(arg)) {
+
+                maxThreads = parsePositiveInt(arg, removeValue(mutableArgumentList, i));
+            }
+            else if (CPU_SHARE.equals(arg)) {
+
+                String value = removeValue(mutableArgumentList, i);
+
+                try {
+
+                    cpuShare = Double.parseDouble(value.trim());
+                }
+                catch(NumberFormatException e) {
+
+                    throw new UserErrorException("invalid " + arg + " value: '" + value + "'");
+                }
+
+                if (!(cpuShare > 0) || Double.isInfinite(cpuShare)) {
+
+                    throw new UserErrorException(arg + " value must be positive: '" + value + "'");
+                }
+            }
+            else if (LOW_LATENCY.equals(arg)) {
+
+                lowLatency = true;
+            }
+            else if (LINGER.equals(arg)) {
+
+                latencyOption = arg;
+
+                String value = removeValue(mutableArgumentList, i);
+
+                try {
+
+                    lingerMs = Integer.parseInt(value.trim());
+                }
+                catch(NumberFormatException e) {
+
+                    throw new UserErrorException("invalid " + arg + " value: '" + value + "'");
+                }
+
+                if (lingerMs < 0) {
+
+                    throw new UserErrorException(arg + " value must not be negative: '" + value + "'");
+                }
+            }
+            else if (WAIT_STRATEGY.equals(arg)) {
+
+                latencyOption = arg;
+
+                String value = removeValue(mutableArgumentList, i);
+
+                waitStrategy = WaitStrategy.fromString(value);
+
+                if (waitStrategy == null) {
+
+                    throw new UserErrorException("unsupported " + arg + " value: '" + value + "'");
+                }
+            }
+            else if (COMPRESS_THREADS.equals(arg)) {
+
+                compressThreads = parsePositiveInt(arg, removeValue(mutableArgumentList, i));
+            }
+            else {
+
+                i ++;
+                continue;
+            }
+
+            mutableArgumentList.remove(i);
+        }
+
+        if (latencyOption != null && !lowLatency) {
+
+            throw new UserErrorException(latencyOption + " requires " + LOW_LATENCY);
+        }
+
+        if (waitStrategy != WaitStrategy.BLOCK && partitions > 1 && !binaryOutput) {
+
+            //
+            // each partition has its own writer, and a busy-waiting writer keeps a processor busy
+            //
+
+            throw new UserErrorException(
+                    WAIT_STRATEGY + " " + waitStrategy.name().toLowerCase() + " cannot be combined with " +
+                            PARTITIONS + ", which writes each partition on its own thread");
+        }
+
+        applyMaxThreads();
+    }
+
+    /**
+     * @return true if the default output should be written to its destination by a dedicated writer thread.
+     */
+    public boolean isAsyncOutput() {
+
+        return asyncOutput;
+    }
+
+    /**
+     * @return the size, in bytes, of the buffer(s) used by the default output.
+     */
+    public int getOutputBufferSize() {
+
+        return outputBufferSize;
+    }
+
+    /**
+     * @return the number of threads used to render events to text by the default output. A value larger than 1
+     * installs a ParallelFormattingOutput instead of the default Output procedure. Has no effect on explicitly
+     * requested procedures.
+     */
+    public int getFormatThreads() {
+
+        return formatThreads;
+    }
+
+    /**
+     * @return the number of events rendered together, as a unit, by a formatter thread.
+     */
+    public int getFormatBatchSize() {
+
+        return formatBatchSize;
+    }
+
+    /**
+     * @return the number of files the default output is split across. A value larger than 1 installs a
+     * PartitionedOutput instead of the default Output procedure.
+     */
+    public int getPartitions() {
+
+        return partitions;
+    }
+
+    /**
+     * @return the name of the property whose value hash determines the partition, or null for round-robin
+     * distribution.
+     */
+    public String getPartitionBy() {
+
+        return partitionBy;
+    }
+
+    public String getPartitionPrefix() {
+
+        return partitionPrefix;
+    }
+
+    /**
+     * @return the output compression ("gzip") or null if the output is not compressed. Applies to the default output
+     * and to partition files.
+     */
+    public String getCompression() {
+
+        return compression;
+    }
+
+    /**
+     * @return the number of threads that compress the default output. A value larger than 1 compresses independent
+     * blocks in parallel, otherwise the output is compressed by the output writer thread. Ignored in the latency
+     * profile (--low-latency), where the output is always compressed by the writer thread.
+     */
+    public int getCompressThreads() {
+
+        return compressThreads;
+    }
+
+    /**
+     * @return true if the default output should write events in the binary event stream format, to be consumed by a
+     * downstream events-cli process.
+     */
+    public boolean isBinaryOutput() {
+
+        return binaryOutput;
+    }
+
+    /**
+     * @return true if the runtime should collect per-stage timing and latency histograms, and report them to stderr
+     * at the end of the run.
+     */
+    public boolean isStats() {
+
+        return stats;
+    }
+
+    /**
+     * @return true if the runtime should display a progress line on stderr, refreshed several times per second.
+     */
+    public boolean isProgress() {
+
+        return progress;
+    }
+
+    /**
+     * @return the name of the file lines that fail parsing are appended to, or null if rejects are not kept.
+     */
+    public String getRejectsFile() {
+
+        return rejectsFile;
+    }
+
+    /**
+     * @return the number of consecutive parsing failures after which the runtime scans ahead for the start of a
+     * record. Only applies if a record start detector is available: either a --resync-regex, or a parser that
+     * implements RecordStartDetector.
+     */
+    public int getResyncAfter() {
+
+        return resyncAfter;
+    }
+
+    /**
+     * @return the pattern that identifies record start lines while resynchronizing, or null if not specified.
+     */
+    public Pattern getResyncRegex() {
+
+        return resyncRegex;
+    }
+
+    /**
+     * @return true if the process should run as a resident daemon that serves requests from DaemonClient instances,
+     * instead of processing its own input.
+     */
+    public boolean isDaemon() {
+
+        return daemon;
+    }
+
+    /**
+     * @return the file the daemon publishes its address and access token in, or null for the application default.
+     */
+    public String getDaemonFile() {
+
+        return daemonFile;
+    }
+
+    /**
+     * @return the maximum number of requests the daemon serves concurrently.
+     */
+    public int getDaemonThreads() {
+
+        return daemonThreads;
+    }
+
+    /**
+     * @return true if a request served by a daemon may join a scan of the same file that is already in progress for
+     * other requests, instead of reading the file on its own. The request then receives the events starting with the
+     * current position of the scan, and the ones that precede it after the scan wraps around, so the events are not in
+     * file order. Has no effect outside daemon mode.
+     */
+    public boolean isSharedScan() {
+
+        return sharedScan;
+    }
+
+    /**
+     * @return true if several input files may be specified, and each file is read and parsed on its own thread: a
+     * virtual thread on JDKs that support them, or a thread from a pool of platform threads otherwise. The events are
+     * processed in the order of the files on command line. Requires a ParserFactory.
+     */
+    public boolean isPerFileThreads() {
+
+        return perFileThreads;
+    }
+
+    /**
+     * @return the maximum number of files parsed at the same time in --per-file-threads mode. Files are read without
+     * holding a permit, so more files than this may be read concurrently. Defaults to the number of processors.
+     */
+    public int getParseConcurrency() {
+
+        return parseConcurrency;
+    }
+
+    /**
+     * @return the maximum number of bytes read or produced, and not yet written out, at any time. When the limit is
+     * reached, reading blocks until the downstream stages catch up. InflightBudget.UNLIMITED if not specified.
+     */
+    public long getMaxInflightBytes() {
+
+        return maxInflightBytes;
+    }
+
+    /**
+     * @return the maximum number of events parsed, and not yet written out, at any time. When the limit is reached,
+     * reading blocks until the downstream stages catch up. The value is a count, and its "k", "m" and "g" multipliers
+     * are decimal: "10k" is 10,000 events. InflightBudget.UNLIMITED if not specified.
+     */
+    public long getMaxInflightEvents() {
+
+        return maxInflightEvents;
+    }
+
+    /**
+     * @return true if either --max-inflight-bytes or --max-inflight-events was specified.
+     */
+    public boolean isBoundedMemory() {
+
+        return maxInflightBytes != InflightBudget.UNLIMITED || maxInflightEvents != InflightBudget.UNLIMITED;
+    }
+
+    /**
+     * @return true if the runtime should adjust the formatter, compressor and parser thread counts, and the formatting
+     * batch size, while the run is in progress, and report the settings it reached at the end of the run. The thread
+     * counts and batch size specified on command line are the starting point. The default output is always formatted
+     * in parallel, and compressed in parallel if compression is requested, so there is something to tune.
+     */
+    public boolean isAutoTune() {
+
+        return autoTune;
+    }
+
+    /**
+     * @return the maximum number of threads the tuned stages may use together, in --auto-tune mode. Defaults to the
+     * number of processors.
+     */
+    public int getCpuCap() {
+
+        return cpuCap;
+    }
+
+    /**
+     * @return the maximum number of bytes read from the input per second, over all input files. Throttle.UNLIMITED if
+     * not specified.
+     */
+    public long getMaxReadRate() {
+
+        return maxReadRate;
+    }
+
+    /**
+     * @return the maximum number of worker threads the run may start: the formatter, compressor and per-file reader
+     * pools, and the output, formatted output, partition and rejects writer threads. The per-file readers that only
+     * read ahead go first, then the CPU cap, then the stages are reduced, starting with the largest; a stage is never
+     * reduced below one thread, which means it runs on the event loop or output writer thread. With a limit, the
+     * per-file readers are pooled platform threads on all JDKs. The event loop thread, and the progress reporter and
+     * auto-tuner threads, which sleep between samples, are not counted. Options that need more writer threads than
+     * the limit - one per partition, for example - are rejected. Integer.MAX_VALUE if not specified.
+     */
+    public int getMaxThreads() {
+
+        return maxThreads;
+    }
+
+    /**
+     * @return the number of platform threads input files are read on, in --per-file-threads mode:
+     * FileThreads.PLATFORM_THREADS_PER_PARSE_PERMIT per parse permit - per thread of the CPU cap in --auto-tune mode,
+     * so the parse concurrency the tuner may reach has threads to run on - or fewer, if --max-threads requires it, but
+     * not fewer than the parse concurrency.
+     */
+    public int getFileReaderThreads() {
+
+        if (fileReaderThreads > 0) {
+
+            return fileReaderThreads;
+        }
+
+        return FileThreads.PLATFORM_THREADS_PER_PARSE_PERMIT *
+                (autoTune ? Math.max(parseConcurrency, cpuCap) : parseConcurrency);
+    }
+
+    /**
+     * @return the number of processors the workers may keep busy, on average, enforced by making them sleep when they
+     * exceed it. May be a fraction: 0.5 means half of a processor. 0 if not specified.
+     */
+    public double getCpuShare() {
+
+        return cpuShare;
+    }
+
+    /**
+     * @return true if either --max-read-rate or --cpu-share was specified.
+     */
+    public boolean isThrottled() {
+
+        return maxReadRate != Throttle.UNLIMITED || cpuShare > 0;
+    }
+
+    /**
+     * @return true for the latency profile, intended for continuous input, such as a log followed with "tail -f": the
+     * output is flushed at least once per linger time, even if the input does not go idle, and a partially received
+     * line counts as idle input. With single-threaded compression, the compressed stream is flushed, too. The default,
+     * throughput, profile writes the output when its buffers fill up, and when no more input is buffered.
+     */
+    public boolean isLowLatency() {
+
+        return lowLatency;
+    }
+
+    /**
+     * @return the maximum time, in milliseconds, the output of a line waits for a flush while the input is not idle,
+     * in the latency profile. The input is idle when reading the next line, or binary event, may block, which includes
+     * a partially received line: the output never waits for the input. 0 flushes after each line.
+     */
+    public int getLingerMs() {
+
+        return lingerMs;
+    }
+
+    /**
+     * @return how the thread that writes the output to stdout waits for content, in the latency profile. The other
+     * hand-offs always block.
+     */
+    public WaitStrategy getWaitStrategy() {
+
+        return waitStrategy;
+    }
+
+    @Override
+    public String toString() {
+
+        return "RuntimeOptions[async-output=" + asyncOutput + ", output-buffer-size=" + outputBufferSize +
+                ", format-threads=" + formatThreads + ", format-batch-size=" + formatBatchSize +
+                ", partitions=" + partitions + ", partition-by=" + partitionBy +
+                ", partition-prefix=" + partitionPrefix + ", compress=" + compression +
+                ", compress-threads=" + compressThreads +
+                ", binary-output=" + binaryOutput + ", stats=" + stats +
+                ", progress=" + progress + ", rejects=" + rejectsFile +
+                ", resync-after=" + resyncAfter + ", resync-regex=" + resyncRegex +
+                ", daemon=" + daemon + ", daemon-file=" + daemonFile + ", daemon-threads=" + daemonThreads +
+                ", shared-scan=" + sharedScan + ", per-file-threads=" + perFileThreads +
+                ", parse-concurrency=" + parseConcurrency +
+                ", max-inflight-bytes=" + maxInflightBytes + ", max-inflight-events=" + maxInflightEvents +
+                ", auto-tune=" + autoTune + ", cpu-cap=" + cpuCap +
+                ", max-read-rate=" + maxReadRate + ", max-threads=" + maxThreads + ", cpu-share=" + cpuShare +
+                ", low-latency=" + lowLatency + ", linger=" + lingerMs +
+                ", wait-strategy=" + waitStrategy.name().toLowerCase() + "]";
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    /**
+     * Reduces the thread counts of the stages that run on worker threads until all the worker threads the run starts
+     * fit in --max-threads (see getMaxThreads()): the per-file readers beyond the parse concurrency first, since they
+     * only read ahead, then the CPU cap in --auto-tune mode, then the largest stage.
+     *
+     * @exception UserErrorException if the threads cannot be reduced any further and still do not fit.
+     */
+    private void applyMaxThreads() throws UserErrorException {
+
+        if (maxThreads == Integer.MAX_VALUE) {
+
+            return;
+        }
+
+        cpuCap = Math.min(cpuCap, maxThreads);
+        fileReaderThreads = getFileReaderThreads();
+
+        int threads;
+
+        while((threads = getWorkerThreads()) > maxThreads) {
+
+            int compress = isCompressPool() ? compressThreads : 0;
+            int parse = perFileThreads ? parseConcurrency : 0;
+
+            if (perFileThreads && fileReaderThreads > parseConcurrency) {
+
+                fileReaderThreads --;
+            }
+            else if (autoTune && cpuCap > 1) {
+
+                cpuCap --;
+            }
+            else if (formatThreads > 1 && formatThreads >= compress && formatThreads >= parse) {
+
+                formatThreads --;
+            }
+            else if (compress > 1 && compress >= parse) {
+
+                compressThreads --;
+            }
+            else if (parse > 1) {
+
+                parseConcurrency --;
+                fileReaderThreads = parseConcurrency;
+            }
+            else {
+
+                throw new UserErrorException(
+                        MAX_THREADS + " " + maxThreads + " is too low, the options require at least " + threads +
+                                " worker threads");
+            }
+        }
+    }
+
+    /**
+     * @return the number of worker threads the run starts with the current settings, see getMaxThreads().
+     */
+    private int getWorkerThreads() {
+
+        int threads = rejectsFile == null ? 0 : 1;
+
+        if (partitions > 1 && !binaryOutput) {
+
+            //
+            // a writer per partition, the partitions do their own compression
+            //
+
+            return threads + partitions;
+        }
+
+        if (asyncOutput || compression != null) {
+
+            threads ++;
+        }
+
+        boolean formatPool = isFormatPool();
+        boolean compressPool = isCompressPool();
+
+        if (formatPool) {
+
+            //
+            // the formatted output writer
+            //
+
+            threads ++;
+        }
+
+        if (perFileThreads) {
+
+            threads += fileReaderThreads;
+        }
+
+        if (autoTune) {
+
+            //
+            // the tuner may grow the pools as long as they fit in the CPU cap, along with the parse concurrency, which
+            // is at least one; a pool is never reduced below one thread
+            //
+
+            int pools = (formatPool ? 1 : 0) + (compressPool ? 1 : 0);
+
+            return pools == 0 ? threads : threads + Math.max(pools, cpuCap - (perFileThreads ? 1 : 0));
+        }
+
+        return threads + (formatPool ? formatThreads : 0) + (compressPool ? compressThreads : 0);
+    }
+
+    /**
+     * @return true if the events are formatted on a pool of formatter threads.
+     */
+    private boolean isFormatPool() {
+
+        return !binaryOutput && partitions <= 1 && (formatThreads > 1 || autoTune);
+    }
+
+    /**
+     * @return true if the output is compressed on a pool of compressor threads.
+     */
+    private boolean isCompressPool() {
+
+        return compression != null && (binaryOutput || partitions <= 1) && !lowLatency &&
+                (compressThreads > 1 || autoTune);
+    }
+
+    /**
+     * Removes and returns the value that follows the option found at index i.
+     */
+    private static String removeValue(List<String> mutableArgumentList, int i) throws UserErrorException {
+
+        if (i + 1 >= mutableArgumentList.size()) {
+
+            throw new UserErrorException("missing value for " + mutableArgumentList.get(i));
+        }
+
+        return mutableArgumentList.remove(i + 1);
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-stage cumulative timing and latency histograms collected by the runtime when --stats is specified. The runtime
+ * does not instantiate this class at all when statistics are not requested, so the only cost of the instrumentation
+ * in that case is a null check per line and per batch.
+ *
+ * The end-to-end latency of a line is the time between the moment the line is read and the moment the output it
+ * produced, if any, is flushed to its destination by the runtime: after each flush in the latency profile
+ * (--low-latency), when the input goes idle or the linger time expires, and at the end of the run. In the throughput
+ * profile, the output buffers are also written out when they fill up, which the runtime does not observe, so the
+ * end-to-end latency is an upper bound. The read times of the lines waiting for a flush are sampled, to bound the
+ * memory: when the samples fill up, every other one is dropped, and each remaining one stands for twice as many lines.
+ *
+ * Recorded into by the event loop thread only. The stage times are also read by the management interface, from other
+ * threads.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class RuntimeStatistics {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    public enum Stage {
+
+        //
+        // reading lines from the input; for binary event streams, reading and decoding events
+        //
+        READ,
+
+        //
+        // parsing lines into events
+        //
+        PARSE,
+
+        //
+        // applying the query
+        //
+        FILTER,
+
+        //
+        // running the procedure
+        //
+        PROCEDURE,
+
+        //
+        // draining the runtime-managed output stages at the end of the run, and in the latency profile, whenever the
+        // input goes idle or the linger time expires
+        //
+        OUTPUT
+    }
+
+    //
+    // the maximum number of read time samples kept for the lines waiting for a flush
+    //
+
+    static final int MAX_PENDING_SAMPLES = 4096;
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    private static String rate(long count, long nanos, String unit) {
+
+        if (nanos <= 0) {
+
+            return "n/a";
+        }
+
+        return String.format("%.1f %s/s", count * (double)TimeUnit.SECONDS.toNanos(1) / nanos, unit);
+    }
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    // single writer, the event loop thread; read from JMX threads
+    private final AtomicLongArray stageNanos;
+
+    // read and parse time, per line
+    private final LatencyHistogram lineLatency;
+
+    // filter and procedure time, per batch
+    private final LatencyHistogram batchLatency;
+
+    // from read to flush, per line
+    private final LatencyHistogram endToEndLatency;
+
+    //
+    // the read time of the first line of each group of lines waiting for a flush; all groups have 'linesPerSample'
+    // lines, except the last one, which has 'linesInLastSample'
+    //
+
+    private final long[] pendingSamples;
+    private int pendingSampleCount;
+    private long linesPerSample;
+    private long linesInLastSample;
+
+    private long startNanos;
+    private long stopNanos;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    public RuntimeStatistics() {
+
+        this.stageNanos = new AtomicLongArray(Stage.values().length);
+        this.lineLatency = new LatencyHistogram();
+        this.batchLatency = new LatencyHistogram();
+        this.endToEndLatency = new LatencyHistogram();
+        this.pendingSamples = new long[MAX_PENDING_SAMPLES];
+        this.linesPerSample = 1L;
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    public void start() {
+
+        startNanos = System.nanoTime();
+        stopNanos = 0L;
+    }
+
+    public void stop() {
+
+        stopNanos = System.nanoTime();
+    }
+
+    /**
+     * @return the time elapsed between start() and stop(), or between start() and now, if not stopped yet.
+     */
+    public long getElapsedNanos() {
+
+        return (stopNanos == 0L ? System.nanoTime() : stopNanos) - startNanos;
+    }
+
+    public void add(Stage stage, long nanos) {
+
+        addNanos(stage, nanos);
+    }
+
+    /**
+     * May be invoked from any thread.
+     */
+    public long getNanos(Stage stage) {
+
+        return stageNanos.get(stage.ordinal());
+    }
+
+    public void recordLine(long readNanos, long parseNanos) {
+
+        addNanos(Stage.READ, readNanos);
+        addNanos(Stage.PARSE, parseNanos);
+        lineLatency.record(readNanos + parseNanos);
+    }
+
+    public void recordBatch(long filterNanos, long procedureNanos) {
+
+        addNanos(Stage.FILTER, filterNanos);
+        addNanos(Stage.PROCEDURE, procedureNanos);
+        batchLatency.record(filterNanos + procedureNanos);
+    }
+
+    /**
+     * Records the moment a line was read, for the end-to-end latency.
+     */
+    public void lineRead(long nanos) {
+
+        if (pendingSampleCount > 0 && linesInLastSample < linesPerSample) {
+
+            linesInLastSample ++;
+            return;
+        }
+
+        if (pendingSampleCount == pendingSamples.length) {
+
+            //
+            // merge the groups two by two, keeping the read time of the first line of each pair
+            //
+
+            for(int i = 0; i < pendingSampleCount / 2; i ++) {
+
+                pendingSamples[i] = pendingSamples[2 * i];
+            }
+
+            pendingSampleCount /= 2;
+            linesPerSample *= 2;
+
+            //
+            // the last group is complete, so the line starts a new group
+            //
+        }
+
+        pendingSamples[pendingSampleCount ++] = nanos;
+        linesInLastSample = 1L;
+    }
+
+    /**
+     * Records the end-to-end latency of the lines read so far, whose output was just flushed.
+     */
+    public void outputFlushed(long nanos) {
+
+        for(int i = 0; i < pendingSampleCount; i ++) {
+
+            endToEndLatency.record(
+                    nanos - pendingSamples[i], i == pendingSampleCount - 1 ? linesInLastSample : linesPerSample);
+        }
+
+        pendingSampleCount = 0;
+        linesPerSample = 1L;
+        linesInLastSample = 0L;
+    }
+
+    public LatencyHistogram getLineLatency() {
+
+        return lineLatency;
+    }
+
+    public LatencyHistogram getBatchLatency() {
+
+        return batchLatency;
+    }
+
+    public LatencyHistogram getEndToEndLatency() {
+
+        return endToEndLatency;
+    }
+
+    /**
+     * Writes the end-of-run report.
+     */
+    public void report(PrintStream ps, long lines, long bytes, long events, long parsingFailures,
+                       long processingFailures) {
+
+        long elapsed = getElapsedNanos();
+
+        ps.println("events-cli statistics:");
+        ps.println("  elapsed:             " + LatencyHistogram.format(elapsed));
+        ps.println("  lines:               " + lines + " (" + rate(lines, elapsed, "lines") + ")");
+        ps.println("  bytes:               " + bytes + " (" + rate(bytes, elapsed, "bytes") + ")");
+        ps.println("  events:              " + events + " (" + rate(events, elapsed, "events") + ")");
+        ps.println("  parsing failures:    " + parsingFailures);
+        ps.println("  processing failures: " + processingFailures);
+        ps.println("  stages:");
+
+        for(Stage s: Stage.values()) {
+
+            long nanos = stageNanos.get(s.ordinal());
+
+            ps.println(String.format("    %-10s %12s %6.1f%%",
+                    s.name().toLowerCase(), LatencyHistogram.format(nanos),
+                    elapsed <= 0 ? 0d : 100d * nanos / elapsed));
+        }
+
+        ps.println("  latency per line:    " + lineLatency.getSummary());
+        ps.println("  latency per batch:   " + batchLatency.getSummary());
+
+        if (endToEndLatency.getCount() > 0) {
+
+            ps.println("  latency end-to-end:  " + endToEndLatency.getSummary());
+        }
+
+        ps.flush();
+    }
+
+    @Override
+    public String toString() {
+
+        return "RuntimeStatistics[" + Integer.toHexString(System.identityHashCode(this)) + "]";
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    /**
+     * The event loop thread is the only writer, so an ordered store is enough to publish the sum, without the cost of
+     * an atomic add on each line.
+     */
+    private void addNanos(Stage stage, long nanos) {
+
+        int i = stage.ordinal();
+
+        stageNanos.lazySet(i, stageNanos.get(i) + nanos);
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
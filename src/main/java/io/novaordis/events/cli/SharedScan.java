@@ -0,0 +1,636 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.novaordis.events.api.event.Event;
+import io.novaordis.events.api.parser.Parser;
+import io.novaordis.utilities.parsing.ParsingException;
+
+/**
+ * A scan of a text file shared by concurrent requests: the file is read and parsed once, by a dedicated thread, and
+ * the events are delivered to all the subscriptions, each of which applies its own query and procedure.
+ *
+ * A subscription attaches at the current position of the scan and receives the events up to the end of the file. The
+ * scan then wraps around, and the subscription receives the events that precede its attachment point, so it sees
+ * every event exactly once, but not in file order. The file is read in chunks of CHUNK_LINES lines and subscriptions
+ * only attach at chunk boundaries. Each pass over the file uses a new parser instance, so all passes produce the same
+ * events at the same lines, and the events the parser emits on close() are delivered after the last chunk of the
+ * pass. Only the bytes present when the scan started are read, so a file that grows during the scan yields the same
+ * events on each pass.
+ *
+ * The scan advances at the pace of its slowest subscription: each subscription has a bounded queue and the scan waits
+ * for queue space. The events are shared between subscriptions, so procedures must not modify them. The scan ends as
+ * soon as it has no subscriptions left.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+final class SharedScan {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    private static final Logger log = LoggerFactory.getLogger(SharedScan.class);
+
+    static final int CHUNK_LINES = 256;
+
+    //
+    // the number of chunks a subscription may fall behind the scan
+    //
+    static final int QUEUE_CAPACITY = 16;
+
+    private static final long POLL_TIMEOUT_MS = 100L;
+
+    private static final Batch END = new Batch(Collections.<Event>emptyList(), 0L, 0L, 0, 0);
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private final SharedScanRegistry registry;
+    private final String key;
+    private final File file;
+    private final long length;
+    private final Supplier<Parser> parserFactory;
+    private final FailureLog failureLog;
+    private final Thread thread;
+
+    // guarded by this
+    private final List<Subscription> pending;
+    private boolean terminated;
+
+    // accessed by the scan thread only
+    private final List<Subscription> active;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    /**
+     * @param key the identity of the file content, as computed by the registry.
+     * @param length the number of bytes of the file that are scanned.
+     * @param parserFactory invoked once per pass, it must return a new parser instance on each invocation.
+     */
+    SharedScan(SharedScanRegistry registry, String key, File file, long length, Supplier<Parser> parserFactory) {
+
+        this.registry = registry;
+        this.key = key;
+        this.file = file;
+        this.length = length;
+        this.parserFactory = parserFactory;
+        this.failureLog = new FailureLog(log);
+        this.pending = new ArrayList<>();
+        this.active = new ArrayList<>();
+
+        this.thread = new Thread(this::scan, "events-cli shared scan " + file.getName());
+        this.thread.setDaemon(true);
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+
+        return "SharedScan[" + file + "]";
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    void start() {
+
+        thread.start();
+    }
+
+    /**
+     * Stops the scan. The subscriptions fail with an InterruptedIOException.
+     */
+    void interrupt() {
+
+        thread.interrupt();
+    }
+
+    /**
+     * @return the new subscription, or null if the scan already ended, in which case the caller must start a new one.
+     */
+    synchronized Subscription attach() {
+
+        if (terminated) {
+
+            return null;
+        }
+
+        Subscription s = new Subscription();
+        pending.add(s);
+        return s;
+    }
+
+    String getKey() {
+
+        return key;
+    }
+
+    File getFile() {
+
+        return file;
+    }
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    private void scan() {
+
+        IOException failure = null;
+
+        try {
+
+            for(long pass = 0; update(pass, 1L) && scanPass(pass); pass ++) {
+
+                log.debug(this + " wraps around after pass " + pass);
+            }
+        }
+        catch(IOException e) {
+
+            failure = e;
+
+            String msg = "failed to scan " + file;
+            log.warn(msg + ": " + e.getMessage());
+            log.debug(msg, e);
+        }
+        catch(InterruptedException e) {
+
+            failure = new InterruptedIOException("the scan of " + file + " was interrupted");
+        }
+        catch(RuntimeException e) {
+
+            //
+            // the subscriptions must not wait forever for a scan that died
+            //
+
+            failure = new IOException(e);
+
+            String msg = "failed to scan " + file;
+            log.warn(msg + ": " + e);
+            log.debug(msg, e);
+        }
+        finally {
+
+            if (failure != null) {
+
+                fail(failure);
+            }
+
+            failureLog.close();
+        }
+    }
+
+    /**
+     * @return false if the scan ended because it had no subscriptions left.
+     */
+    private boolean scanPass(long pass) throws IOException, InterruptedException {
+
+        Parser parser = parserFactory.get();
+
+        try(BufferedReader br = new BufferedReader(
+                new InputStreamReader(new BoundedInputStream(new FileInputStream(file), length)))) {
+
+            long firstLine = 1L;
+
+            while(true) {
+
+                if (!update(pass, firstLine)) {
+
+                    return false;
+                }
+
+                List<Event> events = new ArrayList<>();
+                int lines = 0;
+                int failures = 0;
+                String line;
+
+                while(lines < CHUNK_LINES && (line = br.readLine()) != null) {
+
+                    long lineNumber = firstLine + lines;
+
+                    lines ++;
+
+                    try {
+
+                        //
+                        // each subscription applies its own query, the parser cannot pre-filter
+                        //
+
+                        events.addAll(parser.parse(line, null));
+                    }
+                    catch(ParsingException e) {
+
+                        failures ++;
+                        failureLog.failure(FailureLog.Kind.PARSING, e.getMessage(), lineNumber, e);
+                    }
+                }
+
+                if (lines == 0) {
+
+                    break;
+                }
+
+                long lastLine = firstLine + lines - 1;
+                Batch batch = new Batch(Collections.unmodifiableList(events), firstLine, lastLine, lines, failures);
+
+                for(Subscription s: active) {
+
+                    if ((pass == s.startPass && firstLine >= s.startLine) ||
+                            (pass == s.startPass + 1 && firstLine < s.startLine)) {
+
+                        put(s, batch);
+                    }
+                }
+
+                firstLine = lastLine + 1;
+            }
+
+            closePass(parser, pass, firstLine - 1);
+            return true;
+        }
+    }
+
+    /**
+     * Delivers the events the parser emits on close() to the subscriptions that started during the pass: they are
+     * positioned after all the lines of the pass.
+     */
+    private void closePass(Parser parser, long pass, long lastLine) throws InterruptedException {
+
+        List<Event> events;
+        int failures = 0;
+
+        try {
+
+            events = parser.close();
+        }
+        catch(ParsingException e) {
+
+            events = Collections.emptyList();
+            failures = 1;
+            failureLog.failure(FailureLog.Kind.PARSER_CLOSE, e.getMessage(), lastLine, e);
+        }
+
+        Batch batch = new Batch(Collections.unmodifiableList(events), lastLine, lastLine, 0, failures);
+
+        for(Subscription s: active) {
+
+            if (pass == s.startPass) {
+
+                put(s, batch);
+            }
+        }
+    }
+
+    /**
+     * Invoked at chunk boundaries: ends the subscriptions that have seen the whole file, drops the cancelled ones, and
+     * activates the pending ones at the given position. Ends the scan if no subscriptions are left.
+     *
+     * @param firstLine the number of the next line to be read, in the given pass.
+     *
+     * @return false if the scan ended.
+     */
+    private boolean update(long pass, long firstLine) throws InterruptedException {
+
+        for(Iterator<Subscription> i = active.iterator(); i.hasNext(); ) {
+
+            Subscription s = i.next();
+
+            if (s.cancelled) {
+
+                i.remove();
+            }
+            else if (pass > s.startPass + 1 || (pass == s.startPass + 1 && firstLine >= s.startLine)) {
+
+                put(s, END);
+                i.remove();
+            }
+        }
+
+        synchronized (this) {
+
+            for(Subscription s: pending) {
+
+                s.startPass = pass;
+                s.startLine = firstLine;
+                active.add(s);
+            }
+
+            pending.clear();
+        }
+
+        if (!active.isEmpty()) {
+
+            return true;
+        }
+
+        if (!retireIfIdle()) {
+
+            //
+            // a subscription attached in the meantime
+            //
+
+            return update(pass, firstLine);
+        }
+
+        registry.remove(this);
+
+        log.debug(this + " ended");
+
+        return false;
+    }
+
+    /**
+     * Marks the scan terminated if nobody is waiting to attach. Once terminated, attach() returns null.
+     */
+    private synchronized boolean retireIfIdle() {
+
+        if (pending.isEmpty()) {
+
+            terminated = true;
+        }
+
+        return terminated;
+    }
+
+    private void fail(IOException failure) {
+
+        List<Subscription> subscriptions;
+
+        synchronized (this) {
+
+            terminated = true;
+            subscriptions = new ArrayList<>(pending);
+            pending.clear();
+        }
+
+        subscriptions.addAll(active);
+        active.clear();
+
+        registry.remove(this);
+
+        for(Subscription s: subscriptions) {
+
+            s.failure = failure;
+        }
+    }
+
+    /**
+     * Waits for queue space, unless the subscription is cancelled.
+     */
+    private static void put(Subscription s, Batch batch) throws InterruptedException {
+
+        while(!s.cancelled) {
+
+            if (s.queue.offer(batch, POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+
+                return;
+            }
+        }
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+    /**
+     * The events produced by a chunk of lines, or by the parser's close() at the end of a pass, in which case the line
+     * count is 0.
+     */
+    static final class Batch {
+
+        private final List<Event> events;
+        private final long firstLine;
+        private final long lastLine;
+        private final int lines;
+        private final int parsingFailures;
+
+        Batch(List<Event> events, long firstLine, long lastLine, int lines, int parsingFailures) {
+
+            this.events = events;
+            this.firstLine = firstLine;
+            this.lastLine = lastLine;
+            this.lines = lines;
+            this.parsingFailures = parsingFailures;
+        }
+
+        /**
+         * @return the events, unmodifiable and shared with the other subscriptions.
+         */
+        List<Event> getEvents() {
+
+            return events;
+        }
+
+        long getFirstLine() {
+
+            return firstLine;
+        }
+
+        long getLastLine() {
+
+            return lastLine;
+        }
+
+        int getLines() {
+
+            return lines;
+        }
+
+        int getParsingFailures() {
+
+            return parsingFailures;
+        }
+    }
+
+    /**
+     * A request's view of the scan. Used by a single consumer thread.
+     */
+    final class Subscription {
+
+        private final BlockingQueue<Batch> queue;
+
+        // written by the scan thread before the subscription is made visible to put()
+        private long startPass;
+        private long startLine;
+
+        private volatile boolean cancelled;
+        private volatile IOException failure;
+        private boolean ended;
+
+        private Subscription() {
+
+            this.queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        }
+
+        /**
+         * Blocks until the next batch is available.
+         *
+         * @return the next batch, or null if the subscription has seen the whole file.
+         *
+         * @exception IOException if the scan failed.
+         * @exception InterruptedIOException if the calling thread was interrupted.
+         */
+        Batch next() throws IOException {
+
+            if (ended || cancelled) {
+
+                return null;
+            }
+
+            try {
+
+                while(true) {
+
+                    Batch b = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+                    if (b == END) {
+
+                        ended = true;
+                        return null;
+                    }
+
+                    if (b != null) {
+
+                        return b;
+                    }
+
+                    IOException e = failure;
+
+                    if (e != null) {
+
+                        throw new IOException("the shared scan of " + file + " failed", e);
+                    }
+                }
+            }
+            catch(InterruptedException e) {
+
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted while waiting for the shared scan of " + file);
+            }
+        }
+
+        /**
+         * Detaches from the scan. Idempotent, may be invoked after the subscription ended.
+         */
+        void cancel() {
+
+            cancelled = true;
+            queue.clear();
+        }
+
+        SharedScan getScan() {
+
+            return SharedScan.this;
+        }
+
+        @Override
+        public String toString() {
+
+            return "Subscription[" + file + ", pass " + startPass + ", line " + startLine + "]";
+        }
+    }
+
+    /**
+     * Stops reading after the given number of bytes.
+     */
+    private static final class BoundedInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long length) {
+
+            super(in);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+
+            if (remaining <= 0) {
+
+                return -1;
+            }
+
+            int b = super.read();
+
+            if (b != -1) {
+
+                remaining --;
+            }
+
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+
+            if (remaining <= 0) {
+
+                return -1;
+            }
+
+            int n = super.read(b, off, (int)Math.min(len, remaining));
+
+            if (n > 0) {
+
+                remaining -= n;
+            }
+
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+
+            long skipped = super.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+
+            return (int)Math.min(super.available(), remaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.novaordis.events.api.parser.Parser;
+
+/**
+ * The shared scans in progress in a daemon, by file and parser. A request for a file that is already being scanned
+ * with an equivalent parser joins the scan, otherwise it starts a new one. A file is identified by its canonical path,
+ * length and modification time, so a file that was modified since its scan started gets a new scan. Parsers are
+ * identified by the caller, so requests whose parsers are configured differently never share events.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+final class SharedScanRegistry {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    private static final Logger log = LoggerFactory.getLogger(SharedScanRegistry.class);
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private final Map<String, SharedScan> scans;
+
+    private boolean closed;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    SharedScanRegistry() {
+
+        this.scans = new HashMap<>();
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    @Override
+    public String toString() {
+
+        return "SharedScanRegistry[" + getScanCount() + " scans]";
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    /**
+     * @param parserIdentity identifies the parser implementation and its configuration. Only the requests with the
+     *                       same parser identity share a scan.
+     * @param parserFactory used if a new scan is started, it must return a new parser instance on each invocation,
+     *                      configured as the parser identity says.
+     *
+     * @return the subscription, or null if the file cannot be scanned in shared mode because it contains a binary event
+     * stream. In that case, the caller should read the file on its own.
+     *
+     * @exception IOException if the file cannot be read.
+     */
+    SharedScan.Subscription subscribe(File file, String parserIdentity, Supplier<Parser> parserFactory)
+            throws IOException {
+
+        try(BufferedInputStream bis = new BufferedInputStream(new FileInputStream(file))) {
+
+            if (BinaryEventReader.isBinaryEventStream(bis)) {
+
+                return null;
+            }
+        }
+
+        File canonical = file.getCanonicalFile();
+        long length = canonical.length();
+        String key = canonical.getPath() + ":" + length + ":" + canonical.lastModified() + ":" + parserIdentity;
+
+        synchronized (this) {
+
+            if (closed) {
+
+                throw new IllegalStateException(this + " closed");
+            }
+
+            SharedScan scan = scans.get(key);
+
+            if (scan != null) {
+
+                SharedScan.Subscription s = scan.attach();
+
+                if (s != null) {
+
+                    log.debug("joined " + scan);
+                    return s;
+                }
+            }
+
+            scan = new SharedScan(this, key, canonical, length, parserFactory);
+            scans.put(key, scan);
+
+            SharedScan.Subscription s = scan.attach();
+            scan.start();
+
+            log.debug("started " + scan);
+
+            return s;
+        }
+    }
+
+    /**
+     * Invoked by a scan when it ends.
+     */
+    synchronized void remove(SharedScan scan) {
+
+        scans.remove(scan.getKey(), scan);
+    }
+
+    synchronized int getScanCount() {
+
+        return scans.size();
+    }
+
+    /**
+     * Interrupts the scans in progress, which fails their subscriptions.
+     */
+    void close() {
+
+        List<SharedScan> interrupted;
+
+        synchronized (this) {
+
+            closed = true;
+            interrupted = new ArrayList<>(scans.values());
+        }
+
+        for(SharedScan s: interrupted) {
+
+            s.interrupt();
+        }
+    }
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
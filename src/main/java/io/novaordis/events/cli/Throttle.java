@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The resource caps of a run, for runs that share the host with a production process: a maximum read bandwidth
+ * (--max-read-rate) and a CPU share (--cpu-share). Both are token buckets: bytes per second for reads, and CPU
+ * nanoseconds per second for the workers.
+ *
+ * Reads are charged after they complete, and the reading thread sleeps until the bucket recovers the debt. The CPU
+ * share is enforced by duty-cycling: each worker thread - the event loop, per-file readers, formatters, compressors,
+ * output writers - periodically charges the CPU time it used since its previous checkpoint, and sleeps while the
+ * bucket is in debt. Together, the workers use, on average, no more than the share. Where the CPU time of a thread is
+ * not available, as it is the case for virtual threads, the wall time elapsed since the previous checkpoint is charged
+ * instead, which over-throttles threads that also wait between checkpoints.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class Throttle {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    private static final Logger log = LoggerFactory.getLogger(Throttle.class);
+
+    public static final long UNLIMITED = Long.MAX_VALUE;
+
+    //
+    // the amount a bucket can accumulate while idle, expressed as the time it takes to fill it
+    //
+
+    static final long BURST_NANOS = TimeUnit.MILLISECONDS.toNanos(100L);
+
+    //
+    // the minimum time between the CPU time checks of a thread, so checkpoints can be invoked per line or per batch
+    //
+
+    static final long PACE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(1L);
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1L);
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    private static final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private final long maxReadRate;
+    private final double cpuShare;
+
+    // null if not limited
+    private final TokenBucket readBucket;
+    private final TokenBucket cpuBucket;
+
+    // per worker thread: the time of the previous check, and the CPU time at that moment
+    private final ThreadLocal<long[]> checkpoints;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    /**
+     * @param maxReadRate the maximum number of bytes read per second, or UNLIMITED.
+     * @param cpuShare the number of processors the workers may keep busy, on average. May be a fraction, for example
+     *                 0.5 means half of a processor. 0 if the CPU is not limited.
+     */
+    public Throttle(long maxReadRate, double cpuShare) {
+
+        if (maxReadRate <= 0) {
+
+            throw new IllegalArgumentException("invalid maximum read rate " + maxReadRate);
+        }
+
+        if (cpuShare < 0 || Double.isNaN(cpuShare) || Double.isInfinite(cpuShare)) {
+
+            throw new IllegalArgumentException("invalid CPU share " + cpuShare);
+        }
+
+        this.maxReadRate = maxReadRate;
+        this.cpuShare = cpuShare;
+        this.readBucket = maxReadRate == UNLIMITED ? null : new TokenBucket(maxReadRate);
+        this.cpuBucket = cpuShare == 0 ? null : new TokenBucket(cpuShare * NANOS_PER_SECOND);
+        this.checkpoints = new ThreadLocal<>();
+
+        if (cpuBucket != null && threadMXBean.isCurrentThreadCpuTimeSupported() &&
+                !threadMXBean.isThreadCpuTimeEnabled()) {
+
+            threadMXBean.setThreadCpuTimeEnabled(true);
+        }
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * Charges the bytes that were just read, and blocks until the read bandwidth allows them.
+     */
+    public void read(long bytes) throws InterruptedException {
+
+        if (readBucket == null || bytes <= 0) {
+
+            return;
+        }
+
+        readBucket.acquire(bytes);
+    }
+
+    /**
+     * A CPU share checkpoint, invoked by worker threads between units of work: charges the CPU time used by the
+     * current thread since its previous checkpoint, and sleeps if the workers are above their share. Cheap if invoked
+     * more often than PACE_INTERVAL_NANOS. If interrupted, returns early, with the interrupt status set, so the
+     * caller's next blocking operation handles the interruption.
+     */
+    public void pace() {
+
+        if (cpuBucket == null) {
+
+            return;
+        }
+
+        long now = System.nanoTime();
+
+        long[] checkpoint = checkpoints.get();
+
+        if (checkpoint == null) {
+
+            checkpoints.set(new long[] { now, cpuTime(now) });
+            return;
+        }
+
+        if (now - checkpoint[0] < PACE_INTERVAL_NANOS) {
+
+            return;
+        }
+
+        long cpu = cpuTime(now);
+
+        try {
+
+            cpuBucket.acquire(cpu - checkpoint[1]);
+        }
+        catch(InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+        }
+
+        //
+        // the time spent sleeping is not charged, even if it is measured in wall time
+        //
+
+        now = System.nanoTime();
+        checkpoint[0] = now;
+        checkpoint[1] = cpuTime(now);
+    }
+
+    /**
+     * @return the maximum number of bytes read per second, or UNLIMITED.
+     */
+    public long getMaxReadRate() {
+
+        return maxReadRate;
+    }
+
+    /**
+     * @return the number of processors the workers may keep busy, or 0 if the CPU is not limited.
+     */
+    public double getCpuShare() {
+
+        return cpuShare;
+    }
+
+    /**
+     * @return the total time reading threads slept to stay within the read bandwidth.
+     */
+    public long getReadThrottledTimeNanos() {
+
+        return readBucket == null ? 0L : readBucket.getWaitTimeNanos();
+    }
+
+    /**
+     * @return the total time worker threads slept to stay within the CPU share.
+     */
+    public long getCpuThrottledTimeNanos() {
+
+        return cpuBucket == null ? 0L : cpuBucket.getWaitTimeNanos();
+    }
+
+    @Override
+    public String toString() {
+
+        return "Throttle[max-read-rate=" + (maxReadRate == UNLIMITED ? "unlimited" : maxReadRate + "/s") +
+                ", cpu-share=" + (cpuShare == 0 ? "unlimited" : cpuShare) + "]";
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    /**
+     * @return the CPU time of the current thread, or the wall time if it is not available.
+     */
+    private static long cpuTime(long now) {
+
+        long cpu = threadMXBean.isCurrentThreadCpuTimeSupported() ? threadMXBean.getCurrentThreadCpuTime() : -1L;
+
+        return cpu == -1L ? now : cpu;
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+    /**
+     * A token bucket that lets a caller go into debt: the tokens are taken right away, and the caller sleeps for as
+     * long as it takes the bucket to get back to zero. The callers that follow wait for the debt of the previous ones,
+     * so the rate holds for any mix of amounts, including amounts larger than the bucket.
+     */
+    static final class TokenBucket {
+
+        private final double ratePerSecond;
+        private final double capacity;
+
+        // guarded by this
+        private double tokens;
+        private long lastRefill;
+
+        private volatile long waitTimeNanos;
+
+        /**
+         * @param ratePerSecond the number of tokens added per second.
+         */
+        TokenBucket(double ratePerSecond) {
+
+            this.ratePerSecond = ratePerSecond;
+            this.capacity = ratePerSecond * BURST_NANOS / NANOS_PER_SECOND;
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        void acquire(long amount) throws InterruptedException {
+
+            long wait = reserve(amount, System.nanoTime());
+
+            if (wait <= 0L) {
+
+                return;
+            }
+
+            synchronized (this) {
+
+                waitTimeNanos += wait;
+            }
+
+            if (log.isTraceEnabled()) {
+
+                log.trace(Thread.currentThread().getName() + " throttled for " + wait + " ns");
+            }
+
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+
+        /**
+         * Takes the tokens.
+         *
+         * @return the time, in nanoseconds, the caller must wait for the tokens to be available: 0 if they were.
+         */
+        synchronized long reserve(long amount, long nowNanos) {
+
+            if (nowNanos > lastRefill) {
+
+                tokens = Math.min(capacity, tokens + (nowNanos - lastRefill) * ratePerSecond / NANOS_PER_SECOND);
+                lastRefill = nowNanos;
+            }
+
+            tokens -= amount;
+
+            return tokens >= 0 ? 0L : (long)Math.ceil(-tokens * NANOS_PER_SECOND / ratePerSecond);
+        }
+
+        long getWaitTimeNanos() {
+
+            return waitTimeNanos;
+        }
+    }
+
+}
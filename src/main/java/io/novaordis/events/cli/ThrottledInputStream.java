@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+
+/**
+ * Charges the bytes read from the underlying stream to the read bandwidth of a Throttle. Like CountingInputStream,
+ * it is meant to sit under the runtime's input buffer, so the throttle is invoked once per buffer fill.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+class ThrottledInputStream extends FilterInputStream {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private final Throttle throttle;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    ThrottledInputStream(InputStream in, Throttle throttle) {
+
+        super(in);
+
+        this.throttle = throttle;
+    }
+
+    // FilterInputStream overrides -------------------------------------------------------------------------------------
+
+    @Override
+    public int read() throws IOException {
+
+        int b = in.read();
+
+        if (b != -1) {
+
+            charge(1L);
+        }
+
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+
+        int n = in.read(b, off, len);
+
+        if (n > 0) {
+
+            charge(n);
+        }
+
+        return n;
+    }
+
+    /**
+     * Skipped bytes are not charged: they may not be read at all.
+     */
+    @Override
+    public long skip(long n) throws IOException {
+
+        return in.skip(n);
+    }
+
+    @Override
+    public boolean markSupported() {
+
+        return false;
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    private void charge(long bytes) throws InterruptedIOException {
+
+        try {
+
+            throttle.read(bytes);
+        }
+        catch(InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while throttling the input");
+        }
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.novaordis.events.cli;
+
+/**
+ * A pipeline stage whose thread count, and possibly batch size, can be changed while the run is in progress, by the
+ * AutoTuner (--auto-tune). The methods may be invoked from any thread.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+interface TunableStage {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * @return a short name used in logs and in the report, such as "formatting".
+     */
+    String getStageName();
+
+    int getThreads();
+
+    /**
+     * @return false if the thread count cannot be changed, for example because the stage runs on an executor supplied
+     * by the application.
+     */
+    boolean setThreads(int threads);
+
+    /**
+     * @return the batch size, or -1 if the stage does not work in batches.
+     */
+    int getBatchSize();
+
+    /**
+     * Noop if the stage does not work in batches.
+     */
+    void setBatchSize(int batchSize);
+
+    /**
+     * @return the work in progress and waiting in the stage, per thread: 0 means all threads are idle, 1 that all are
+     * busy, and more than 1 that work is waiting for a thread - the stage does not keep up with its input.
+     */
+    double getOccupancy();
+
+    /**
+     * @return the units of work completed so far (events, bytes, lines).
+     */
+    long getCompletedUnits();
+
+    /**
+     * @return the name of the units of work, such as "events".
+     */
+    String getUnits();
+
+    /**
+     * @return the command line options that reproduce the current settings.
+     */
+    String getPinningOptions();
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How the threads that consume the output hand-off queues - the output writers - wait for the next item
+ * (--wait-strategy). Blocking is the cheapest, but waking up a blocked thread takes tens of microseconds; parking in
+ * short intervals, or spinning, reduce the hand-off latency at the cost of CPU: a spinning thread keeps a processor
+ * busy even when there is nothing to do. For that reason, only the writer that delivers the output to stdout uses the
+ * configured strategy, and only in the latency profile (--low-latency).
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public enum WaitStrategy {
+
+    //
+    // wait on the queue's condition, until the producer signals it
+    //
+    BLOCK,
+
+    //
+    // poll the queue, and park for PARK_NANOS between polls
+    //
+    PARK,
+
+    //
+    // poll the queue continuously
+    //
+    SPIN;
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(20L);
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * @return the strategy with the given name (case insensitive), or null if there is none.
+     */
+    public static WaitStrategy fromString(String s) {
+
+        for(WaitStrategy w: values()) {
+
+            if (w.name().equalsIgnoreCase(s.trim())) {
+
+                return w;
+            }
+        }
+
+        return null;
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * Removes the head of the queue, waiting for an item to become available if necessary.
+     */
+    public <T> T take(BlockingQueue<T> queue) throws InterruptedException {
+
+        if (this == BLOCK) {
+
+            return queue.take();
+        }
+
+        while(true) {
+
+            T item = queue.poll();
+
+            if (item != null) {
+
+                return item;
+            }
+
+            if (Thread.interrupted()) {
+
+                throw new InterruptedException();
+            }
+
+            if (this == PARK) {
+
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+    }
+
+}
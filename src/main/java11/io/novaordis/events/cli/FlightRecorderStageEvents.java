@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.util.function.Function;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * The flight recorder event classes, and the listener that tracks the recording state, for FlightRecorderEvents.
+ *
+ * Packaged in META-INF/versions/11 of the multi-release jar, and only looked up by name, so the rest of the code
+ * compiles against the Java 8 API.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+final class FlightRecorderStageEvents {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * Invoked reflectively by FlightRecorderEvents.initialize(): starts tracking the recording state.
+     *
+     * @return the factory that instantiates and begins the event of a stage.
+     */
+    static Function<FlightRecorderEvents.Stage, FlightRecorderEvents.StageEvent> install() {
+
+        FlightRecorder.addListener(new RecordingStateListener());
+
+        return FlightRecorderStageEvents::begin;
+    }
+
+    private static FlightRecorderEvents.StageEvent begin(FlightRecorderEvents.Stage stage) {
+
+        StageEvent e;
+
+        switch (stage) {
+
+            case PARSE:
+                e = new Parse();
+                break;
+            case FILTER:
+                e = new Filter();
+                break;
+            case PROCEDURE:
+                e = new Procedure();
+                break;
+            case PARSER_CLOSE:
+                e = new ParserClose();
+                break;
+            default:
+                e = new InputStall();
+        }
+
+        e.begin();
+
+        return e;
+    }
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    private FlightRecorderStageEvents() {
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+    /**
+     * The common structure of the runtime stage events.
+     */
+    @Category(FlightRecorderEvents.CATEGORY)
+    @Enabled(false)
+    @StackTrace(false)
+    abstract static class StageEvent extends Event implements FlightRecorderEvents.StageEvent {
+
+        @Label("First Line")
+        long firstLine;
+
+        @Label("Last Line")
+        long lastLine;
+
+        @Label("Event Count")
+        int eventCount;
+
+        @Override
+        public void complete(long firstLine, long lastLine, int eventCount) {
+
+            end();
+
+            if (shouldCommit()) {
+
+                this.firstLine = firstLine;
+                this.lastLine = lastLine;
+                this.eventCount = eventCount;
+                commit();
+            }
+        }
+    }
+
+    @Name("io.novaordis.events.cli.Parse")
+    @Label("Parse")
+    @Description("Parsing of a line, or decoding of a batch of binary records, into events")
+    @Threshold("1 ms")
+    static final class Parse extends StageEvent {
+    }
+
+    @Name("io.novaordis.events.cli.Filter")
+    @Label("Query Filter")
+    @Description("Application of the query to a batch of events")
+    @Threshold("1 ms")
+    static final class Filter extends StageEvent {
+    }
+
+    @Name("io.novaordis.events.cli.Procedure")
+    @Label("Procedure Invocation")
+    @Description("Procedure invocation for a batch of events")
+    @Threshold("1 ms")
+    static final class Procedure extends StageEvent {
+    }
+
+    @Name("io.novaordis.events.cli.ParserClose")
+    @Label("Parser Close")
+    @Description("Parser close, which flushes the events accumulated by the parser")
+    @Threshold("0 ms")
+    static final class ParserClose extends StageEvent {
+    }
+
+    @Name("io.novaordis.events.cli.InputStall")
+    @Label("Input Stall")
+    @Description("The event loop waited for input")
+    @Threshold("10 ms")
+    static final class InputStall extends StageEvent {
+    }
+
+    private static final class RecordingStateListener implements FlightRecorderListener {
+
+        @Override
+        public void recorderInitialized(FlightRecorder recorder) {
+
+            update(recorder);
+        }
+
+        @Override
+        public void recordingStateChanged(Recording r) {
+
+            if (FlightRecorder.isInitialized()) {
+
+                update(FlightRecorder.getFlightRecorder());
+            }
+        }
+
+        private static void update(FlightRecorder recorder) {
+
+            boolean running = false;
+
+            for(Recording r: recorder.getRecordings()) {
+
+                if (r.getState() == RecordingState.RUNNING) {
+
+                    running = true;
+                    break;
+                }
+            }
+
+            FlightRecorderEvents.setRecording(running);
+        }
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import io.novaordis.utilities.appspec.ApplicationSpecificBehavior;
+
+/**
+ * The threads input files are read on, in --per-file-threads mode.
+ *
+ * This is the JDK 21 version, packaged in META-INF/versions/21 of the multi-release jar: by default, each file is read
+ * and parsed on its own virtual thread, and a thread blocked on I/O does not hold a carrier thread. Concurrent parsing
+ * is capped by the caller, with a semaphore. If the application supplies the executors, or --max-threads limits the
+ * worker threads, the files are read on a pool of platform threads, as on Java 8. Must keep the same signatures as the
+ * Java 8 version in src/main/java.
+ *
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+final class FileThreads {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    static final int PLATFORM_THREADS_PER_PARSE_PERMIT = 4;
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    static final String NAME = "file reader";
+
+    /**
+     * @param asb may be null.
+     *
+     * @return true if each file gets its own virtual thread: unless the application supplies the executors, or the
+     * worker threads are limited with --max-threads.
+     */
+    static boolean isVirtual(ApplicationSpecificBehavior asb, RuntimeOptions options) {
+
+        return !RuntimeExecutors.isSupplied(asb) && options.getMaxThreads() == Integer.MAX_VALUE;
+    }
+
+    /**
+     * @param asb may be null.
+     */
+    static ExecutorService newExecutor(ApplicationSpecificBehavior asb, RuntimeOptions options) {
+
+        if (!isVirtual(asb, options)) {
+
+            return RuntimeExecutors.newExecutor(asb, NAME, options.getFileReaderThreads());
+        }
+
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("events-cli " + NAME + " ", 0).factory());
+    }
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    private FileThreads() {
+    }
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
@@ -0,0 +1,342 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.novaordis.events.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import io.novaordis.events.api.event.GenericEvent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class AutoTunerTest {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    private static final long SECOND = 1000L * 1000L * 1000L;
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    // Tests -----------------------------------------------------------------------------------------------------------
+
+    @Test
+    public void register_ThreadsAreReducedToFitTheCap() throws Exception {
+
+        AutoTuner t = new AutoTuner(4);
+
+        t.register(new Stage("a", 3, -1));
+
+        Stage b = new Stage("b", 3, -1);
+        t.register(b);
+
+        assertEquals(1, b.getThreads());
+        assertEquals(4, t.getThreads());
+    }
+
+    @Test
+    public void tune_SaturatedStageGetsAThread() throws Exception {
+
+        AutoTuner t = new AutoTuner(4);
+
+        Stage s = new Stage("a", 1, -1);
+        t.register(s);
+
+        s.occupancy = 3.0;
+        s.units += 1000;
+        t.tune(System.nanoTime() + SECOND);
+
+        assertEquals(2, s.getThreads());
+        assertEquals(1L, t.getAdjustments());
+    }
+
+    @Test
+    public void tune_AtTheCap_ThreadIsTakenFromAnIdleStage() throws Exception {
+
+        AutoTuner t = new AutoTuner(4);
+
+        Stage busy = new Stage("busy", 2, -1);
+        Stage idle = new Stage("idle", 2, -1);
+        t.register(busy);
+        t.register(idle);
+
+        busy.occupancy = 2.0;
+        idle.occupancy = 0.1;
+        t.tune(System.nanoTime() + SECOND);
+
+        assertEquals(3, busy.getThreads());
+        assertEquals(1, idle.getThreads());
+        assertEquals(4, t.getThreads());
+    }
+
+    @Test
+    public void tune_AtTheCap_NoIdleStage_BatchSizeIsIncreased() throws Exception {
+
+        AutoTuner t = new AutoTuner(2);
+
+        Stage s = new Stage("a", 2, 512);
+        t.register(s);
+
+        s.occupancy = 2.0;
+        t.tune(System.nanoTime() + SECOND);
+
+        assertEquals(2, s.getThreads());
+        assertEquals(1024, s.getBatchSize());
+    }
+
+    @Test
+    public void tune_ThreadThatDoesNotHelpIsGivenBack() throws Exception {
+
+        AutoTuner t = new AutoTuner(8);
+
+        Stage s = new Stage("a", 2, -1);
+        t.register(s);
+
+        long now = System.nanoTime();
+
+        s.occupancy = 2.0;
+        s.units += 1000;
+        t.tune(now += SECOND);
+
+        assertEquals(3, s.getThreads());
+
+        //
+        // still saturated, same throughput
+        //
+
+        s.units += 1000;
+        t.tune(now += SECOND);
+
+        assertEquals(2, s.getThreads());
+
+        //
+        // held: the stage is not grown again for a while
+        //
+
+        s.units += 1000;
+        t.tune(now += SECOND);
+
+        assertEquals(2, s.getThreads());
+    }
+
+    @Test
+    public void tune_IdleStageGivesUpThreadsThenBatchSize() throws Exception {
+
+        AutoTuner t = new AutoTuner(8);
+
+        Stage s = new Stage("a", 2, 256);
+        t.register(s);
+
+        long now = System.nanoTime();
+
+        s.occupancy = 0.0;
+
+        for(int i = 0; i < AutoTuner.IDLE_SAMPLES; i ++) {
+
+            t.tune(now += SECOND);
+        }
+
+        assertEquals(1, s.getThreads());
+
+        for(int i = 0; i < AutoTuner.IDLE_SAMPLES; i ++) {
+
+            t.tune(now += SECOND);
+        }
+
+        assertEquals(1, s.getThreads());
+        assertEquals(128, s.getBatchSize());
+    }
+
+    @Test
+    public void tune_FormattingStageGrowsPastTheBatchesItStartedWith() throws Exception {
+
+        //
+        // formatting is the bottleneck: each event takes 2 ms to format. The stage starts with one thread, so the
+        // batches in flight must follow the thread count for the stage to stay saturated as it grows
+        //
+
+        ParallelFormattingOutput o = new ParallelFormattingOutput(e -> {
+
+            try {
+
+                Thread.sleep(2L);
+            }
+            catch(InterruptedException ie) {
+
+                Thread.currentThread().interrupt();
+            }
+
+            return "event\n";
+
+        }, new ByteArrayOutputStream(), 1, 1);
+
+        AutoTuner t = new AutoTuner(8);
+        t.register(o);
+
+        AtomicBoolean stop = new AtomicBoolean(false);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread eventLoop = new Thread(() -> {
+
+            try {
+
+                while(!stop.get()) {
+
+                    o.process(new GenericEvent());
+                }
+            }
+            catch(Throwable e) {
+
+                failure.set(e);
+            }
+        });
+
+        eventLoop.start();
+
+        try {
+
+            for(int i = 0; i < 40 && o.getThreads() < 8; i ++) {
+
+                Thread.sleep(200L);
+                t.tune(System.nanoTime());
+            }
+
+            assertTrue(o.getThreads() > 5);
+        }
+        finally {
+
+            stop.set(true);
+            eventLoop.join();
+            o.close();
+        }
+
+        assertNull(failure.get());
+    }
+
+    @Test
+    public void report() throws Exception {
+
+        AutoTuner t = new AutoTuner(4);
+
+        t.register(new Stage("formatting", 3, 1024));
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        t.report(new PrintStream(baos, true));
+
+        String report = baos.toString();
+
+        assertTrue(report.contains("formatting: 3 thread(s), batch size 1024"));
+        assertTrue(report.contains("pin with: --threads 3"));
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+    private static class Stage implements TunableStage {
+
+        private final String name;
+        private int threads;
+        private int batchSize;
+
+        private double occupancy;
+        private long units;
+
+        Stage(String name, int threads, int batchSize) {
+
+            this.name = name;
+            this.threads = threads;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public String getStageName() {
+
+            return name;
+        }
+
+        @Override
+        public int getThreads() {
+
+            return threads;
+        }
+
+        @Override
+        public boolean setThreads(int threads) {
+
+            this.threads = threads;
+            return true;
+        }
+
+        @Override
+        public int getBatchSize() {
+
+            return batchSize;
+        }
+
+        @Override
+        public void setBatchSize(int batchSize) {
+
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public double getOccupancy() {
+
+            return occupancy;
+        }
+
+        @Override
+        public long getCompletedUnits() {
+
+            return units;
+        }
+
+        @Override
+        public String getUnits() {
+
+            return "units";
+        }
+
+        @Override
+        public String getPinningOptions() {
+
+            return "--threads " + threads;
+        }
+    }
+
+}
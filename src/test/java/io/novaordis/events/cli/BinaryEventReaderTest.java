@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import io.novaordis.events.api.event.BooleanProperty;
+import io.novaordis.events.api.event.DoubleProperty;
+import io.novaordis.events.api.event.Event;
+import io.novaordis.events.api.event.FloatProperty;
+import io.novaordis.events.api.event.GenericEvent;
+import io.novaordis.events.api.event.GenericTimedEvent;
+import io.novaordis.events.api.event.IntegerProperty;
+import io.novaordis.events.api.event.LongProperty;
+import io.novaordis.events.api.event.MapProperty;
+import io.novaordis.events.api.event.StringProperty;
+import io.novaordis.events.api.event.TimedEvent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class BinaryEventReaderTest {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    // Tests -----------------------------------------------------------------------------------------------------------
+
+    @Test
+    public void isBinaryEventStream() throws Exception {
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+
+        new BinaryEventWriter(baos);
+
+        BufferedInputStream is = new BufferedInputStream(new ByteArrayInputStream(baos.toByteArray()));
+
+        assertTrue(BinaryEventReader.isBinaryEventStream(is));
+
+        //
+        // nothing was consumed
+        //
+
+        assertEquals(0, is.read());
+
+        is = new BufferedInputStream(new ByteArrayInputStream("mock-event-1\n".getBytes()));
+
+        assertFalse(BinaryEventReader.isBinaryEventStream(is));
+        assertEquals('m', is.read());
+
+        is = new BufferedInputStream(new ByteArrayInputStream(new byte[0]));
+
+        assertFalse(BinaryEventReader.isBinaryEventStream(is));
+    }
+
+    @Test
+    public void roundTrip() throws Exception {
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+
+        BinaryEventWriter w = new BinaryEventWriter(baos);
+
+        w.write(new GenericEvent(Arrays.asList(
+                new StringProperty("s", "something"),
+                new IntegerProperty("i", -7),
+                new LongProperty("l", Long.MAX_VALUE),
+                new DoubleProperty("d", 1.5),
+                new BooleanProperty("b", true))));
+
+        //
+        // the second event reuses the dictionary entries
+        //
+
+        w.write(new GenericEvent(Arrays.asList(new StringProperty("s", "else"), new IntegerProperty("i", 8))));
+
+        assertEquals(2, w.getEventsWritten());
+
+        BinaryEventReader r = new BinaryEventReader(new ByteArrayInputStream(baos.toByteArray()));
+
+        Event e = r.read();
+
+        assertEquals("something", e.getStringProperty("s").getString());
+        assertEquals(-7, e.getProperty("i").getValue());
+        assertEquals(Long.MAX_VALUE, e.getProperty("l").getValue());
+        assertEquals(1.5, e.getProperty("d").getValue());
+        assertEquals(true, e.getProperty("b").getValue());
+
+        Event e2 = r.read();
+
+        assertEquals("else", e2.getStringProperty("s").getString());
+        assertEquals(8, e2.getProperty("i").getValue());
+        assertEquals(2, e2.getProperties().size());
+
+        assertNull(r.read());
+        assertEquals(2, r.getEventsRead());
+    }
+
+    @Test
+    public void truncatedStream() throws Exception {
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+
+        new BinaryEventWriter(baos).write(new GenericEvent(Arrays.asList(new StringProperty("s", "something"))));
+
+        byte[] content = baos.toByteArray();
+
+        BinaryEventReader r = new BinaryEventReader(
+                new ByteArrayInputStream(Arrays.copyOf(content, content.length - 1)));
+
+        try {
+
+            r.read();
+            fail("should have thrown exception");
+        }
+        catch(IOException e) {
+
+            assertTrue(e.getMessage().contains("truncated"));
+        }
+    }
+
+    @Test
+    public void ready_PartialRecord() throws Exception {
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+
+        BinaryEventWriter w = new BinaryEventWriter(baos);
+
+        int header = baos.size();
+
+        w.write(new GenericEvent(Arrays.asList(new StringProperty("s", "something"))));
+
+        byte[] content = baos.toByteArray();
+
+        //
+        // the definition and the event record are complete, the event can be read without blocking
+        //
+
+        BinaryEventReader r = new BinaryEventReader(new BufferedInputStream(new ByteArrayInputStream(content)));
+
+        assertTrue(r.ready());
+        assertEquals("something", r.read().getStringProperty("s").getString());
+        assertFalse(r.ready());
+
+        //
+        // the stream ends with a partial event record, read() would block, on a live input
+        //
+
+        r = new BinaryEventReader(
+                new BufferedInputStream(new ByteArrayInputStream(Arrays.copyOf(content, content.length - 1))));
+
+        assertFalse(r.ready());
+
+        //
+        // the stream ends with a partial definition record
+        //
+
+        r = new BinaryEventReader(
+                new BufferedInputStream(new ByteArrayInputStream(Arrays.copyOf(content, header + 2))));
+
+        assertFalse(r.ready());
+    }
+
+    @Test
+    public void constructor_NotABinaryEventStream() throws Exception {
+
+        try {
+
+            new BinaryEventReader(new ByteArrayInputStream("something".getBytes()));
+            fail("should have thrown exception");
+        }
+        catch(IOException e) {
+
+            assertTrue(e.getMessage().contains("not a binary event stream"));
+        }
+    }
+
+    @Test
+    public void roundTrip_EventKindAndTimestamp() throws Exception {
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+
+        BinaryEventWriter w = new BinaryEventWriter(baos);
+
+        MockTimedEvent timed = new MockTimedEvent(1000L);
+        timed.setProperty(new FloatProperty("f", 2.5f));
+        w.write(timed);
+
+        GenericTimedEvent timedWithoutTime = new GenericTimedEvent();
+        w.write(timedWithoutTime);
+
+        w.write(new GenericTimedEvent(-5L));
+
+        BinaryEventReader r = new BinaryEventReader(new ByteArrayInputStream(baos.toByteArray()));
+
+        Event e = r.read();
+
+        assertTrue(e instanceof MockTimedEvent);
+        assertEquals(1000L, ((TimedEvent)e).getTime().longValue());
+        assertEquals(2.5f, e.getProperty("f").getValue());
+
+        e = r.read();
+
+        assertTrue(e instanceof GenericTimedEvent);
+        assertNull(((TimedEvent)e).getTime());
+
+        e = r.read();
+
+        assertTrue(e instanceof GenericTimedEvent);
+        assertEquals(-5L, ((TimedEvent)e).getTime().longValue());
+
+        assertNull(r.read());
+    }
+
+    @Test
+    public void write_PropertyTypeThatCannotBeEncoded() throws Exception {
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+
+        BinaryEventWriter w = new BinaryEventWriter(baos);
+
+        int header = baos.size();
+
+        MapProperty map = new MapProperty("m", Collections.singletonMap("a", "b"));
+
+        try {
+
+            w.write(new GenericEvent(Arrays.asList(new StringProperty("s", "something"), map)));
+            fail("should have thrown exception");
+        }
+        catch(IOException e) {
+
+            assertTrue(e.getMessage().contains("\"m\""));
+        }
+
+        //
+        // nothing was written
+        //
+
+        assertEquals(header, baos.size());
+        assertEquals(0, w.getEventsWritten());
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+    public static class MockTimedEvent extends GenericTimedEvent {
+
+        public MockTimedEvent(Long time) {
+
+            super(time);
+        }
+    }
+
+}
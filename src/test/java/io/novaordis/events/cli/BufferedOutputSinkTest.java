@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class BufferedOutputSinkTest {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    // Tests -----------------------------------------------------------------------------------------------------------
+
+    @Test
+    public void synchronous_ContentIsBufferedUntilDrained() throws Exception {
+
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+
+        BufferedOutputSink sink = new BufferedOutputSink(target, 16, false, false);
+
+        sink.write("abc".getBytes());
+        sink.write('d');
+
+        //
+        // a flush() coming from the procedure is absorbed
+        //
+
+        sink.flush();
+
+        assertEquals(0, target.size());
+
+        sink.drain();
+
+        assertEquals("abcd", new String(target.toByteArray()));
+        assertEquals(4, sink.getBytesWritten());
+
+        sink.close();
+    }
+
+    @Test
+    public void synchronous_FullBufferIsWritten() throws Exception {
+
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+
+        BufferedOutputSink sink = new BufferedOutputSink(target, 4, false, false);
+
+        sink.write("ab".getBytes());
+
+        assertEquals(0, target.size());
+
+        sink.write("cdef".getBytes());
+
+        assertEquals("abcd", new String(target.toByteArray()));
+
+        //
+        // large write, ordering must be preserved
+        //
+
+        sink.write("0123456789".getBytes());
+
+        sink.close();
+
+        assertEquals("abcdef0123456789", new String(target.toByteArray()));
+    }
+
+    @Test
+    public void asynchronous() throws Exception {
+
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+
+        BufferedOutputSink sink = new BufferedOutputSink(target, 8, true, false);
+
+        assertTrue(sink.isWriterAlive());
+
+        StringBuilder expected = new StringBuilder();
+
+        for(int i = 0; i < 1000; i ++) {
+
+            String s = "line " + i + "\n";
+            expected.append(s);
+            sink.write(s.getBytes());
+        }
+
+        sink.drain();
+
+        assertEquals(expected.toString(), new String(target.toByteArray()));
+
+        sink.write("last".getBytes());
+
+        sink.close();
+
+        assertFalse(sink.isWriterAlive());
+
+        expected.append("last");
+        assertEquals(expected.toString(), new String(target.toByteArray()));
+    }
+
+    @Test
+    public void asynchronous_InflightBudget() throws Exception {
+
+        InflightBudget budget = new InflightBudget(InflightBudget.UNLIMITED, InflightBudget.UNLIMITED);
+
+        BufferedOutputSink sink = new BufferedOutputSink(new ByteArrayOutputStream(), 8, true, false);
+
+        sink.setInflightBudget(budget);
+
+        for(int i = 0; i < 100; i ++) {
+
+            sink.write("0123456789".getBytes());
+        }
+
+        sink.drain();
+
+        //
+        // the buffers were accounted for while queued, and released once written
+        //
+
+        assertEquals(0L, budget.getBytes());
+
+        sink.close();
+    }
+
+    @Test
+    public void asynchronous_WriterFailureIsReported() throws Exception {
+
+        OutputStream target = new OutputStream() {
+
+            @Override
+            public void write(int b) throws IOException {
+
+                throw new IOException("SYNTHETIC");
+            }
+        };
+
+        BufferedOutputSink sink = new BufferedOutputSink(target, 8, true, false);
+
+        sink.write("something".getBytes());
+
+        try {
+
+            sink.drain();
+            fail("should have thrown exception");
+        }
+        catch(IOException e) {
+
+            assertTrue(e.getMessage().contains("SYNTHETIC"));
+        }
+
+        try {
+
+            sink.close();
+            fail("should have thrown exception");
+        }
+        catch(IOException e) {
+
+            assertTrue(e.getMessage().contains("SYNTHETIC"));
+        }
+
+        assertFalse(sink.isWriterAlive());
+    }
+
+    @Test
+    public void close_TargetIsNotClosedUnlessRequested() throws Exception {
+
+        final boolean[] closed = new boolean[1];
+
+        OutputStream target = new ByteArrayOutputStream() {
+
+            @Override
+            public void close() throws IOException {
+
+                closed[0] = true;
+            }
+        };
+
+        BufferedOutputSink sink = new BufferedOutputSink(target, 8, false, false);
+        sink.close();
+        assertFalse(closed[0]);
+
+        sink = new BufferedOutputSink(target, 8, false, true);
+        sink.close();
+        assertTrue(closed[0]);
+
+        //
+        // idempotent
+        //
+
+        sink.close();
+
+        try {
+
+            sink.write(1);
+            fail("should have thrown exception");
+        }
+        catch(IOException e) {
+
+            assertTrue(e.getMessage().contains("closed"));
+        }
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
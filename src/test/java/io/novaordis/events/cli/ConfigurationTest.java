@@ -19,7 +19,9 @@ package io.novaordis.events.cli;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
 import java.util.Collections;
 import java.util.List;
 
@@ -614,7 +616,14 @@ public abstract class ConfigurationTest {
         Output output = (Output) c.getProcedure();
         assertNotNull(output);
 
-        assertEquals(System.out, output.getOutputStream());
+        //
+        // the default output writes into a runtime-managed buffered sink
+        //
+
+        BufferedOutputSink sink = (BufferedOutputSink)output.getOutputStream();
+        assertEquals(sink, c.getOutputSink());
+        assertEquals(System.out, sink.getTarget());
+        assertFalse(sink.isAsync());
 
         OutputFormat format = output.getFormat();
         assertNotNull(format);
@@ -811,6 +820,7 @@ public abstract class ConfigurationTest {
 
         assertEquals(1, ra.size());
         assertEquals("C", ra.get(0));
+        assertEquals(Collections.singletonList("C"), c.getApplicationSpecificArguments());
 
         //
         // the rest of the arguments are interpreted as query keywords
@@ -878,6 +888,176 @@ public abstract class ConfigurationTest {
         assertFalse(q.selects(e4));
     }
 
+    // runtime options -------------------------------------------------------------------------------------------------
+
+    @Test
+    public void constructor_RuntimeOptions_AsyncOutput() throws Exception {
+
+        File f = new File(System.getProperty("basedir"), "src/test/resources/data/generic-file.txt");
+
+        assertTrue(f.isFile());
+
+        String[] args = {
+
+                RuntimeOptions.ASYNC_OUTPUT,
+                RuntimeOptions.OUTPUT_BUFFER_SIZE,
+                "1k",
+                f.getPath(),
+        };
+
+        Configuration c = getConfigurationToTest(args);
+
+        RuntimeOptions o = c.getRuntimeOptions();
+        assertTrue(o.isAsyncOutput());
+        assertEquals(1024, o.getOutputBufferSize());
+
+        //
+        // the runtime options must not be interpreted as query arguments
+        //
+
+        assertNull(c.getQuery());
+
+        BufferedOutputSink sink = c.getOutputSink();
+        assertTrue(sink.isAsync());
+        assertEquals(1024, sink.getBufferSize());
+
+        Output output = (Output)c.getProcedure();
+        assertEquals(sink, output.getOutputStream());
+
+        sink.close();
+        c.getInputStream().close();
+    }
+
+    @Test
+    public void constructor_RuntimeOptions_FormatThreads() throws Exception {
+
+        File f = new File(System.getProperty("basedir"), "src/test/resources/data/generic-file.txt");
+
+        assertTrue(f.isFile());
+
+        String[] args = {
+
+                RuntimeOptions.FORMAT_THREADS,
+                "3",
+                RuntimeOptions.FORMAT_BATCH_SIZE,
+                "10",
+                f.getPath(),
+        };
+
+        Configuration c = getConfigurationToTest(args);
+
+        ParallelFormattingOutput p = (ParallelFormattingOutput)c.getProcedure();
+
+        assertEquals(3, p.getThreads());
+        assertEquals(10, p.getBatchSize());
+        assertNotNull(p.getFormat());
+        assertEquals(c.getOutputSink(), p.getTarget());
+
+        p.close();
+        c.getInputStream().close();
+    }
+
+    @Test
+    public void constructor_RuntimeOptions_Partitions() throws Exception {
+
+        File f = new File(System.getProperty("basedir"), "src/test/resources/data/generic-file.txt");
+
+        assertTrue(f.isFile());
+
+        File dir = Files.createTempDirectory("configuration-test").toFile();
+
+        String[] args = {
+
+                RuntimeOptions.PARTITIONS,
+                "2",
+                RuntimeOptions.PARTITION_PREFIX,
+                new File(dir, "test").getPath(),
+                f.getPath(),
+        };
+
+        Configuration c = getConfigurationToTest(args);
+
+        PartitionedOutput p = (PartitionedOutput)c.getProcedure();
+
+        assertEquals(2, p.getPartitionCount());
+        assertNull(p.getPropertyName());
+
+        //
+        // partitions write into their own files, not into the output sink
+        //
+
+        assertNull(c.getOutputSink());
+
+        p.close();
+        c.getInputStream().close();
+
+        for(File pf: p.getFiles()) {
+
+            assertTrue(pf.delete());
+        }
+
+        assertTrue(dir.delete());
+    }
+
+    @Test
+    public void constructor_RuntimeOptions_ExplicitProcedure_NoOutputSink() throws Exception {
+
+        File f = new File(System.getProperty("basedir"), "src/test/resources/data/generic-file.txt");
+
+        assertTrue(f.isFile());
+
+        String[] args = {
+
+                "count",
+                f.getPath(),
+        };
+
+        Configuration c = getConfigurationToTest(args);
+
+        assertTrue(c.getProcedure() instanceof Count);
+        assertNull(c.getOutputSink());
+        assertFalse(c.getRuntimeOptions().isAsyncOutput());
+
+        c.getInputStream().close();
+    }
+
+    // close() -----------------------------------------------------------------------------------------------------------
+
+    @Test
+    public void close_ReleasesTheOutputAndTheInput() throws Exception {
+
+        File f = new File(System.getProperty("basedir"), "src/test/resources/data/generic-file.txt");
+
+        assertTrue(f.isFile());
+
+        int writers = countThreads("events-cli output writer");
+
+        Configuration c = getConfigurationToTest(new String[] { RuntimeOptions.ASYNC_OUTPUT, f.getPath() });
+
+        assertEquals(writers + 1, countThreads("events-cli output writer"));
+
+        c.close();
+
+        assertEquals(writers, countThreads("events-cli output writer"));
+
+        try {
+
+            //noinspection ResultOfMethodCallIgnored
+            c.getInputStream().read();
+            fail("should have thrown exception");
+        }
+        catch(IOException e) {
+
+            // expected, the input file was closed
+        }
+
+        //
+        // idempotent
+        //
+
+        c.close();
+    }
+
     // setApplicationSpecificConfiguration() ---------------------------------------------------------------------------
 
     @Test
@@ -912,6 +1092,21 @@ public abstract class ConfigurationTest {
         return getConfigurationToTest(args, null);
     }
 
+    private static int countThreads(String name) {
+
+        int count = 0;
+
+        for(Thread t: Thread.getAllStackTraces().keySet()) {
+
+            if (name.equals(t.getName()) && t.isAlive()) {
+
+                count ++;
+            }
+        }
+
+        return count;
+    }
+
     // Inner classes ---------------------------------------------------------------------------------------------------
 
 }
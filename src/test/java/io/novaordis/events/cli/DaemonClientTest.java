@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.novaordis.events.cli;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class DaemonClientTest {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    // Tests -----------------------------------------------------------------------------------------------------------
+
+    @Test
+    public void toAbsolutePaths() throws Exception {
+
+        File file = Files.createTempFile(new File(".").toPath(), "events-cli-test", ".log").toFile();
+
+        try {
+
+            String[] result = DaemonClient.toAbsolutePaths(new String[] {
+                    "count", RuntimeOptions.REJECTS, "rejects.txt", "a:b", file.getName() });
+
+            assertEquals(5, result.length);
+            assertEquals("count", result[0]);
+            assertEquals(RuntimeOptions.REJECTS, result[1]);
+            assertEquals(new File("rejects.txt").getAbsolutePath(), result[2]);
+            assertEquals("a:b", result[3]);
+            assertEquals(new File(file.getName()).getAbsolutePath(), result[4]);
+        }
+        finally {
+
+            Files.delete(file.toPath());
+        }
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
@@ -0,0 +1,510 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.novaordis.events.cli;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.AclFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.novaordis.events.api.event.Event;
+import io.novaordis.events.processing.output.Output;
+import io.novaordis.events.query.Query;
+import io.novaordis.utilities.UserErrorException;
+import io.novaordis.utilities.appspec.ApplicationSpecificBehavior;
+import io.novaordis.utilities.parsing.ParsingException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class EventParserDaemonTest {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private File directory;
+    private File daemonFile;
+    private EventParserDaemon daemon;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    @Before
+    public void setUp() throws Exception {
+
+        directory = Files.createTempDirectory("events-cli-daemon-test").toFile();
+        daemonFile = new File(directory, "test.daemon");
+        daemon = new EventParserDaemon("test", () -> new ApplicationSpecificBehavior(new MockParser()), daemonFile, 2);
+        daemon.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+
+        daemon.close();
+
+        assertFalse(daemonFile.exists());
+        assertTrue(directory.delete());
+    }
+
+    // Tests -----------------------------------------------------------------------------------------------------------
+
+    @Test
+    public void daemonFile() throws Exception {
+
+        String[] content = new String(Files.readAllBytes(daemonFile.toPath())).trim().split(" ");
+
+        assertEquals(2, content.length);
+        assertEquals(daemon.getPort(), Integer.parseInt(content[0]));
+
+        Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(daemonFile.toPath());
+        assertTrue(permissions.contains(PosixFilePermission.OWNER_READ));
+        assertFalse(permissions.contains(PosixFilePermission.GROUP_READ));
+        assertFalse(permissions.contains(PosixFilePermission.OTHERS_READ));
+    }
+
+    @Test
+    public void restrictToOwner_NoAccessListSupport() throws Exception {
+
+        File f = new File(directory, "token");
+        assertTrue(f.createNewFile());
+
+        try {
+
+            if (Files.getFileAttributeView(f.toPath(), AclFileAttributeView.class) != null) {
+
+                //
+                // the file system supports access lists, the refusal cannot be exercised here
+                //
+
+                EventParserDaemon.restrictToOwner(f.toPath());
+                assertEquals(1, Files.getFileAttributeView(f.toPath(), AclFileAttributeView.class).getAcl().size());
+                return;
+            }
+
+            try {
+
+                EventParserDaemon.restrictToOwner(f.toPath());
+                fail("should have thrown exception");
+            }
+            catch(IOException e) {
+
+                String msg = e.getMessage();
+                assertTrue(msg, msg.contains("cannot be protected"));
+            }
+        }
+        finally {
+
+            assertTrue(f.delete());
+        }
+    }
+
+    @Test
+    public void request() throws Exception {
+
+        String input = "mock-event-1\nmock-event-2\nmock-event-3\n";
+
+        //
+        // several requests, the daemon and its parsers are reused
+        //
+
+        for(int i = 0; i < 3; i ++) {
+
+            ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+            ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+
+            int exitCode = DaemonClient.run(
+                    daemonFile, new String[] { RuntimeOptions.ASYNC_OUTPUT },
+                    new ByteArrayInputStream(input.getBytes()), stdout, stderr);
+
+            assertEquals(0, exitCode);
+            assertEquals(0, stderr.size());
+
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            Output reference = new Output(expected, null, 0, new ArrayList<>());
+            MockParser mp = new MockParser();
+
+            for(String line: input.split("\n")) {
+
+                reference.process(mp.parse(line, null));
+            }
+
+            assertEquals(new String(expected.toByteArray()), new String(stdout.toByteArray()));
+        }
+
+        assertEquals(3L, daemon.getRequestCount());
+    }
+
+    @Test
+    public void request_SharedScan() throws Exception {
+
+        File input = new File(directory, "input.log");
+        Files.write(input.toPath(), "mock-event-1\nmock-event-2\nmock-event-3\n".getBytes());
+
+        try {
+
+            ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+            ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+
+            int exitCode = DaemonClient.run(
+                    daemonFile, new String[] { RuntimeOptions.SHARED_SCAN, input.getAbsolutePath() },
+                    new ByteArrayInputStream(new byte[0]), stdout, stderr);
+
+            assertEquals(0, exitCode);
+            assertEquals(0, stderr.size());
+
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            Output reference = new Output(expected, null, 0, new ArrayList<>());
+            MockParser mp = new MockParser();
+
+            for(String line: Files.readAllLines(input.toPath())) {
+
+                reference.process(mp.parse(line, null));
+            }
+
+            assertEquals(new String(expected.toByteArray()), new String(stdout.toByteArray()));
+        }
+        finally {
+
+            assertTrue(input.delete());
+        }
+    }
+
+    @Test
+    public void request_SharedScan_ParserArguments() throws Exception {
+
+        File input = new File(directory, "input.log");
+        Files.write(input.toPath(), "mock-event-1\nmock-event-2\nmock-event-3\n".getBytes());
+
+        File prefixDaemonFile = new File(directory, "prefix.daemon");
+
+        EventParserDaemon prefixDaemon = new EventParserDaemon("prefix", () -> {
+
+            PrefixParser p = new PrefixParser();
+            return new ApplicationSpecificBehavior(p, new PrefixArgumentProcessor(p));
+
+        }, prefixDaemonFile, 4);
+
+        prefixDaemon.start();
+
+        try {
+
+            //
+            // concurrent requests over the same file, with different parser arguments
+            //
+
+            List<String> prefixes = Arrays.asList("A:", "B:", "A:", "C:");
+            List<ByteArrayOutputStream> outputs = new ArrayList<>();
+            List<Integer> exitCodes = Collections.synchronizedList(new ArrayList<>());
+            List<Thread> threads = new ArrayList<>();
+
+            for(String prefix: prefixes) {
+
+                ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+                outputs.add(stdout);
+
+                threads.add(new Thread(() -> {
+
+                    try {
+
+                        exitCodes.add(DaemonClient.run(
+                                prefixDaemonFile,
+                                new String[] {
+                                        RuntimeOptions.SHARED_SCAN, PrefixArgumentProcessor.PREFIX, prefix,
+                                        input.getAbsolutePath() },
+                                new ByteArrayInputStream(new byte[0]), stdout, new ByteArrayOutputStream()));
+                    }
+                    catch(IOException e) {
+
+                        exitCodes.add(-1);
+                    }
+                }));
+            }
+
+            for(Thread t: threads) {
+
+                t.start();
+            }
+
+            for(Thread t: threads) {
+
+                t.join();
+            }
+
+            assertEquals(Arrays.asList(0, 0, 0, 0), exitCodes);
+
+            for(int i = 0; i < prefixes.size(); i ++) {
+
+                ByteArrayOutputStream expected = new ByteArrayOutputStream();
+                Output reference = new Output(expected, null, 0, new ArrayList<>());
+                PrefixParser pp = new PrefixParser();
+                pp.prefix = prefixes.get(i);
+
+                for(String line: Files.readAllLines(input.toPath())) {
+
+                    reference.process(pp.parse(line, null));
+                }
+
+                assertEquals(new String(expected.toByteArray()), new String(outputs.get(i).toByteArray()));
+            }
+        }
+        finally {
+
+            prefixDaemon.close();
+            assertTrue(input.delete());
+        }
+    }
+
+    @Test
+    public void request_UserError() throws Exception {
+
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+
+        int exitCode = DaemonClient.run(
+                daemonFile, new String[] { RuntimeOptions.FORMAT_THREADS }, new ByteArrayInputStream(new byte[0]),
+                stdout, stderr);
+
+        assertEquals(DaemonProtocol.EXIT_ERROR, exitCode);
+        assertTrue(new String(stderr.toByteArray()).contains("missing value for " + RuntimeOptions.FORMAT_THREADS));
+    }
+
+    @Test
+    public void request_TheFailuresAreReportedToTheRequestStderr() throws Exception {
+
+        File failingDaemonFile = new File(directory, "failing.daemon");
+
+        EventParserDaemon failing = new EventParserDaemon("failing", () -> {
+
+            MockParser p = new MockParser();
+            p.setFailWhenParsing(true);
+            return new ApplicationSpecificBehavior(p);
+
+        }, failingDaemonFile, 1);
+
+        failing.start();
+
+        try {
+
+            ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+
+            int exitCode = DaemonClient.run(
+                    failingDaemonFile, new String[] { RuntimeOptions.ASYNC_OUTPUT },
+                    new ByteArrayInputStream("mock-event-1\nmock-event-2\n".getBytes()),
+                    new ByteArrayOutputStream(), stderr);
+
+            assertEquals(0, exitCode);
+
+            String s = new String(stderr.toByteArray());
+            assertTrue(s, s.contains("[error]: SYNTHETIC PARSING EXCEPTION"));
+            assertTrue(s, s.contains("2 failure(s) in 1 categories"));
+        }
+        finally {
+
+            failing.close();
+        }
+    }
+
+    @Test
+    public void resolveDefaults() throws Exception {
+
+        String[] args = EventParserDaemon.resolveDefaults(
+                new String[] { RuntimeOptions.PARTITIONS, "2" }, "/client/directory");
+
+        assertEquals(4, args.length);
+        assertEquals(RuntimeOptions.PARTITION_PREFIX, args[0]);
+        assertEquals(
+                new File("/client/directory", RuntimeOptions.DEFAULT_PARTITION_PREFIX).getPath(), args[1]);
+        assertEquals(RuntimeOptions.PARTITIONS, args[2]);
+        assertEquals("2", args[3]);
+
+        //
+        // an explicit prefix was already made absolute by the client
+        //
+
+        String[] explicit = new String[] { RuntimeOptions.PARTITION_PREFIX, "/somewhere/else" };
+        assertTrue(Arrays.equals(explicit, EventParserDaemon.resolveDefaults(explicit, "/client/directory")));
+
+        //
+        // no arguments means help
+        //
+
+        assertEquals(0, EventParserDaemon.resolveDefaults(new String[0], "/client/directory").length);
+    }
+
+    @Test
+    public void request_InvalidToken() throws Exception {
+
+        File forged = new File(directory, "forged.daemon");
+        Files.write(forged.toPath(), (daemon.getPort() + " 0000").getBytes());
+
+        try {
+
+            ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+
+            int exitCode = DaemonClient.run(
+                    forged, new String[] { RuntimeOptions.ASYNC_OUTPUT }, new ByteArrayInputStream(new byte[0]),
+                    new ByteArrayOutputStream(), stderr);
+
+            assertEquals(DaemonProtocol.EXIT_PROTOCOL_ERROR, exitCode);
+            assertTrue(new String(stderr.toByteArray()).contains("invalid access token"));
+        }
+        finally {
+
+            assertTrue(forged.delete());
+        }
+    }
+
+    @Test
+    public void constructor_InvalidArguments() throws Exception {
+
+        try {
+
+            new EventParserDaemon(new String[] { RuntimeOptions.DAEMON, "something" }, "test", () -> null);
+            fail("should have thrown exception");
+        }
+        catch(UserErrorException e) {
+
+            assertTrue(e.getMessage().contains("something"));
+        }
+    }
+
+    @Test
+    public void isRequested() throws Exception {
+
+        assertTrue(EventParserDaemon.isRequested(new String[] { "a", RuntimeOptions.DAEMON }));
+        assertFalse(EventParserDaemon.isRequested(new String[] { "a" }));
+    }
+
+    @Test
+    public void runtimeRejectsDaemonMode() throws Exception {
+
+        ConfigurationImpl c = new ConfigurationImpl(
+                new String[] { RuntimeOptions.DAEMON }, null, new MockInputStream(""), new ByteArrayOutputStream());
+
+        try {
+
+            new EventParserRuntime(c, "test").run();
+            fail("should have thrown exception");
+        }
+        catch(UserErrorException e) {
+
+            assertTrue(e.getMessage().contains(RuntimeOptions.DAEMON));
+        }
+    }
+
+    @Test
+    public void closedDaemonIsNotReachable() throws Exception {
+
+        File copy = new File(directory, "copy.daemon");
+        Files.copy(daemonFile.toPath(), copy.toPath());
+
+        daemon.close();
+
+        try {
+
+            DaemonClient.run(copy, new String[0], new ByteArrayInputStream(new byte[0]),
+                    new ByteArrayOutputStream(), new ByteArrayOutputStream());
+            fail("should have thrown exception");
+        }
+        catch(IOException e) {
+
+            //
+            // expected
+            //
+        }
+        finally {
+
+            assertTrue(copy.delete());
+        }
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+    /**
+     * Prefixes the payload with a value set by a top-level argument.
+     */
+    private static class PrefixParser extends MockParser {
+
+        private volatile String prefix = "";
+
+        @Override
+        public List<Event> parse(String line, Query query) throws ParsingException {
+
+            return super.parse(prefix + line, query);
+        }
+    }
+
+    private static class PrefixArgumentProcessor implements TopLevelArgumentProcessor {
+
+        static final String PREFIX = "--prefix";
+
+        private final PrefixParser parser;
+
+        PrefixArgumentProcessor(PrefixParser parser) {
+
+            this.parser = parser;
+        }
+
+        @Override
+        public void process(List<String> mutableArgumentList, Configuration c) throws UserErrorException {
+
+            int i = mutableArgumentList.indexOf(PREFIX);
+
+            if (i == -1) {
+
+                return;
+            }
+
+            if (i == mutableArgumentList.size() - 1) {
+
+                throw new UserErrorException("missing value for " + PREFIX);
+            }
+
+            mutableArgumentList.remove(i);
+            parser.prefix = mutableArgumentList.remove(i);
+        }
+    }
+
+}
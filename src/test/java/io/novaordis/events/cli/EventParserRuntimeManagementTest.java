@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class EventParserRuntimeManagementTest {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    // Tests -----------------------------------------------------------------------------------------------------------
+
+    @Test
+    public void registerAndRead() throws Exception {
+
+        String input = "mock-event-1\nmock-event-2\n";
+
+        ConfigurationImpl c = new ConfigurationImpl(
+                new String[] { RuntimeOptions.STATS, RuntimeOptions.ASYNC_OUTPUT }, null,
+                new MockInputStream(input), new ByteArrayOutputStream());
+
+        c.setParser(new MockParser());
+
+        EventParserRuntime r = new EventParserRuntime(c, "test");
+        r.setStderr(new PrintStream(new ByteArrayOutputStream()));
+        r.run();
+
+        //
+        // unregistered at the end of the run
+        //
+
+        EventParserRuntimeManagement m = r.getManagement();
+        assertNull(m.getObjectName());
+
+        m.register();
+
+        try {
+
+            ObjectName on = m.getObjectName();
+            assertNotNull(on);
+            assertEquals(EventParserRuntimeManagement.DOMAIN, on.getDomain());
+
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+            assertEquals("test", server.getAttribute(on, "ApplicationName"));
+            assertEquals(2L, server.getAttribute(on, "LinesRead"));
+            assertEquals((long)input.length(), server.getAttribute(on, "BytesRead"));
+            assertEquals((long)input.length(), server.getAttribute(on, "InputOffset"));
+            assertEquals(-1L, server.getAttribute(on, "InputSize"));
+            assertEquals(2L, server.getAttribute(on, "ProcessedEventsCount"));
+            assertEquals(0L, server.getAttribute(on, "ParsingFailureCount"));
+            assertEquals(true, server.getAttribute(on, "StatisticsEnabled"));
+            assertTrue((Long)server.getAttribute(on, "ParseTimeNanos") >= 0L);
+            assertEquals(-1, server.getAttribute(on, "FormattingQueueDepth"));
+            assertEquals(0, server.getAttribute(on, "OutputQueueDepth"));
+        }
+        finally {
+
+            m.unregister();
+        }
+
+        assertNull(m.getObjectName());
+    }
+
+    @Test
+    public void statisticsDisabled() throws Exception {
+
+        EventParserRuntimeManagement m =
+                new EventParserRuntimeManagement(new EventParserRuntime(new String[] { "mock" }, "test", null), "test");
+
+        assertFalse(m.isStatisticsEnabled());
+        assertEquals(-1L, m.getProcedureTimeNanos());
+        assertEquals(0L, m.getBytesRead());
+    }
+
+    @Test
+    public void registerLater() throws Exception {
+
+        EventParserRuntimeManagement m =
+                new EventParserRuntimeManagement(new EventParserRuntime(new String[] { "mock" }, "test", null), "test");
+
+        m.registerLater(0L);
+
+        try {
+
+            long deadline = System.currentTimeMillis() + 10000L;
+
+            while(m.getObjectName() == null && System.currentTimeMillis() < deadline) {
+
+                Thread.sleep(10L);
+            }
+
+            assertNotNull(m.getObjectName());
+            assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(m.getObjectName()));
+        }
+        finally {
+
+            m.unregister();
+        }
+
+        assertNull(m.getObjectName());
+    }
+
+    @Test
+    public void registerLater_CancelledByUnregister() throws Exception {
+
+        EventParserRuntimeManagement m =
+                new EventParserRuntimeManagement(new EventParserRuntime(new String[] { "mock" }, "test", null), "test");
+
+        m.registerLater(200L);
+        m.unregister();
+
+        Thread.sleep(400L);
+
+        assertNull(m.getObjectName());
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
@@ -18,18 +18,36 @@ package io.novaordis.events.cli;
 
 import io.novaordis.events.api.event.Event;
 import io.novaordis.events.api.event.GenericEvent;
+import io.novaordis.events.api.event.TimedEvent;
+import io.novaordis.events.processing.output.Output;
+import io.novaordis.events.query.Query;
 import io.novaordis.utilities.UserErrorException;
 import io.novaordis.utilities.appspec.ApplicationSpecificBehavior;
 import org.junit.Test;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -392,6 +410,842 @@ public class EventParserRuntimeTest {
         assertEquals(2, r.getProcessedEventsCount());
     }
 
+    @Test
+    public void loop_DefaultOutputIsDrainedAtTheEndOfTheRun() throws Exception {
+
+        for(boolean async: new boolean[] { false, true }) {
+
+            String[] args = async ?
+                    new String[] { RuntimeOptions.ASYNC_OUTPUT } :
+                    new String[] { RuntimeOptions.OUTPUT_BUFFER_SIZE, "16" };
+
+            String input = "mock-event-1\nmock-event-2\nmock-event-3\n";
+
+            ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+
+            ConfigurationImpl c = new ConfigurationImpl(args, null, new MockInputStream(input), stdout);
+
+            c.setParser(new MockParser());
+
+            EventParserRuntime r = new EventParserRuntime(c, "test");
+
+            r.run();
+
+            assertEquals(3, r.getProcessedEventsCount());
+
+            //
+            // the bytes must be identical with those written by an Output procedure that writes directly
+            //
+
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            Output reference = new Output(expected, null, 0, new ArrayList<>());
+            MockParser mp = new MockParser();
+
+            for(String line: input.split("\n")) {
+
+                reference.process(mp.parse(line, null));
+            }
+
+            assertTrue(expected.size() > 0);
+            assertEquals(new String(expected.toByteArray()), new String(stdout.toByteArray()));
+        }
+    }
+
+    @Test
+    public void loop_CompressedDefaultOutput() throws Exception {
+
+        for(String threads: new String[] { "1", "3" }) {
+
+            String input = "mock-event-1\nmock-event-2\nmock-event-3\n";
+
+            String[] args = new String[] {
+                    RuntimeOptions.COMPRESS, RuntimeOptions.GZIP, RuntimeOptions.COMPRESS_THREADS, threads };
+
+            ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+
+            ConfigurationImpl c = new ConfigurationImpl(args, null, new MockInputStream(input), stdout);
+
+            c.setParser(new MockParser());
+
+            //
+            // compression must not happen on the event loop thread
+            //
+
+            assertTrue(c.getOutputSink().isAsync());
+
+            new EventParserRuntime(c, "test").run();
+
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            Output reference = new Output(expected, null, 0, new ArrayList<>());
+            MockParser mp = new MockParser();
+
+            for(String line: input.split("\n")) {
+
+                reference.process(mp.parse(line, null));
+            }
+
+            assertEquals(
+                    new String(expected.toByteArray()),
+                    new String(ParallelGzipOutputStreamTest.gunzip(stdout.toByteArray())));
+        }
+    }
+
+    @Test
+    public void loop_CompressedDefaultOutput_LowLatency_CompressedOnTheWriterThread() throws Exception {
+
+        String input = "mock-event-1\nmock-event-2\nmock-event-3\n";
+
+        String[] args = new String[] {
+                RuntimeOptions.LOW_LATENCY, RuntimeOptions.COMPRESS, RuntimeOptions.GZIP,
+                RuntimeOptions.COMPRESS_THREADS, "3" };
+
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+
+        ConfigurationImpl c = new ConfigurationImpl(args, null, new MockInputStream(input), stdout);
+
+        c.setParser(new MockParser());
+
+        //
+        // each flush would end a member of the parallel compressor's output
+        //
+
+        assertFalse(c.getOutputSink().getTarget() instanceof ParallelGzipOutputStream);
+
+        new EventParserRuntime(c, "test").run();
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        Output reference = new Output(expected, null, 0, new ArrayList<>());
+        MockParser mp = new MockParser();
+
+        for(String line: input.split("\n")) {
+
+            reference.process(mp.parse(line, null));
+        }
+
+        assertEquals(
+                new String(expected.toByteArray()),
+                new String(ParallelGzipOutputStreamTest.gunzip(stdout.toByteArray())));
+    }
+
+    @Test
+    public void loop_AutoTune() throws Exception {
+
+        String input = "mock-event-1\nmock-event-2\nmock-event-3\n";
+
+        String[] args = new String[] {
+                RuntimeOptions.AUTO_TUNE, RuntimeOptions.CPU_CAP, "4", RuntimeOptions.COMPRESS, RuntimeOptions.GZIP };
+
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+
+        ConfigurationImpl c = new ConfigurationImpl(args, null, new MockInputStream(input), stdout);
+
+        c.setParser(new MockParser());
+
+        //
+        // the stages are tunable, and start with the command line settings
+        //
+
+        ParallelFormattingOutput pfo = (ParallelFormattingOutput)c.getProcedure();
+        assertEquals(1, pfo.getThreads());
+        assertTrue(c.getOutputSink().getTarget() instanceof ParallelGzipOutputStream);
+
+        EventParserRuntime r = new EventParserRuntime(c, "test");
+
+        ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+        r.setStderr(new PrintStream(stderr, true));
+
+        r.run();
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        Output reference = new Output(expected, null, 0, new ArrayList<>());
+        MockParser mp = new MockParser();
+
+        for(String line: input.split("\n")) {
+
+            reference.process(mp.parse(line, null));
+        }
+
+        assertEquals(
+                new String(expected.toByteArray()),
+                new String(ParallelGzipOutputStreamTest.gunzip(stdout.toByteArray())));
+
+        String report = new String(stderr.toByteArray());
+        assertTrue(report.contains("auto-tune: formatting:"));
+        assertTrue(report.contains("auto-tune: compression:"));
+        assertTrue(report.contains(RuntimeOptions.FORMAT_THREADS + " "));
+        assertTrue(report.contains(RuntimeOptions.COMPRESS_THREADS + " "));
+    }
+
+    @Test
+    public void loop_Throttled() throws Exception {
+
+        StringBuilder sb = new StringBuilder();
+
+        for(int i = 0; sb.length() < 3 * 1024; i ++) {
+
+            sb.append("mock-event-").append(i).append('\n');
+        }
+
+        String input = sb.toString();
+
+        String[] args = new String[] {
+                RuntimeOptions.MAX_READ_RATE, "10k", RuntimeOptions.CPU_SHARE, "4",
+                RuntimeOptions.FORMAT_THREADS, "2" };
+
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+
+        ConfigurationImpl c = new ConfigurationImpl(args, null, new MockInputStream(input), stdout);
+
+        c.setParser(new MockParser());
+
+        assertEquals(10L * 1024, c.getThrottle().getMaxReadRate());
+
+        EventParserRuntime r = new EventParserRuntime(c, "test");
+
+        r.run();
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        Output reference = new Output(expected, null, 0, new ArrayList<>());
+        MockParser mp = new MockParser();
+
+        for(String line: input.split("\n")) {
+
+            reference.process(mp.parse(line, null));
+        }
+
+        assertEquals(new String(expected.toByteArray()), new String(stdout.toByteArray()));
+
+        //
+        // the burst covers the first 1 KB, the rest is throttled
+        //
+
+        assertTrue(r.getManagement().getReadThrottledTimeNanos() > 0L);
+        assertEquals(input.length(), r.getBytesRead());
+    }
+
+    @Test
+    public void loop_TheOutputIsFlushedWhenTheInputGoesIdle() throws Exception {
+
+        //
+        // the default profile: the output of a followed log does not wait for the output buffers to fill up
+        //
+
+        PipedOutputStream producer = new PipedOutputStream();
+        PipedInputStream input = new PipedInputStream(producer);
+
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+
+        ConfigurationImpl c = new ConfigurationImpl(
+                new String[] { RuntimeOptions.ASYNC_OUTPUT }, null, input, stdout);
+
+        c.setParser(new MockParser());
+
+        EventParserRuntime r = new EventParserRuntime(c, "test");
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread eventLoop = new Thread(() -> {
+
+            try {
+
+                r.run();
+            }
+            catch(Throwable t) {
+
+                failure.set(t);
+            }
+        });
+
+        eventLoop.start();
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        Output reference = new Output(expected, null, 0, new ArrayList<>());
+        reference.process(new MockParser().parse("mock-event-1", null));
+
+        producer.write("mock-event-1\n".getBytes());
+        producer.flush();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+
+        while(stdout.size() < expected.size() && System.nanoTime() < deadline) {
+
+            Thread.sleep(10L);
+        }
+
+        assertEquals(new String(expected.toByteArray()), new String(stdout.toByteArray()));
+
+        producer.close();
+        eventLoop.join(5000L);
+
+        assertFalse(eventLoop.isAlive());
+        assertNull(failure.get());
+    }
+
+    @Test
+    public void loop_LowLatency_TheOutputIsFlushedWhenTheInputGoesIdle() throws Exception {
+
+        //
+        // a follow-like input: the producer writes a line and keeps the stream open
+        //
+
+        PipedOutputStream producer = new PipedOutputStream();
+        PipedInputStream input = new PipedInputStream(producer);
+
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+
+        ConfigurationImpl c = new ConfigurationImpl(
+                new String[] { RuntimeOptions.LOW_LATENCY, RuntimeOptions.STATS }, null, input, stdout);
+
+        c.setParser(new MockParser());
+
+        EventParserRuntime r = new EventParserRuntime(c, "test");
+
+        ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+        r.setStderr(new PrintStream(stderr, true));
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread eventLoop = new Thread(() -> {
+
+            try {
+
+                r.run();
+            }
+            catch(Throwable t) {
+
+                failure.set(t);
+            }
+        });
+
+        eventLoop.start();
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        Output reference = new Output(expected, null, 0, new ArrayList<>());
+        reference.process(new MockParser().parse("mock-event-1", null));
+
+        producer.write("mock-event-1\n".getBytes());
+        producer.flush();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+
+        while(stdout.size() < expected.size() && System.nanoTime() < deadline) {
+
+            Thread.sleep(10L);
+        }
+
+        //
+        // the output is available while the input is still open
+        //
+
+        assertEquals(new String(expected.toByteArray()), new String(stdout.toByteArray()));
+
+        producer.close();
+        eventLoop.join(5000L);
+
+        assertFalse(eventLoop.isAlive());
+        assertNull(failure.get());
+
+        assertEquals(1L, r.getStatistics().getEndToEndLatency().getCount());
+        assertTrue(new String(stderr.toByteArray()).contains("latency end-to-end:"));
+    }
+
+    @Test
+    public void loop_LowLatency_APartialLineDoesNotHoldTheOutput() throws Exception {
+
+        PipedOutputStream producer = new PipedOutputStream();
+        PipedInputStream input = new PipedInputStream(producer);
+
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+
+        //
+        // the linger time is longer than the test, only the input going idle may flush the output
+        //
+
+        ConfigurationImpl c = new ConfigurationImpl(
+                new String[] { RuntimeOptions.LOW_LATENCY, RuntimeOptions.LINGER, "600000" }, null, input, stdout);
+
+        c.setParser(new MockParser());
+
+        EventParserRuntime r = new EventParserRuntime(c, "test");
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread eventLoop = new Thread(() -> {
+
+            try {
+
+                r.run();
+            }
+            catch(Throwable t) {
+
+                failure.set(t);
+            }
+        });
+
+        eventLoop.start();
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        Output reference = new Output(expected, null, 0, new ArrayList<>());
+        reference.process(new MockParser().parse("mock-event-1", null));
+
+        //
+        // the input is ready, but the next line is incomplete: reading it blocks
+        //
+
+        producer.write("mock-event-1\nmock-ev".getBytes());
+        producer.flush();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+
+        while(stdout.size() < expected.size() && System.nanoTime() < deadline) {
+
+            Thread.sleep(10L);
+        }
+
+        assertEquals(new String(expected.toByteArray()), new String(stdout.toByteArray()));
+
+        producer.write("ent-2\n".getBytes());
+        producer.close();
+        eventLoop.join(5000L);
+
+        assertFalse(eventLoop.isAlive());
+        assertNull(failure.get());
+        assertEquals(2L, r.getProcessedEventsCount());
+    }
+
+    @Test
+    public void isLineReady() throws Exception {
+
+        BufferedReader br = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream("a\nb".getBytes(StandardCharsets.UTF_8))));
+
+        assertTrue(EventParserRuntime.isLineReady(br));
+
+        //
+        // nothing was consumed
+        //
+
+        assertEquals("a", br.readLine());
+
+        //
+        // a partial line
+        //
+
+        assertFalse(EventParserRuntime.isLineReady(br));
+        assertEquals("b", br.readLine());
+
+        br = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(
+                ("a\r" + new String(new char[EventParserRuntime.LINE_LOOKAHEAD]).replace('\0', 'x') + "\n")
+                        .getBytes(StandardCharsets.UTF_8))));
+
+        assertTrue(EventParserRuntime.isLineReady(br));
+        assertEquals("a", br.readLine());
+
+        //
+        // a line longer than the look-ahead is not reported as ready
+        //
+
+        assertFalse(EventParserRuntime.isLineReady(br));
+        assertEquals(EventParserRuntime.LINE_LOOKAHEAD, br.readLine().length());
+    }
+
+    @Test
+    public void loop_BinaryEventStream_ChainedRuntimes() throws Exception {
+
+        //
+        // upstream
+        //
+
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+
+        ConfigurationImpl c = new ConfigurationImpl(
+                new String[] { RuntimeOptions.BINARY_OUTPUT }, null,
+                new MockInputStream("mock-event-1\nmock-event-2\nmock-event-3\n"), binary);
+
+        c.setParser(new MockParser());
+
+        assertTrue(c.getProcedure() instanceof BinaryOutput);
+
+        new EventParserRuntime(c, "upstream").run();
+
+        //
+        // downstream, the parser must not be used
+        //
+
+        MockProcedureFactory mf = new MockProcedureFactory();
+        MockProcedure mp = new MockProcedure("mock-procedure");
+        mf.addProcedure(mp);
+        ApplicationSpecificBehavior asb = new ApplicationSpecificBehavior(mf);
+
+        ConfigurationImpl c2 = new ConfigurationImpl(
+                new String[] { "mock-procedure" }, asb,
+                new MockInputStream(binary.toByteArray()), new ByteArrayOutputStream());
+
+        MockParser mpar = new MockParser();
+        mpar.setFailWhenParsing(true);
+        c2.setParser(mpar);
+
+        EventParserRuntime r2 = new EventParserRuntime(c2, "downstream");
+
+        r2.run();
+
+        assertEquals(0, r2.getParsingFailureCount());
+        assertEquals(3, r2.getProcessedEventsCount());
+
+        List<Event> receivedEvents = mp.getReceivedEvents();
+        assertEquals(3, receivedEvents.size());
+
+        for(int i = 0; i < 3; i ++) {
+
+            assertEquals("mock-event-" + (i + 1),
+                    receivedEvents.get(i).getStringProperty(MockParser.PAYLOAD_PROPERTY_NAME).getString());
+        }
+    }
+
+    @Test
+    public void loop_BinaryEventStream_ChainedIntoTimeQuery() throws Exception {
+
+        //
+        // upstream, the events are timestamped with their line number
+        //
+
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+
+        ConfigurationImpl c = new ConfigurationImpl(
+                new String[] { RuntimeOptions.BINARY_OUTPUT }, null,
+                new MockInputStream("mock-event-1\nmock-event-2\nmock-event-3\n"), binary);
+
+        MockParser upstreamParser = new MockParser();
+        upstreamParser.setTimed(true);
+        c.setParser(upstreamParser);
+
+        new EventParserRuntime(c, "upstream").run();
+
+        //
+        // downstream, a time query, which selects timed events only
+        //
+
+        Query since2 = new Query() {
+
+            @Override
+            public List<Event> filter(List<Event> events) {
+
+                List<Event> result = new ArrayList<>();
+
+                for(Event e: events) {
+
+                    if (selects(e)) {
+
+                        result.add(e);
+                    }
+                }
+
+                return result;
+            }
+
+            @Override
+            public boolean selects(Event e) {
+
+                return e instanceof TimedEvent && ((TimedEvent)e).getTime() >= 2L;
+            }
+        };
+
+        MockProcedureFactory mf = new MockProcedureFactory();
+        MockProcedure mp = new MockProcedure("mock-procedure");
+        mf.addProcedure(mp);
+        ApplicationSpecificBehavior asb = new ApplicationSpecificBehavior(mf);
+
+        ConfigurationImpl c2 = new ConfigurationImpl(
+                new String[] { "mock-procedure" }, asb,
+                new MockInputStream(binary.toByteArray()), new ByteArrayOutputStream()) {
+
+            @Override
+            public Query getQuery() {
+
+                return since2;
+            }
+        };
+
+        c2.setParser(new MockParser());
+
+        new EventParserRuntime(c2, "downstream").run();
+
+        List<Event> receivedEvents = mp.getReceivedEvents();
+        assertEquals(2, receivedEvents.size());
+
+        for(int i = 0; i < 2; i ++) {
+
+            Event e = receivedEvents.get(i);
+            assertEquals(i + 2L, ((TimedEvent)e).getTime().longValue());
+            assertEquals("mock-event-" + (i + 2), e.getStringProperty(MockParser.PAYLOAD_PROPERTY_NAME).getString());
+        }
+    }
+
+    @Test
+    public void loop_Stats() throws Exception {
+
+        String input = "mock-event-1\nmock-event-2\nmock-event-3\n";
+
+        ConfigurationImpl c = new ConfigurationImpl(
+                new String[] { RuntimeOptions.STATS }, null, new MockInputStream(input), new ByteArrayOutputStream());
+
+        c.setParser(new MockParser());
+
+        EventParserRuntime r = new EventParserRuntime(c, "test");
+
+        ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+        r.setStderr(new PrintStream(stderr, true));
+
+        r.run();
+
+        assertEquals(3, r.getLinesRead());
+        assertEquals(input.length(), r.getBytesRead());
+
+        RuntimeStatistics s = r.getStatistics();
+        assertNotNull(s);
+        assertEquals(3, s.getLineLatency().getCount());
+        assertTrue(s.getBatchLatency().getCount() >= 3);
+
+        String report = new String(stderr.toByteArray());
+        assertTrue(report.contains("lines:               3"));
+        assertTrue(report.contains("bytes:               " + input.length()));
+        assertTrue(report.contains("procedure"));
+    }
+
+    @Test
+    public void loop_NoStats() throws Exception {
+
+        ConfigurationImpl c = new ConfigurationImpl(
+                new String[] { RuntimeOptions.ASYNC_OUTPUT }, null,
+                new MockInputStream("mock-event-1\n"), new ByteArrayOutputStream());
+
+        c.setParser(new MockParser());
+
+        EventParserRuntime r = new EventParserRuntime(c, "test");
+
+        ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+        r.setStderr(new PrintStream(stderr, true));
+
+        r.run();
+
+        assertNull(r.getStatistics());
+        assertEquals(0, stderr.size());
+
+        //
+        // lines and bytes are counted regardless
+        //
+
+        assertEquals(1, r.getLinesRead());
+        assertEquals(13, r.getBytesRead());
+    }
+
+    @Test
+    public void loop_PerFileThreads() throws Exception {
+
+        List<File> files = new ArrayList<>();
+
+        try {
+
+            for(int i = 0; i < 5; i ++) {
+
+                File f = File.createTempFile("events-cli-per-file-test-" + i + "-", ".log");
+                files.add(f);
+                Files.write(f.toPath(), ("file-" + i + "-line-1\nfile-" + i + "-line-2\n").getBytes());
+            }
+
+            MockProcedureFactory mf = new MockProcedureFactory();
+            MockProcedure mp = new MockProcedure("mock-procedure");
+            mf.addProcedure(mp);
+            ApplicationSpecificBehavior asb = new ApplicationSpecificBehavior(mf);
+
+            List<String> args = new ArrayList<>(Arrays.asList(
+                    RuntimeOptions.PER_FILE_THREADS, RuntimeOptions.PARSE_CONCURRENCY, "2", "mock-procedure"));
+
+            for(File f: files) {
+
+                args.add(f.getPath());
+            }
+
+            ConfigurationImpl c = new ConfigurationImpl(
+                    args.toArray(new String[args.size()]), asb, new MockInputStream(""), new ByteArrayOutputStream());
+
+            assertEquals(files, c.getInputFiles());
+            assertNull(c.getInputStream());
+
+            c.setParserFactory(MockParser::new);
+
+            EventParserRuntime r = new EventParserRuntime(c, "test");
+
+            r.run();
+
+            assertEquals(10, r.getLinesRead());
+            assertEquals(10, r.getProcessedEventsCount());
+
+            List<Event> receivedEvents = mp.getReceivedEvents();
+            assertEquals(10, receivedEvents.size());
+
+            //
+            // the files are processed in command line order, regardless of the order they were read in
+            //
+
+            for(int i = 0; i < 10; i ++) {
+
+                assertEquals("file-" + (i / 2) + "-line-" + (i % 2 + 1),
+                        receivedEvents.get(i).getStringProperty(MockParser.PAYLOAD_PROPERTY_NAME).getString());
+            }
+        }
+        finally {
+
+            for(File f: files) {
+
+                assertTrue(f.delete());
+            }
+        }
+    }
+
+    @Test
+    public void loop_PerFileThreads_ApplicationSuppliedExecutor() throws Exception {
+
+        List<File> files = new ArrayList<>();
+
+        try {
+
+            for(int i = 0; i < 3; i ++) {
+
+                File f = File.createTempFile("events-cli-per-file-test-" + i + "-", ".log");
+                files.add(f);
+                Files.write(f.toPath(), ("file-" + i + "-line-1\n").getBytes());
+            }
+
+            MockProcedureFactory mf = new MockProcedureFactory();
+            MockProcedure mp = new MockProcedure("mock-procedure");
+            mf.addProcedure(mp);
+
+            List<String> requested = Collections.synchronizedList(new ArrayList<>());
+
+            ExecutorFactory ef = (name, threads) -> {
+
+                requested.add(name + ":" + threads);
+                return Executors.newSingleThreadExecutor();
+            };
+
+            ApplicationSpecificBehavior asb = new ApplicationSpecificBehavior(mf, ef);
+
+            List<String> args = new ArrayList<>(Arrays.asList(
+                    RuntimeOptions.PER_FILE_THREADS, RuntimeOptions.PARSE_CONCURRENCY, "2", "mock-procedure"));
+
+            for(File f: files) {
+
+                args.add(f.getPath());
+            }
+
+            ConfigurationImpl c = new ConfigurationImpl(
+                    args.toArray(new String[args.size()]), asb, new MockInputStream(""), new ByteArrayOutputStream());
+
+            c.setParserFactory(MockParser::new);
+
+            new EventParserRuntime(c, "test").run();
+
+            //
+            // the reader pool is looked up like the other runtime pools, even where virtual threads are available
+            //
+
+            assertEquals(Collections.singletonList(
+                    FileThreads.NAME + ":" + 2 * FileThreads.PLATFORM_THREADS_PER_PARSE_PERMIT), requested);
+            assertEquals(3, mp.getReceivedEvents().size());
+        }
+        finally {
+
+            for(File f: files) {
+
+                assertTrue(f.delete());
+            }
+        }
+    }
+
+    @Test
+    public void loop_PerFileThreads_BoundedMemory() throws Exception {
+
+        List<File> files = new ArrayList<>();
+
+        try {
+
+            for(int i = 0; i < 5; i ++) {
+
+                File f = File.createTempFile("events-cli-per-file-test-" + i + "-", ".log");
+                files.add(f);
+                Files.write(f.toPath(), ("file-" + i + "-line-1\nfile-" + i + "-line-2\n").getBytes());
+            }
+
+            MockProcedureFactory mf = new MockProcedureFactory();
+            MockProcedure mp = new MockProcedure("mock-procedure");
+            mf.addProcedure(mp);
+            ApplicationSpecificBehavior asb = new ApplicationSpecificBehavior(mf);
+
+            //
+            // a budget smaller than a file: the files are admitted one at a time, in order
+            //
+
+            List<String> args = new ArrayList<>(Arrays.asList(
+                    RuntimeOptions.PER_FILE_THREADS, RuntimeOptions.MAX_INFLIGHT_EVENTS, "1", "mock-procedure"));
+
+            for(File f: files) {
+
+                args.add(f.getPath());
+            }
+
+            ConfigurationImpl c = new ConfigurationImpl(
+                    args.toArray(new String[args.size()]), asb, new MockInputStream(""), new ByteArrayOutputStream());
+
+            c.setParserFactory(MockParser::new);
+
+            EventParserRuntime r = new EventParserRuntime(c, "test");
+
+            r.run();
+
+            assertEquals(10, mp.getReceivedEvents().size());
+            assertEquals(0L, c.getInflightBudget().getEvents());
+            assertEquals(0L, c.getInflightBudget().getBytes());
+        }
+        finally {
+
+            for(File f: files) {
+
+                assertTrue(f.delete());
+            }
+        }
+    }
+
+    @Test
+    public void loop_PerFileThreads_NoParserFactory() throws Exception {
+
+        File f = File.createTempFile("events-cli-per-file-test-", ".log");
+
+        try {
+
+            ConfigurationImpl c = new ConfigurationImpl(
+                    new String[] { RuntimeOptions.PER_FILE_THREADS, f.getPath() }, null, new MockInputStream(""),
+                    new ByteArrayOutputStream());
+
+            c.setParser(new MockParser());
+
+            try {
+
+                new EventParserRuntime(c, "test").run();
+                fail("should have thrown exception");
+            }
+            catch(UserErrorException e) {
+
+                String msg = e.getMessage();
+                assertTrue(msg.contains("parser factory"));
+            }
+        }
+        finally {
+
+            assertTrue(f.delete());
+        }
+    }
+
     // processBatch() --------------------------------------------------------------------------------------------------
 
     @Test
@@ -0,0 +1,600 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import io.novaordis.events.api.event.Event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class EventSourceTest {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private File file;
+    private AtomicInteger parsers;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    @Before
+    public void setUp() throws Exception {
+
+        file = File.createTempFile("events-cli-event-source-test", ".log");
+        parsers = new AtomicInteger(0);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+
+        assertTrue(file.delete());
+    }
+
+    // Tests -----------------------------------------------------------------------------------------------------------
+
+    @Test
+    public void build_NoParser() throws Exception {
+
+        try {
+
+            EventSource.builder().lines(Collections.singletonList("a")).build();
+            fail("should have thrown exception");
+        }
+        catch(IllegalStateException e) {
+
+            String msg = e.getMessage();
+            assertTrue(msg.contains("parser"));
+        }
+    }
+
+    @Test
+    public void build_TwoSources() throws Exception {
+
+        try {
+
+            EventSource.builder().parser(new MockParser()).lines(Collections.singletonList("a")).input(file.toPath())
+                    .build();
+            fail("should have thrown exception");
+        }
+        catch(IllegalStateException e) {
+
+            String msg = e.getMessage();
+            assertTrue(msg.contains("exactly one source"));
+        }
+    }
+
+    @Test
+    public void stream_Lines() throws Exception {
+
+        EventSource source = EventSource.builder().parser(new MockParser()).lines(Arrays.asList("a", "b", "c")).build();
+
+        try(Stream<Event> events = source.stream()) {
+
+            assertEquals(Arrays.asList("a", "b", "c"), payloads(events));
+        }
+    }
+
+    @Test
+    public void stream_IsLazy() throws Exception {
+
+        MockParser parser = new MockParser();
+
+        EventSource source = EventSource.builder().parser(parser).lines(Arrays.asList("a", "b", "c")).build();
+
+        try(Stream<Event> events = source.stream()) {
+
+            assertEquals(0L, parser.getLineNumber());
+
+            assertEquals(Collections.singletonList("a"), payloads(events.limit(1)));
+
+            assertEquals(1L, parser.getLineNumber());
+        }
+    }
+
+    @Test
+    public void stream_SingleParserInstanceCanBeUsedOnce() throws Exception {
+
+        EventSource source = EventSource.builder().parser(new MockParser()).lines(Arrays.asList("a", "b")).build();
+
+        assertEquals(2, payloads(source.stream()).size());
+
+        try {
+
+            source.stream();
+            fail("should have thrown exception");
+        }
+        catch(IllegalStateException e) {
+
+            String msg = e.getMessage();
+            assertTrue(msg.contains("parser factory"));
+        }
+    }
+
+    @Test
+    public void stream_ParserFactory_RepeatedTraversals() throws Exception {
+
+        EventSource source =
+                EventSource.builder().parserFactory(this::newParser).lines(Arrays.asList("a", "b")).build();
+
+        assertEquals(Arrays.asList("a", "b"), payloads(source.stream()));
+        assertEquals(Arrays.asList("a", "b"), payloads(source.stream()));
+        assertEquals(2, parsers.get());
+    }
+
+    @Test
+    public void stream_InputStream() throws Exception {
+
+        ByteArrayInputStream is = new ByteArrayInputStream("a\nb\r\nc".getBytes());
+
+        EventSource source = EventSource.builder().parserFactory(this::newParser).input(is).build();
+
+        try(Stream<Event> events = source.stream()) {
+
+            assertEquals(Arrays.asList("a", "b", "c"), payloads(events));
+        }
+
+        try {
+
+            source.stream();
+            fail("should have thrown exception");
+        }
+        catch(IllegalStateException e) {
+
+            String msg = e.getMessage();
+            assertTrue(msg.contains("already consumed"));
+        }
+    }
+
+    @Test
+    public void stream_ParsingFailuresDoNotEndTheStream() throws Exception {
+
+        MockParser parser = new MockParser();
+        parser.setFailWhenParsing(true);
+
+        EventSource source = EventSource.builder().parser(parser).lines(Arrays.asList("a", "b", "c")).build();
+
+        try(Stream<Event> events = source.stream()) {
+
+            assertEquals(0L, events.count());
+        }
+
+        assertEquals(3L, parser.getLineNumber());
+        assertEquals(3L, source.getParsingFailureCount());
+    }
+
+    @Test
+    public void stream_Path() throws Exception {
+
+        Files.write(file.toPath(), "a\n\nb\r\nc\n".getBytes());
+
+        EventSource source = EventSource.builder().parser(new MockParser()).input(file.toPath()).build();
+
+        try(Stream<Event> events = source.stream()) {
+
+            assertEquals(Arrays.asList("a", "", "b", "c"), payloads(events));
+        }
+    }
+
+    @Test
+    public void stream_Path_Parallel() throws Exception {
+
+        int lines = write(4 * EventSpliterator.MIN_SPLIT_SIZE);
+
+        EventSource source = EventSource.builder().parserFactory(this::newParser).input(file.toPath()).build();
+
+        List<String> payloads;
+
+        try(Stream<Event> events = source.stream()) {
+
+            payloads = payloads(events.parallel());
+        }
+
+        assertEquals(lines, payloads.size());
+
+        for(int i = 0; i < lines; i ++) {
+
+            assertEquals(line(i), payloads.get(i));
+        }
+
+        assertTrue(parsers.get() > 1);
+    }
+
+    @Test
+    public void trySplit_LineBoundary() throws Exception {
+
+        int lines = write(2 * EventSpliterator.MIN_SPLIT_SIZE);
+
+        EventSpliterator suffix = EventSource.builder().parserFactory(this::newParser).input(file.toPath()).build()
+                .newSpliterator();
+
+        Spliterator<Event> prefix = suffix.trySplit();
+
+        assertNotNull(prefix);
+
+        List<String> payloads = new ArrayList<>();
+
+        prefix.forEachRemaining(e -> payloads.add(payload(e)));
+
+        int prefixLines = payloads.size();
+
+        assertTrue(prefixLines > 0);
+        assertTrue(prefixLines < lines);
+
+        suffix.forEachRemaining(e -> payloads.add(payload(e)));
+
+        assertEquals(lines, payloads.size());
+        assertEquals(line(prefixLines), payloads.get(prefixLines));
+
+        suffix.getTraversal().close();
+    }
+
+    @Test
+    public void trySplit_RecordStart() throws Exception {
+
+        //
+        // records of three lines, only the first line of a record starts with "record"
+        //
+
+        StringBuilder sb = new StringBuilder();
+
+        for(int i = 0; sb.length() < 2 * EventSpliterator.MIN_SPLIT_SIZE; i ++) {
+
+            sb.append("record-").append(i).append("\n continuation\n continuation\n");
+        }
+
+        Files.write(file.toPath(), sb.toString().getBytes());
+
+        EventSpliterator suffix = EventSource.builder().parserFactory(RecordStartMockParser::new)
+                .input(file.toPath()).build().newSpliterator();
+
+        Spliterator<Event> prefix = suffix.trySplit();
+
+        assertNotNull(prefix);
+
+        List<String> payloads = new ArrayList<>();
+
+        suffix.tryAdvance(e -> payloads.add(payload(e)));
+
+        assertTrue(payloads.get(0).startsWith("record-"));
+
+        suffix.getTraversal().close();
+    }
+
+    @Test
+    public void trySplit_SingleParserInstance() throws Exception {
+
+        write(2 * EventSpliterator.MIN_SPLIT_SIZE);
+
+        EventSpliterator s = EventSource.builder().parser(new MockParser()).input(file.toPath()).build()
+                .newSpliterator();
+
+        assertNull(s.trySplit());
+
+        s.getTraversal().close();
+    }
+
+    @Test
+    public void trySplit_SmallFile() throws Exception {
+
+        write(EventSpliterator.MIN_SPLIT_SIZE);
+
+        EventSpliterator s = EventSource.builder().parserFactory(this::newParser).input(file.toPath()).build()
+                .newSpliterator();
+
+        assertNull(s.trySplit());
+
+        s.getTraversal().close();
+    }
+
+    @Test
+    public void publisher_Backpressure() throws Exception {
+
+        MockParser parser = new MockParser();
+
+        EventSource source = EventSource.builder().parser(parser).lines(Arrays.asList("a", "b", "c")).build();
+
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+
+        source.publisher().subscribe(subscriber);
+
+        assertNotNull(subscriber.subscription);
+        assertTrue(subscriber.payloads.isEmpty());
+        assertEquals(0L, parser.getLineNumber());
+
+        subscriber.subscription.request(2);
+
+        assertEquals(Arrays.asList("a", "b"), subscriber.payloads);
+        assertEquals(2L, parser.getLineNumber());
+        assertFalse(subscriber.completed);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertEquals(Arrays.asList("a", "b", "c"), subscriber.payloads);
+        assertTrue(subscriber.completed);
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    public void publisher_RequestFromOnNext() throws Exception {
+
+        EventSource source = EventSource.builder().parser(new MockParser()).lines(Arrays.asList("a", "b", "c")).build();
+
+        RecordingSubscriber subscriber = new RecordingSubscriber() {
+
+            @Override
+            public void onNext(Event item) {
+
+                super.onNext(item);
+                subscription.request(1);
+            }
+        };
+
+        source.publisher().subscribe(subscriber);
+
+        subscriber.subscription.request(1);
+
+        assertEquals(Arrays.asList("a", "b", "c"), subscriber.payloads);
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    public void publisher_Cancel() throws Exception {
+
+        EventSource source = EventSource.builder().parser(new MockParser()).lines(Arrays.asList("a", "b", "c")).build();
+
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+
+        source.publisher().subscribe(subscriber);
+
+        subscriber.subscription.request(1);
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(1);
+
+        assertEquals(Collections.singletonList("a"), subscriber.payloads);
+        assertFalse(subscriber.completed);
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    public void publisher_NonPositiveRequest() throws Exception {
+
+        EventSource source = EventSource.builder().parser(new MockParser()).lines(Arrays.asList("a", "b", "c")).build();
+
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+
+        source.publisher().subscribe(subscriber);
+
+        subscriber.subscription.request(0);
+
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+        assertTrue(subscriber.payloads.isEmpty());
+    }
+
+    @Test
+    public void publisher_NullSubscriber() throws Exception {
+
+        EventSource source = EventSource.builder().parser(new MockParser()).lines(Arrays.asList("a", "b")).build();
+
+        try {
+
+            source.publisher().subscribe(null);
+            fail("should have thrown exception");
+        }
+        catch(NullPointerException e) {
+
+            // expected, Reactive Streams rule 1.9
+        }
+
+        //
+        // the source was not consumed
+        //
+
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        source.publisher().subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        assertEquals(Arrays.asList("a", "b"), subscriber.payloads);
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    public void publisher_SourceCannotBeConsumedAgain() throws Exception {
+
+        EventSource source = EventSource.builder().parser(new MockParser()).lines(Arrays.asList("a", "b")).build();
+
+        source.publisher().subscribe(new RecordingSubscriber());
+
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+
+        source.publisher().subscribe(subscriber);
+
+        assertNotNull(subscriber.subscription);
+        assertTrue(subscriber.error instanceof IllegalStateException);
+    }
+
+    @Test
+    public void publisher_ExecutorRejectsTheDelivery() throws Exception {
+
+        EventSource source = EventSource.builder().parser(new MockParser()).lines(Arrays.asList("a", "b", "c")).build();
+
+        AtomicInteger errors = new AtomicInteger(0);
+
+        RecordingSubscriber subscriber = new RecordingSubscriber() {
+
+            @Override
+            public void onError(Throwable throwable) {
+
+                super.onError(throwable);
+                errors.incrementAndGet();
+            }
+        };
+
+        AtomicBoolean reject = new AtomicBoolean(true);
+
+        source.publisher(r -> {
+
+            if (reject.get()) {
+
+                throw new RejectedExecutionException("SYNTHETIC");
+            }
+
+            r.run();
+
+        }).subscribe(subscriber);
+
+        subscriber.subscription.request(1);
+
+        assertTrue(subscriber.error instanceof RejectedExecutionException);
+        assertEquals(1, errors.get());
+
+        //
+        // the subscription ended, a later request does not deliver, and is not left waiting for a delivery
+        //
+
+        reject.set(false);
+        subscriber.subscription.request(1);
+
+        assertTrue(subscriber.payloads.isEmpty());
+        assertFalse(subscriber.completed);
+        assertEquals(1, errors.get());
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    private MockParser newParser() {
+
+        parsers.incrementAndGet();
+        return new MockParser();
+    }
+
+    private static String line(int i) {
+
+        return "line-" + i;
+    }
+
+    /**
+     * @return the number of lines written.
+     */
+    private int write(long minimumSize) throws IOException {
+
+        StringBuilder sb = new StringBuilder();
+
+        int lines = 0;
+
+        while(sb.length() < minimumSize) {
+
+            sb.append(line(lines ++)).append('\n');
+        }
+
+        Path p = file.toPath();
+        Files.write(p, sb.toString().getBytes());
+        return lines;
+    }
+
+    private static String payload(Event e) {
+
+        return e.getStringProperty(MockParser.PAYLOAD_PROPERTY_NAME).getString();
+    }
+
+    private static List<String> payloads(Stream<Event> events) {
+
+        return events.map(EventSourceTest::payload).collect(Collectors.toList());
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+    private static class RecordStartMockParser extends MockParser implements RecordStartDetector {
+
+        @Override
+        public boolean isRecordStart(String line) {
+
+            return line.startsWith("record");
+        }
+    }
+
+    private static class RecordingSubscriber implements Subscriber<Event> {
+
+        Subscription subscription;
+        final List<String> payloads = new ArrayList<>();
+        boolean completed;
+        Throwable error;
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Event item) {
+
+            payloads.add(payload(item));
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+
+            this.error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+
+            this.completed = true;
+        }
+    }
+
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.slf4j.Logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class FailureLogTest {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    /**
+     * @return a logger that collects the messages logged at error level.
+     */
+    static Logger errorCollectingLogger(List<String> errors) {
+
+        return (Logger)Proxy.newProxyInstance(
+                FailureLogTest.class.getClassLoader(), new Class[] { Logger.class }, (proxy, method, args) -> {
+
+                    if ("error".equals(method.getName()) && args != null && args.length == 1) {
+
+                        errors.add((String)args[0]);
+                    }
+
+                    return method.getReturnType() == boolean.class ? false : null;
+                });
+    }
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    // Tests -----------------------------------------------------------------------------------------------------------
+
+    @Test
+    public void template() throws Exception {
+
+        assertEquals("invalid line #: '*'", FailureLog.template("invalid line 12: 'abc 17'"));
+        assertEquals("can't parse \"*\" at #", FailureLog.template("can't parse \"x\" at 123"));
+        assertEquals("unbalanced 'quote #", FailureLog.template("unbalanced 'quote 1"));
+        assertEquals("null", FailureLog.template(null));
+    }
+
+    @Test
+    public void rateLimitedAndAggregated() throws Exception {
+
+        List<String> errors = new ArrayList<>();
+
+        FailureLog fl = new FailureLog(errorCollectingLogger(errors), 3, 2);
+
+        for(int i = 1; i <= 1000; i ++) {
+
+            fl.failure(FailureLog.Kind.PARSING, "invalid line " + i, i, null);
+        }
+
+        fl.failure(FailureLog.Kind.PROCESSING, "something else", 1001, new Exception());
+
+        assertEquals(1001, fl.getTotal());
+        assertEquals(1000, fl.getCount(FailureLog.Kind.PARSING, "invalid line #"));
+        assertEquals(1, fl.getCount(FailureLog.Kind.PROCESSING, "something else"));
+
+        //
+        // the burst
+        //
+
+        assertEquals(3, errors.size());
+        assertEquals("invalid line 1", errors.get(0));
+
+        List<FailureLog.Example> examples = fl.getExamples(FailureLog.Kind.PARSING, "invalid line #");
+        assertEquals(2, examples.size());
+        assertEquals(1L, examples.get(0).getLineNumber());
+        assertEquals("invalid line 2", examples.get(1).getMessage());
+
+        fl.close();
+
+        assertTrue(errors.contains("997 more similar parsing failure(s): invalid line #"));
+        assertTrue(errors.contains("1 more similar event processing failure(s): something else"));
+
+        String report = errors.get(errors.size() - 1);
+        assertTrue(report.startsWith("1001 failure(s) in 2 categories:"));
+        assertTrue(report.contains("line 2: invalid line 2"));
+        assertTrue(report.indexOf("invalid line #") < report.indexOf("something else"));
+    }
+
+    @Test
+    public void failure_LineNumberRelativeToAFile() throws Exception {
+
+        List<String> errors = new ArrayList<>();
+
+        FailureLog fl = new FailureLog(errorCollectingLogger(errors));
+
+        fl.failure(FailureLog.Kind.PARSING, "invalid line 1", "a.log", 1, null);
+        fl.failure(FailureLog.Kind.PARSING, "invalid line 1", "b.log", 1, null);
+
+        //
+        // the file does not contribute to the category
+        //
+
+        assertEquals(2, fl.getCount(FailureLog.Kind.PARSING, "invalid line #"));
+        assertEquals("a.log: invalid line 1", errors.get(0));
+
+        List<FailureLog.Example> examples = fl.getExamples(FailureLog.Kind.PARSING, "invalid line #");
+        assertEquals("b.log", examples.get(1).getFile());
+        assertEquals(1L, examples.get(1).getLineNumber());
+
+        assertTrue(fl.getReport().contains("b.log, line 1: invalid line 1"));
+    }
+
+    @Test
+    public void noFailures() throws Exception {
+
+        List<String> errors = new ArrayList<>();
+
+        new FailureLog(errorCollectingLogger(errors)).close();
+
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    public void close_DistinctFailuresAllLogged_NoReport() throws Exception {
+
+        List<String> errors = new ArrayList<>();
+
+        FailureLog fl = new FailureLog(errorCollectingLogger(errors));
+
+        fl.failure(FailureLog.Kind.PARSING, "invalid line 1", 1, null);
+        fl.failure(FailureLog.Kind.PROCESSING, "something else", 2, null);
+
+        fl.close();
+
+        //
+        // each failure was logged as it occurred, the table would not add anything
+        //
+
+        assertEquals(Arrays.asList("invalid line 1", "something else"), errors);
+    }
+
+    @Test
+    public void close_SimilarFailures_Report() throws Exception {
+
+        List<String> errors = new ArrayList<>();
+
+        FailureLog fl = new FailureLog(errorCollectingLogger(errors));
+
+        fl.failure(FailureLog.Kind.PARSING, "invalid line 1", 1, null);
+        fl.failure(FailureLog.Kind.PARSING, "invalid line 2", 2, null);
+
+        fl.close();
+
+        assertEquals(3, errors.size());
+        assertTrue(errors.get(2).startsWith("2 failure(s) in 1 categories:"));
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class FlightRecorderEventsTest {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    // Tests -----------------------------------------------------------------------------------------------------------
+
+    @Test
+    public void recording() throws Exception {
+
+        assertTrue(FlightRecorderEvents.isAvailable());
+        assertFalse(FlightRecorderEvents.isRecording());
+
+        File dump = File.createTempFile("events-cli-", ".jfr");
+
+        try {
+
+            try(Recording recording = new Recording()) {
+
+                for(String name: new String[] { "Parse", "Procedure", "ParserClose" }) {
+
+                    recording.enable("io.novaordis.events.cli." + name).withThreshold(Duration.ZERO);
+                }
+
+                recording.start();
+
+                assertTrue(FlightRecorderEvents.isRecording());
+
+                ConfigurationImpl c = new ConfigurationImpl(
+                        new String[] { RuntimeOptions.ASYNC_OUTPUT }, null,
+                        new MockInputStream("mock-event-1\nmock-event-2\nmock-event-3\n"), new ByteArrayOutputStream());
+
+                c.setParser(new MockParser());
+
+                new EventParserRuntime(c, "test").run();
+
+                recording.stop();
+                recording.dump(dump.toPath());
+            }
+
+            assertFalse(FlightRecorderEvents.isRecording());
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(dump.toPath());
+
+            Map<String, Integer> counts = new HashMap<>();
+            long lastParsedLine = 0L;
+
+            for(RecordedEvent e: events) {
+
+                String name = e.getEventType().getName();
+                counts.merge(name, 1, Integer::sum);
+
+                if ("io.novaordis.events.cli.Parse".equals(name)) {
+
+                    assertEquals(lastParsedLine + 1, e.getLong("firstLine"));
+                    assertEquals(e.getLong("firstLine"), e.getLong("lastLine"));
+                    assertEquals(1, e.getInt("eventCount"));
+                    lastParsedLine = e.getLong("lastLine");
+                }
+            }
+
+            assertEquals(3, (int)counts.get("io.novaordis.events.cli.Parse"));
+            assertEquals(1, (int)counts.get("io.novaordis.events.cli.ParserClose"));
+
+            //
+            // three lines and the parser close
+            //
+
+            assertEquals(4, (int)counts.get("io.novaordis.events.cli.Procedure"));
+
+            //
+            // not enabled
+            //
+
+            assertFalse(counts.containsKey("io.novaordis.events.cli.InputStall"));
+        }
+        finally {
+
+            assertTrue(dump.delete());
+        }
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.novaordis.events.cli;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class InflightBudgetTest {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private ExecutorService executor;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    @Before
+    public void setUp() throws Exception {
+
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+
+        executor.shutdownNow();
+    }
+
+    // Tests -----------------------------------------------------------------------------------------------------------
+
+    @Test
+    public void constructor_InvalidLimit() throws Exception {
+
+        try {
+
+            new InflightBudget(0L, InflightBudget.UNLIMITED);
+            fail("should have thrown exception");
+        }
+        catch(IllegalArgumentException e) {
+
+            // expected
+        }
+    }
+
+    @Test
+    public void acquire_BlocksUntilReleased() throws Exception {
+
+        InflightBudget b = new InflightBudget(10L, 100L);
+
+        b.acquire(8L, 50L, null);
+
+        Future<?> f = executor.submit(() -> {
+
+            b.acquire(5L, 10L, null);
+            return null;
+        });
+
+        assertBlocked(f);
+
+        b.release(8L, 50L);
+
+        f.get(10L, TimeUnit.SECONDS);
+
+        assertEquals(5L, b.getEvents());
+        assertEquals(10L, b.getBytes());
+        assertTrue(b.getBlockedTimeNanos() > 0L);
+    }
+
+    @Test
+    public void acquire_LargerThanTheBudgetIsAdmittedWhenNothingIsInFlight() throws Exception {
+
+        InflightBudget b = new InflightBudget(InflightBudget.UNLIMITED, 100L);
+
+        b.acquire(1L, 1000L, null);
+
+        assertEquals(1000L, b.getBytes());
+        assertTrue(b.isExhausted());
+    }
+
+    @Test
+    public void acquire_Admit() throws Exception {
+
+        InflightBudget b = new InflightBudget(1L, InflightBudget.UNLIMITED);
+
+        b.reserve(1L, 0L);
+
+        AtomicBoolean admit = new AtomicBoolean(false);
+
+        Future<?> f = executor.submit(() -> {
+
+            b.acquire(1L, 0L, admit::get);
+            return null;
+        });
+
+        assertBlocked(f);
+
+        admit.set(true);
+        b.wakeUp();
+
+        f.get(10L, TimeUnit.SECONDS);
+
+        assertEquals(2L, b.getEvents());
+    }
+
+    @Test
+    public void awaitCapacity() throws Exception {
+
+        InflightBudget b = new InflightBudget(2L, InflightBudget.UNLIMITED);
+
+        b.awaitCapacity();
+
+        //
+        // downstream stages do not block, even past the limit
+        //
+
+        b.reserve(1L, 0L);
+        b.reserve(2L, 0L);
+
+        assertTrue(b.isExhausted());
+
+        Future<?> f = executor.submit(() -> {
+
+            b.awaitCapacity();
+            return null;
+        });
+
+        assertBlocked(f);
+
+        b.release(2L, 0L);
+
+        f.get(10L, TimeUnit.SECONDS);
+
+        assertFalse(b.isExhausted());
+        assertEquals(1L, b.getEvents());
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    private static void assertBlocked(Future<?> f) throws Exception {
+
+        try {
+
+            f.get(100L, TimeUnit.MILLISECONDS);
+            fail("should have blocked");
+        }
+        catch(TimeoutException e) {
+
+            // expected
+        }
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
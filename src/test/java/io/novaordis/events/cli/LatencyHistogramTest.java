@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class LatencyHistogramTest {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    // Tests -----------------------------------------------------------------------------------------------------------
+
+    @Test
+    public void buckets() throws Exception {
+
+        long[] values = { 0L, 1L, 15L, 16L, 17L, 31L, 32L, 63L, 1000L, 123456789L, Long.MAX_VALUE };
+
+        for(long v: values) {
+
+            int i = LatencyHistogram.indexOf(v);
+
+            assertTrue(v + " below bucket " + i, LatencyHistogram.lowestValueAt(i) <= v);
+            assertTrue(v + " above bucket " + i, LatencyHistogram.highestValueAt(i) >= v);
+
+            //
+            // relative error
+            //
+
+            assertTrue(LatencyHistogram.highestValueAt(i) - LatencyHistogram.lowestValueAt(i) <= v / 16);
+        }
+
+        assertEquals(LatencyHistogram.indexOf(31L) + 1, LatencyHistogram.indexOf(32L));
+    }
+
+    @Test
+    public void percentiles() throws Exception {
+
+        LatencyHistogram h = new LatencyHistogram();
+
+        assertEquals(0L, h.getValueAtPercentile(50));
+        assertEquals(0L, h.getMin());
+
+        for(long i = 1; i <= 1000; i ++) {
+
+            h.record(i * 1000);
+        }
+
+        assertEquals(1000, h.getCount());
+        assertEquals(1000L, h.getMin());
+        assertEquals(1000000L, h.getMax());
+        assertEquals(500500d, h.getMean(), 0.001d);
+
+        long p50 = h.getValueAtPercentile(50);
+        assertTrue(p50 >= 500000L && p50 <= 500000L + 500000L / 16);
+
+        long p99 = h.getValueAtPercentile(99);
+        assertTrue(p99 >= 990000L && p99 <= 990000L + 990000L / 16);
+
+        assertEquals(1000000L, h.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void record_Times() throws Exception {
+
+        LatencyHistogram h = new LatencyHistogram();
+
+        h.record(10L, 3L);
+        h.record(40L);
+
+        assertEquals(4L, h.getCount());
+        assertEquals(10L, h.getMin());
+        assertEquals(40L, h.getMax());
+        assertEquals(17.5d, h.getMean(), 0d);
+        assertEquals(10L, h.getValueAtPercentile(75));
+    }
+
+    @Test
+    public void add() throws Exception {
+
+        LatencyHistogram h = new LatencyHistogram();
+        h.record(10L);
+
+        LatencyHistogram h2 = new LatencyHistogram();
+        h2.record(5L);
+        h2.record(20L);
+
+        h.add(h2);
+
+        assertEquals(3, h.getCount());
+        assertEquals(5L, h.getMin());
+        assertEquals(20L, h.getMax());
+        assertEquals(10L, h.getValueAtPercentile(50));
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
@@ -22,6 +22,7 @@ import java.util.List;
 
 import io.novaordis.events.api.event.Event;
 import io.novaordis.events.api.event.GenericEvent;
+import io.novaordis.events.api.event.GenericTimedEvent;
 import io.novaordis.events.api.event.StringProperty;
 import io.novaordis.events.api.parser.Parser;
 import io.novaordis.events.query.Query;
@@ -45,6 +46,7 @@ public class MockParser implements Parser {
 
     private boolean failWhenParsing;
     private boolean failWhenClosing;
+    private boolean timed;
 
     // Constructors ----------------------------------------------------------------------------------------------------
 
@@ -68,9 +70,18 @@ public class MockParser implements Parser {
         }
 
         //
-        // wrap each line in a generic event, with a "payload" property.
+        // wrap each line in a generic event, with a "payload" property. Timed events are timestamped with the line
+        // number.
         //
 
+        if (timed) {
+
+            GenericTimedEvent e = new GenericTimedEvent(lineNumber);
+            e.setProperty(new StringProperty(PAYLOAD_PROPERTY_NAME, line));
+            //noinspection ArraysAsListWithZeroOrOneArgument
+            return Arrays.asList(e);
+        }
+
         //noinspection ArraysAsListWithZeroOrOneArgument
         return Arrays.asList(new GenericEvent(Arrays.asList(new StringProperty(PAYLOAD_PROPERTY_NAME, line))));
     }
@@ -104,6 +115,11 @@ public class MockParser implements Parser {
         this.failWhenClosing = b;
     }
 
+    public void setTimed(boolean b) {
+
+        this.timed = b;
+    }
+
     // Package protected -----------------------------------------------------------------------------------------------
 
     // Protected -------------------------------------------------------------------------------------------------------
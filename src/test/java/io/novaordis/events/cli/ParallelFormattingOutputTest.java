@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.novaordis.events.api.event.Event;
+import io.novaordis.events.processing.EventProcessingException;
+import io.novaordis.events.processing.output.Output;
+import io.novaordis.utilities.UserErrorException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class ParallelFormattingOutputTest {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    // Tests -----------------------------------------------------------------------------------------------------------
+
+    @Test
+    public void outputIsIdenticalWithOutputProcedureOutput() throws Exception {
+
+        List<List<Event>> batches = new ArrayList<>();
+
+        MockParser mp = new MockParser();
+
+        for(int i = 0; i < 5000; i ++) {
+
+            batches.add(mp.parse("mock-event-" + i, null));
+        }
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+
+        Output reference = new Output(expected, null, 0, new ArrayList<>());
+
+        for(List<Event> b: batches) {
+
+            reference.process(b);
+        }
+
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+
+        ParallelFormattingOutput o = new ParallelFormattingOutput(reference.getFormat(), actual, 4, 7);
+
+        for(List<Event> b: batches) {
+
+            o.process(b);
+        }
+
+        o.close();
+
+        assertEquals(batches.size(), o.getInvocationCount());
+        assertTrue(expected.size() > 0);
+        assertEquals(new String(expected.toByteArray()), new String(actual.toByteArray()));
+    }
+
+    @Test
+    public void eachFormatterThreadHasItsOwnFormat() throws Exception {
+
+        List<List<Event>> batches = new ArrayList<>();
+
+        MockParser mp = new MockParser();
+
+        for(int i = 0; i < 1000; i ++) {
+
+            batches.add(mp.parse("mock-\u00e9v\u00e9nement-" + i, null));
+        }
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+
+        Output reference = new Output(expected, null, 0, new ArrayList<>());
+
+        for(List<Event> b: batches) {
+
+            reference.process(b);
+        }
+
+        AtomicInteger instances = new AtomicInteger();
+        Set<Thread> threads = Collections.synchronizedSet(new HashSet<>());
+
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+
+        ParallelFormattingOutput o = new ParallelFormattingOutput(() -> {
+
+            instances.incrementAndGet();
+            threads.add(Thread.currentThread());
+
+            try {
+
+                return new Output(new ByteArrayOutputStream(), null, 0, new ArrayList<>()).getFormat();
+            }
+            catch(UserErrorException e) {
+
+                throw new IllegalStateException(e);
+            }
+
+        }, actual, 4, 7, null);
+
+        for(List<Event> b: batches) {
+
+            o.process(b);
+        }
+
+        o.close();
+
+        assertTrue(instances.get() > 0);
+        assertTrue(instances.get() <= 4);
+        assertEquals(instances.get(), threads.size());
+
+        //
+        // the same bytes, non-ASCII characters included
+        //
+
+        assertTrue(Arrays.equals(expected.toByteArray(), actual.toByteArray()));
+    }
+
+    @Test
+    public void flush() throws Exception {
+
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+
+        Output reference = new Output(new ByteArrayOutputStream(), null, 0, new ArrayList<>());
+
+        ParallelFormattingOutput o = new ParallelFormattingOutput(reference.getFormat(), actual, 2, 1000);
+
+        o.process(new MockParser().parse("something", null));
+
+        //
+        // the batch is not full, nothing is written until flush
+        //
+
+        assertEquals(0, actual.size());
+
+        o.flush();
+
+        assertTrue(actual.size() > 0);
+
+        o.close();
+    }
+
+    @Test
+    public void writerFailureIsReported() throws Exception {
+
+        OutputStream broken = new OutputStream() {
+
+            @Override
+            public void write(int b) throws IOException {
+
+                throw new IOException("SYNTHETIC");
+            }
+        };
+
+        Output reference = new Output(new ByteArrayOutputStream(), null, 0, new ArrayList<>());
+
+        ParallelFormattingOutput o = new ParallelFormattingOutput(reference.getFormat(), broken, 2, 1);
+
+        o.process(new MockParser().parse("something", null));
+
+        try {
+
+            o.flush();
+            fail("should have thrown exception");
+        }
+        catch(IOException e) {
+
+            assertTrue(e.getMessage().contains("SYNTHETIC"));
+        }
+
+        try {
+
+            o.process(new MockParser().parse("something else", null));
+            fail("should have thrown exception");
+        }
+        catch(EventProcessingException e) {
+
+            assertTrue(e.getMessage().contains("SYNTHETIC"));
+        }
+
+        try {
+
+            o.close();
+            fail("should have thrown exception");
+        }
+        catch(IOException e) {
+
+            assertTrue(e.getMessage().contains("SYNTHETIC"));
+        }
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+
+import io.novaordis.utilities.appspec.ApplicationSpecificBehavior;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class ParallelGzipOutputStreamTest {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    static byte[] gunzip(byte[] compressed) throws IOException {
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+
+        try(InputStream is = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+
+            byte[] buffer = new byte[4096];
+            int n;
+
+            while((n = is.read(buffer)) != -1) {
+
+                baos.write(buffer, 0, n);
+            }
+        }
+
+        return baos.toByteArray();
+    }
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    // Tests -----------------------------------------------------------------------------------------------------------
+
+    @Test
+    public void roundTrip() throws Exception {
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+        ParallelGzipOutputStream os = new ParallelGzipOutputStream(compressed, 3, 1000);
+
+        for(int i = 0; i < 10000; i ++) {
+
+            byte[] line = ("line " + i + "\n").getBytes();
+            expected.write(line);
+            os.write(line);
+
+            if (i == 5000) {
+
+                //
+                // flushes end gzip members, the stream must remain valid
+                //
+
+                os.flush();
+            }
+        }
+
+        os.write('x');
+        expected.write('x');
+
+        os.close();
+
+        assertArrayEquals(expected.toByteArray(), gunzip(compressed.toByteArray()));
+    }
+
+    @Test
+    public void empty() throws Exception {
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+        ParallelGzipOutputStream os = new ParallelGzipOutputStream(compressed, 2, 1000);
+
+        os.close();
+
+        assertTrue(compressed.size() > 0);
+        assertEquals(0, gunzip(compressed.toByteArray()).length);
+    }
+
+    @Test
+    public void writeAfterClose() throws Exception {
+
+        ParallelGzipOutputStream os = new ParallelGzipOutputStream(new ByteArrayOutputStream(), 1, 10);
+
+        os.close();
+
+        try {
+
+            os.write(1);
+            fail("should have thrown exception");
+        }
+        catch(IOException e) {
+
+            assertTrue(e.getMessage().contains("closed"));
+        }
+    }
+
+    @Test
+    public void sharedExecutorIsNotShutDown() throws Exception {
+
+        ExecutorService shared = Executors.newFixedThreadPool(2);
+
+        try {
+
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+            ParallelGzipOutputStream os =
+                    new ParallelGzipOutputStream(compressed, 2, 100, new ApplicationSpecificBehavior(shared));
+
+            byte[] content = new byte[1000];
+            Arrays.fill(content, (byte)'x');
+
+            os.write(content);
+            os.close();
+
+            assertArrayEquals(content, gunzip(compressed.toByteArray()));
+            assertFalse(shared.isShutdown());
+        }
+        finally {
+
+            shared.shutdown();
+        }
+    }
+
+    @Test
+    public void close_TheBlocksThatWereNotWrittenReleaseTheirBudget() throws Exception {
+
+        OutputStream broken = new OutputStream() {
+
+            @Override
+            public void write(int b) throws IOException {
+
+                throw new IOException("SYNTHETIC");
+            }
+        };
+
+        InflightBudget budget = new InflightBudget(InflightBudget.UNLIMITED, InflightBudget.UNLIMITED);
+
+        ParallelGzipOutputStream os = new ParallelGzipOutputStream(broken, 2, 100);
+        os.setInflightBudget(budget);
+
+        byte[] content = new byte[350];
+        Arrays.fill(content, (byte)'x');
+
+        os.write(content);
+
+        assertEquals(300L, budget.getBytes());
+
+        try {
+
+            os.close();
+            fail("should have thrown exception");
+        }
+        catch(IOException e) {
+
+            assertEquals("SYNTHETIC", e.getMessage());
+        }
+
+        assertEquals(0L, budget.getBytes());
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
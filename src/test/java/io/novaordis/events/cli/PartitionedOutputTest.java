@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.novaordis.events.api.event.Event;
+import io.novaordis.events.processing.output.Output;
+import io.novaordis.events.processing.output.OutputFormat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class PartitionedOutputTest {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private File directory;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    @Before
+    public void before() throws Exception {
+
+        directory = Files.createTempDirectory("partitioned-output-test").toFile();
+    }
+
+    @After
+    public void after() throws Exception {
+
+        File[] files = directory.listFiles();
+
+        if (files != null) {
+
+            for(File f: files) {
+
+                assertTrue(f.delete());
+            }
+        }
+
+        assertTrue(directory.delete());
+    }
+
+    // Tests -----------------------------------------------------------------------------------------------------------
+
+    @Test
+    public void roundRobin() throws Exception {
+
+        OutputFormat format = new Output(new ByteArrayOutputStream(), null, 0, new ArrayList<>()).getFormat();
+
+        String prefix = new File(directory, "test").getPath();
+
+        PartitionedOutput o = new PartitionedOutput(format, prefix, 3, null, false, 16);
+
+        assertNull(o.getPropertyName());
+        assertEquals(3, o.getPartitionCount());
+
+        MockParser mp = new MockParser();
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+
+        for(int i = 0; i < 9; i ++) {
+
+            Event e = mp.parse("mock-event-" + i, null).get(0);
+            assertEquals(i % 3, o.partitionOf(e));
+            expected.write(format.format(e).getBytes());
+        }
+
+        for(int i = 0; i < 9; i ++) {
+
+            o.process(mp.parse("mock-event-" + i, null));
+        }
+
+        o.close();
+
+        long total = 0;
+
+        for(int i = 0; i < 3; i ++) {
+
+            File f = PartitionedOutput.getPartitionFile(prefix, i, false);
+            assertEquals(f, o.getFiles()[i]);
+            assertTrue(f.length() > 0);
+            total += f.length();
+        }
+
+        assertEquals(expected.size(), total);
+    }
+
+    @Test
+    public void byProperty_Compressed() throws Exception {
+
+        OutputFormat format = new Output(new ByteArrayOutputStream(), null, 0, new ArrayList<>()).getFormat();
+
+        String prefix = new File(directory, "test").getPath();
+
+        PartitionedOutput o = new PartitionedOutput(
+                format, prefix, 4, MockParser.PAYLOAD_PROPERTY_NAME, true, 1024);
+
+        MockParser mp = new MockParser();
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+
+        //
+        // identical property values go to the same partition
+        //
+
+        for(int i = 0; i < 10; i ++) {
+
+            Event e = mp.parse("same", null).get(0);
+            expected.write(format.format(e).getBytes());
+            o.process(e);
+        }
+
+        o.close();
+
+        int nonEmpty = 0;
+
+        for(int i = 0; i < 4; i ++) {
+
+            File f = PartitionedOutput.getPartitionFile(prefix, i, true);
+
+            assertTrue(f.getName().endsWith(PartitionedOutput.GZIP_EXTENSION));
+
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+            try(InputStream is = new GZIPInputStream(new FileInputStream(f))) {
+
+                int b;
+
+                while((b = is.read()) != -1) {
+
+                    content.write(b);
+                }
+            }
+
+            if (content.size() > 0) {
+
+                nonEmpty ++;
+                assertEquals(new String(expected.toByteArray()), new String(content.toByteArray()));
+            }
+        }
+
+        assertEquals(1, nonEmpty);
+    }
+
+    @Test
+    public void constructor_APartitionCannotBeCreated_TheOthersAreClosed() throws Exception {
+
+        OutputFormat format = new Output(new ByteArrayOutputStream(), null, 0, new ArrayList<>()).getFormat();
+
+        String prefix = new File(directory, "test").getPath();
+
+        //
+        // the second partition file cannot be created
+        //
+
+        assertTrue(PartitionedOutput.getPartitionFile(prefix, 1, true).mkdir());
+
+        long writers = countWriterThreads();
+
+        try {
+
+            new PartitionedOutput(format, prefix, 3, null, true, 16);
+            fail("should have thrown exception");
+        }
+        catch(IOException e) {
+
+            //
+            // expected
+            //
+        }
+
+        assertEquals(writers, countWriterThreads());
+
+        //
+        // the first partition was finished, and can be read
+        //
+
+        try(InputStream is = new GZIPInputStream(
+                new FileInputStream(PartitionedOutput.getPartitionFile(prefix, 0, true)))) {
+
+            assertEquals(-1, is.read());
+        }
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    private static long countWriterThreads() {
+
+        return Thread.getAllStackTraces().keySet().stream().
+                filter(t -> t.isAlive() && "events-cli output writer".equals(t.getName())).count();
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
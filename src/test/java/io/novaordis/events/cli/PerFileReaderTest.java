@@ -0,0 +1,400 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.novaordis.events.api.event.Event;
+import io.novaordis.events.api.event.GenericEvent;
+import io.novaordis.events.api.event.StringProperty;
+import io.novaordis.events.query.Query;
+import io.novaordis.utilities.parsing.ParsingException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class PerFileReaderTest {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private List<File> files;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    @Before
+    public void setUp() throws Exception {
+
+        files = new ArrayList<>();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+
+        for(File f: files) {
+
+            assertTrue(f.delete());
+        }
+    }
+
+    // Tests -----------------------------------------------------------------------------------------------------------
+
+    @Test
+    public void read() throws Exception {
+
+        int lines = 2 * PerFileReader.CHUNK_LINES + 1;
+
+        StringBuilder sb = new StringBuilder();
+
+        for(int i = 1; i <= lines; i ++) {
+
+            sb.append("line-").append(i).append('\n');
+        }
+
+        File f = file(sb.toString());
+
+        PerFileReader.FileResult r = new PerFileReader(MockParser::new, null, 1, false).read(f);
+
+        assertEquals(f, r.getFile());
+        assertEquals(lines, r.getLines());
+        assertEquals(f.length(), r.getBytes());
+        assertEquals(lines, r.getEvents().size());
+        assertEquals("line-" + lines, payload(r.getEvents().get(lines - 1)));
+        assertTrue(r.getFailures().isEmpty());
+        assertNull(r.getCloseFailure());
+    }
+
+    @Test
+    public void read_ParsingFailures() throws Exception {
+
+        File f = file("a\nb\n");
+
+        ParserFactory failing = () -> {
+
+            MockParser p = new MockParser();
+            p.setFailWhenParsing(true);
+            p.setFailWhenClosing(true);
+            return p;
+        };
+
+        PerFileReader.FileResult r = new PerFileReader(failing, null, 1, true).read(f);
+
+        assertEquals(2, r.getLines());
+        assertTrue(r.getEvents().isEmpty());
+        assertEquals(2, r.getFailures().size());
+        assertEquals(2L, r.getFailures().get(1).getLineNumber());
+        assertEquals("b", r.getFailures().get(1).getLine());
+        assertNotNull(r.getFailures().get(1).getCause());
+        assertNotNull(r.getCloseFailure());
+
+        //
+        // the lines are not kept, unless requested
+        //
+
+        r = new PerFileReader(failing, null, 1, false).read(f);
+
+        assertNull(r.getFailures().get(0).getLine());
+    }
+
+    @Test
+    public void read_BinaryEventStream() throws Exception {
+
+        File f = File.createTempFile("events-cli-per-file-reader-test", ".bin");
+        files.add(f);
+
+        try(FileOutputStream os = new FileOutputStream(f)) {
+
+            BinaryEventWriter w = new BinaryEventWriter(os);
+
+            w.write(new GenericEvent(Arrays.asList(new StringProperty(MockParser.PAYLOAD_PROPERTY_NAME, "a"))));
+            w.write(new GenericEvent(Arrays.asList(new StringProperty(MockParser.PAYLOAD_PROPERTY_NAME, "b"))));
+        }
+
+        PerFileReader.FileResult r = new PerFileReader(() -> {
+
+            throw new IllegalStateException("the parser must not be used");
+
+        }, null, 1, false).read(f);
+
+        assertEquals(2, r.getEvents().size());
+        assertEquals("b", payload(r.getEvents().get(1)));
+    }
+
+    @Test
+    public void parseConcurrencyIsCapped() throws Exception {
+
+        int permits = 2;
+
+        for(int i = 0; i < 8; i ++) {
+
+            file("a\nb\nc\n");
+        }
+
+        AtomicInteger parsing = new AtomicInteger(0);
+        AtomicInteger maxParsing = new AtomicInteger(0);
+
+        ParserFactory slow = () -> new MockParser() {
+
+            @Override
+            public List<Event> parse(String line, Query query) throws ParsingException {
+
+                maxParsing.accumulateAndGet(parsing.incrementAndGet(), Math::max);
+
+                try {
+
+                    Thread.sleep(5L);
+                }
+                catch(InterruptedException e) {
+
+                    Thread.currentThread().interrupt();
+                }
+
+                parsing.decrementAndGet();
+
+                return super.parse(line, query);
+            }
+        };
+
+        PerFileReader reader = new PerFileReader(slow, null, permits, false);
+
+        ExecutorService executor = Executors.newFixedThreadPool(files.size());
+
+        try {
+
+            List<Future<PerFileReader.FileResult>> futures = new ArrayList<>();
+
+            for(File f: files) {
+
+                futures.add(executor.submit(() -> reader.read(f)));
+            }
+
+            for(Future<PerFileReader.FileResult> future: futures) {
+
+                assertEquals(3, future.get().getEvents().size());
+            }
+        }
+        finally {
+
+            executor.shutdown();
+        }
+
+        assertTrue(maxParsing.get() <= permits);
+    }
+
+    @Test
+    public void cancel_TheReadStopsAfterTheChunkInProgress() throws Exception {
+
+        StringBuilder sb = new StringBuilder();
+
+        for(int i = 0; i < 3 * PerFileReader.CHUNK_LINES; i ++) {
+
+            sb.append("line-").append(i).append("\n");
+        }
+
+        File f = file(sb.toString());
+
+        AtomicReference<PerFileReader> reader = new AtomicReference<>();
+
+        //
+        // the reader is cancelled while the first chunk is being parsed
+        //
+
+        ParserFactory cancelling = () -> new MockParser() {
+
+            @Override
+            public List<Event> parse(String line, Query query) throws ParsingException {
+
+                reader.get().cancel();
+
+                return super.parse(line, query);
+            }
+        };
+
+        reader.set(new PerFileReader(cancelling, null, 1, false));
+
+        assertEquals(PerFileReader.CHUNK_LINES, reader.get().read(f).getEvents().size());
+
+        //
+        // reads started after cancellation do not read anything
+        //
+
+        assertTrue(reader.get().read(f).getEvents().isEmpty());
+    }
+
+    @Test
+    public void budget_OnlyTheHeadIsAdmittedWhenExhausted() throws Exception {
+
+        File f = file("a\nb\nc\n");
+
+        InflightBudget budget = new InflightBudget(2L, InflightBudget.UNLIMITED);
+
+        PerFileReader reader = new PerFileReader(MockParser::new, null, 1, false, budget);
+
+        //
+        // nothing in flight, admitted even if it exceeds the budget
+        //
+
+        PerFileReader.FileResult first = reader.read(f, 1L);
+
+        assertEquals(3L, budget.getEvents());
+        assertEquals(3L, budget.getBytes());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+
+            Future<PerFileReader.FileResult> second = executor.submit(() -> reader.read(f, 2L));
+
+            try {
+
+                second.get(100L, TimeUnit.MILLISECONDS);
+                fail("the read should have blocked");
+            }
+            catch(TimeoutException e) {
+
+                // expected
+            }
+
+            //
+            // the event loop waits for the second file, which is admitted
+            //
+
+            reader.setHead(2L);
+
+            assertEquals(3, second.get(10L, TimeUnit.SECONDS).getEvents().size());
+            assertEquals(6L, budget.getEvents());
+
+            reader.release(first);
+            reader.release(second.get());
+
+            assertEquals(0L, budget.getEvents());
+            assertEquals(0L, budget.getBytes());
+        }
+        finally {
+
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void cancel_AReaderBlockedOnTheBudgetStops() throws Exception {
+
+        File f = file("a\nb\nc\n");
+
+        InflightBudget budget = new InflightBudget(2L, InflightBudget.UNLIMITED);
+
+        PerFileReader reader = new PerFileReader(MockParser::new, null, 1, false, budget);
+
+        PerFileReader.FileResult first = reader.read(f, 1L);
+
+        //
+        // a thread that is not interrupted when the run ends, such as an application-supplied executor's
+        //
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+
+            Future<PerFileReader.FileResult> second = executor.submit(() -> reader.read(f, 2L));
+
+            try {
+
+                second.get(100L, TimeUnit.MILLISECONDS);
+                fail("the read should have blocked");
+            }
+            catch(TimeoutException e) {
+
+                // expected
+            }
+
+            reader.cancel();
+
+            second.get(10L, TimeUnit.SECONDS);
+
+            //
+            // the cancelled read gave back what it acquired
+            //
+
+            assertEquals(3L, budget.getEvents());
+
+            //
+            // reads started after cancellation do not read anything
+            //
+
+            assertTrue(executor.submit(() -> reader.read(f, 3L)).get(10L, TimeUnit.SECONDS).getEvents().isEmpty());
+
+            reader.release(first);
+
+            assertEquals(0L, budget.getEvents());
+            assertEquals(0L, budget.getBytes());
+        }
+        finally {
+
+            executor.shutdownNow();
+        }
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    private File file(String content) throws Exception {
+
+        File f = File.createTempFile("events-cli-per-file-reader-test", ".log");
+        files.add(f);
+        Files.write(f.toPath(), content.getBytes());
+        return f;
+    }
+
+    private static String payload(Event e) {
+
+        return e.getStringProperty(MockParser.PAYLOAD_PROPERTY_NAME).getString();
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
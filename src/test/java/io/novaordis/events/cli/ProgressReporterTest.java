@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class ProgressReporterTest {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    // Tests -----------------------------------------------------------------------------------------------------------
+
+    @Test
+    public void progressLine_KnownSize() throws Exception {
+
+        String input = "mock-event-1\nmock-event-2\n";
+
+        EventParserRuntime r = run(input);
+
+        ProgressReporter p = new ProgressReporter(r, 2 * input.length(), System.err, 1000L);
+
+        String line = p.getProgressLine();
+
+        assertTrue(line, line.startsWith(input.length() + " B / " + (2 * input.length()) + " B (50.0%)"));
+        assertTrue(line, line.contains("lines/s"));
+        assertTrue(line, line.contains("events/s"));
+        assertTrue(line, line.contains("0 parsing failures"));
+        assertTrue(line, line.contains("0 processing failures"));
+        assertTrue(line, line.contains("ETA "));
+    }
+
+    @Test
+    public void progressLine_UnknownSize() throws Exception {
+
+        ProgressReporter p = new ProgressReporter(run("mock-event-1\n"), -1L, System.err, 1000L);
+
+        String line = p.getProgressLine();
+
+        assertTrue(line, line.startsWith("13 B, "));
+        assertFalse(line, line.contains("%"));
+        assertFalse(line, line.contains("ETA"));
+    }
+
+    @Test
+    public void refreshAndDump() throws Exception {
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PrintStream ps = new PrintStream(baos, true);
+
+        ProgressReporter p = new ProgressReporter(run("mock-event-1\n"), 100L, ps, 10L);
+
+        p.start();
+        assertTrue(p.isRefreshing());
+
+        Thread.sleep(50L);
+
+        p.dump();
+        p.close();
+
+        assertFalse(p.isRefreshing());
+
+        String s = new String(baos.toByteArray());
+
+        assertTrue(s.startsWith("\r13 B / 100 B (13.0%)"));
+        assertTrue(s.endsWith("\n"));
+
+        //
+        // idempotent
+        //
+
+        p.close();
+        assertEquals(s, new String(baos.toByteArray()));
+    }
+
+    @Test
+    public void installSignalHandler_DumpOnSignal() throws Exception {
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PrintStream ps = new PrintStream(baos, true);
+
+        ProgressReporter p = new ProgressReporter(run("mock-event-1\n"), 100L, ps, 10L);
+
+        if (!p.installSignalHandler()) {
+
+            //
+            // the VM does not let us have the signal, nothing to test
+            //
+
+            return;
+        }
+
+        try {
+
+            Class<?> signalClass = Class.forName("sun.misc.Signal");
+            Object signal = signalClass.getConstructor(String.class).newInstance(ProgressReporter.DUMP_SIGNAL);
+            signalClass.getMethod("raise", signalClass).invoke(null, signal);
+
+            //
+            // the handler runs asynchronously, on a VM thread
+            //
+
+            long deadline = System.currentTimeMillis() + 5000L;
+
+            while(baos.size() == 0 && System.currentTimeMillis() < deadline) {
+
+                Thread.sleep(10L);
+            }
+
+            assertTrue(new String(baos.toByteArray()).startsWith("13 B / 100 B (13.0%)"));
+        }
+        finally {
+
+            p.close();
+        }
+    }
+
+    @Test
+    public void formatDuration() throws Exception {
+
+        assertEquals("00:00:00", ProgressReporter.formatDuration(0));
+        assertEquals("01:01:05", ProgressReporter.formatDuration(3665));
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    private static EventParserRuntime run(String input) throws Exception {
+
+        ConfigurationImpl c = new ConfigurationImpl(
+                new String[] { RuntimeOptions.ASYNC_OUTPUT }, null,
+                new MockInputStream(input), new ByteArrayOutputStream());
+
+        c.setParser(new MockParser());
+
+        EventParserRuntime r = new EventParserRuntime(c, "test");
+        r.run();
+        return r;
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
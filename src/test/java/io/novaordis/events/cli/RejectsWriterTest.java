@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class RejectsWriterTest {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private File file;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    @Before
+    public void setUp() throws Exception {
+
+        file = File.createTempFile("events-cli-rejects-", ".txt");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+
+        assertTrue(file.delete());
+    }
+
+    // Tests -----------------------------------------------------------------------------------------------------------
+
+    @Test
+    public void rejects() throws Exception {
+
+        RejectsWriter w = new RejectsWriter(file, 10000);
+
+        for(int i = 1; i <= 5000; i ++) {
+
+            assertTrue(w.reject(i, "bad\tline\n" + i, "line\t" + i));
+        }
+
+        w.close();
+
+        assertEquals(5000, w.getWritten());
+        assertEquals(0, w.getDropped());
+
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+
+        assertEquals(5000, lines.size());
+        assertEquals("1\tbad line 1\tline\t1", lines.get(0));
+        assertEquals("5000\tbad line 5000\tline\t5000", lines.get(4999));
+
+        //
+        // idempotent, and no rejects are accepted after close
+        //
+
+        w.close();
+        assertFalse(w.reject(5001, "too late", "something"));
+        assertEquals(1, w.getDropped());
+    }
+
+    @Test
+    public void rejects_LineNumberRelativeToAFile() throws Exception {
+
+        RejectsWriter w = new RejectsWriter(file, 10);
+
+        assertTrue(w.reject("access.log", 7, "bad line", "something"));
+        assertTrue(w.reject(8, "bad line", "something else"));
+
+        w.close();
+
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+
+        assertEquals("access.log:7\tbad line\tsomething", lines.get(0));
+        assertEquals("8\tbad line\tsomething else", lines.get(1));
+    }
+
+    @Test
+    public void sanitizeReason() throws Exception {
+
+        StringBuilder sb = new StringBuilder();
+
+        for(int i = 0; i < RejectsWriter.MAX_REASON_LENGTH + 10; i ++) {
+
+            sb.append('x');
+        }
+
+        assertEquals(RejectsWriter.MAX_REASON_LENGTH, RejectsWriter.sanitizeReason(sb.toString()).length());
+        assertEquals("a b c", RejectsWriter.sanitizeReason("a\tb\r\nc").replace("  ", " "));
+        assertEquals("", RejectsWriter.sanitizeReason(null));
+    }
+
+    @Test
+    public void runtime_PerFileThreads_TheLineNumbersAreRelativeToTheFile() throws Exception {
+
+        File input = File.createTempFile("events-cli-rejects-input-", ".log");
+        File input2 = File.createTempFile("events-cli-rejects-input-", ".log");
+
+        try {
+
+            Files.write(input.toPath(), "a\nb\n".getBytes());
+            Files.write(input2.toPath(), "c\n".getBytes());
+
+            ConfigurationImpl c = new ConfigurationImpl(
+                    new String[] {
+                            RuntimeOptions.PER_FILE_THREADS, RuntimeOptions.REJECTS, file.getPath(),
+                            input.getPath(), input2.getPath() },
+                    null, new MockInputStream(""), new ByteArrayOutputStream());
+
+            c.setParserFactory(() -> {
+
+                MockParser mp = new MockParser();
+                mp.setFailWhenParsing(true);
+                return mp;
+            });
+
+            EventParserRuntime r = new EventParserRuntime(c, "test");
+
+            r.run();
+
+            assertEquals(3, r.getParsingFailureCount());
+
+            List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+
+            assertEquals(input.getPath() + ":1\tSYNTHETIC PARSING EXCEPTION\ta", lines.get(0));
+            assertEquals(input.getPath() + ":2\tSYNTHETIC PARSING EXCEPTION\tb", lines.get(1));
+            assertEquals(input2.getPath() + ":1\tSYNTHETIC PARSING EXCEPTION\tc", lines.get(2));
+        }
+        finally {
+
+            assertTrue(input.delete());
+            assertTrue(input2.delete());
+        }
+    }
+
+    @Test
+    public void runtime() throws Exception {
+
+        ConfigurationImpl c = new ConfigurationImpl(
+                new String[] { RuntimeOptions.REJECTS, file.getPath() }, null,
+                new MockInputStream("a\nb\nc\n"), new ByteArrayOutputStream());
+
+        MockParser mp = new MockParser();
+        mp.setFailWhenParsing(true);
+        c.setParser(mp);
+
+        EventParserRuntime r = new EventParserRuntime(c, "test");
+
+        r.run();
+
+        assertEquals(3, r.getParsingFailureCount());
+        assertEquals(3, r.getRejectsWriter().getWritten());
+
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+
+        assertEquals("1\tSYNTHETIC PARSING EXCEPTION\ta", lines.get(0));
+        assertEquals("3\tSYNTHETIC PARSING EXCEPTION\tc", lines.get(2));
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
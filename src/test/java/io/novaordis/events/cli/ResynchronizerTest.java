@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import io.novaordis.events.api.event.Event;
+import io.novaordis.events.query.Query;
+import io.novaordis.utilities.parsing.ParsingException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class ResynchronizerTest {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    // Tests -----------------------------------------------------------------------------------------------------------
+
+    @Test
+    public void scanMode() throws Exception {
+
+        Resynchronizer r = new Resynchronizer(Resynchronizer.regexDetector(Pattern.compile("^record")), 2);
+
+        assertFalse(r.skip("garbage", 1));
+        assertFalse(r.failed(1));
+        assertFalse(r.skip("record", 2));
+        r.parsed();
+
+        //
+        // the counter was reset by the successful parse
+        //
+
+        assertFalse(r.skip("garbage", 3));
+        assertFalse(r.failed(3));
+        assertFalse(r.skip("garbage", 4));
+        assertTrue(r.failed(4));
+        assertTrue(r.isScanning());
+
+        assertTrue(r.skip("garbage", 5));
+        assertTrue(r.skip("garbage", 6));
+
+        //
+        // the record start line ends the scan mode, and it is parsed
+        //
+
+        assertFalse(r.skip("record", 7));
+        assertFalse(r.isScanning());
+
+        assertEquals(2, r.getSkippedLines());
+        assertEquals(1, r.getRegions());
+    }
+
+    @Test
+    public void runtime() throws Exception {
+
+        StringBuilder input = new StringBuilder("record 1\n");
+
+        for(int i = 0; i < 1000; i ++) {
+
+            input.append("garbage ").append(i).append('\n');
+        }
+
+        input.append("record 2\nrecord 3\n");
+
+        ConfigurationImpl c = new ConfigurationImpl(
+                new String[] { RuntimeOptions.RESYNC_AFTER, "5", RuntimeOptions.RESYNC_REGEX, "^record" }, null,
+                new MockInputStream(input.toString()), new ByteArrayOutputStream());
+
+        c.setParser(new MockParser() {
+
+            @Override
+            public List<Event> parse(String line, Query query) throws ParsingException {
+
+                if (line.startsWith("garbage")) {
+
+                    throw new ParsingException("not a record: " + line);
+                }
+
+                return super.parse(line, query);
+            }
+        });
+
+        EventParserRuntime r = new EventParserRuntime(c, "test");
+
+        r.run();
+
+        //
+        // only the first five garbage lines went through the parser
+        //
+
+        assertEquals(5, r.getParsingFailureCount());
+        assertEquals(995, r.getResynchronizer().getSkippedLines());
+        assertEquals(3, r.getProcessedEventsCount());
+        assertEquals(1003, r.getLinesRead());
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import io.novaordis.utilities.appspec.ApplicationSpecificBehavior;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class RuntimeExecutorsTest {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    // Tests -----------------------------------------------------------------------------------------------------------
+
+    @Test
+    public void noExecutorSupplied_OwnPool() throws Exception {
+
+        ExecutorService e = RuntimeExecutors.newExecutor(new ApplicationSpecificBehavior(), "test", 2);
+
+        AtomicReference<Thread> thread = new AtomicReference<>();
+
+        e.submit(() -> thread.set(Thread.currentThread())).get();
+
+        assertTrue(thread.get().getName().startsWith("events-cli test "));
+        assertTrue(thread.get().isDaemon());
+
+        e.shutdown();
+        assertTrue(e.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void nullBehavior_OwnPool() throws Exception {
+
+        ExecutorService e = RuntimeExecutors.newExecutor(null, "test", 1);
+
+        assertFalse(e instanceof RuntimeExecutors.SharedExecutor);
+
+        e.shutdown();
+    }
+
+    @Test
+    public void executorFactory() throws Exception {
+
+        ExecutorService created = Executors.newSingleThreadExecutor();
+
+        AtomicReference<String> name = new AtomicReference<>();
+
+        ExecutorFactory factory = (n, threads) -> {
+
+            name.set(n + "/" + threads);
+            return created;
+        };
+
+        //
+        // the factory takes precedence over a shared executor
+        //
+
+        ApplicationSpecificBehavior asb = new ApplicationSpecificBehavior(Executors.newCachedThreadPool(), factory);
+
+        assertSame(created, RuntimeExecutors.newExecutor(asb, "test", 3));
+        assertEquals("test/3", name.get());
+
+        created.shutdown();
+        asb.lookup(ExecutorService.class).shutdown();
+    }
+
+    @Test
+    public void resize_OwnPool() throws Exception {
+
+        ExecutorService e = RuntimeExecutors.newExecutor(null, "test", 2);
+
+        assertTrue(RuntimeExecutors.resize(e, 5));
+        assertEquals(5, ((ThreadPoolExecutor)e).getMaximumPoolSize());
+        assertEquals(5, ((ThreadPoolExecutor)e).getCorePoolSize());
+
+        assertTrue(RuntimeExecutors.resize(e, 1));
+        assertEquals(1, ((ThreadPoolExecutor)e).getMaximumPoolSize());
+        assertEquals(1, ((ThreadPoolExecutor)e).getCorePoolSize());
+
+        e.shutdown();
+    }
+
+    @Test
+    public void resize_FactorySuppliedThreadPoolExecutorIsLeftAlone() throws Exception {
+
+        ExecutorFactory factory = (n, threads) -> Executors.newFixedThreadPool(threads);
+
+        ExecutorService e = RuntimeExecutors.newExecutor(new ApplicationSpecificBehavior(factory), "test", 3);
+
+        assertTrue(e instanceof ThreadPoolExecutor);
+
+        assertFalse(RuntimeExecutors.resize(e, 7));
+        assertEquals(3, ((ThreadPoolExecutor)e).getMaximumPoolSize());
+        assertEquals(3, ((ThreadPoolExecutor)e).getCorePoolSize());
+
+        e.shutdown();
+    }
+
+    @Test
+    public void executorFactoryReturnsNull() throws Exception {
+
+        ExecutorFactory factory = (n, threads) -> null;
+
+        try {
+
+            RuntimeExecutors.newExecutor(new ApplicationSpecificBehavior(factory), "test", 1);
+            fail("should have thrown exception");
+        }
+        catch(IllegalStateException e) {
+
+            String msg = e.getMessage();
+            assertTrue(msg.contains("null test executor"));
+        }
+    }
+
+    @Test
+    public void sharedExecutor_ShutdownDoesNotAffectTheSharedExecutor() throws Exception {
+
+        ExecutorService shared = Executors.newFixedThreadPool(1);
+
+        try {
+
+            ExecutorService e = RuntimeExecutors.newExecutor(new ApplicationSpecificBehavior(shared), "test", 4);
+
+            CountDownLatch release = new CountDownLatch(1);
+
+            e.submit(() -> {
+
+                release.await();
+                return null;
+            });
+
+            e.shutdownNow();
+
+            assertTrue(e.isShutdown());
+            assertFalse(e.isTerminated());
+            assertFalse(e.awaitTermination(10, TimeUnit.MILLISECONDS));
+
+            try {
+
+                e.execute(() -> {});
+                fail("should have thrown exception");
+            }
+            catch(RejectedExecutionException ree) {
+
+                assertTrue(ree.getMessage().contains("shut down"));
+            }
+
+            release.countDown();
+
+            assertTrue(e.awaitTermination(10, TimeUnit.SECONDS));
+            assertTrue(e.isTerminated());
+
+            //
+            // the shared executor is still usable
+            //
+
+            assertFalse(shared.isShutdown());
+            assertEquals("ok", shared.submit(() -> "ok").get());
+        }
+        finally {
+
+            shared.shutdown();
+        }
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
@@ -0,0 +1,580 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import io.novaordis.utilities.UserErrorException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class RuntimeOptionsTest {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    // Tests -----------------------------------------------------------------------------------------------------------
+
+    @Test
+    public void defaults() throws Exception {
+
+        RuntimeOptions o = new RuntimeOptions();
+
+        assertFalse(o.isAsyncOutput());
+        assertEquals(BufferedOutputSink.DEFAULT_BUFFER_SIZE, o.getOutputBufferSize());
+        assertEquals(1, o.getFormatThreads());
+        assertEquals(ParallelFormattingOutput.DEFAULT_BATCH_SIZE, o.getFormatBatchSize());
+        assertEquals(1, o.getPartitions());
+        assertNull(o.getPartitionBy());
+        assertEquals(RuntimeOptions.DEFAULT_PARTITION_PREFIX, o.getPartitionPrefix());
+        assertNull(o.getCompression());
+        assertEquals(1, o.getCompressThreads());
+        assertFalse(o.isStats());
+    }
+
+    @Test
+    public void process_Partitions() throws Exception {
+
+        List<String> args = new ArrayList<>(Arrays.asList(
+                RuntimeOptions.PARTITIONS, "8", RuntimeOptions.PARTITION_BY, "request-id",
+                RuntimeOptions.PARTITION_PREFIX, "/tmp/out", RuntimeOptions.COMPRESS, "GZIP",
+                RuntimeOptions.COMPRESS_THREADS, "6"));
+
+        RuntimeOptions o = new RuntimeOptions();
+
+        o.process(args);
+
+        assertTrue(args.isEmpty());
+        assertEquals(8, o.getPartitions());
+        assertEquals("request-id", o.getPartitionBy());
+        assertEquals("/tmp/out", o.getPartitionPrefix());
+        assertEquals(RuntimeOptions.GZIP, o.getCompression());
+        assertEquals(6, o.getCompressThreads());
+    }
+
+    @Test
+    public void process_UnsupportedCompression() throws Exception {
+
+        List<String> args = new ArrayList<>(Arrays.asList(RuntimeOptions.COMPRESS, "lzma"));
+
+        try {
+
+            new RuntimeOptions().process(args);
+            fail("should have thrown exception");
+        }
+        catch(UserErrorException e) {
+
+            assertTrue(e.getMessage().contains("lzma"));
+        }
+    }
+
+    @Test
+    public void process() throws Exception {
+
+        List<String> args = new ArrayList<>(Arrays.asList(
+                "-o", "something", RuntimeOptions.ASYNC_OUTPUT, RuntimeOptions.OUTPUT_BUFFER_SIZE, "2m",
+                RuntimeOptions.FORMAT_THREADS, "4", "a:b", RuntimeOptions.FORMAT_BATCH_SIZE, "100",
+                RuntimeOptions.STATS));
+
+        RuntimeOptions o = new RuntimeOptions();
+
+        o.process(args);
+
+        assertTrue(o.isAsyncOutput());
+        assertEquals(2 * 1024 * 1024, o.getOutputBufferSize());
+        assertEquals(4, o.getFormatThreads());
+        assertEquals(100, o.getFormatBatchSize());
+        assertTrue(o.isStats());
+
+        //
+        // unrecognized arguments are left in place, in order
+        //
+
+        assertEquals(Arrays.asList("-o", "something", "a:b"), args);
+    }
+
+    @Test
+    public void process_MissingValue() throws Exception {
+
+        List<String> args = new ArrayList<>(Arrays.asList("something", RuntimeOptions.OUTPUT_BUFFER_SIZE));
+
+        try {
+
+            new RuntimeOptions().process(args);
+            fail("should have thrown exception");
+        }
+        catch(UserErrorException e) {
+
+            String msg = e.getMessage();
+            assertTrue(msg.contains("missing value"));
+            assertTrue(msg.contains(RuntimeOptions.OUTPUT_BUFFER_SIZE));
+        }
+    }
+
+    // parseSize() -----------------------------------------------------------------------------------------------------
+
+    @Test
+    public void parseSize() throws Exception {
+
+        assertEquals(10L, RuntimeOptions.parseSize("--test", "10"));
+        assertEquals(10L * 1024, RuntimeOptions.parseSize("--test", "10k"));
+        assertEquals(10L * 1024 * 1024, RuntimeOptions.parseSize("--test", "10M"));
+        assertEquals(10L * 1024 * 1024 * 1024, RuntimeOptions.parseSize("--test", "10g"));
+    }
+
+    @Test
+    public void parseSize_Invalid() throws Exception {
+
+        try {
+
+            RuntimeOptions.parseSize("--test", "blah");
+            fail("should have thrown exception");
+        }
+        catch(UserErrorException e) {
+
+            String msg = e.getMessage();
+            assertTrue(msg.contains("--test"));
+            assertTrue(msg.contains("blah"));
+        }
+
+        try {
+
+            RuntimeOptions.parseSize("--test", "0");
+            fail("should have thrown exception");
+        }
+        catch(UserErrorException e) {
+
+            assertTrue(e.getMessage().contains("positive"));
+        }
+    }
+
+    @Test
+    public void process_Daemon() throws Exception {
+
+        RuntimeOptions o = new RuntimeOptions();
+
+        assertFalse(o.isDaemon());
+        assertNull(o.getDaemonFile());
+        assertEquals(Runtime.getRuntime().availableProcessors(), o.getDaemonThreads());
+
+        List<String> args = new ArrayList<>(Arrays.asList(
+                RuntimeOptions.DAEMON, RuntimeOptions.DAEMON_FILE, "/tmp/test.daemon",
+                RuntimeOptions.DAEMON_THREADS, "3"));
+
+        o.process(args);
+
+        assertTrue(args.isEmpty());
+        assertTrue(o.isDaemon());
+        assertEquals("/tmp/test.daemon", o.getDaemonFile());
+        assertEquals(3, o.getDaemonThreads());
+    }
+
+    @Test
+    public void process_SharedScan() throws Exception {
+
+        RuntimeOptions o = new RuntimeOptions();
+
+        assertFalse(o.isSharedScan());
+
+        List<String> args = new ArrayList<>(Arrays.asList("a", RuntimeOptions.SHARED_SCAN));
+
+        o.process(args);
+
+        assertEquals(Collections.singletonList("a"), args);
+        assertTrue(o.isSharedScan());
+    }
+
+    @Test
+    public void process_PerFileThreads() throws Exception {
+
+        RuntimeOptions o = new RuntimeOptions();
+
+        assertFalse(o.isPerFileThreads());
+        assertEquals(Runtime.getRuntime().availableProcessors(), o.getParseConcurrency());
+
+        List<String> args = new ArrayList<>(
+                Arrays.asList(RuntimeOptions.PER_FILE_THREADS, RuntimeOptions.PARSE_CONCURRENCY, "3", "a"));
+
+        o.process(args);
+
+        assertEquals(Collections.singletonList("a"), args);
+        assertTrue(o.isPerFileThreads());
+        assertEquals(3, o.getParseConcurrency());
+    }
+
+    @Test
+    public void process_ParseConcurrency_Invalid() throws Exception {
+
+        try {
+
+            new RuntimeOptions().process(new ArrayList<>(Arrays.asList(RuntimeOptions.PARSE_CONCURRENCY, "0")));
+            fail("should have thrown exception");
+        }
+        catch(UserErrorException e) {
+
+            String msg = e.getMessage();
+            assertTrue(msg.contains(RuntimeOptions.PARSE_CONCURRENCY));
+        }
+    }
+
+    @Test
+    public void process_MaxInflight() throws Exception {
+
+        RuntimeOptions o = new RuntimeOptions();
+
+        assertFalse(o.isBoundedMemory());
+        assertEquals(InflightBudget.UNLIMITED, o.getMaxInflightBytes());
+        assertEquals(InflightBudget.UNLIMITED, o.getMaxInflightEvents());
+
+        List<String> args = new ArrayList<>(Arrays.asList(
+                RuntimeOptions.MAX_INFLIGHT_BYTES, "64m", "a", RuntimeOptions.MAX_INFLIGHT_EVENTS, "10k"));
+
+        o.process(args);
+
+        assertEquals(Collections.singletonList("a"), args);
+        assertTrue(o.isBoundedMemory());
+        assertEquals(64L * 1024 * 1024, o.getMaxInflightBytes());
+
+        //
+        // a count, the multiplier is decimal
+        //
+
+        assertEquals(10000L, o.getMaxInflightEvents());
+    }
+
+    @Test
+    public void process_MaxInflightEvents_Invalid() throws Exception {
+
+        try {
+
+            new RuntimeOptions().process(new ArrayList<>(Arrays.asList(RuntimeOptions.MAX_INFLIGHT_EVENTS, "-1")));
+            fail("should have thrown exception");
+        }
+        catch(UserErrorException e) {
+
+            String msg = e.getMessage();
+            assertTrue(msg.contains(RuntimeOptions.MAX_INFLIGHT_EVENTS));
+        }
+    }
+
+    @Test
+    public void process_AutoTune() throws Exception {
+
+        RuntimeOptions o = new RuntimeOptions();
+
+        assertFalse(o.isAutoTune());
+        assertEquals(Runtime.getRuntime().availableProcessors(), o.getCpuCap());
+
+        List<String> args = new ArrayList<>(Arrays.asList(RuntimeOptions.AUTO_TUNE, RuntimeOptions.CPU_CAP, "6", "a"));
+
+        o.process(args);
+
+        assertEquals(Collections.singletonList("a"), args);
+        assertTrue(o.isAutoTune());
+        assertEquals(6, o.getCpuCap());
+    }
+
+    @Test
+    public void process_Throttle() throws Exception {
+
+        RuntimeOptions o = new RuntimeOptions();
+
+        assertFalse(o.isThrottled());
+        assertEquals(Throttle.UNLIMITED, o.getMaxReadRate());
+        assertEquals(0d, o.getCpuShare(), 0d);
+
+        List<String> args = new ArrayList<>(Arrays.asList(
+                RuntimeOptions.MAX_READ_RATE, "10m", RuntimeOptions.CPU_SHARE, "0.5", "a"));
+
+        o.process(args);
+
+        assertEquals(Collections.singletonList("a"), args);
+        assertTrue(o.isThrottled());
+        assertEquals(10L * 1024 * 1024, o.getMaxReadRate());
+        assertEquals(0.5d, o.getCpuShare(), 0d);
+    }
+
+    @Test
+    public void process_CpuShare_Invalid() throws Exception {
+
+        for(String value: Arrays.asList("0", "-1", "half")) {
+
+            try {
+
+                new RuntimeOptions().process(new ArrayList<>(Arrays.asList(RuntimeOptions.CPU_SHARE, value)));
+                fail("should have thrown exception");
+            }
+            catch(UserErrorException e) {
+
+                String msg = e.getMessage();
+                assertTrue(msg.contains(RuntimeOptions.CPU_SHARE));
+                assertTrue(msg.contains(value));
+            }
+        }
+    }
+
+    @Test
+    public void process_LowLatency() throws Exception {
+
+        RuntimeOptions o = new RuntimeOptions();
+
+        assertFalse(o.isLowLatency());
+        assertEquals(RuntimeOptions.DEFAULT_LINGER_MS, o.getLingerMs());
+        assertEquals(WaitStrategy.BLOCK, o.getWaitStrategy());
+
+        List<String> args = new ArrayList<>(Arrays.asList(
+                RuntimeOptions.LOW_LATENCY, RuntimeOptions.LINGER, "0", RuntimeOptions.WAIT_STRATEGY, "Spin", "a"));
+
+        o.process(args);
+
+        assertEquals(Collections.singletonList("a"), args);
+        assertTrue(o.isLowLatency());
+        assertEquals(0, o.getLingerMs());
+        assertEquals(WaitStrategy.SPIN, o.getWaitStrategy());
+    }
+
+    @Test
+    public void process_LowLatency_InvalidValues() throws Exception {
+
+        for(List<String> args: Arrays.asList(
+                Arrays.asList(RuntimeOptions.LINGER, "-1"),
+                Arrays.asList(RuntimeOptions.LINGER, "soon"),
+                Arrays.asList(RuntimeOptions.WAIT_STRATEGY, "sleep"))) {
+
+            try {
+
+                new RuntimeOptions().process(new ArrayList<>(args));
+                fail("should have thrown exception");
+            }
+            catch(UserErrorException e) {
+
+                String msg = e.getMessage();
+                assertTrue(msg.contains(args.get(0)));
+                assertTrue(msg.contains(args.get(1)));
+            }
+        }
+    }
+
+    @Test
+    public void process_LatencyOptionsRequireLowLatency() throws Exception {
+
+        for(List<String> args: Arrays.asList(
+                Arrays.asList(RuntimeOptions.LINGER, "10"),
+                Arrays.asList(RuntimeOptions.WAIT_STRATEGY, "park"))) {
+
+            try {
+
+                new RuntimeOptions().process(new ArrayList<>(args));
+                fail("should have thrown exception");
+            }
+            catch(UserErrorException e) {
+
+                String msg = e.getMessage();
+                assertTrue(msg.contains(args.get(0)));
+                assertTrue(msg.contains(RuntimeOptions.LOW_LATENCY));
+            }
+        }
+    }
+
+    @Test
+    public void process_BusyWaitingCannotBeCombinedWithPartitions() throws Exception {
+
+        try {
+
+            new RuntimeOptions().process(new ArrayList<>(Arrays.asList(
+                    RuntimeOptions.LOW_LATENCY, RuntimeOptions.WAIT_STRATEGY, "spin",
+                    RuntimeOptions.PARTITIONS, "16")));
+            fail("should have thrown exception");
+        }
+        catch(UserErrorException e) {
+
+            String msg = e.getMessage();
+            assertTrue(msg.contains(RuntimeOptions.WAIT_STRATEGY));
+            assertTrue(msg.contains(RuntimeOptions.PARTITIONS));
+        }
+
+        //
+        // blocking writers are fine
+        //
+
+        RuntimeOptions o = new RuntimeOptions();
+
+        o.process(new ArrayList<>(Arrays.asList(
+                RuntimeOptions.LOW_LATENCY, RuntimeOptions.WAIT_STRATEGY, "block", RuntimeOptions.PARTITIONS, "16")));
+
+        assertEquals(16, o.getPartitions());
+    }
+
+    @Test
+    public void process_MaxThreads() throws Exception {
+
+        RuntimeOptions o = new RuntimeOptions();
+
+        List<String> args = new ArrayList<>(Arrays.asList(
+                RuntimeOptions.FORMAT_THREADS, "8", RuntimeOptions.COMPRESS, "gzip",
+                RuntimeOptions.COMPRESS_THREADS, "4", RuntimeOptions.PER_FILE_THREADS,
+                RuntimeOptions.PARSE_CONCURRENCY, "1", RuntimeOptions.CPU_CAP, "16", RuntimeOptions.MAX_THREADS, "8"));
+
+        o.process(args);
+
+        assertTrue(args.isEmpty());
+        assertEquals(8, o.getMaxThreads());
+        assertEquals(8, o.getCpuCap());
+
+        //
+        // the readers that only read ahead go first, then the largest stage is reduced, and no stage goes below one
+        // thread; the output and formatted output writers take two of the eight threads
+        //
+
+        assertEquals(1, o.getFileReaderThreads());
+        assertEquals(2, o.getFormatThreads());
+        assertEquals(3, o.getCompressThreads());
+        assertEquals(1, o.getParseConcurrency());
+    }
+
+    @Test
+    public void process_MaxThreads_FileReaders() throws Exception {
+
+        RuntimeOptions o = new RuntimeOptions();
+
+        o.process(new ArrayList<>(Arrays.asList(
+                RuntimeOptions.PER_FILE_THREADS, RuntimeOptions.PARSE_CONCURRENCY, "2")));
+
+        assertEquals(2 * FileThreads.PLATFORM_THREADS_PER_PARSE_PERMIT, o.getFileReaderThreads());
+
+        o = new RuntimeOptions();
+
+        o.process(new ArrayList<>(Arrays.asList(
+                RuntimeOptions.PER_FILE_THREADS, RuntimeOptions.PARSE_CONCURRENCY, "2",
+                RuntimeOptions.MAX_THREADS, "3")));
+
+        assertEquals(3, o.getFileReaderThreads());
+        assertEquals(2, o.getParseConcurrency());
+
+        o = new RuntimeOptions();
+
+        o.process(new ArrayList<>(Arrays.asList(
+                RuntimeOptions.PER_FILE_THREADS, RuntimeOptions.PARSE_CONCURRENCY, "2",
+                RuntimeOptions.MAX_THREADS, "1")));
+
+        assertEquals(1, o.getFileReaderThreads());
+        assertEquals(1, o.getParseConcurrency());
+    }
+
+    @Test
+    public void process_MaxThreads_WriterThreadsAreCounted() throws Exception {
+
+        RuntimeOptions o = new RuntimeOptions();
+
+        o.process(new ArrayList<>(Arrays.asList(
+                RuntimeOptions.ASYNC_OUTPUT, RuntimeOptions.REJECTS, "rejects.log", RuntimeOptions.PER_FILE_THREADS,
+                RuntimeOptions.PARSE_CONCURRENCY, "4", RuntimeOptions.MAX_THREADS, "4")));
+
+        //
+        // the output writer and the rejects writer leave two threads to the readers
+        //
+
+        assertEquals(2, o.getFileReaderThreads());
+        assertEquals(2, o.getParseConcurrency());
+    }
+
+    @Test
+    public void process_MaxThreads_PartitionWritersDoNotFit() throws Exception {
+
+        RuntimeOptions o = new RuntimeOptions();
+
+        o.process(new ArrayList<>(Arrays.asList(RuntimeOptions.PARTITIONS, "4", RuntimeOptions.MAX_THREADS, "4")));
+
+        assertEquals(4, o.getPartitions());
+
+        try {
+
+            new RuntimeOptions().process(new ArrayList<>(Arrays.asList(
+                    RuntimeOptions.PARTITIONS, "4", RuntimeOptions.REJECTS, "rejects.log",
+                    RuntimeOptions.MAX_THREADS, "4")));
+            fail("should have thrown exception");
+        }
+        catch(UserErrorException e) {
+
+            String msg = e.getMessage();
+            assertTrue(msg.contains(RuntimeOptions.MAX_THREADS + " 4"));
+            assertTrue(msg.contains("5"));
+        }
+    }
+
+    @Test
+    public void process_MaxThreads_AutoTune() throws Exception {
+
+        RuntimeOptions o = new RuntimeOptions();
+
+        o.process(new ArrayList<>(Arrays.asList(
+                RuntimeOptions.AUTO_TUNE, RuntimeOptions.CPU_CAP, "8", RuntimeOptions.MAX_THREADS, "6")));
+
+        //
+        // the formatter pool the tuner grows within the CPU cap, and its writer
+        //
+
+        assertEquals(5, o.getCpuCap());
+    }
+
+    @Test
+    public void process_MaxThreads_StagesNotInUseAreNotCounted() throws Exception {
+
+        RuntimeOptions o = new RuntimeOptions();
+
+        o.process(new ArrayList<>(Arrays.asList(
+                RuntimeOptions.FORMAT_THREADS, "4", RuntimeOptions.COMPRESS_THREADS, "4",
+                RuntimeOptions.PARSE_CONCURRENCY, "4", RuntimeOptions.MAX_THREADS, "5")));
+
+        //
+        // the formatter pool and its writer fit, compression and per-file reading are not enabled
+        //
+
+        assertEquals(4, o.getFormatThreads());
+        assertEquals(4, o.getCompressThreads());
+        assertEquals(4, o.getParseConcurrency());
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
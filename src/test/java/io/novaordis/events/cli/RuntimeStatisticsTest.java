@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class RuntimeStatisticsTest {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    // Tests -----------------------------------------------------------------------------------------------------------
+
+    @Test
+    public void endToEndLatency() throws Exception {
+
+        RuntimeStatistics s = new RuntimeStatistics();
+
+        s.lineRead(100L);
+        s.lineRead(200L);
+        s.outputFlushed(1000L);
+
+        LatencyHistogram h = s.getEndToEndLatency();
+
+        assertEquals(2L, h.getCount());
+        assertEquals(800L, h.getMin());
+        assertEquals(900L, h.getMax());
+
+        //
+        // the lines that were flushed are not recorded again
+        //
+
+        s.outputFlushed(2000L);
+
+        assertEquals(2L, h.getCount());
+    }
+
+    @Test
+    public void endToEndLatency_ReadTimesAreSampled() throws Exception {
+
+        RuntimeStatistics s = new RuntimeStatistics();
+
+        //
+        // more lines than samples: the samples are merged, and each one stands for several lines
+        //
+
+        int lines = 3 * RuntimeStatistics.MAX_PENDING_SAMPLES + 1;
+
+        for(int i = 0; i < lines; i ++) {
+
+            s.lineRead(i);
+        }
+
+        s.outputFlushed(lines);
+
+        LatencyHistogram h = s.getEndToEndLatency();
+
+        assertEquals(lines, h.getCount());
+        assertEquals(lines, h.getMax());
+        assertTrue(h.getMin() <= 4L);
+
+        //
+        // within the sampling resolution, the latencies are uniformly distributed
+        //
+
+        assertEquals(lines / 2d, h.getMean(), 4d);
+    }
+
+    @Test
+    public void report_EndToEndLatencyIsOnlyReportedIfMeasured() throws Exception {
+
+        RuntimeStatistics s = new RuntimeStatistics();
+
+        s.start();
+        s.stop();
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        s.report(new PrintStream(baos, true), 0L, 0L, 0L, 0L, 0L);
+        assertFalse(new String(baos.toByteArray()).contains("end-to-end"));
+
+        s.lineRead(System.nanoTime());
+        s.outputFlushed(System.nanoTime());
+
+        baos = new ByteArrayOutputStream();
+        s.report(new PrintStream(baos, true), 1L, 1L, 1L, 0L, 0L);
+        assertTrue(new String(baos.toByteArray()).contains("latency end-to-end:"));
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
@@ -0,0 +1,327 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.novaordis.events.api.event.Event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class SharedScanTest {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    private File file;
+    private SharedScanRegistry registry;
+    private AtomicInteger parsers;
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    @Before
+    public void setUp() throws Exception {
+
+        file = File.createTempFile("events-cli-shared-scan-test", ".log");
+        registry = new SharedScanRegistry();
+        parsers = new AtomicInteger(0);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+
+        registry.close();
+        assertTrue(file.delete());
+    }
+
+    // Tests -----------------------------------------------------------------------------------------------------------
+
+    @Test
+    public void singleSubscription() throws Exception {
+
+        int lines = 3 * SharedScan.CHUNK_LINES + 10;
+        write(lines);
+
+        SharedScan.Subscription s = subscribe();
+
+        List<String> payloads = consume(s);
+
+        assertEquals(lines, payloads.size());
+
+        for(int i = 0; i < lines; i ++) {
+
+            assertEquals("line-" + (i + 1), payloads.get(i));
+        }
+
+        //
+        // a subscription that attached at the beginning of the file does not need a second pass
+        //
+
+        waitForScanCount(0);
+        assertEquals(1, parsers.get());
+    }
+
+    @Test
+    public void secondSubscriptionJoinsInProgressScan() throws Exception {
+
+        int lines = 4 * SharedScan.QUEUE_CAPACITY * SharedScan.CHUNK_LINES;
+        write(lines);
+
+        SharedScan.Subscription first = subscribe();
+
+        //
+        // the first subscription is not consumed, so the scan stops when the subscription's queue fills up
+        //
+
+        assertNotNull(first.next());
+
+        Thread.sleep(200L);
+
+        SharedScan.Subscription second = subscribe();
+
+        assertSame(first.getScan(), second.getScan());
+        assertEquals(1, registry.getScanCount());
+
+        List<String> secondPayloads = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+
+        Thread t = new Thread(() -> {
+
+            try {
+
+                secondPayloads.addAll(consume(second));
+            }
+            catch(Throwable e) {
+
+                failures.add(e);
+            }
+        });
+
+        t.start();
+
+        List<String> firstPayloads = consume(first);
+
+        t.join();
+
+        assertTrue(failures.isEmpty());
+
+        //
+        // the first subscription got the first chunk before the loop
+        //
+
+        assertEquals(lines - SharedScan.CHUNK_LINES, firstPayloads.size());
+        assertEquals("line-" + (SharedScan.CHUNK_LINES + 1), firstPayloads.get(0));
+
+        //
+        // the second subscription attached in the middle of the file, and wrapped around
+        //
+
+        assertEquals(lines, secondPayloads.size());
+        assertEquals(lines, new HashSet<>(secondPayloads).size());
+        assertNotEquals("line-1", secondPayloads.get(0));
+        assertEquals("line-" + lines, secondPayloads.get(secondPayloads.indexOf("line-1") - 1));
+
+        waitForScanCount(0);
+        assertEquals(2, parsers.get());
+    }
+
+    @Test
+    public void cancel() throws Exception {
+
+        write(4 * SharedScan.QUEUE_CAPACITY * SharedScan.CHUNK_LINES);
+
+        SharedScan.Subscription s = subscribe();
+
+        assertNotNull(s.next());
+
+        s.cancel();
+
+        assertNull(s.next());
+
+        waitForScanCount(0);
+    }
+
+    @Test
+    public void parsingFailures() throws Exception {
+
+        write(10);
+
+        SharedScan.Subscription s = registry.subscribe(file, "mock", () -> {
+
+            MockParser p = new MockParser();
+            p.setFailWhenParsing(true);
+            return p;
+        });
+
+        SharedScan.Batch b = s.next();
+
+        assertNotNull(b);
+        assertTrue(b.getEvents().isEmpty());
+        assertEquals(10, b.getLines());
+        assertEquals(10, b.getParsingFailures());
+        assertEquals(1L, b.getFirstLine());
+        assertEquals(10L, b.getLastLine());
+    }
+
+    @Test
+    public void binaryEventStreamIsNotShared() throws Exception {
+
+        try(OutputStream os = new FileOutputStream(file)) {
+
+            os.write(BinaryEventWriter.MAGIC);
+        }
+
+        assertNull(subscribe());
+        assertEquals(0, registry.getScanCount());
+    }
+
+    @Test
+    public void modifiedFileGetsNewScan() throws Exception {
+
+        int lines = 4 * SharedScan.QUEUE_CAPACITY * SharedScan.CHUNK_LINES;
+        write(lines);
+
+        //
+        // the first subscription is not consumed, so its scan stays in progress
+        //
+
+        SharedScan.Subscription first = subscribe();
+
+        write(lines + 10);
+
+        SharedScan.Subscription second = subscribe();
+
+        assertNotEquals(first.getScan(), second.getScan());
+        assertEquals(2, registry.getScanCount());
+
+        first.cancel();
+
+        assertEquals(lines + 10, consume(second).size());
+    }
+
+    @Test
+    public void differentParserIdentityGetsNewScan() throws Exception {
+
+        write(4 * SharedScan.QUEUE_CAPACITY * SharedScan.CHUNK_LINES);
+
+        //
+        // the first subscription is not consumed, so its scan stays in progress
+        //
+
+        SharedScan.Subscription first = subscribe();
+
+        SharedScan.Subscription second = registry.subscribe(file, "other", MockParser::new);
+
+        assertNotEquals(first.getScan(), second.getScan());
+        assertEquals(2, registry.getScanCount());
+
+        first.cancel();
+        second.cancel();
+
+        waitForScanCount(0);
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    private void write(int lines) throws IOException {
+
+        StringBuilder sb = new StringBuilder();
+
+        for(int i = 1; i <= lines; i ++) {
+
+            sb.append("line-").append(i).append('\n');
+        }
+
+        //
+        // replace the file instead of truncating it, the scans in progress keep reading the previous content
+        //
+
+        File tmp = new File(file.getPath() + ".tmp");
+        Files.write(tmp.toPath(), sb.toString().getBytes());
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private SharedScan.Subscription subscribe() throws IOException {
+
+        return registry.subscribe(file, "mock", () -> {
+
+            parsers.incrementAndGet();
+            return new MockParser();
+        });
+    }
+
+    private static List<String> consume(SharedScan.Subscription s) throws IOException {
+
+        List<String> payloads = new ArrayList<>();
+
+        SharedScan.Batch b;
+
+        while((b = s.next()) != null) {
+
+            for(Event e: b.getEvents()) {
+
+                payloads.add(e.getStringProperty(MockParser.PAYLOAD_PROPERTY_NAME).getString());
+            }
+        }
+
+        return payloads;
+    }
+
+    private void waitForScanCount(int expected) throws InterruptedException {
+
+        for(int i = 0; i < 100 && registry.getScanCount() != expected; i ++) {
+
+            Thread.sleep(50L);
+        }
+
+        assertEquals(expected, registry.getScanCount());
+    }
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
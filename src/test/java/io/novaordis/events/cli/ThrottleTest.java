@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class ThrottleTest {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    // Tests -----------------------------------------------------------------------------------------------------------
+
+    @Test
+    public void constructor_InvalidLimits() throws Exception {
+
+        try {
+
+            new Throttle(0L, 0d);
+            fail("should have thrown exception");
+        }
+        catch(IllegalArgumentException e) {
+
+            // expected
+        }
+
+        try {
+
+            new Throttle(Throttle.UNLIMITED, -1d);
+            fail("should have thrown exception");
+        }
+        catch(IllegalArgumentException e) {
+
+            // expected
+        }
+    }
+
+    @Test
+    public void tokenBucket_Reserve() throws Exception {
+
+        //
+        // 1000 tokens per second, 100 ms worth of burst
+        //
+
+        Throttle.TokenBucket b = new Throttle.TokenBucket(1000d);
+
+        long t0 = System.nanoTime();
+
+        assertEquals(0L, b.reserve(100L, t0));
+
+        //
+        // in debt: the caller waits for the bucket to get back to zero
+        //
+
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(50L), b.reserve(50L, t0));
+
+        //
+        // the next caller waits for the debt of the previous one, too
+        //
+
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(60L), b.reserve(10L, t0));
+
+        //
+        // the debt is paid off in time
+        //
+
+        assertEquals(0L, b.reserve(10L, t0 + TimeUnit.MILLISECONDS.toNanos(70L)));
+    }
+
+    @Test
+    public void tokenBucket_IdleTimeDoesNotAccumulatePastTheBurst() throws Exception {
+
+        Throttle.TokenBucket b = new Throttle.TokenBucket(1000d);
+
+        long t0 = System.nanoTime() + TimeUnit.SECONDS.toNanos(10L);
+
+        assertEquals(0L, b.reserve(100L, t0));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1L), b.reserve(1L, t0));
+    }
+
+    @Test
+    public void read_Unlimited() throws Exception {
+
+        Throttle t = new Throttle(Throttle.UNLIMITED, 1d);
+
+        t.read(Long.MAX_VALUE / 2);
+
+        assertEquals(0L, t.getReadThrottledTimeNanos());
+    }
+
+    @Test
+    public void throttledInputStream() throws Exception {
+
+        //
+        // 10 KB/s: the first KB is within the burst, the other 2 KB take ~200 ms
+        //
+
+        Throttle t = new Throttle(10L * 1024, 0d);
+
+        InputStream is = new ThrottledInputStream(new ByteArrayInputStream(new byte[3 * 1024]), t);
+
+        byte[] buffer = new byte[512];
+
+        long t0 = System.nanoTime();
+
+        int total = 0;
+        int n;
+
+        while((n = is.read(buffer)) != -1) {
+
+            total += n;
+        }
+
+        long elapsed = System.nanoTime() - t0;
+
+        assertEquals(3 * 1024, total);
+        assertTrue(elapsed >= TimeUnit.MILLISECONDS.toNanos(150L));
+        assertTrue(t.getReadThrottledTimeNanos() >= TimeUnit.MILLISECONDS.toNanos(150L));
+        assertEquals(0L, t.getCpuThrottledTimeNanos());
+    }
+
+    @Test
+    public void pace() throws Exception {
+
+        ThreadMXBean mxBean = ManagementFactory.getThreadMXBean();
+
+        if (!mxBean.isCurrentThreadCpuTimeSupported()) {
+
+            //
+            // the test measures the CPU time it uses
+            //
+
+            return;
+        }
+
+        //
+        // a quarter of a processor: a thread that keeps busy for 200 ms of CPU time, minus the 25 ms burst, must take
+        // ~700 ms, so it sleeps ~500 ms
+        //
+
+        Throttle t = new Throttle(Throttle.UNLIMITED, 0.25d);
+
+        t.pace();
+
+        long cpu0 = mxBean.getCurrentThreadCpuTime();
+
+        long sink = 0L;
+
+        while(mxBean.getCurrentThreadCpuTime() - cpu0 < TimeUnit.MILLISECONDS.toNanos(200L)) {
+
+            for(int i = 0; i < 10000; i ++) {
+
+                sink += i * 31L;
+            }
+
+            t.pace();
+        }
+
+        assertTrue(sink != 0L);
+        assertTrue(t.getCpuThrottledTimeNanos() >= TimeUnit.MILLISECONDS.toNanos(300L));
+        assertEquals(0L, t.getReadThrottledTimeNanos());
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}
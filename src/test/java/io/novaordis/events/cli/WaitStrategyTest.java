@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2026 Nova Ordis LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.novaordis.events.cli;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Ovidiu Feodorov <ovidiu@novaordis.com>
+ * @since 10/19/26
+ */
+public class WaitStrategyTest {
+
+    // Constants -------------------------------------------------------------------------------------------------------
+
+    // Static ----------------------------------------------------------------------------------------------------------
+
+    // Attributes ------------------------------------------------------------------------------------------------------
+
+    // Constructors ----------------------------------------------------------------------------------------------------
+
+    // Public ----------------------------------------------------------------------------------------------------------
+
+    // Tests -----------------------------------------------------------------------------------------------------------
+
+    @Test
+    public void fromString() throws Exception {
+
+        assertEquals(WaitStrategy.BLOCK, WaitStrategy.fromString("block"));
+        assertEquals(WaitStrategy.PARK, WaitStrategy.fromString(" PARK "));
+        assertEquals(WaitStrategy.SPIN, WaitStrategy.fromString("Spin"));
+        assertNull(WaitStrategy.fromString("sleep"));
+    }
+
+    @Test
+    public void take() throws Exception {
+
+        for(WaitStrategy w: WaitStrategy.values()) {
+
+            BlockingQueue<String> queue = new ArrayBlockingQueue<>(1);
+            AtomicReference<String> taken = new AtomicReference<>();
+            CountDownLatch done = new CountDownLatch(1);
+
+            Thread consumer = new Thread(() -> {
+
+                try {
+
+                    taken.set(w.take(queue));
+                }
+                catch(InterruptedException e) {
+
+                    // the assertion below fails
+                }
+
+                done.countDown();
+            });
+
+            consumer.start();
+
+            queue.put("item");
+
+            assertTrue(w + " did not take the item", done.await(5L, TimeUnit.SECONDS));
+            assertEquals("item", taken.get());
+        }
+    }
+
+    @Test
+    public void take_Interrupted() throws Exception {
+
+        for(WaitStrategy w: WaitStrategy.values()) {
+
+            BlockingQueue<String> queue = new ArrayBlockingQueue<>(1);
+            AtomicReference<Throwable> thrown = new AtomicReference<>();
+
+            Thread consumer = new Thread(() -> {
+
+                try {
+
+                    w.take(queue);
+                }
+                catch(Throwable t) {
+
+                    thrown.set(t);
+                }
+            });
+
+            consumer.start();
+            consumer.interrupt();
+            consumer.join(5000L);
+
+            assertTrue(w + " was not interrupted", thrown.get() instanceof InterruptedException);
+        }
+    }
+
+    // Package protected -----------------------------------------------------------------------------------------------
+
+    // Protected -------------------------------------------------------------------------------------------------------
+
+    // Private ---------------------------------------------------------------------------------------------------------
+
+    // Inner classes ---------------------------------------------------------------------------------------------------
+
+}